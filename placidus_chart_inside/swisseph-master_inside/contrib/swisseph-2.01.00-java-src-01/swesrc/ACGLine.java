@@ -0,0 +1,230 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* One astro-cartography line as calculated by AstroCartography: the
+* places on earth, where a planet is on the MC, the IC, the ascendant or
+* the descendant at a given point of time.<p>
+* The line is given as a polyline of geographic positions from south to
+* north. The longitudes are normalized to -180 to +180 degrees, so two
+* consecutive points may be 360 degrees apart, where the line crosses
+* the date line.
+* @see AstroCartography
+*/
+public class ACGLine
+#ifndef JAVAME
+		implements java.io.Serializable
+#endif /* JAVAME */
+		{
+
+  /**
+  * The line, where the planet culminates (upper meridian).
+  */
+  public static final int MC = 0;
+  /**
+  * The line, where the planet is on the lower meridian.
+  */
+  public static final int IC = 1;
+  /**
+  * The line, where the planet rises.
+  */
+  public static final int ASC = 2;
+  /**
+  * The line, where the planet sets.
+  */
+  public static final int DSC = 3;
+
+  private static final String[] KIND_NAMES = { "MC", "IC", "ASC", "DSC" };
+
+  // Smallest latitude interval to be split by calc():
+  private static final double MIN_LAT_STEP = 1e-7;
+
+  private int planet;
+  private int kind;
+  private double ra;
+  private double decl;
+  private double gst;
+  // The latitude range of the line:
+  private double latMin, latMax;
+  private double[] lats;
+  private double[] lons;
+
+  ACGLine(int planet, int kind, double ra, double decl, double gst,
+          double maxLat) {
+    this.planet = planet;
+    this.kind = kind;
+    this.ra = ra;
+    this.decl = decl;
+    this.gst = gst;
+    latMax = maxLat;
+    if (kind == ASC || kind == DSC) {
+      // The planet is circumpolar beyond 90 degrees minus its declination:
+      latMax = SMath.min(maxLat, 90. - SMath.abs(decl));
+    }
+    latMin = -latMax;
+  }
+
+  /**
+  * Returns the planet of this line.
+  * @return The planet number
+  */
+  public int getPlanet() {
+    return planet;
+  }
+
+  /**
+  * Returns the kind of this line.
+  * @return ACGLine.MC, ACGLine.IC, ACGLine.ASC or ACGLine.DSC
+  */
+  public int getKind() {
+    return kind;
+  }
+
+  /**
+  * Returns the right ascension of the planet, from which the line has
+  * been calculated.
+  * @return The right ascension in degrees
+  */
+  public double getRightAscension() {
+    return ra;
+  }
+
+  /**
+  * Returns the declination of the planet, from which the line has been
+  * calculated.
+  * @return The declination in degrees
+  */
+  public double getDeclination() {
+    return decl;
+  }
+
+  /**
+  * Returns the geographic latitudes of the points of the line from south
+  * to north.
+  * @return The latitudes in degrees
+  */
+  public double[] getLatitudes() {
+    return lats;
+  }
+
+  /**
+  * Returns the geographic longitudes of the points of the line, eastern
+  * longitudes positive.
+  * @return The longitudes in degrees from -180 to +180
+  */
+  public double[] getLongitudes() {
+    return lons;
+  }
+
+  public String toString() {
+    return "[Planet:" + planet + "];Line:" + KIND_NAMES[kind] +
+           ";Points:" + (lats == null ? 0 : lats.length);
+  }
+
+
+  double getMinLatitude() {
+    return latMin;
+  }
+
+  double getMaxLatitude() {
+    return latMax;
+  }
+
+  double getSiderealTime() {
+    return gst;
+  }
+
+  /**
+  * Returns the longitude of the line at a latitude within the range of
+  * the line, unnormalized.
+  */
+  double longitude(double lat) {
+    switch (kind) {
+      case MC: return ra - gst;
+      case IC: return ra + 180. - gst;
+    }
+    // Hour angle of the planet on the horizon: cos(H) = -tan(lat) tan(decl)
+    double x = -SMath.tan(lat * SwissData.DEGTORAD) *
+               SMath.tan(decl * SwissData.DEGTORAD);
+    if (x > 1.) { x = 1.; }
+    if (x < -1.) { x = -1.; }
+    double h = SMath.acos(x) * SwissData.RADTODEG;
+    // Rising in the east, i.e. at a negative hour angle:
+    return ra - gst + (kind == ASC ? -h : h);
+  }
+
+  /**
+  * Calculates the points of the line, so that neither the latitudes nor
+  * the longitudes of two consecutive points differ by more than step
+  * degrees. Near the northern and southern end of the ascendant and
+  * descendant lines, the longitude changes fast, so the latitudes are
+  * denser there.
+  */
+  void calc(double step) {
+    double[] la = new double[64];
+    double[] lo = new double[64];
+    int n = 0;
+    // The range is split into equal intervals of at most step degrees of
+    // latitude, which are split in halves recursively, where the
+    // longitude changes too fast. The stack keeps the upper ends of the
+    // remaining intervals:
+    int m = (int)SMath.ceil((latMax - latMin) / step);
+    if (m < 1) { m = 1; }
+    double[] stack = new double[m + 64];
+    int sp = 0;
+    for (int i = m; i > 0; i--) {
+      stack[sp++] = (i == m ? latMax : latMin + (latMax - latMin) * i / m);
+    }
+    double lat1 = latMin;
+    double lon1 = longitude(lat1);
+    la[n] = lat1;
+    lo[n++] = lon1;
+    while (sp > 0) {
+      double lat2 = stack[sp - 1];
+      double lon2 = longitude(lat2);
+      if (SMath.abs(lon2 - lon1) > step && lat2 - lat1 > MIN_LAT_STEP &&
+          sp < stack.length) {
+        stack[sp++] = (lat1 + lat2) / 2.;
+        continue;
+      }
+      sp--;
+      if (n == la.length) {
+        double[] tmp = new double[2 * n];
+        System.arraycopy(la, 0, tmp, 0, n);
+        la = tmp;
+        tmp = new double[2 * n];
+        System.arraycopy(lo, 0, tmp, 0, n);
+        lo = tmp;
+      }
+      la[n] = lat2;
+      lo[n++] = lon2;
+      lat1 = lat2;
+      lon1 = lon2;
+    }
+    lats = new double[n];
+    lons = new double[n];
+    System.arraycopy(la, 0, lats, 0, n);
+    for (int i = 0; i < n; i++) {
+      lons[i] = normalize(lo[i]);
+    }
+  }
+
+  static double normalize(double lon) {
+    lon %= 360.;
+    if (lon >= 180.) { lon -= 360.; }
+    if (lon < -180.) { lon += 360.; }
+    return lon;
+  }
+}
+#endif /* ASTROLOGY */
@@ -0,0 +1,79 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* The crossing of two astro-cartography lines of different planets as
+* calculated by AstroCartography: the place on earth, where both planets
+* are on an angle at the same time, e.g. one planet rises while the other
+* one culminates. The latitude of the crossing is the latitude of the
+* paran of the two planets.
+* @see AstroCartography
+* @see ACGLine
+*/
+public class ACGParan
+#ifndef JAVAME
+		implements java.io.Serializable
+#endif /* JAVAME */
+		{
+  private ACGLine line1;
+  private ACGLine line2;
+  private double lat;
+  private double lon;
+
+  ACGParan(ACGLine line1, ACGLine line2, double lat, double lon) {
+    this.line1 = line1;
+    this.line2 = line2;
+    this.lat = lat;
+    this.lon = lon;
+  }
+
+  /**
+  * Returns the first of the crossing lines. It is the line, which comes
+  * first in the list of lines given to AstroCartography.getParans().
+  * @return The first line
+  */
+  public ACGLine getLine1() {
+    return line1;
+  }
+
+  /**
+  * Returns the second of the crossing lines.
+  * @return The second line
+  */
+  public ACGLine getLine2() {
+    return line2;
+  }
+
+  /**
+  * Returns the geographic latitude of the crossing.
+  * @return The latitude in degrees
+  */
+  public double getLatitude() {
+    return lat;
+  }
+
+  /**
+  * Returns the geographic longitude of the crossing, eastern longitudes
+  * positive.
+  * @return The longitude in degrees from -180 to +180
+  */
+  public double getLongitude() {
+    return lon;
+  }
+
+  public String toString() {
+    return line1 + "/" + line2 + ";Latitude:" + lat + ";Longitude:" + lon;
+  }
+}
+#endif /* ASTROLOGY */
@@ -0,0 +1,90 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef TRANSITS
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* One exact aspect between two planets as found by the AspectScanner.
+* @see AspectScanner
+*/
+public class AspectEvent
+#ifndef JAVAME
+		implements java.io.Serializable
+#endif /* JAVAME */
+		{
+  private double jd;
+  private int planet1;
+  private int planet2;
+  private double aspect;
+  private double speed;
+
+  AspectEvent(double jd, int planet1, int planet2, double aspect,
+              double speed) {
+    this.jd = jd;
+    this.planet1 = planet1;
+    this.planet2 = planet2;
+    this.aspect = aspect;
+    this.speed = speed;
+  }
+
+  /**
+  * Returns the date of the exact aspect. It is ET or UT depending on the
+  * SwissEph method, which has created the AspectScanner.
+  * @return The date as a julian day number
+  */
+  public double getDate() {
+    return jd;
+  }
+
+  /**
+  * Returns the first planet of the aspect. This is the planet which
+  * comes first in the list of planets given to the AspectScanner.
+  * @return The planet number
+  */
+  public int getPlanet1() {
+    return planet1;
+  }
+
+  /**
+  * Returns the second planet of the aspect.
+  * @return The planet number
+  */
+  public int getPlanet2() {
+    return planet2;
+  }
+
+  /**
+  * Returns the aspect angle as given to the AspectScanner, e.g. 90.0
+  * for a square. The difference of the longitudes of the first and the
+  * second planet is either this angle or 360 degrees minus this angle.
+  * @return The aspect angle in degrees
+  */
+  public double getAspect() {
+    return aspect;
+  }
+
+  /**
+  * Returns the speed of the difference of the longitudes of the first
+  * and the second planet at the time of the exact aspect.
+  * @return The speed in degrees per day
+  */
+  public double getSpeed() {
+    return speed;
+  }
+
+  void setDate(double jd) {
+    this.jd = jd;
+  }
+
+  public String toString() {
+    return "[Planets:" + planet1 + "/" + planet2 + "];Aspect:" + aspect +
+           ";Date:" + jd;
+  }
+}
+#endif /* TRANSITS */
@@ -0,0 +1,402 @@
+#ifdef TEST_ITERATIONS
+#define TRANSITS
+#endif /* TEST_ITERATIONS */
+#ifdef EXTPRECISION
+#define TRANSITS
+#endif /* EXTPRECISION */
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef TRANSITS
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class enumerates all exact aspects between all pairs of a list of
+* planets in a range of time in one sweep.<p>
+* Searching the same with TCPlanetPlanet needs one TransitCalculator
+* for each pair of planets and each aspect, each of them calculating
+* the same planetary positions again. This class calculates each planet
+* once per time step and checks the differences of all pairs of planets
+* against all aspects. Only the aspects, which have been passed within a
+* time step, are calculated more exactly.<p>
+* You get an instance from the SwissEph.getAspectsET() or
+* SwissEph.getAspectsUT() methods, e.g.:<p>
+* <pre>
+* SwissEph sw = new SwissEph(...);
+* int[] planets = new int[] { SweConst.SE_SUN, SweConst.SE_MOON,
+*                             SweConst.SE_MERCURY, SweConst.SE_VENUS };
+* double[] aspects = new double[] { 0, 60, 90, 120, 180 };
+* AspectScanner as = sw.getAspectsUT(planets, aspects,
+*     SweConst.SEFLG_SWIEPH, jdStart, jdEnd);
+* while (as.hasNext()) {
+*   AspectEvent ev = as.nextAspect();
+*   ...
+* }
+* </pre>
+* The aspects are returned in the order of time. The result is the same
+* as with TCPlanetPlanet transits over the aspect angle and over 360
+* degrees minus the aspect angle for each pair of planets.<p>
+* The SwissEph object must not be used for other calculations while the
+* enumeration is in progress.
+* @see SwissEph#getAspectsET(int[], double[], int, double, double)
+* @see SwissEph#getAspectsUT(int[], double[], int, double, double)
+* @see AspectEvent
+*/
+public class AspectScanner
+		implements java.util.Enumeration
+#ifndef JAVAME
+		, java.io.Serializable
+#endif /* JAVAME */
+		{
+
+  /**
+  * The default precision of the dates of the aspects in days.
+  */
+  public static final double DEFAULT_PRECISION = 1e-6;
+
+  private SwissEph sw;
+  private SwissData swed;
+  private SwissLib sl;
+  private int dateConv;
+  private int[] planets;
+  private int flags;
+  private double[] aspects;
+  // The differences of the longitudes to check for, and the index of the
+  // corresponding aspect angle:
+  private double[] targets;
+  private int[] targetAspect;
+  // Maximum speed and acceleration of the difference of longitudes per
+  // pair of planets i < j at index i * planets.length + j:
+  private double[] pairSpeed;
+  private double[] pairAccel;
+
+  private double step;
+  private double prec = DEFAULT_PRECISION;
+  private double jd;
+  private double jdEnd;
+
+  // The longitudes and speeds of the planets calculated for the current
+  // time step by date:
+  private java.util.Hashtable positions = new java.util.Hashtable();
+  // The aspects found in the current time step, which have not been
+  // returned yet:
+  private java.util.Vector found = new java.util.Vector();
+  private boolean finished = false;
+
+  private double[] xx = new double[6];
+  private StringBuffer serr = new StringBuffer();
+
+  AspectScanner(SwissEph sw, SwissData swed, int[] planets,
+                double[] aspects, int flags, double jdStart, double jdEnd,
+                int dateConv) {
+    if (jdEnd < jdStart) {
+      throw new IllegalArgumentException(
+          "End date " + jdEnd + " is before start date " + jdStart + ".");
+    }
+    this.sw = sw;
+    this.swed = swed;
+    this.sl = sw.sl;
+    this.planets = (int[])planets.clone();
+    this.aspects = (double[])aspects.clone();
+    this.flags = flags & ~(SweConst.SEFLG_SPEED | SweConst.SEFLG_SPEED3);
+    this.jd = jdStart;
+    this.jdEnd = jdEnd;
+    this.dateConv = dateConv;
+
+    // Both directions of each aspect:
+    java.util.Vector t = new java.util.Vector();
+    java.util.Vector ta = new java.util.Vector();
+    for (int a = 0; a < aspects.length; a++) {
+      double asp = sl.swe_degnorm(aspects[a]);
+      if (!t.contains(new Double(asp))) {
+        t.addElement(new Double(asp));
+        ta.addElement(new Integer(a));
+      }
+      asp = sl.swe_degnorm(360. - asp);
+      if (!t.contains(new Double(asp))) {
+        t.addElement(new Double(asp));
+        ta.addElement(new Integer(a));
+      }
+    }
+    targets = new double[t.size()];
+    targetAspect = new int[t.size()];
+    for (int i = 0; i < targets.length; i++) {
+      targets[i] = ((Double)t.elementAt(i)).doubleValue();
+      targetAspect[i] = ((Integer)ta.elementAt(i)).intValue();
+    }
+
+    // The extreme speeds and accelerations of the planets as used by
+    // TCPlanet for longitudinal transits:
+    int n = planets.length;
+    double[] min = new double[n];
+    double[] max = new double[n];
+    double[] acc = new double[n];
+    for (int i = 0; i < n; i++) {
+      TCPlanet tc = new TCPlanet(sw, planets[i],
+          this.flags | SweConst.SEFLG_TRANSIT_LONGITUDE, 0.);
+      min[i] = tc.getMinSpeed();
+      max[i] = tc.getMaxSpeed();
+      acc[i] = tc.getMaxAcceleration();
+    }
+    pairSpeed = new double[n * n];
+    pairAccel = new double[n * n];
+    double vmax = 0.;
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        pairSpeed[i * n + j] = SMath.max(SMath.abs(max[i] - min[j]),
+                                         SMath.abs(max[j] - min[i]));
+        pairAccel[i * n + j] = acc[i] + acc[j];
+        vmax = SMath.max(vmax, pairSpeed[i * n + j]);
+      }
+    }
+    // The fastest pair moves by some 30 degrees per step:
+    step = (vmax > 0. ? SMath.min(30., 30. / vmax) : 30.);
+  }
+
+  /**
+  * Sets the length of the time steps. The result does not depend on it,
+  * but the number of calculations does. The default is chosen, so that
+  * the difference of the fastest pair of planets can change by some 30
+  * degrees in one step.
+  * @param step The length of a time step in days
+  */
+  public void setStep(double step) {
+    if (!(step > 0.)) {
+      throw new IllegalArgumentException("Invalid step " + step + ".");
+    }
+    this.step = step;
+  }
+
+  /**
+  * Sets the precision of the dates of the aspects.
+  * @param prec The precision in days
+  * @see #DEFAULT_PRECISION
+  */
+  public void setPrecision(double prec) {
+    if (!(prec > 0.)) {
+      throw new IllegalArgumentException("Invalid precision " + prec + ".");
+    }
+    this.prec = prec;
+  }
+
+  /**
+  * Returns true, if there is another aspect up to the end date.
+  * @return true, if nextAspect() will return another aspect
+  * @throws SwissephException if the calculation fails
+  */
+  public boolean hasNext() throws SwissephException {
+    while (found.size() == 0 && !finished) {
+      scanStep();
+    }
+    return found.size() > 0;
+  }
+
+  /**
+  * Returns the next aspect. Dates are ET or UT depending on the
+  * SwissEph method, which has created this AspectScanner.
+  * @return The next aspect in the order of time
+  * @throws java.util.NoSuchElementException if there are no more
+  * aspects up to the end date
+  * @throws SwissephException if the calculation fails
+  */
+  public AspectEvent nextAspect() throws SwissephException {
+    if (!hasNext()) {
+      throw new java.util.NoSuchElementException();
+    }
+    AspectEvent ev = (AspectEvent)found.elementAt(0);
+    found.removeElementAt(0);
+    switch (dateConv) {
+      case TransitIterator.DATES_ET_TO_UT:
+        ev.setDate(ev.getDate() - SweDate.getDeltaT(ev.getDate(), swed));
+        break;
+      case TransitIterator.DATES_UT_TO_ET:
+        ev.setDate(ev.getDate() + SweDate.getDeltaT(ev.getDate(), swed));
+        break;
+    }
+    return ev;
+  }
+
+  /**
+  * Same as hasNext().
+  * @return true, if there is another aspect up to the end date
+  */
+  public boolean hasMoreElements() {
+    return hasNext();
+  }
+
+  /**
+  * Same as nextAspect().
+  * @return The next AspectEvent
+  */
+  public Object nextElement() {
+    return nextAspect();
+  }
+
+
+  // Checks all pairs of planets in the next time step:
+  private void scanStep() {
+    double t0 = jd;
+    double t1 = SMath.min(jd + step, jdEnd);
+    int n = planets.length;
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        scanPair(i, j, t0, t1);
+      }
+    }
+    // Sort the aspects of this step by date:
+    for (int k = 1; k < found.size(); k++) {
+      AspectEvent ev = (AspectEvent)found.elementAt(k);
+      int m = k;
+      while (m > 0 &&
+             ((AspectEvent)found.elementAt(m - 1)).getDate() > ev.getDate()) {
+        m--;
+      }
+      if (m != k) {
+        found.removeElementAt(k);
+        found.insertElementAt(ev, m);
+      }
+    }
+    // Keep the positions of t1 only, which are the start of the next step:
+    double[] p1 = (double[])positions.get(new Double(t1));
+    positions.clear();
+    if (p1 != null) {
+      positions.put(new Double(t1), p1);
+    }
+    jd = t1;
+    finished = (t1 >= jdEnd);
+  }
+
+  // Finds the aspects of planets i and j in the time from t0 to t1. The
+  // interval is split, if there may be more than one transit over an
+  // aspect angle in it.
+  private void scanPair(int i, int j, double t0, double t1) {
+    int n = planets.length;
+    double h = t1 - t0;
+    double vmax = pairSpeed[i * n + j];
+    double acc = pairAccel[i * n + j];
+    if (vmax * h >= 180. && h > prec) {
+      // The difference of the longitudes would not be unique:
+      double tm = t0 + h / 2.;
+      scanPair(i, j, t0, tm);
+      scanPair(i, j, tm, t1);
+      return;
+    }
+    double[] p0 = getPositions(t0);
+    double[] p1 = getPositions(t1);
+    double d0 = diff(p0, i, j);
+    double s0 = p0[2 * i + 1] - p0[2 * j + 1];
+    double dd = sl.swe_difdeg2n(diff(p1, i, j), d0);
+    double s1 = p1[2 * i + 1] - p1[2 * j + 1];
+    // The difference is monotonous, if the acceleration cannot change the
+    // direction of its movement within the interval. Without a known
+    // acceleration, a change of sign is taken as a single transit like
+    // the TransitCalculators do:
+    boolean monotonous = !Double.isNaN(acc) &&
+                         (SMath.abs(s0) > acc * h || SMath.abs(s1) > acc * h);
+    boolean single = monotonous || Double.isNaN(acc);
+
+    boolean split = false;
+    for (int k = 0; k < targets.length && !split; k++) {
+      double r0 = sl.swe_difdeg2n(d0, targets[k]);
+      double r1 = r0 + dd;
+      if ((r0 < 0.) != (r1 < 0.)) {
+        split = !single && h > prec;
+      } else if (!monotonous && h > prec) {
+        // There may be two transits, if the aspect angle can be reached
+        // and left again within the interval:
+        split = (SMath.abs(r0) + SMath.abs(r1) <= vmax * h);
+      }
+    }
+    if (split) {
+      double tm = t0 + h / 2.;
+      scanPair(i, j, t0, tm);
+      scanPair(i, j, tm, t1);
+      return;
+    }
+    for (int k = 0; k < targets.length; k++) {
+      double r0 = sl.swe_difdeg2n(d0, targets[k]);
+      double r1 = r0 + dd;
+      if ((r0 < 0.) != (r1 < 0.)) {
+        found.addElement(refine(i, j, k, t0, r0, s0, t1, r1, s1));
+      }
+    }
+  }
+
+  // Converges to the transit of planets i and j over target k, which is
+  // bracketed by t0 and t1, with Newton steps, or with regula falsi
+  // (Illinois), if a Newton step leaves the bracket:
+  private AspectEvent refine(int i, int j, int k, double t0, double r0,
+                             double s0, double t1, double r1, double s1) {
+    double a = t0, ra = r0, b = t1, rb = r1;
+    double t = t1, r = r1, s = s1;
+    int side = 0;
+    while (r != 0.) {
+      double tn = t - r / s;
+      if (!(tn > a && tn < b)) {
+        tn = (a * rb - b * ra) / (rb - ra);
+      } else if (SMath.abs(tn - t) < prec / 2) {
+        t = tn;
+        break;           // Newton has converged
+      }
+      t = tn;
+      if (b - a <= prec) {
+        break;
+      }
+      calcPlanet(i, t);
+      double li = xx[0], vi = xx[3];
+      calcPlanet(j, t);
+      // The residual relative to r0, so it stays continuous over 0:
+      r = r0 + sl.swe_difdeg2n(sl.swe_difdeg2n(li, xx[0]),
+                                     targets[k] + r0);
+      s = vi - xx[3];
+      if ((r < 0.) == (ra < 0.)) {
+        a = t; ra = r;
+        if (side == -1) { rb /= 2; }
+        side = -1;
+      } else {
+        b = t; rb = r;
+        if (side == 1) { ra /= 2; }
+        side = 1;
+      }
+    }
+    return new AspectEvent(t, planets[i], planets[j], aspects[targetAspect[k]],
+                           s);
+  }
+
+  // The difference of the longitudes of planets i and j:
+  private double diff(double[] p, int i, int j) {
+    return sl.swe_difdeg2n(p[2 * i], p[2 * j]);
+  }
+
+  // Returns the longitudes and speeds of all planets at t:
+  private double[] getPositions(double t) {
+    Double key = new Double(t);
+    double[] p = (double[])positions.get(key);
+    if (p == null) {
+      p = new double[2 * planets.length];
+      for (int i = 0; i < planets.length; i++) {
+        calcPlanet(i, t);
+        p[2 * i] = xx[0];
+        p[2 * i + 1] = xx[3];
+      }
+      positions.put(key, p);
+    }
+    return p;
+  }
+
+  private void calcPlanet(int i, double t) {
+    int ret = sw.swe_calc(t, planets[i], flags | SweConst.SEFLG_SPEED, xx,
+                          serr);
+    if (ret < 0) {
+      throw new SwissephException(t, SwissephException.UNDEFINED_ERROR,
+          "Calculation failed with return code " + ret + ":\n" +
+          serr.toString());
+    }
+  }
+}
+#endif /* TRANSITS */
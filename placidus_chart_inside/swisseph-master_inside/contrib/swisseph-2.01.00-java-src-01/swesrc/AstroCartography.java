@@ -0,0 +1,323 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class calculates astro-cartography lines, i.e. the places on earth,
+* where a planet is on the MC, IC, ascendant or descendant at a given
+* point of time, and the crossings (parans) of these lines:<p>
+* <pre>
+* SwissEph sw = new SwissEph(...);
+* AstroCartography acg = new AstroCartography(sw);
+* int[] planets = new int[] { SweConst.SE_SUN, SweConst.SE_MOON, ... };
+* ACGLine[] lines = acg.getLines(jdUT, planets, SweConst.SEFLG_SWIEPH);
+* ACGParan[] parans = acg.getParans(lines);
+* </pre>
+* The lines are calculated directly from the right ascension and
+* declination of the planets and the Greenwich sidereal time, so there
+* is one calculation of each planet per point of time. By default, the
+* lines use the true position of the planet including its ecliptic
+* latitude ("in mundo"). With setZodiacal(true), they use the point of
+* the ecliptic with the longitude of the planet instead, which is on the
+* ascendant, where the ascendant of swe_houses() equals the longitude of
+* the planet.<p>
+* The lines are calculated in parallel on the common ForkJoinPool.<p>
+* The SwissEph object must not be used for other calculations while
+* getLines() is in progress.
+* @see ACGLine
+* @see ACGParan
+*/
+public class AstroCartography
+#ifndef JAVAME
+		implements java.io.Serializable
+#endif /* JAVAME */
+		{
+
+  /**
+  * The default maximum difference in degrees of the latitudes and the
+  * longitudes of two consecutive points of a line.
+  * @see #setStep(double)
+  */
+  public static final double DEFAULT_STEP = 1.;
+  /**
+  * The default maximum geographic latitude of the lines.
+  * @see #setMaxLatitude(double)
+  */
+  public static final double DEFAULT_MAX_LATITUDE = 85.;
+
+  private SwissEph sw;
+  private double step = DEFAULT_STEP;
+  private double maxLat = DEFAULT_MAX_LATITUDE;
+  private boolean zodiacal = false;
+
+  /**
+  * Creates a new AstroCartography, which uses the given SwissEph object
+  * for the calculation of the planets.
+  * @param sw The SwissEph object
+  */
+  public AstroCartography(SwissEph sw) {
+    this.sw = sw;
+  }
+
+  /**
+  * Sets the maximum difference of the latitudes and the longitudes of
+  * two consecutive points of a line. Near the ends of the ascendant and
+  * descendant lines, the longitude changes fast with the latitude, so
+  * the points get denser there.
+  * @param step The maximum difference in degrees
+  * @see #DEFAULT_STEP
+  */
+  public void setStep(double step) {
+    if (!(step > 0.)) {
+      throw new IllegalArgumentException("Invalid step " + step + ".");
+    }
+    this.step = step;
+  }
+
+  /**
+  * Returns the maximum difference of two consecutive points of a line.
+  * @return The maximum difference in degrees
+  * @see #setStep(double)
+  */
+  public double getStep() {
+    return step;
+  }
+
+  /**
+  * Sets the maximum northern and southern geographic latitude of the
+  * lines, e.g. the limit of a map in Mercator projection.
+  * @param lat The maximum latitude in degrees, less than 90
+  * @see #DEFAULT_MAX_LATITUDE
+  */
+  public void setMaxLatitude(double lat) {
+    if (!(lat > 0. && lat < 90.)) {
+      throw new IllegalArgumentException("Invalid latitude " + lat + ".");
+    }
+    this.maxLat = lat;
+  }
+
+  /**
+  * Returns the maximum geographic latitude of the lines.
+  * @return The maximum latitude in degrees
+  * @see #setMaxLatitude(double)
+  */
+  public double getMaxLatitude() {
+    return maxLat;
+  }
+
+  /**
+  * Chooses between lines of the true positions of the planets ("in
+  * mundo", the default) and lines of their ecliptic longitudes only
+  * (zodiacal).
+  * @param zodiacal true for zodiacal lines
+  */
+  public void setZodiacal(boolean zodiacal) {
+    this.zodiacal = zodiacal;
+  }
+
+  /**
+  * Returns, if zodiacal lines are calculated.
+  * @return true for zodiacal lines, false for lines "in mundo"
+  * @see #setZodiacal(boolean)
+  */
+  public boolean isZodiacal() {
+    return zodiacal;
+  }
+
+  /**
+  * Calculates the MC, IC, ascendant and descendant lines of the planets
+  * at the given point of time.
+  * @param tjd_ut The Julian Day number in UT
+  * @param planets The planets
+  * @param flags The calculation flags like SweConst.SEFLG_SWIEPH. The
+  * flags for the coordinate system and the speed are ignored. The lines
+  * need geocentric positions relative to the true equator of date, so
+  * SEFLG_J2000, SEFLG_NONUT, SEFLG_HELCTR, SEFLG_BARYCTR and
+  * SEFLG_TOPOCTR are ignored as well.
+  * @return Four lines per planet in the order of the planets, each in
+  * the order ACGLine.MC, ACGLine.IC, ACGLine.ASC, ACGLine.DSC
+  * @throws SwissephException if the calculation of a planet fails
+  */
+  public ACGLine[] getLines(double tjd_ut, int[] planets, int flags) {
+    StringBuffer serr = new StringBuffer();
+    double[] xx = new double[6];
+    flags &= ~(SweConst.SEFLG_EQUATORIAL | SweConst.SEFLG_SIDEREAL |
+               SweConst.SEFLG_RADIANS | SweConst.SEFLG_XYZ |
+               SweConst.SEFLG_SPEED | SweConst.SEFLG_SPEED3 |
+               SweConst.SEFLG_J2000 | SweConst.SEFLG_NONUT |
+               SweConst.SEFLG_HELCTR | SweConst.SEFLG_BARYCTR |
+               SweConst.SEFLG_TOPOCTR);
+    double gst = sw.sl.swe_sidtime(tjd_ut) * 15.;
+    double eps = 0.;
+    if (zodiacal) {
+      calc(tjd_ut, SweConst.SE_ECL_NUT, flags, xx, serr);
+      eps = xx[0];
+    }
+    ACGLine[] lines = new ACGLine[4 * planets.length];
+    for (int i = 0; i < planets.length; i++) {
+      if (zodiacal) {
+        calc(tjd_ut, planets[i], flags, xx, serr);
+        xx[1] = 0.;
+        sw.sl.swe_cotrans(xx, xx, -eps);
+      } else {
+        calc(tjd_ut, planets[i], flags | SweConst.SEFLG_EQUATORIAL, xx,
+             serr);
+      }
+      for (int k = ACGLine.MC; k <= ACGLine.DSC; k++) {
+        lines[4 * i + k] = new ACGLine(planets[i], k, xx[0], xx[1], gst,
+                                       maxLat);
+      }
+    }
+    LineTask task = new LineTask(lines, step, 0, lines.length);
+#ifndef JAVAME
+    java.util.concurrent.ForkJoinPool.commonPool().invoke(task);
+#else
+    task.calc();
+#endif /* JAVAME */
+    return lines;
+  }
+
+  /**
+  * Calculates the crossings of all pairs of lines of different planets.
+  * MC and IC lines do not cross each other.
+  * @param lines The lines as calculated by getLines()
+  * @return The crossings ordered by the lines in the given array
+  */
+  public ACGParan[] getParans(ACGLine[] lines) {
+    java.util.Vector parans = new java.util.Vector();
+    for (int i = 0; i < lines.length; i++) {
+      for (int j = i + 1; j < lines.length; j++) {
+        if (lines[i].getPlanet() != lines[j].getPlanet() &&
+            (lines[i].getKind() >= ACGLine.ASC ||
+             lines[j].getKind() >= ACGLine.ASC)) {
+          findCrossings(lines[i], lines[j], parans);
+        }
+      }
+    }
+    ACGParan[] result = new ACGParan[parans.size()];
+    parans.copyInto(result);
+    return result;
+  }
+
+
+  private void calc(double tjd_ut, int planet, int flags, double[] xx,
+                    StringBuffer serr) {
+    if (sw.swe_calc_ut(tjd_ut, planet, flags, xx, serr) < 0) {
+      throw new SwissephException(tjd_ut, SwissephException.UNDEFINED_ERROR,
+          SweConst.ERR, serr.toString());
+    }
+  }
+
+  // Adds the crossing of two lines of different planets, if there is one.
+  // All crossings are calculated directly: a meridian line crosses a
+  // horizon line at the latitude, where the hour angle of the planet on
+  // the horizon is the difference of right ascension of both planets. The
+  // zenith of a place, where both planets are on the horizon, is 90
+  // degrees apart from both planets, so it is one of the two poles of the
+  // great circle through both planets.
+  private void findCrossings(ACGLine l1, ACGLine l2,
+                             java.util.Vector parans) {
+    double lat, lon;
+    if (l1.getKind() <= ACGLine.IC || l2.getKind() <= ACGLine.IC) {
+      ACGLine m = (l1.getKind() <= ACGLine.IC ? l1 : l2);
+      ACGLine h = (m == l1 ? l2 : l1);
+      lon = m.longitude(0.);
+      double ha = (lon + h.getSiderealTime() - h.getRightAscension()) *
+                  SwissData.DEGTORAD;
+      // Rising in the east, i.e. at a negative hour angle:
+      if ((SMath.sin(ha) < 0.) != (h.getKind() == ACGLine.ASC)) {
+        return;
+      }
+      lat = SMath.atan(-SMath.cos(ha) /
+                       SMath.tan(h.getDeclination() * SwissData.DEGTORAD)) *
+            SwissData.RADTODEG;
+      addCrossing(l1, l2, lat, lon, parans);
+      return;
+    }
+    double[] a = new double[3];
+    double[] b = new double[3];
+    double[] z = new double[3];
+    sw.sl.swi_polcart(new double[] {
+        l1.getRightAscension() * SwissData.DEGTORAD,
+        l1.getDeclination() * SwissData.DEGTORAD, 1. }, a);
+    sw.sl.swi_polcart(new double[] {
+        l2.getRightAscension() * SwissData.DEGTORAD,
+        l2.getDeclination() * SwissData.DEGTORAD, 1. }, b);
+    sw.sl.swi_cross_prod(a, 0, b, 0, z, 0);
+    double r = SMath.sqrt(z[0] * z[0] + z[1] * z[1] + z[2] * z[2]);
+    if (r < 1e-12) {
+      // Same direction, no definite crossing
+      return;
+    }
+    for (int k = 0; k < 2; k++) {
+      double sign = (k == 0 ? 1. : -1.);
+      lat = SMath.asin(sign * z[2] / r) * SwissData.RADTODEG;
+      // The right ascension of the zenith is the local sidereal time:
+      double lst = SMath.atan2(sign * z[1], sign * z[0]) * SwissData.RADTODEG;
+      if (rising(l1, lst) == (l1.getKind() == ACGLine.ASC) &&
+          rising(l2, lst) == (l2.getKind() == ACGLine.ASC)) {
+        addCrossing(l1, l2, lat, lst - l1.getSiderealTime(), parans);
+      }
+    }
+  }
+
+  private static boolean rising(ACGLine l, double lst) {
+    return SMath.sin((lst - l.getRightAscension()) * SwissData.DEGTORAD) < 0.;
+  }
+
+  private static void addCrossing(ACGLine l1, ACGLine l2, double lat,
+                                  double lon, java.util.Vector parans) {
+    if (lat >= SMath.max(l1.getMinLatitude(), l2.getMinLatitude()) &&
+        lat <= SMath.min(l1.getMaxLatitude(), l2.getMaxLatitude())) {
+      parans.addElement(new ACGParan(l1, l2, lat, ACGLine.normalize(lon)));
+    }
+  }
+
+
+  // Calculates the points of the lines from lo to hi - 1:
+  private static class LineTask
+#ifndef JAVAME
+      extends java.util.concurrent.RecursiveAction
+#endif /* JAVAME */
+      {
+    private ACGLine[] lines;
+    private double step;
+    private int lo, hi;
+
+    LineTask(ACGLine[] lines, double step, int lo, int hi) {
+      this.lines = lines;
+      this.step = step;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+#ifndef JAVAME
+    protected void compute() {
+      if (hi - lo <= 1) {
+        calc();
+        return;
+      }
+      int mid = (lo + hi) / 2;
+      invokeAll(new LineTask(lines, step, lo, mid),
+                new LineTask(lines, step, mid, hi));
+    }
+#endif /* JAVAME */
+
+    void calc() {
+      for (int i = lo; i < hi; i++) {
+        lines[i].calc(step);
+      }
+    }
+  }
+}
+#endif /* ASTROLOGY */
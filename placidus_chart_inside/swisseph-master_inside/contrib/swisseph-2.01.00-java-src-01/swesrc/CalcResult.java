@@ -0,0 +1,188 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* A reusable result of SwissEph.calc() and SwissEph.calcUT(). It keeps the
+* coordinates, the return flag and the error or warning message of the
+* last calculation, so a loop calculating many positions with one
+* CalcResult object does not create any objects:<p>
+* <pre>
+* CalcResult res = new CalcResult();
+* for (...) {
+*   if (sw.calcUT(jdUT, SweConst.SE_MARS, SweConst.SEFLG_SPEED, res) < 0) {
+*     System.err.println(res.getMessage());
+*     break;
+*   }
+*   double lon = res.getLongitude();
+*   ...
+* }
+* </pre>
+* The message is kept in an internal StringBuffer and converted to a
+* String only, when getMessage() is called.<p>
+* A CalcResult must not be used by two threads at the same time.
+* @see SwissEph#calc(double, int, int, CalcResult)
+* @see SwissEph#calcUT(double, int, int, CalcResult)
+*/
+public class CalcResult
+#ifndef JAVAME
+		implements java.io.Serializable
+#endif /* JAVAME */
+		{
+
+  double[] xx = new double[6];
+  StringBuffer serr = new StringBuffer(SwissData.AS_MAXCH);
+  int retflag = SweConst.OK;
+  int errorType = SwissephException.UNDEFINED_ERROR;
+  private String message = null;
+
+  /**
+  * Creates a new CalcResult.
+  */
+  public CalcResult() {
+  }
+
+  /**
+  * Returns the coordinates of the last calculation as described in
+  * SwissEph.swe_calc(). The array is the internal array of this object,
+  * which is overwritten by the next calculation.
+  * @return The array of the six coordinates
+  * @see SwissEph#swe_calc(double, int, int, double[], java.lang.StringBuffer)
+  */
+  public double[] getValues() {
+    return xx;
+  }
+
+  /**
+  * Returns one coordinate of the last calculation.
+  * @param idx The index from 0 to 5 as in the xx[] array of swe_calc()
+  * @return The coordinate
+  */
+  public double getValue(int idx) {
+    return xx[idx];
+  }
+
+  /**
+  * Returns the longitude (or right ascension etc.) of the last
+  * calculation.
+  * @return xx[0] of swe_calc()
+  */
+  public double getLongitude() {
+    return xx[0];
+  }
+
+  /**
+  * Returns the latitude (or declination etc.) of the last calculation.
+  * @return xx[1] of swe_calc()
+  */
+  public double getLatitude() {
+    return xx[1];
+  }
+
+  /**
+  * Returns the distance of the last calculation.
+  * @return xx[2] of swe_calc()
+  */
+  public double getDistance() {
+    return xx[2];
+  }
+
+  /**
+  * Returns the speed in longitude of the last calculation.
+  * @return xx[3] of swe_calc()
+  */
+  public double getLongitudeSpeed() {
+    return xx[3];
+  }
+
+  /**
+  * Returns the speed in latitude of the last calculation.
+  * @return xx[4] of swe_calc()
+  */
+  public double getLatitudeSpeed() {
+    return xx[4];
+  }
+
+  /**
+  * Returns the speed in distance of the last calculation.
+  * @return xx[5] of swe_calc()
+  */
+  public double getDistanceSpeed() {
+    return xx[5];
+  }
+
+  /**
+  * Returns the return flag of the last calculation.
+  * @return The flags used in the calculation or SweConst.ERR
+  */
+  public int getReturnFlag() {
+    return retflag;
+  }
+
+  /**
+  * Returns, if the last calculation failed.
+  * @return true, if the return flag is SweConst.ERR
+  */
+  public boolean isError() {
+    return retflag < 0;
+  }
+
+  /**
+  * Returns the type of the error of the last calculation.
+  * @return One of the error types of SwissephException, or
+  * SwissephException.UNDEFINED_ERROR, if the type is unknown or the
+  * calculation did not fail
+  * @see SwissephException#getType()
+  */
+  public int getErrorType() {
+    return errorType;
+  }
+
+  /**
+  * Returns, if the last calculation gave an error message or a warning,
+  * without creating the message.
+  * @return true, if getMessage() returns a non-empty message
+  */
+  public boolean hasMessage() {
+    return serr.length() > 0;
+  }
+
+  /**
+  * Returns the error message or warning of the last calculation.
+  * @return The message, or an empty String
+  */
+  public String getMessage() {
+    if (message == null) {
+      message = serr.toString();
+    }
+    return message;
+  }
+
+  public String toString() {
+    return "[Retflag:" + retflag + "];Values:" + xx[0] + "," + xx[1] + "," +
+           xx[2] + "," + xx[3] + "," + xx[4] + "," + xx[5] +
+           (serr.length() > 0 ? ";Message:" + getMessage() : "");
+  }
+
+
+  // Prepares this object for the next calculation:
+  void reset() {
+    serr.setLength(0);
+    message = null;
+    retflag = SweConst.OK;
+    errorType = SwissephException.UNDEFINED_ERROR;
+  }
+
+  void setError(SwissephException se) {
+    retflag = SweConst.ERR;
+    errorType = se.getType();
+    serr.setLength(0);
+    serr.append(se.getMessage());
+  }
+}
@@ -76,9 +76,12 @@ class Extensions
 
     boolean found = false;
     boolean above;
-    double lastVal;
+    double lastVal = 0.;
     double val;
     double offset = tc.getOffset();
+    boolean newton = (tc.solver == TransitCalculator.SOLVER_NEWTON &&
+                      tc.hasContinuousValues());
+    double der;
 #ifdef EXTPRECISION
     double extPrecision = tc.getPrecisionFactor();
 #endif /* EXTPRECISION */
@@ -101,6 +104,7 @@ class Extensions
     iterateCount = 1;
 #endif /* TEST_ITERATIONS */
     val = tc.calc(jdET);
+    der = tc.getLastDerivative();
     if (tc.checkIdenticalResult(offset, val)) { // If not 0.0 but "very small", then
                             // interpolate after another calculation
                             // in the calculation loop below
@@ -136,10 +140,24 @@ class Extensions
       if (jdET == lastJD) {
         return jdET;
       }
+      if (newton) {
+        double jdT = newtonStep(tc, offset, lastJD, lastVal, der, jdET,
+                                min, max, timePrec, back, jdMax);
+        if (!Double.isNaN(jdT)) {
+          return jdT;
+        }
+        if (!Double.isNaN(nextJD)) {
+          jdET = nextJD;
+          val = nextVal;
+          der = nextDer;
+          continue;
+        }
+      }
 #ifdef TEST_ITERATIONS
       iterateCount++;
 #endif /* TEST_ITERATIONS */
       val = tc.calc(jdET);
+      der = tc.getLastDerivative();
       if (val == Double.POSITIVE_INFINITY) {
         return jdET;
       }
@@ -151,45 +169,12 @@ class Extensions
         return val;
       }
 
-      // The planet may have moved forward or backward, in one of these
-      // directions it would have crossed the transit point.
-      //
-      // Whatever distance could have been reached in lesser time (forward or
-      // backward move), we take it to be the direction of movement.
-      boolean pxway = true;
-      if (tc.rollover) {
-        double deltadeg1 = val-lastVal;
-        if (deltadeg1<0) { deltadeg1+=tc.rolloverVal; }
-        double deltadeg2 = lastVal-val;
-        if (deltadeg2<0) { deltadeg2+=tc.rolloverVal; }
-        pxway = SMath.abs(deltadeg1/max)<SMath.abs(deltadeg2/min);
-      } else {
-        pxway = lastVal<=val;
-      }
+      boolean pxway = movesForward(tc, lastVal, val, min, max);
 
       found = tc.checkResult(offset, lastVal, val, above, pxway);
 
-      if (found) { // Return an interpolated value, but not prior to (after)
-                   // the initial time (if backward):
-        if (tc.rollover) {
-          if (tc.rollover && SMath.abs(val - lastVal) > 300.) {   // How to do it formally correct???
-            // Probably one value is about 359.99 and the other one is in the area of 0.01
-            if (val > lastVal) { lastVal += tc.rolloverVal; } else { val += tc.rolloverVal; }
-            if (offset < 10.) { offset += tc.rolloverVal; } // How to do it formally correct???
-          }
-          // offset-lastVal and val-lastVal have to have equal signs
-          if (val-lastVal < 0 && offset-lastVal > 0) {
-            val += tc.rolloverVal;
-          } else if (val-lastVal > 0 && offset-lastVal < 0) {
-            offset += tc.rolloverVal;
-          }
-        }
-        double jdRet = lastJD+(jdET-lastJD)*(offset-lastVal)/(val-lastVal);
-        if (back) {
-          return SMath.max(jdRet, jdET);
-        } else {
-          return SMath.min(jdRet, jdET);
-        }
+      if (found) {
+        return interpolate(tc, offset, lastJD, lastVal, jdET, val, back);
       }
       if ((back && jdET < jdMax) ||
           (!back && jdET > jdMax)) {
@@ -199,6 +184,341 @@ class Extensions
     }
   }
 
+  // The planet may have moved forward or backward, in one of these
+  // directions it would have crossed the transit point.
+  //
+  // Whatever distance could have been reached in lesser time (forward or
+  // backward move), we take it to be the direction of movement.
+  private boolean movesForward(TransitCalculator tc, double lastVal,
+                               double val, double min, double max) {
+    if (tc.rollover) {
+      double deltadeg1 = val-lastVal;
+      if (deltadeg1<0) { deltadeg1+=tc.rolloverVal; }
+      double deltadeg2 = lastVal-val;
+      if (deltadeg2<0) { deltadeg2+=tc.rolloverVal; }
+      return SMath.abs(deltadeg1/max)<SMath.abs(deltadeg2/min);
+    }
+    return lastVal<=val;
+  }
+
+  // Return an interpolated value, but not prior to (after) the initial
+  // time (if backward):
+  private double interpolate(TransitCalculator tc, double offset,
+                             double lastJD, double lastVal,
+                             double jdET, double val, boolean back) {
+    if (tc.rollover) {
+      if (tc.rollover && SMath.abs(val - lastVal) > 300.) {   // How to do it formally correct???
+        // Probably one value is about 359.99 and the other one is in the area of 0.01
+        if (val > lastVal) { lastVal += tc.rolloverVal; } else { val += tc.rolloverVal; }
+        if (offset < 10.) { offset += tc.rolloverVal; } // How to do it formally correct???
+      }
+      // offset-lastVal and val-lastVal have to have equal signs
+      if (val-lastVal < 0 && offset-lastVal > 0) {
+        val += tc.rolloverVal;
+      } else if (val-lastVal > 0 && offset-lastVal < 0) {
+        offset += tc.rolloverVal;
+      }
+    }
+    double jdRet = lastJD+(jdET-lastJD)*(offset-lastVal)/(val-lastVal);
+    if (back) {
+      return SMath.max(jdRet, jdET);
+    } else {
+      return SMath.min(jdRet, jdET);
+    }
+  }
+
+  // Continues the sweep of a TransitIterator up to its next transit.
+  // The sweep starts from the last calculated date and value, so the
+  // time up to there is never calculated again. Returns NaN, when there
+  // are no more transits up to the end date of the iterator.
+  double nextTransit(TransitIterator ti)
+         throws IllegalArgumentException, SwissephException {
+    TransitCalculator tc = ti.tc;
+    boolean back = ti.back;
+    double offset = tc.getOffset();
+    double lastJD, lastVal;
+    boolean above;
+    boolean newton = (tc.solver == TransitCalculator.SOLVER_NEWTON &&
+                      tc.hasContinuousValues());
+
+    if (!ti.started) {
+      ti.started = true;
+      if (ti.bounds == null) {
+        ti.bounds = TransitIterator.getWindows(tc, ti.jd, ti.jdEnd,
+                                               ti.windowSize);
+      }
+      ti.jd = tc.preprocessDate(ti.jd, back);
+      if (!ti.preset) {
+        presetSweep(ti);
+      }
+#ifdef TEST_ITERATIONS
+      iterateCount = 1;
+#endif /* TEST_ITERATIONS */
+      if (beyond(ti, ti.jd)) {
+        return Double.NaN;
+      }
+      ti.val = tc.calc(ti.jd);
+      ti.der = tc.getLastDerivative();
+      if (tc.checkIdenticalResult(offset, ti.val)) {
+        return ti.jd;
+      }
+      if (ti.max == 0. && ti.min == 0.) { // No possible change in position or speed
+        throw new SwissephException(ti.jd, SwissephException.OUT_OF_TIME_RANGE,
+            "No transit possible due to lack of variation of speed or position.");
+      }
+    } else {
+      // Calculators with a state like the partile aspects of
+      // TCPlanetPlanet may have to proceed to another starting point:
+      double jd = tc.preprocessDate(ti.jd, back);
+      if (jd != ti.jd) {
+        ti.jd = jd;
+        if (beyond(ti, ti.jd)) {
+          return Double.NaN;
+        }
+        ti.val = tc.calc(ti.jd);
+        ti.der = tc.getLastDerivative();
+      }
+    }
+
+    while (true) {
+      double val = ti.val;
+      if (tc.rollover) {
+        while (val >= tc.rolloverVal) { val -= tc.rolloverVal; }
+        while (val < 0.) { val += tc.rolloverVal; }
+      }
+      above = (val >= offset);
+
+      lastJD = ti.jd;
+      lastVal = val;
+
+      if (tc.rollover && !above) { val += tc.rolloverVal; }
+
+      double jdET;
+      try {
+        jdET = tc.getNextJD(lastJD, val, offset, ti.min, ti.max, back);
+      } catch (SwissephException e) {
+        // No transit possible anymore in the current window. Continue at
+        // the start of the next window, where ParallelTransitSearch
+        // starts another search:
+        double jdWin = windowEnd(ti, lastJD);
+        if (jdWin == ti.jdEnd) {
+          return Double.NaN;
+        }
+        ti.jd = jdWin;
+        ti.val = tc.calc(jdWin);
+        ti.der = tc.getLastDerivative();
+        if (tc.checkIdenticalResult(offset, ti.val)) {
+          return ti.jd;
+        }
+        continue;
+      }
+
+      // Add at least "timePrec" time to the last time:
+      if (SMath.abs(jdET - lastJD) < ti.timePrec) {
+        jdET = lastJD + (back?-ti.timePrec:+ti.timePrec);
+      }
+      // Never step beyond the end of the current window, so the sweep
+      // calculates the window boundaries and the end date exactly like a
+      // ParallelTransitSearch, which searches each window separately:
+      double jdWin = windowEnd(ti, lastJD);
+      if (back ? jdET < jdWin : jdET > jdWin) {
+        jdET = jdWin;
+      }
+      if (jdET == lastJD) {
+        return Double.NaN;
+      }
+      if (newton) {
+        double jdT = newtonStep(tc, offset, lastJD, lastVal, ti.der, jdET,
+                                ti.min, ti.max, ti.timePrec, back,
+                                jdWin);
+        if (!Double.isNaN(nextJD)) {
+          ti.jd = nextJD;
+          ti.val = nextVal;
+          ti.der = nextDer;
+        }
+        if (!Double.isNaN(jdT)) {
+          return (beyond(ti, jdT) ? Double.NaN : jdT);
+        }
+        if (!Double.isNaN(nextJD)) {
+          continue;
+        }
+      }
+#ifdef TEST_ITERATIONS
+      iterateCount++;
+#endif /* TEST_ITERATIONS */
+      val = tc.calc(jdET);
+      ti.jd = jdET;
+      ti.val = val;
+      ti.der = tc.getLastDerivative();
+      if (val == Double.POSITIVE_INFINITY) {
+        return (beyond(ti, jdET) ? Double.NaN : jdET);
+      }
+      if (tc.rollover && val >= tc.rolloverVal) { val %= tc.rolloverVal; }
+      while (tc.rollover && val < 0.) { val += tc.rolloverVal; }
+      ti.val = val;
+
+      if(tc.checkIdenticalResult(offset, val)) {
+        return (beyond(ti, jdET) ? Double.NaN : jdET);
+      }
+
+      boolean pxway = movesForward(tc, lastVal, val, ti.min, ti.max);
+      if (tc.checkResult(offset, lastVal, val, above, pxway)) {
+        double jdRet = interpolate(tc, offset, lastJD, lastVal, jdET, val, back);
+        return (beyond(ti, jdRet) ? Double.NaN : jdRet);
+      }
+      if (beyond(ti, jdET)) {
+        return Double.NaN;
+      }
+    }
+  }
+
+  // Sets the speed limits and the time precision of the sweep of a
+  // TransitIterator for its starting date:
+  void presetSweep(TransitIterator ti) {
+    TransitCalculator tc = ti.tc;
+    ti.max = tc.getMaxSpeed();
+    ti.min = tc.getMinSpeed();
+    boolean xneg = (ti.max < 0);
+    boolean mneg = (ti.min < 0);
+    if (!xneg && !mneg) { ti.min = ti.max; }
+    if (xneg && mneg) { ti.max = ti.min; }
+    ti.timePrec = tc.getTimePrecision(tc.getDegreePrecision(ti.jd)/2.);
+#ifdef EXTPRECISION
+    ti.timePrec /= tc.getPrecisionFactor();
+#endif /* EXTPRECISION */
+    ti.preset = true;
+  }
+
+  // Returns the end of the window of a TransitIterator, which follows
+  // the date jd. This is the end date of the iterator in the last window.
+  private double windowEnd(TransitIterator ti, double jd) {
+    double[] b = ti.bounds;
+    while (ti.window < b.length - 2 &&
+           (ti.back ? b[ti.window + 1] >= jd : b[ti.window + 1] <= jd)) {
+      ti.window++;
+    }
+    return b[ti.window + 1];
+  }
+
+  // Results of newtonStep(): the point to continue from or NaN
+  private double nextJD, nextVal, nextDer;
+
+  // The distance of val from offset, in the range of -rolloverVal/2 to
+  // +rolloverVal/2 for rollover values
+  private double residual(TransitCalculator tc, double val, double offset) {
+    double d = val - offset;
+    if (tc.rollover) {
+      d -= tc.rolloverVal * SMath.floor(d / tc.rolloverVal + 0.5);
+    }
+    return d;
+  }
+
+  // SOLVER_NEWTON: Tries to jump from the current point jd directly to
+  // the transit instead of proceeding to jdSafe only, which is the safe
+  // step returned by getNextJD(). der is the derivative at jd or NaN.
+  // The jump is restricted to the interval, where the values are
+  // monotonous due to the maximum acceleration, so there cannot be more
+  // than one transit in it.
+  // Returns the date of the transit, if it has been found, NaN otherwise.
+  // nextJD is set to the point, from where the search can continue: the
+  // first calculated point beyond the transit, or the probed point, if
+  // there is no transit up to there. It is NaN, if the search has to
+  // continue with the safe step.
+  private double newtonStep(TransitCalculator tc, double offset,
+                            double jd, double val, double der,
+                            double jdSafe, double min, double max,
+                            double timePrec, boolean back, double jdMax) {
+    nextJD = Double.NaN;
+    double vmax = SMath.max(SMath.abs(min), SMath.abs(max));
+    double acc = tc.getMaxAcceleration();
+    if (Double.isNaN(der) || der == 0. || Double.isNaN(acc)) {
+      return Double.NaN;
+    }
+    double g0 = residual(tc, val, offset);
+    // Aim a little beyond the estimated transit to bracket it:
+    double dt = -g0 / der * 1.1;
+    dt += (dt < 0 ? -timePrec : timePrec);
+    double jdP = jd + dt;
+    if ((back ? jdP >= jdSafe : jdP <= jdSafe) ||
+        (back ? jdP < jdMax : jdP > jdMax) ||
+        SMath.abs(dt) * acc >= SMath.abs(der) ||
+        // the values have to be unique within the probed interval:
+        (tc.rollover && SMath.abs(dt) * vmax >= tc.rolloverVal / 2)) {
+      return Double.NaN;
+    }
+#ifdef TEST_ITERATIONS
+    iterateCount++;
+#endif /* TEST_ITERATIONS */
+    double vP = tc.calc(jdP);
+    double dP = tc.getLastDerivative();
+    if (tc.rollover) {
+      while (vP >= tc.rolloverVal) { vP -= tc.rolloverVal; }
+      while (vP < 0.) { vP += tc.rolloverVal; }
+    }
+    double g1 = g0 + residual(tc, vP, val);
+    if (g1 == 0.) {
+      nextJD = jdP; nextVal = vP; nextDer = dP;
+      return jdP;
+    }
+    if ((g0 < 0) == (g1 < 0)) {
+      // No transit up to jdP, as the values are monotonous:
+      nextJD = jdP; nextVal = vP; nextDer = dP;
+      return Double.NaN;
+    }
+    // The transit is between a and b. Converge with Newton steps from
+    // the last calculated point, or with regula falsi (Illinois), if the
+    // Newton step leaves the bracket:
+    double a = jd, ga = g0, b = jdP, gb = g1;
+    double tl = jdP, gl = g1, dl = dP;
+    int side = 0;
+    nextJD = jdP; nextVal = vP; nextDer = dP;
+    while (SMath.abs(b - a) > timePrec) {
+      double t = Double.NaN;
+      double lo = SMath.min(a, b), hi = SMath.max(a, b);
+      if (!Double.isNaN(dl) && dl != 0.) {
+        t = tl - gl / dl;
+        if (t > lo && t < hi && SMath.abs(t - tl) < timePrec / 2) {
+          return t;         // Newton has converged
+        }
+      }
+      if (Double.isNaN(t) || t <= lo || t >= hi) {
+        t = (a * gb - b * ga) / (gb - ga);
+      }
+      // Keep away from the ends, so the bracket shrinks in any case:
+      t = SMath.max(lo + timePrec / 4, SMath.min(hi - timePrec / 4, t));
+#ifdef TEST_ITERATIONS
+      iterateCount++;
+#endif /* TEST_ITERATIONS */
+      double v = tc.calc(t);
+      double d = tc.getLastDerivative();
+      if (tc.rollover) {
+        while (v >= tc.rolloverVal) { v -= tc.rolloverVal; }
+        while (v < 0.) { v += tc.rolloverVal; }
+      }
+      double g = g0 + residual(tc, v, val);
+      if (g == 0.) {
+        nextJD = t; nextVal = v; nextDer = d;
+        return t;
+      }
+      if ((g < 0) == (ga < 0)) {
+        a = t; ga = g;
+        if (side == -1) { gb /= 2; }
+        side = -1;
+      } else {
+        b = t; gb = g;
+        nextJD = t; nextVal = v; nextDer = d;
+        if (side == 1) { ga /= 2; }
+        side = 1;
+      }
+      tl = t; gl = g; dl = d;
+    }
+    return a + (b - a) * ga / (ga - gb);
+  }
+
+  private boolean beyond(TransitIterator ti, double jd) {
+    return (ti.back ? jd < ti.jdEnd : jd > ti.jdEnd);
+  }
+
 #ifdef TEST_ITERATIONS
   long getIterateCount() {
     return iterateCount;
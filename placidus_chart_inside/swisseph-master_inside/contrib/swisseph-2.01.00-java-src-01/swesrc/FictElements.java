@@ -0,0 +1,334 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef JAVAME
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* The file of the orbital elements of the fictitious bodies (seorbel.txt)
+* compiled into numbers. The file is read once, and each line is parsed
+* into a record of the epoch, the equinox and the six elements. The
+* elements with T terms are compiled into their terms, where every
+* factor given as a number is multiplied out already, so only the powers
+* of T remain to be multiplied for a given date. Elements without T terms
+* are kept as their value.<p>
+* The values are calculated with the same operations in the same order as
+* SwephMosh.check_t_terms() does from the text, so they are bit by bit
+* identical. Lines, which cannot be parsed, give the same errors as the
+* file, when the body of the line is calculated.<p>
+* The modification time and the length of the file are kept, so a
+* changed file is read again, see isCurrent().
+*/
+class FictElements {
+
+  // What follows after the last body of the file:
+  static final int END_EOF = 0;         // end of file or read error
+  static final int END_FEW_ELEMS = 1;   // line with less than nine elements
+  static final int END_EXCEPTION = 2;   // line, which throws an exception
+
+  String ephepath;
+  String fnamp;
+  long length;
+  long lastModified;
+
+  Body[] bodies;
+  int end = END_EOF;
+  // Beginning of the error message of the line after the last body:
+  String endSerri = "";
+  RuntimeException endException;
+
+  // The elements of one body, i.e. one line of the file:
+  static class Body {
+    String serri;
+    // Epoch: a Julian day number, or invalid, or throwing an exception:
+    double tjd0;
+    boolean tjd0Invalid;
+    RuntimeException tjd0Exception;
+    // Equinox: a Julian day number, or the date of calculation (jdate), or
+    // invalid, or throwing an exception:
+    double tequ;
+    boolean tequJdate;
+    boolean tequInvalid;
+    RuntimeException tequException;
+    Element mano, sema, ecce, parg, node, incl;
+    String name;
+    RuntimeException nameException;
+    boolean geo;
+  }
+
+  // One element with optional T terms:
+  static class Element {
+    // The text, used, if the terms cannot be compiled:
+    String s;
+    // true, if the element has additional terms, i.e. contains + or -:
+    boolean tterms;
+    // true, if the element does not depend on T:
+    boolean constant;
+    double value;
+    // Term i is c[i] * tt[pw[i][0]] * f[i][0] * ..., where pw[i][j] is
+    // the power of T of factor j, or -1 for the number f[i][j]; null, if
+    // the terms cannot be compiled:
+    double[] c;
+    double[][] f;
+    int[][] pw;
+  }
+
+  /**
+  * Reads and compiles the file. The file is closed afterwards.
+  * @param fp The opened file
+  * @param sl A SwissLib object for parsing
+  * @param ephepath The ephemeris path, where the file was found
+  */
+  FictElements(FilePtr fp, SwissLib sl, String ephepath) {
+    int ncpos;
+    String s;
+    String cpos[] = new String[20];
+    java.util.Vector v = new java.util.Vector();
+    this.ephepath = ephepath;
+    fnamp = fp.fnamp;
+    if (!fnamp.startsWith("http://")) {
+      java.io.File f = new java.io.File(fnamp);
+      length = f.length();
+      lastModified = f.lastModified();
+    }
+    try {
+      while ((s=fp.readLine()) != null) {
+        s=s.trim();
+        char ch=s.charAt(0);
+        if (ch == '#' || ch=='\r' || ch=='\n' || ch=='\0') {
+          continue;
+        }
+        if (s.indexOf('#') >= 0) {
+          s = s.substring(0,s.indexOf('#'));
+        }
+        ncpos = sl.swi_cutstr(s, ",", cpos, 20);
+        endSerri="error in file "+SweConst.SE_FICTFILE+", line "+
+#ifdef ORIGINAL
+              new CFmt().fmt("%7.0f",(double) 0)+":";
+#else
+              0+":";
+#endif /* ORIGINAL */
+        if (ncpos < 9) {
+          end = END_FEW_ELEMS;
+          break;
+        }
+        v.addElement(compileBody(cpos, ncpos, endSerri));
+      }
+    } catch (java.io.IOException e) {
+#ifdef NIO
+    } catch (java.nio.BufferUnderflowException e) {
+#endif /* NIO */
+    } catch (RuntimeException e) {
+      end = END_EXCEPTION;
+      endException = e;
+    }
+    try { fp.close(); } catch (java.io.IOException ie) { }
+    bodies = new Body[v.size()];
+    v.copyInto(bodies);
+  }
+
+  /**
+  * Checks, if the file has not been changed since it was read. A file
+  * read via http is assumed to be unchanged.
+  * @param ephepath The current ephemeris path
+  * @return true, if the file is unchanged
+  */
+  boolean isCurrent(String ephepath) {
+    if (!this.ephepath.equals(ephepath)) {
+      return false;
+    }
+    if (fnamp.startsWith("http://")) {
+      return true;
+    }
+    java.io.File f = new java.io.File(fnamp);
+    return f.lastModified() == lastModified && f.length() == length;
+  }
+
+
+  private static Body compileBody(String[] cpos, int ncpos, String serri) {
+    String sp;
+    int spIdx;
+    Body b = new Body();
+    b.serri = serri;
+    /* epoch of elements */
+    try {
+      sp = cpos[0];
+      sp=sp.length()<=5?sp.toLowerCase():
+                           sp.substring(0,5).toLowerCase()+sp.substring(5);
+      if (sp.startsWith("j2000")) {
+        b.tjd0 = SwephData.J2000;
+      } else if (sp.startsWith("b1950")) {
+        b.tjd0 = SwephData.B1950;
+      } else if (sp.startsWith("j1900")) {
+        b.tjd0 = SwephData.J1900;
+      } else if (sp.charAt(0) == 'j' || sp.charAt(0) == 'b') {
+        b.tjd0Invalid = true;
+      } else
+        b.tjd0 = SwissLib.atof(sp);
+    } catch (RuntimeException e) {
+      b.tjd0Exception = e;
+    }
+    /* equinox */
+    try {
+      sp = cpos[1];
+      spIdx=0;
+      while(sp.charAt(spIdx) == ' ' || sp.charAt(spIdx) == '\t')
+        spIdx++;
+      sp=sp.substring(spIdx);
+      sp=sp.length()<5?sp.toLowerCase():
+                           sp.substring(0,5).toLowerCase()+sp.substring(5);
+      if (sp.startsWith("j2000")) {
+        b.tequ = SwephData.J2000;
+      } else if (sp.startsWith("b1950")) {
+        b.tequ = SwephData.B1950;
+      } else if (sp.startsWith("j1900")) {
+        b.tequ = SwephData.J1900;
+      } else if (sp.startsWith("jdate")) {
+        b.tequJdate = true;
+      } else if (sp.charAt(0) == 'j' || sp.charAt(0) == 'b') {
+        b.tequInvalid = true;
+      } else {
+        b.tequ = SwissLib.atof(sp);
+      }
+    } catch (RuntimeException e) {
+      b.tequException = e;
+    }
+    b.mano = compileElement(cpos[2]);
+    b.sema = compileElement(cpos[3]);
+    b.ecce = compileElement(cpos[4]);
+    b.parg = compileElement(cpos[5]);
+    b.node = compileElement(cpos[6]);
+    b.incl = compileElement(cpos[7]);
+    /* planet name */
+    try {
+      sp = cpos[8];
+      spIdx=0;
+      while(sp.charAt(spIdx) == ' ' || sp.charAt(spIdx) == '\t')
+        spIdx++;
+      b.name = sp.substring(spIdx).trim();
+    } catch (RuntimeException e) {
+      b.nameException = e;
+    }
+    /* geocentric */
+    b.geo = (ncpos > 9 && cpos[9].indexOf("geo") >= 0);
+    return b;
+  }
+
+  // Compiles an element the same way as SwephMosh.check_t_terms() parses
+  // it. Each term starts with its sign, the factors given as numbers up
+  // to the first power of T are multiplied into c[i].
+  private static Element compileElement(String sinp) {
+    int i, isgn = 1, z, spidx, spsv;
+    double fac;
+    java.util.Vector terms = new java.util.Vector();
+    java.util.Vector factors = new java.util.Vector();
+    Element el = new Element();
+    el.s = sinp;
+    el.tterms = (sinp.indexOf('+') + sinp.indexOf('-') > -2);
+    try {
+      spidx=0;
+      fac = 1;
+      z = 0;
+      while (true) {
+        while(spidx<sinp.length() &&
+              (sinp.charAt(spidx)==' ' || sinp.charAt(spidx)=='\t')) {
+          spidx++;
+        }
+        if (spidx==sinp.length() ||
+            sinp.charAt(spidx)=='+' || sinp.charAt(spidx)=='-') {
+          if (z > 0) {
+            terms.addElement(new Object[] { new Double(fac), factors });
+          }
+          factors = new java.util.Vector();
+          isgn = 1;
+          if (spidx!=sinp.length() && sinp.charAt(spidx) == '-') {
+            isgn = -1;
+          }
+          fac = 1 * isgn;
+          if (spidx==sinp.length()) {
+            break;
+          }
+          spidx++;
+        } else {
+          spsv = spidx;
+          while(spidx<sinp.length() &&
+                (sinp.charAt(spidx)=='*' || sinp.charAt(spidx)==' '
+                || sinp.charAt(spidx)=='\t')) {
+            spidx++;
+          }
+          if (spidx<sinp.length() &&
+              (sinp.charAt(spidx)=='t' || sinp.charAt(spidx)=='T')) {
+                  /* a T */
+            spidx++;
+            if (spidx<sinp.length() &&
+                (sinp.charAt(spidx)=='+' || sinp.charAt(spidx)=='-')) {
+              factors.addElement(new Integer(0));
+            } else if ((i = SwissLib.atoi(sinp.substring(SMath.min(sinp.length(),spidx)))) <= 4 && i >= 0) {
+              factors.addElement(new Integer(i));
+            }
+          } else {
+            /* a number */
+            double db=SwissLib.atof(sinp.substring(spidx));
+            if (db!=0 || sinp.charAt(spidx)=='0') {
+              if (factors.size() == 0) {
+                fac *= db;
+              } else {
+                factors.addElement(new Double(db));
+              }
+            }
+          }
+          while (spidx<sinp.length() &&
+                 (Character.isDigit(sinp.charAt(spidx)) ||
+                  sinp.charAt(spidx)=='.'))
+            spidx++;
+          if (spidx == spsv) {
+            // check_t_terms() would not come to an end
+            return el;
+          }
+        }
+        z++;
+      }
+    } catch (RuntimeException e) {
+      // check_t_terms() throws the exception again
+      return el;
+    }
+    int n = terms.size();
+    el.c = new double[n];
+    el.f = new double[n][];
+    el.pw = new int[n][];
+    el.constant = true;
+    el.value = 0;
+    for (i = 0; i < n; i++) {
+      Object[] t = (Object[])terms.elementAt(i);
+      java.util.Vector fv = (java.util.Vector)t[1];
+      el.c[i] = ((Double)t[0]).doubleValue();
+      el.f[i] = new double[fv.size()];
+      el.pw[i] = new int[fv.size()];
+      for (int j = 0; j < fv.size(); j++) {
+        Object o = fv.elementAt(j);
+        if (o instanceof Integer) {
+          el.pw[i][j] = ((Integer)o).intValue();
+        } else {
+          el.pw[i][j] = -1;
+          el.f[i][j] = ((Double)o).doubleValue();
+        }
+      }
+      if (fv.size() > 0) {
+        el.constant = false;
+      }
+      el.value += el.c[i];
+    }
+    return el;
+  }
+}
+#endif /* ASTROLOGY */
+#endif /* JAVAME */
@@ -96,6 +96,7 @@ class FileData
                          * is derived from. */
 #ifndef JAVAME
   FilePtr fptr = null;/* ephemeris file pointer */
+  FlatEphemeris flat = null; /* pre-decoded flat file, if selected */
 #endif /* JAVAME */
   double tfstart = 1;       /* file may be used from this date */
   double tfend = 0;         /*      through this date          */
@@ -120,6 +121,8 @@ class FileData
 // NBT
     }
     fptr=null;
+    if (flat!=null) { flat.close(); }
+    flat=null;
 #endif /* JAVAME */
     tfstart=1.0;
     tfend=0.0;
@@ -572,9 +575,9 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
    * of several of the popular FDDI "MAC" chips.
    */
   /* unsigned long [...] */
-  static long crc32_table[]=null;
-  /* Initialized first time "crc32()" is called. If you prefer, you can
-   * statically initialize it at compile time. [Another exercise.]
+  static final long crc32_table[]=init_crc32();
+  /* Initialized statically, so it is complete before any thread
+   * can use it.
    */
 
   long swi_crc32(/*unsigned???*/ byte[] buf, int len) {
@@ -587,9 +590,6 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
 #endif /* TRACE0 */
     int pn;
     /*unsigned*/ long crc;
-    if (crc32_table==null) {  /* if not already done, */
-      init_crc32();   /* build table */
-    }
     crc = 0xffffffffL;       /* preload shift register, per CRC-32 spec */
     for (pn = 0; len > 0; ++pn, --len) {
       crc = ((crc << 8)&0xffffffffL) ^ crc32_table[(int)((crc >> 24) ^ ((long)buf[pn]&0xff))];
@@ -605,14 +605,14 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
    */
   static final int CRC32_POLY=0x04c11db7;    /* AUTODIN II, Ethernet, & FDDI */
 
-  void init_crc32() {
+  static long[] init_crc32() {
 #ifdef TRACE0
     Trace.level++;
     Trace.log("FileData.init_crc32()");
 #endif /* TRACE0 */
     long i, j;
     long c;
-    crc32_table = new long[256];
+    long crc32_table[] = new long[256];
     for (i = 0; i < 256; ++i) {
       for (c = i << 24, j = 8; j > 0; --j) {
         c = (c & 0x80000000L)!=0 ? (c << 1) ^ CRC32_POLY : (c << 1);
@@ -623,6 +623,7 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
 #ifdef TRACE0
     Trace.level--;
 #endif /* TRACE0 */
+    return crc32_table;
   }
 
 
@@ -756,6 +757,33 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
     /* get file position of coefficients from file */
     fpos = (int)pdp.lndx0 + iseg * 3;
     try {
+#ifndef JAVAME
+      /* pre-decoded coefficients from flat file, no unpacking required, */
+      /* so they are not kept in the segment cache either */
+      if (flat != null) {
+        if (pdp.segp == null) {
+          pdp.segp = new double[pdp.ncoe*3];
+        }
+        if (flat.read_segment(ipli, iseg, pdp.segp)) {
+#ifdef TRACE0
+          Trace.level--;
+#endif /* TRACE0 */
+          return SweConst.OK;
+        }
+      }
+      /* unpacked segment in the cache of recently used segments? */
+      double[] cseg = SegmentCache.get(fnam, ipli, iseg);
+      if (cseg != null) {
+        if (pdp.segp == null || pdp.segp.length != cseg.length) {
+          pdp.segp = new double[cseg.length];
+        }
+        System.arraycopy(cseg, 0, pdp.segp, 0, cseg.length);
+#ifdef TRACE0
+        Trace.level--;
+#endif /* TRACE0 */
+        return SweConst.OK;
+      }
+#endif /* JAVAME */
       fpos = read3(fptr, fpos, freord, fendian);
       fptr.seek(fpos);
       /* clear space of chebyshew coefficients */
@@ -881,6 +909,9 @@ int kCnt;
           }
         }
       }
+#ifndef JAVAME
+      SegmentCache.put(fnam, ipli, iseg, (double[])pdp.segp.clone());
+#endif /* JAVAME */
 #ifdef TRACE0
       Trace.level--;
 #endif /* TRACE0 */
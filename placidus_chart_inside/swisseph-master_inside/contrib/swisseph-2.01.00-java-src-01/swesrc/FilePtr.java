@@ -79,11 +79,10 @@ package swisseph;
 import java.io.*;
 import java.net.*;
 #ifdef NIO
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.CharBuffer;
-import java.nio.MappedByteBuffer;
 import java.nio.BufferOverflowException;
-import java.nio.channels.FileChannel;
 #endif /* NIO */
 
 
@@ -105,8 +104,9 @@ public class FilePtr
 
   transient RandomAccessFile fp;
 #ifdef NIO
-  transient FileChannel fc;
-  private transient MappedByteBuffer mbb = null;
+  // Our own view of the memory mapping of the file, which is shared
+  // with all other FilePtr objects on the same file:
+  private transient ByteBuffer mbb = null;
   private transient CharBuffer cb = null;
 #endif /* NIO */
   transient Socket sk;
@@ -156,9 +156,6 @@ public class FilePtr
     data = new byte[BUFSIZE];
     inbuf = new byte[BUFSIZE];
     if (useHTTP && fp == null) { // RandomAccessFile, try file access via http:
-#ifdef NIO
-      fc = null;
-#endif /* NIO */
       try {
         URL u = new URL(fnamp);
         host = u.getHost();
@@ -169,9 +166,15 @@ public class FilePtr
       }
 #ifdef NIO
     } else {
-      fc = fp.getChannel();
-      mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, length());
-      cb = CharBuffer.allocate( STRING_BUFFER_SIZE );
+      mbb = MappedFileRegistry.map(fp, fnamp);
+      if (mbb != null) {
+        // The mapping stays valid after the file has been closed, so we
+        // do not need to keep a file handle per FilePtr object:
+        fp.close();
+        this.fp = null;
+        cb = CharBuffer.allocate( STRING_BUFFER_SIZE );
+      }
+      // else: file too large to be mapped, read it via fp
 #endif /* NIO */
     }
   }
@@ -179,7 +182,7 @@ public class FilePtr
 
   public void setBigendian(boolean bigendian) {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       mbb.order(bigendian?ByteOrder.BIG_ENDIAN:ByteOrder.LITTLE_ENDIAN);
     } else {
       this.bigendian = bigendian;
@@ -199,7 +202,7 @@ public class FilePtr
   */
   public byte readByte() throws IOException, EOFException {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       return mbb.get();
     }
 
@@ -233,7 +236,7 @@ public class FilePtr
   */
   public short readShort() throws IOException, EOFException {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       return mbb.getShort();
     }
 
@@ -254,7 +257,7 @@ public class FilePtr
   */
   public int readInt() throws IOException, EOFException {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       return mbb.getInt();
     }
 
@@ -281,7 +284,7 @@ public class FilePtr
   */
   public double readDouble() throws IOException, EOFException {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       return mbb.getDouble();
     }
 
@@ -312,6 +315,57 @@ public class FilePtr
   }
 
 
+  /**
+  * Reads n double values starting at the given file position. This is
+  * much faster than n calls to readDouble(), if the file is accessed
+  * directly or via a memory mapping. The file pointer will be positioned
+  * behind the last double value read.
+  * @param pos The position in the file, where to start reading
+  * @param d The array to receive the values
+  * @param n The number of values to read
+  * @throws IOException if an I/O error occurs.
+  * @throws EOFException if the end of file is reached before all
+  * values could be read completely.
+  */
+  public void readDoubles(long pos, double[] d, int n)
+      throws IOException, EOFException {
+#ifdef NIO
+    if (mbb != null) {
+      mbb.position((int)pos);
+      // The double view has the byte order of the mapping:
+      mbb.asDoubleBuffer().get(d, 0, n);
+      mbb.position((int)pos + n * 8);
+      return;
+    }
+
+#endif /* NIO */
+    if (fp != null) {
+      byte[] b = new byte[n * 8];
+      fp.seek(pos);
+      fp.readFully(b);
+      for (int i = 0, j = 0; i < n; i++, j += 8) {
+        long l = 0;
+        if (bigendian) {
+          for (int m = 0; m < 8; m++) {
+            l = (l << 8) | (b[j + m] & 0xff);
+          }
+        } else {
+          for (int m = 7; m >= 0; m--) {
+            l = (l << 8) | (b[j + m] & 0xff);
+          }
+        }
+        d[i] = Double.longBitsToDouble(l);
+      }
+      fpos = pos + n * 8;
+      return;
+    }
+    seek(pos);
+    for (int i = 0; i < n; i++) {
+      d[i] = readDouble();
+    }
+  }
+
+
   /**
   * Reads a complete line from the file. The line is seen to end on a
   * newline character ('\n') or on an end of file. The returned String
@@ -325,7 +379,7 @@ public class FilePtr
   */
   public String readLine() throws IOException, EOFException {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       cb.clear();
 
       char ch;
@@ -374,6 +428,9 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
   public void close() throws IOException {
     try {
       fnamp = "";
+#ifdef NIO
+      mbb = null;
+#endif /* NIO */
       if (fp != null) {
         fp.close();
       }
@@ -395,13 +452,26 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
     }
   }
 
+  /**
+  * Returns true, as long as the file has not been closed.
+  * @return true, if data can be read from the file.
+  */
+  boolean isOpen() {
+#ifdef NIO
+    if (mbb != null) {
+      return true;
+    }
+#endif /* NIO */
+    return fp != null || sk != null;
+  }
+
   /**
   * Returns the current position of the file pointer.
   * @return the current position of the file pointer.
   */
   public long getFilePointer() {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       return mbb.position();
     }
 
@@ -416,8 +486,8 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
   */
   public long length() throws IOException {
 #ifdef NIO
-    if (fc != null) {
-      return fc.size();
+    if (mbb != null) {
+      return mbb.capacity();
     }
 
 #endif /* NIO */
@@ -472,7 +542,7 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
   */
   public void seek(long pos) {
 #ifdef NIO
-    if (fc != null) {
+    if (mbb != null) {
       mbb.position((int)pos);
     }
 
@@ -537,7 +607,6 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
 
   // Reads a chunk of data to the buffer data[]
   private void readToBuffer() throws IOException, EOFException {
-#ifndef NIO
     // Directly reading a file:
     if (fp != null) {
       fp.seek(fpos);
@@ -555,7 +624,6 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
       return;
     }
 
-#endif /* NIO */
     if (fpos >= length()) {
       throw new EOFException("Filepointer position " + fpos + " exceeds file " +
                              "length by " + (fpos-length()+1) + " byte(s).");
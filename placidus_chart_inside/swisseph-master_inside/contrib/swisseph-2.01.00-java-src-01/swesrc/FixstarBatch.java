@@ -0,0 +1,494 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef JAVAME
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* Calculates all stars of a FixstarCatalog for one point of time, see
+* SwissEph.calcFixstarsET(). The calculation is the one of
+* SwissEph.swe_fixstar_calc() in the same order of operations, so the
+* results are bit by bit identical, but it is split into two parts:<p>
+* The position and the space motion of the stars in the ICRF (or J2000
+* for old ephemerides) do not depend on the time. They are calculated once
+* per catalog and kept in one array of 6 doubles per star.<p>
+* Everything, that depends on the time only, i.e. the earth, the observer,
+* the sun for the light deflection, the velocity for the aberration, the
+* correction of the precession speed and the ayanamsa, is calculated once
+* per call. The loop over the stars reads these values, the nutation
+* matrix and the obliquity of the ecliptic, but does not write into the
+* SwissEph object, so it is split into chunks of stars calculated in
+* parallel on the common ForkJoinPool. Each chunk uses its own SwissLib
+* object for the precession matrix.
+*/
+class FixstarBatch {
+
+  // Number of stars calculated by one task:
+  static final int CHUNK = 512;
+
+  private SwissEph sw;
+  private SwissData swed;
+
+  // The time independent part, see prepare():
+  private FixstarCatalog cat = null;
+  private int jpldenum;
+  private int[] models = null;
+  private double precStep;
+  private double[] x0 = null;
+
+  // The time dependent part, see calc():
+  private double tjd;
+  private int iflag;
+  private double[] xpo;
+  private boolean hasXpo;
+  private double[] xearth = new double[6];
+  private double[] xsun = new double[6];
+  private double[] e = new double[3];
+  private double[] es = new double[3];
+  private double re, res;
+  private double[] v = new double[3];
+  private double b_1;
+  private double dprec;
+  private double ayan;
+
+  FixstarBatch(SwissEph sw) {
+    this.sw = sw;
+    this.swed = sw.swed;
+  }
+
+  /**
+  * Calculates all stars of the catalog with the valid position data
+  * (FixstarCatalog.POS_OK). The earth, the observer and nutation have to
+  * be calculated for tjd already, as done by SwissEph.swe_fixstar_calc().
+  * @param cat The catalog
+  * @param tjd The Julian Day number in ET
+  * @param iflag The flags after the calculation of the earth
+  * @param xobs The barycentric position of the observer
+  * @param xx Receives 6 doubles per star
+  */
+  void calc(FixstarCatalog cat, double tjd, int iflag, double[] xobs,
+            double[] xx) {
+    int i;
+    double[] xe;
+    double dtsp = -SwephData.DEFL_SPEED_INTV;
+    PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
+    PlanData psdp = swed.pldat[SwephData.SEI_SUNBARY];
+    int iephe = pedp.iephe;
+    boolean sunbary = (iephe == SweConst.SEFLG_JPLEPH ||
+                       iephe == SweConst.SEFLG_SWIEPH);
+    prepare(cat);
+    this.tjd = tjd;
+    this.iflag = iflag;
+    /* for parallax */
+    if ((iflag & SweConst.SEFLG_HELCTR)!=0 &&
+        (iflag & SweConst.SEFLG_MOSEPH)!=0) {
+      xpo = null;
+    } else if ((iflag & SweConst.SEFLG_HELCTR)!=0) {
+      xpo = (double[])psdp.x.clone();
+    } else if ((iflag & SweConst.SEFLG_BARYCTR)!=0) {
+      xpo = null;
+    } else {
+      xpo = (double[])xobs.clone();
+    }
+    hasXpo = (xpo != null);
+    /* light deflection: earth and sun, see swi_deflect_light() with
+     * dt = 0 */
+    for (i = 0; i <= 5; i++) {
+      xearth[i] = pedp.x[i];
+      xsun[i] = psdp.x[i];
+    }
+    if (sunbary) {
+      for (i = 0; i <= 2; i++) {
+        e[i] = xearth[i] - psdp.x[i];
+      }
+    } else {
+      for (i = 0; i <= 2; i++) {
+        e[i] = xearth[i];
+      }
+    }
+    re = SMath.sqrt(sw.sl.square_sum(e));
+    for (i = 0; i <= 2; i++) {
+      e[i] /= re;
+    }
+    if (sunbary) {
+      for (i = 0; i <= 2; i++) {
+        es[i] = xearth[i] - psdp.x[i] - dtsp * (xearth[i+3] - psdp.x[i+3]);
+      }
+    } else {
+      for (i = 0; i <= 2; i++) {
+        es[i] = xearth[i] - dtsp * xearth[i+3];
+      }
+    }
+    res = SMath.sqrt(sw.sl.square_sum(es));
+    for (i = 0; i <= 2; i++) {
+      es[i] /= res;
+    }
+    /* aberration, see swi_aberr_light() */
+    if ((iflag & SweConst.SEFLG_TRUEPOS) == 0 &&
+        (iflag & SweConst.SEFLG_NOABERR) == 0) {
+      xe = xpo;
+      for (i = 0; i <= 2; i++) {
+        v[i] = xe[i+3] / 24.0 / 3600.0 / SwephData.CLIGHT * SweConst.AUNIT;
+      }
+      b_1 = SMath.sqrt(1 - sw.sl.square_sum(v));
+    }
+    /* precession speed, see swi_precess_speed() */
+    if ((iflag & SweConst.SEFLG_J2000) == 0) {
+      int prec_model = swed.astro_models[SweConst.SE_MODEL_PREC_LONGTERM];
+      if (prec_model == 0) prec_model = SweConst.SEMOD_PREC_DEFAULT;
+      if (prec_model == SweConst.SEMOD_PREC_VONDRAK_2011) {
+        double dpre[] = new double[1], dpre2[] = new double[1];
+        sw.sl.swi_ldp_peps(tjd, dpre, null);
+        sw.sl.swi_ldp_peps(tjd + 1, dpre2, null);
+        dprec = dpre2[0] - dpre[0];
+      } else {
+        double tprec = (tjd - SwephData.J2000) / 36525.0;
+        dprec = (50.290966 + 0.0222226 * tprec) / 3600 / 365.25 *
+                SwissData.DEGTORAD;
+      }
+    }
+    if ((iflag & SweConst.SEFLG_SIDEREAL)!=0) {
+      ayan = sw.swe_get_ayanamsa(tjd) * SwissData.DEGTORAD;
+    }
+    int n = cat.count;
+    if (n <= CHUNK) {
+      calc(sw.sl, 0, n, xx);
+    } else {
+      java.util.concurrent.ForkJoinPool.commonPool().invoke(
+          new StarTask(this, 0, n, xx));
+    }
+    xpo = null;
+  }
+
+  // Calculates the position and the space motion of all stars in the
+  // ICRF, if the catalog or anything used for it changed since the last
+  // call:
+  private void prepare(FixstarCatalog c) {
+    int i, j, k;
+    double[] x = new double[6];
+    if (c == cat && jpldenum == swed.jpldenum &&
+        precStep == sw.sl.prec_interp_step &&
+        java.util.Arrays.equals(models, swed.astro_models)) {
+      return;
+    }
+    int n = c.count;
+    x0 = new double[6 * n];
+    for (i = 0; i < n; i++) {
+      if ((c.flags[i] & FixstarCatalog.POS_OK) == 0) {
+        continue;
+      }
+      double epoch = c.epoch[i], ra = c.ra[i], de = c.de[i];
+      double ra_pm = c.raPm[i], de_pm = c.dePm[i];
+      double radv = c.radv[i], parall = c.parall[i];
+      double cosra, cosde, sinra, sinde;
+      x[0] = ra;
+      x[1] = de;
+      x[2] = 1;     /* -> unit vector */
+      /* cartesian */
+      sw.sl.swi_polcart(x, x);
+      /*space motion vector */
+      cosra = SMath.cos(ra);
+      cosde = SMath.cos(de);
+      sinra = SMath.sin(ra);
+      sinde = SMath.sin(de);
+      x[3] = -ra_pm * cosde * sinra - de_pm * sinde * cosra
+                            + radv * parall * cosde * cosra;
+      x[4] = ra_pm * cosde * cosra - de_pm * sinde * sinra
+                            + radv * parall * cosde * sinra;
+      x[5] = de_pm * cosde + radv * parall * sinde;
+      x[3] /= 36525;
+      x[4] /= 36525;
+      x[5] /= 36525;
+      /* FK5 */
+      if (epoch == 1950) {
+        sw.sl.swi_FK4_FK5(x, SwephData.B1950);
+        sw.sl.swi_precess(x, SwephData.B1950, 0, SwephData.J_TO_J2000);
+        sw.sl.swi_precess(x, 3, SwephData.B1950, 0, SwephData.J_TO_J2000);
+      }
+      /* FK5 to ICRF */
+      if (epoch != 0) {
+        sw.sl.swi_icrs2fk5(x, SweConst.SEFLG_SPEED, true);
+        /* with ephemerides < DE403, we now convert to J2000 */
+        if (swed.jpldenum < 403)
+          sw.sl.swi_bias(x, SwephData.J2000, SweConst.SEFLG_SPEED, false);
+      }
+      for (j = 0, k = 6 * i; j <= 5; j++, k++) {
+        x0[k] = x[j];
+      }
+    }
+    cat = c;
+    jpldenum = swed.jpldenum;
+    precStep = sw.sl.prec_interp_step;
+    models = (int[])swed.astro_models.clone();
+  }
+
+  // Calculates the stars from lo to hi - 1. The SwissLib object is used
+  // for the precession and must not be used by another thread at the
+  // same time.
+  void calc(SwissLib sl, int lo, int hi, double[] xx) {
+    int i, j, k;
+    double t, u, ru, rq, uq, ue, qe, g1, g2, f1, f2, dx1, dx2;
+    double sina, sin_sunr, meff_fact;
+    double dtsp = -SwephData.DEFL_SPEED_INTV;
+    double intv = SwephData.PLAN_SPEED_INTV;
+    double x[] = new double[6], xxsv[] = new double[6];
+    double xn[] = new double[3];
+    double uu[] = new double[3], q[] = new double[3];
+    double xx2[] = new double[3], xx3[] = new double[3];
+    double xxs[] = new double[6];
+    double nm[][] = swed.nut.matrix;
+    Epsilon oe = swed.oec2000;
+    int iflag = this.iflag;
+    boolean defl = (iflag & SweConst.SEFLG_TRUEPOS) == 0 &&
+                   (iflag & SweConst.SEFLG_NOGDEFL) == 0;
+    boolean aberr = (iflag & SweConst.SEFLG_TRUEPOS) == 0 &&
+                    (iflag & SweConst.SEFLG_NOABERR) == 0;
+    boolean speed = (iflag & SweConst.SEFLG_SPEED) != 0;
+    for (k = lo; k < hi; k++) {
+      if ((cat.flags[k] & FixstarCatalog.POS_OK) == 0) {
+        continue;
+      }
+      double parall = cat.parall[k];
+      for (i = 0; i <= 5; i++) {
+        x[i] = x0[6 * k + i];
+      }
+      /* position and speed at tjd */
+      if (cat.epoch[k] == 1950) {
+        t = (tjd - SwephData.B1950);
+      } else {
+        t = (tjd - SwephData.J2000);
+      }
+      if (!hasXpo) {
+        for (i = 0; i <= 2; i++) {
+          x[i] += t * x[i+3];
+        }
+      } else {
+        for (i = 0; i <= 2; i++) {
+          x[i] += t * x[i+3] - parall * xpo[i];
+          x[i+3] -= parall * xpo[i+3];
+        }
+      }
+      for (i = 0; i <= 5; i++) {
+        x[i] *= 10000;
+      }
+      /* relativistic deflection of light, see swi_deflect_light() */
+      if (defl) {
+        for (i = 0; i <= 2; i++) {
+          uu[i] = x[i];
+          q[i] = x[i] + xearth[i] - xsun[i];
+        }
+        ru = SMath.sqrt(sl.square_sum(uu));
+        rq = SMath.sqrt(sl.square_sum(q));
+        for (i = 0; i <= 2; i++) {
+          uu[i] /= ru;
+          q[i] /= rq;
+        }
+        uq = uu[0]*q[0]+uu[1]*q[1]+uu[2]*q[2];
+        ue = uu[0]*e[0]+uu[1]*e[1]+uu[2]*e[2];
+        qe = q[0]*e[0]+q[1]*e[1]+q[2]*e[2];
+        sina = SMath.sqrt(1 - ue * ue);
+        sin_sunr = SwephData.SUN_RADIUS / re;
+        if (sina < sin_sunr) {
+          meff_fact = sw.meff(sina / sin_sunr);
+        } else {
+          meff_fact = 1;
+        }
+        g1 = 2.0 * SwephData.HELGRAVCONST * meff_fact / SwephData.CLIGHT / SwephData.CLIGHT / SweConst.AUNIT / re;
+        g2 = 1.0 + qe;
+        for (i = 0; i <= 2; i++) {
+          xx2[i] = ru * (uu[i] + g1/g2 * (uq * e[i] - ue * q[i]));
+        }
+        if (speed) {
+          for (i = 0; i <= 2; i++) {
+            uu[i] = x[i] - dtsp * x[i+3];
+          }
+          for (i = 0; i <= 2; i++) {
+            q[i] = uu[i] + xearth[i] - xsun[i] - dtsp * (xearth[i+3] - xsun[i+3]);
+          }
+          ru = SMath.sqrt(sl.square_sum(uu));
+          rq = SMath.sqrt(sl.square_sum(q));
+          for (i = 0; i <= 2; i++) {
+            uu[i] /= ru;
+            q[i] /= rq;
+          }
+          uq = uu[0]*q[0]+uu[1]*q[1]+uu[2]*q[2];
+          ue = uu[0]*es[0]+uu[1]*es[1]+uu[2]*es[2];
+          qe = q[0]*es[0]+q[1]*es[1]+q[2]*es[2];
+          sina = SMath.sqrt(1 - ue * ue);
+          sin_sunr = SwephData.SUN_RADIUS / res;
+          if (sina < sin_sunr) {
+            meff_fact = sw.meff(sina / sin_sunr);
+          } else {
+            meff_fact = 1;
+          }
+          g1 = 2.0 * SwephData.HELGRAVCONST * meff_fact / SwephData.CLIGHT /
+               SwephData.CLIGHT / SweConst.AUNIT / res;
+          g2 = 1.0 + qe;
+          for (i = 0; i <= 2; i++) {
+            xx3[i] = ru * (uu[i] + g1/g2 * (uq * es[i] - ue * q[i]));
+          }
+          for (i = 0; i <= 2; i++) {
+            dx1 = xx2[i] - x[i];
+            dx2 = xx3[i] - uu[i] * ru;
+            dx1 -= dx2;
+            x[i+3] += dx1 / dtsp;
+          }
+        }
+        for (i = 0; i <= 2; i++) {
+          x[i] = xx2[i];
+        }
+      }
+      /* 'annual' aberration of light, see swi_aberr_light() */
+      if (aberr) {
+        for (i = 0; i <= 5; i++) {
+          xxs[i] = x[i];
+        }
+        for (i = 0; i <= 2; i++) {
+          uu[i] = x[i];
+        }
+        ru = SMath.sqrt(sl.square_sum(uu));
+        f1 = (uu[0]*v[0]+uu[1]*v[1]+uu[2]*v[2]) / ru;
+        f2 = 1.0 + f1 / (1.0 + b_1);
+        for (i = 0; i <= 2; i++) {
+          x[i] = (b_1*x[i] + f2*ru*v[i]) / (1.0 + f1);
+        }
+        if (speed) {
+          for (i = 0; i <= 2; i++) {
+            uu[i] = xxs[i] - intv * xxs[i+3];
+          }
+          ru = SMath.sqrt(sl.square_sum(uu));
+          f1 = (uu[0]*v[0]+uu[1]*v[1]+uu[2]*v[2]) / ru;
+          f2 = 1.0 + f1 / (1.0 + b_1);
+          for (i = 0; i <= 2; i++) {
+            xx2[i] = (b_1*uu[i] + f2*ru*v[i]) / (1.0 + f1);
+          }
+          for (i = 0; i <= 2; i++) {
+            dx1 = x[i] - xxs[i];
+            dx2 = xx2[i] - uu[i];
+            dx1 -= dx2;
+            x[i+3] += dx1 / intv;
+          }
+        }
+      }
+      /* ICRS to J2000 */
+      if ((iflag & SweConst.SEFLG_ICRS) == 0 &&
+          (swed.jpldenum >= 403 || (iflag & SweConst.SEFLG_BARYCTR) != 0)) {
+        sl.swi_bias(x, tjd, iflag, false);
+      }
+      for (i = 0; i <= 5; i++) {
+        xxsv[i] = x[i];
+      }
+      /* precession, equator 2000 -> equator of date */
+      if ((iflag & SweConst.SEFLG_J2000) == 0) {
+        sl.swi_precess(x, tjd, iflag, SwephData.J2000_TO_J);
+        if (speed) {
+          oe = swed.oec;
+          sl.swi_precess(x, 3, tjd, iflag, SwephData.J2000_TO_J);
+          sl.swi_coortrf2(x, 0, x, 0, oe.seps, oe.ceps);
+          sl.swi_coortrf2(x, 3, x, 3, oe.seps, oe.ceps);
+          sl.swi_cartpol_sp(x, 0, x, 0);
+          x[3] += dprec;
+          sl.swi_polcart_sp(x, 0, x, 0);
+          sl.swi_coortrf2(x, 0, x, 0, -oe.seps, oe.ceps);
+          sl.swi_coortrf2(x, 3, x, 3, -oe.seps, oe.ceps);
+        }
+        oe = swed.oec;
+      } else {
+        oe = swed.oec2000;
+      }
+      /* nutation, see swi_nutate() without speed */
+      if ((iflag & SweConst.SEFLG_NONUT) == 0) {
+        for (i = 0; i <= 2; i++) {
+          xn[i] = x[0] * nm[0][i] +
+                  x[1] * nm[1][i] +
+                  x[2] * nm[2][i];
+        }
+        for (i = 0; i <= 2; i++) {
+          x[i] = xn[i];
+        }
+      }
+      /* unit vector (distance = 1) */
+      u = SMath.sqrt(sl.square_sum(x));
+      for (i = 0; i <= 5; i++) {
+        x[i] /= u;
+      }
+      /* set speed = 0, because not correct (aberration) */
+      for (i = 3; i <= 5; i++) {
+        x[i] = 0;
+      }
+      /* transformation to ecliptic */
+      if ((iflag & SweConst.SEFLG_EQUATORIAL) == 0) {
+        sl.swi_coortrf2(x, x, oe.seps, oe.ceps);
+        if (speed) {
+          sl.swi_coortrf2(x, 3, x, 3, oe.seps, oe.ceps);
+        }
+        if ((iflag & SweConst.SEFLG_NONUT) == 0) {
+          sl.swi_coortrf2(x, x, swed.nut.snut, swed.nut.cnut);
+          if (speed) {
+            sl.swi_coortrf2(x, 3, x, 3, swed.nut.snut, swed.nut.cnut);
+          }
+        }
+      }
+      /* sidereal positions, traditional algorithm */
+      if ((iflag & SweConst.SEFLG_SIDEREAL)!=0) {
+        sl.swi_cartpol_sp(x, x);
+        x[0] -= ayan;
+        sl.swi_polcart_sp(x, x);
+      }
+      /* transformation to polar coordinates */
+      if ((iflag & SweConst.SEFLG_XYZ) == 0) {
+        sl.swi_cartpol_sp(x, x);
+      }
+      /* radians to degrees */
+      if ((iflag & SweConst.SEFLG_RADIANS) == 0 &&
+          (iflag & SweConst.SEFLG_XYZ) == 0) {
+        for (i = 0; i < 2; i++) {
+          x[i] *= SwissData.RADTODEG;
+          x[i+3] *= SwissData.RADTODEG;
+        }
+      }
+      for (i = 0, j = 6 * k; i <= 5; i++, j++) {
+        xx[j] = x[i];
+      }
+    }
+  }
+
+
+  // Calculates the stars from lo to hi - 1 in chunks of CHUNK stars:
+  private static class StarTask
+      extends java.util.concurrent.RecursiveAction {
+    private FixstarBatch fb;
+    private double[] xx;
+    private int lo, hi;
+
+    StarTask(FixstarBatch fb, int lo, int hi, double[] xx) {
+      this.fb = fb;
+      this.lo = lo;
+      this.hi = hi;
+      this.xx = xx;
+    }
+
+    protected void compute() {
+      if (hi - lo <= CHUNK) {
+        SwissLib sl = new SwissLib(fb.swed);
+        sl.prec_interp_step = fb.sw.sl.prec_interp_step;
+        fb.calc(sl, lo, hi, xx);
+        return;
+      }
+      int mid = (lo + hi) / 2;
+      invokeAll(new StarTask(fb, lo, mid, xx),
+                new StarTask(fb, mid, hi, xx));
+    }
+  }
+}
+#endif /* ASTROLOGY */
+#endif /* JAVAME */
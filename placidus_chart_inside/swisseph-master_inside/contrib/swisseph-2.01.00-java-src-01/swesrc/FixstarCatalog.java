@@ -0,0 +1,874 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifndef JAVAME
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.StringTokenizer;
+
+/**
+* A fixed star file (sefstars.txt or fixstars.cat) compiled into arrays of
+* numbers. Every line of the file is parsed once only, so calculating a
+* star with a catalog does not read or parse the star file anymore:<p>
+* <pre>
+* SwissEph sw = new SwissEph(...);
+* sw.setFixstarCatalog(new FixstarCatalog(sw));
+* sw.swe_fixstar_ut(new StringBuffer("Aldebaran"), ...);
+* </pre>
+* The names of the stars are looked up in a perfect hash table, so a star
+* is found with a single probe, no matter where it is in the file. A name
+* matches the same star as in the file, i.e. the first star with this
+* name or with a name starting with it. Abbreviated names, which are not
+* the name of any star, are searched for in the lines of the file in
+* memory.<p>
+* The results are bit by bit identical to those calculated from the
+* star file.<p>
+* The catalog can be written to a binary file and read back from it
+* without parsing, see write() and read(). If precompiled with -DNIO, the
+* binary file is memory mapped.<p>
+* A catalog is not changed after it has been created, so it may be shared
+* by any number of SwissEph objects and threads.<p>
+* File format of the binary file, all numbers big endian:
+* <pre>
+* header:    int      magic number "SEFC"
+*            int      format version (1)
+*            int      number of stars n
+*            int      1, if compiled from the old star file fixstars.cat
+*            int      index of the first damaged line, or -1
+* arrays:    n ints   line numbers in the star file
+*            n ints   flags (position and magnitude valid)
+*            n double epoch, right ascension, declination, proper motions
+*                     in right ascension and declination, radial velocity,
+*                     parallax and magnitude, each array in one block
+*            strings  lines of the file, star names, star names as
+*                     returned for the magnitude
+* indices:   int      number of buckets r, int size of table m,
+*            r ints   displacements, m ints star indices, m strings keys
+*            for the traditional names and the nomenclature names
+* strings:   int      length or -1 for null, followed by the characters
+* </pre>
+* @see SwissEph#setFixstarCatalog(FixstarCatalog)
+*/
+public class FixstarCatalog
+		implements java.io.Serializable {
+  /**
+  * The default file name of a binary fixed star catalog.
+  */
+  public static final String SE_STARCATFILE = "sefstars.sfc";
+
+  static final int MAGIC = 0x53454643;   // "SEFC"
+  static final int VERSION = 1;
+
+  // Return values of find():
+  static final int NOT_FOUND = -1;
+  static final int EMPTY = -2;
+  static final int DAMAGED = -3;
+
+  // Flags of a star:
+  static final int POS_OK = 1;
+  static final int MAG_OK = 2;
+
+  private static final int BUFSIZE = 4096;
+
+  int count;
+  boolean oldFile;
+  // Index of the first line without a comma:
+  int firstDamaged = -1;
+  int[] flines;
+  int[] flags;
+  // Parsed data in radians and AU per century, as used by swe_fixstar():
+  double[] epoch;
+  double[] ra;
+  double[] de;
+  double[] raPm;
+  double[] dePm;
+  double[] radv;
+  double[] parall;
+  double[] mag;
+  String[] lines;
+  String[] names;
+  String[] magNames;
+  private NameIndex tradIndex;
+  private NameIndex nomIndex;
+
+  private FixstarCatalog() { }
+
+  /**
+  * Compiles the star file of the ephemeris path of a SwissEph object. This
+  * is sefstars.txt or, if it does not exist, fixstars.cat.
+  * @param sw The SwissEph object, whose ephemeris path is to be searched
+  * @throws SwissephException if no star file can be read
+  */
+  public FixstarCatalog(SwissEph sw) throws SwissephException {
+    StringBuffer serr = new StringBuffer();
+    FilePtr fp = null;
+    try {
+      fp = sw.swi_fopen(SwephData.SEI_FILE_FIXSTAR, SweConst.SE_STARFILE,
+                        sw.swed.ephepath, serr);
+    } catch (SwissephException se) {
+      try {
+        fp = sw.swi_fopen(SwephData.SEI_FILE_FIXSTAR,
+                          SweConst.SE_STARFILE_OLD, sw.swed.ephepath, null);
+        oldFile = true;
+      } catch (SwissephException se2) {
+        throw se;
+      }
+    }
+    compile(fp);
+  }
+
+  /**
+  * Compiles a star file. The file is read as fixstars.cat, if its name is
+  * fixstars.cat, and as sefstars.txt otherwise.
+  * @param fname The name of the star file including its path
+  * @throws SwissephException if the file cannot be read
+  */
+  public FixstarCatalog(String fname) throws SwissephException {
+    FilePtr fp;
+    try {
+      fp = new FilePtr(new RandomAccessFile(fname,
+                                            SwissData.BFILE_R_ACCESS),
+                       null, null, null, fname, -1, BUFSIZE);
+    } catch (IOException e) {
+      throw new SwissephException(0./0., SwissephException.FILE_NOT_FOUND,
+          SweConst.ERR, "file " + fname + " not found");
+    } catch (SecurityException e) {
+      throw new SwissephException(0./0., SwissephException.FILE_NOT_FOUND,
+          SweConst.ERR, "file " + fname + " not readable");
+    }
+    oldFile = FlatEphemeris.baseName(fname).equals(SweConst.SE_STARFILE_OLD);
+    compile(fp);
+  }
+
+  /**
+  * Returns the number of stars, i.e. the number of lines of the star file
+  * without the comment lines.
+  * @return The number of stars
+  */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+  * Returns the name of a star in the format "traditional
+  * name,nomenclature name" as returned by swe_fixstar().
+  * @param idx The index of the star, i.e. its line number in the star
+  * file minus 1
+  * @return The name of the star, or null, if the line of the star is
+  * damaged
+  */
+  public String getName(int idx) {
+    return names[idx];
+  }
+
+  /**
+  * Returns the magnitude of a star.
+  * @param idx The index of the star, i.e. its line number in the star
+  * file minus 1
+  * @return The magnitude, or NaN, if the line of the star is damaged
+  */
+  public double getMagnitude(int idx) {
+    return mag[idx];
+  }
+
+  /**
+  * Returns the index of a star as used by the other methods of this
+  * class. The star is given as in swe_fixstar().
+  * @param star The traditional name, the nomenclature name prefixed by a
+  * comma or the line number of the star
+  * @return The index of the star, or -1, if the star is not found or if
+  * the star file is damaged before the line of the star
+  * @see SwissEph#swe_fixstar(java.lang.StringBuffer, double, int, double[], java.lang.StringBuffer)
+  */
+  public int indexOf(String star) {
+    int idx = find(star);
+    return (idx < 0 ? -1 : idx);
+  }
+
+  /**
+  * Writes the catalog to a binary file, which can be read by read().
+  * @param fname The name of the file
+  * @throws IOException if the file cannot be written
+  * @see #read(java.lang.String)
+  */
+  public void write(String fname) throws IOException {
+    java.io.DataOutputStream os = new java.io.DataOutputStream(
+        new java.io.BufferedOutputStream(
+            new java.io.FileOutputStream(fname)));
+    try {
+      os.writeInt(MAGIC);
+      os.writeInt(VERSION);
+      os.writeInt(count);
+      os.writeInt(oldFile ? 1 : 0);
+      os.writeInt(firstDamaged);
+      writeInts(os, flines, count);
+      writeInts(os, flags, count);
+      double[][] d = new double[][] {
+          epoch, ra, de, raPm, dePm, radv, parall, mag };
+      for (int k = 0; k < d.length; k++) {
+        for (int i = 0; i < count; i++) {
+          os.writeDouble(d[k][i]);
+        }
+      }
+      writeStrings(os, lines, count);
+      writeStrings(os, names, count);
+      writeStrings(os, magNames, count);
+      tradIndex.write(os);
+      nomIndex.write(os);
+    } finally {
+      os.close();
+    }
+  }
+
+  /**
+  * Reads a catalog from a binary file written by write().
+  * @param fname The name of the file
+  * @return The catalog
+  * @throws IOException if the file cannot be read or if it is not a
+  * binary fixed star catalog
+  * @see #write(java.lang.String)
+  */
+  public static FixstarCatalog read(String fname) throws IOException {
+    FilePtr fp = new FilePtr(new RandomAccessFile(fname,
+                                                  SwissData.BFILE_R_ACCESS),
+                             null, null, null, fname, -1, BUFSIZE);
+    try {
+      if (fp.readInt() != MAGIC || fp.readInt() != VERSION) {
+        throw new IOException("file " + fname +
+                              " is not a fixed star catalog");
+      }
+      FixstarCatalog cat = new FixstarCatalog();
+      int n = cat.count = fp.readInt();
+      cat.oldFile = (fp.readInt() != 0);
+      cat.firstDamaged = fp.readInt();
+      if (n < 0 || cat.firstDamaged >= n) {
+        throw new IOException("file " + fname + " is damaged");
+      }
+      cat.flines = readInts(fp, n);
+      cat.flags = readInts(fp, n);
+      cat.epoch = readDoubles(fp, n);
+      cat.ra = readDoubles(fp, n);
+      cat.de = readDoubles(fp, n);
+      cat.raPm = readDoubles(fp, n);
+      cat.dePm = readDoubles(fp, n);
+      cat.radv = readDoubles(fp, n);
+      cat.parall = readDoubles(fp, n);
+      cat.mag = readDoubles(fp, n);
+      cat.lines = readStrings(fp, n);
+      cat.names = readStrings(fp, n);
+      cat.magNames = readStrings(fp, n);
+      cat.tradIndex = NameIndex.read(fp, n);
+      cat.nomIndex = NameIndex.read(fp, n);
+      return cat;
+#ifdef NIO
+    } catch (java.nio.BufferUnderflowException e) {
+      throw new IOException("file " + fname + " is damaged");
+#endif /* NIO */
+    } finally {
+      fp.close();
+    }
+  }
+
+
+  /**
+  * Returns the index of a star given as in swe_fixstar(), or NOT_FOUND,
+  * EMPTY or DAMAGED. The star is the same as found by reading the star
+  * file sequentially.
+  */
+  int find(String star) {
+    int star_nr = 0;
+    boolean isnomclat = false;
+    String sstar = star.substring(0,
+                                  SMath.min(star.length(),SweConst.SE_MAX_STNAME));
+    if (sstar.length()>0) {
+      if (sstar.charAt(0) == ',') {
+        isnomclat = true;
+      } else if (Character.isDigit(sstar.charAt(0))) {
+        star_nr = Integer.parseInt(sstar);
+      } else {
+        /* traditional name of star to lower case */
+        if (sstar.indexOf(',')>=0) {
+           sstar=sstar.substring(0,sstar.indexOf(','));
+        }
+        sstar=sstar.toLowerCase();
+      }
+      sstar=sstar.trim();
+    }
+    if (sstar.length() == 0) {
+      return EMPTY;
+    }
+    if (star_nr > 0) {
+      return (star_nr <= count ? star_nr - 1 : NOT_FOUND);
+    }
+    int idx = (isnomclat ? nomIndex.get(sstar) : tradIndex.get(sstar));
+    if (idx < 0) {
+      // Not a complete name, search the lines as in the star file:
+      for (int i = 0; i < count; i++) {
+        String s = lines[i];
+        int comma = s.indexOf(',');
+        if (comma < 0) {
+          return DAMAGED;
+        }
+        if (isnomclat ? s.startsWith(sstar, comma) :
+                        s.regionMatches(true, 0, sstar, 0, sstar.length())) {
+          return i;
+        }
+      }
+      return NOT_FOUND;
+    }
+    if (firstDamaged >= 0 && firstDamaged < idx) {
+      return DAMAGED;
+    }
+    return idx;
+  }
+
+  /**
+  * Parses a line of the star file as in swe_fixstar(). The parameters
+  * epoch, ra, de, ra_pm, de_pm, radv and parall are returned in par[0] to
+  * par[6] in radians and AU per century.
+  * @return The name of the star as returned by swe_fixstar(), or null on
+  * errors
+  */
+  static String parsePosition(String s, int fline, boolean oldFile,
+                              double[] par, StringBuffer serr) {
+    double ra_s, ra_pm, de_pm, ra, de;
+    double ra_h, ra_m, de_d, de_m, de_s;
+    String sde_d;
+    double epoch, radv, parall;
+    String[] cpos=new String[20];
+    StringTokenizer tk=new StringTokenizer(s,",");
+    int i=tk.countTokens();
+    if(i<2) {
+      if (serr != null) {
+        serr.setLength(0);
+        serr.append("star file "+SweConst.SE_STARFILE+" damaged at line "+
+                                                                   fline);
+      }
+      return null;
+    }
+    int n=0;
+    while(tk.hasMoreTokens() && n<20) {
+      cpos[n++]=tk.nextToken();
+    }
+    cpos[0]=cpos[0].trim();
+    cpos[1]=cpos[1].trim();
+    if (i < 13) {
+      if (serr!=null) {
+        serr.setLength(0);
+        serr.append("data of star '"+cpos[0]+","+cpos[1]+"' incomplete");
+      }
+      return null;
+    }
+    // JAVA: Grrr: zumindest cpos[2] muss keine Zahl sein, aber es FAENGT
+    // moeglicherweise mit einer Zahl AN!!!
+    int idx=cpos[2].length();
+    while(true) {
+      try {
+        epoch = Double.valueOf(cpos[2].substring(0,idx)).doubleValue();
+        break;
+      } catch (NumberFormatException nf) {
+        idx--;
+        if (idx==0) { epoch=0.; break; }
+      }
+    }
+    ra_h = new Double(cpos[3]).doubleValue();
+    ra_m = new Double(cpos[4]).doubleValue();
+    ra_s = new Double(cpos[5]).doubleValue();
+    de_d = new Double(cpos[6]).doubleValue();
+    sde_d = cpos[6];
+    de_m = new Double(cpos[7]).doubleValue();
+    de_s = new Double(cpos[8]).doubleValue();
+    ra_pm = new Double(cpos[9]).doubleValue();
+    de_pm = new Double(cpos[10]).doubleValue();
+    radv = new Double(cpos[11]).doubleValue();
+    parall = new Double(cpos[12]).doubleValue();
+    /* return trad. name, nomeclature name */
+    if (cpos[0].length() > SweConst.SE_MAX_STNAME) {
+      cpos[0]=cpos[0].substring(0,SweConst.SE_MAX_STNAME);
+    }
+    if (cpos[1].length() > SweConst.SE_MAX_STNAME-1) {
+      cpos[1]=cpos[1].substring(0,SweConst.SE_MAX_STNAME-1);
+    }
+    // name of star:
+    String name = cpos[0];
+    if (cpos[0].length() + cpos[1].length() + 1 < SweConst.SE_MAX_STNAME - 1)
+      name += ","+cpos[1];
+    /****************************************
+     * position and speed (equinox)
+     ****************************************/
+    /* ra and de in degrees */
+    ra = (ra_s / 3600.0 + ra_m / 60.0 + ra_h) * 15.0;
+    if (sde_d.indexOf('-') < 0) {
+      de = de_s / 3600.0 + de_m / 60.0 + de_d;
+    } else {
+      de = -de_s / 3600.0 - de_m / 60.0 + de_d;
+    }
+    /* speed in ra and de, degrees per century */
+    if (oldFile) {
+      ra_pm = ra_pm * 15 / 3600.0;
+      de_pm = de_pm / 3600.0;
+    } else {
+      ra_pm = ra_pm / 10.0 / 3600.0;
+      de_pm = de_pm / 10.0 / 3600.0;
+      parall /= 1000.0;
+    }
+    /* parallax, degrees */
+    if (parall > 1) {
+      parall = (1 / parall / 3600.0);
+    } else {
+      parall /= 3600;
+    }
+    /* radial velocity in AU per century */
+    radv *= SwephData.KM_S_TO_AU_CTY;
+    /*printf("ra=%.17f,de=%.17f,ma=%.17f,md=%.17f,pa=%.17f,rv=%.17f\n",ra,de,ra_pm,de_pm,parall,radv);*/
+    /* radians */
+    ra *= SwissData.DEGTORAD;
+    de *= SwissData.DEGTORAD;
+    ra_pm *= SwissData.DEGTORAD;
+    de_pm *= SwissData.DEGTORAD;
+    ra_pm /= SMath.cos(de); /* catalogues give proper motion in RA as great circle */
+    parall *= SwissData.DEGTORAD;
+    par[0] = epoch;
+    par[1] = ra;
+    par[2] = de;
+    par[3] = ra_pm;
+    par[4] = de_pm;
+    par[5] = radv;
+    par[6] = parall;
+    return name;
+  }
+
+  /**
+  * Parses the magnitude from a line of the star file as in
+  * swe_fixstar_mag(). The name of the star as returned by
+  * swe_fixstar_mag() is returned in star.
+  */
+  static double parseMagnitude(SwissLib sl, String s, int fline,
+                               StringBuffer star, StringBuffer serr)
+      throws SwissephException {
+    int retc = SweConst.ERR;
+    String[] cpos = new String[20];
+    int i = sl.swi_cutstr(s, ",", cpos, 20);
+    double mag;
+    cpos[0] = cpos[0].trim();
+    cpos[1] = cpos[1].trim();
+    if (i < 13) {
+      String errmsg = "data of star '" + cpos[0] + "," + cpos[1] + "' incomplete";
+#ifdef ORIGINAL
+      if (serr != null) {
+        serr.setLength(0);
+        serr.append("data of star incomplete");
+        if (serr.length() + cpos[0].length() + cpos[1].length() + 2 < SwissData.AS_MAXCH) {
+          serr.setLength(0);
+          serr.append("data of star '" + cpos[0] + "," + cpos[1] + "' incomplete");
+        }
+      }
+      errmsg = serr.toString();
+#endif /* ORIGINAL */
+      throw new SwissephException(0./0.,
+          SwissephException.DAMAGED_FILE_ERROR,
+          retc,
+          errmsg);
+    }
+    try {
+      mag = Double.parseDouble(cpos[13].trim());
+    } catch (NumberFormatException nfe) {
+      throw new SwissephException(0./0.,
+          SwissephException.DAMAGED_FILE_ERROR,
+          retc,
+          "star file " + SweConst.SE_STARFILE + " damaged at line " + fline + ": field 13 is not a double");
+    }
+    /* return trad. name, nomeclature name */
+    if (cpos[0].length() > SweConst.SE_MAX_STNAME)
+      cpos[0] = cpos[0].substring(0, SweConst.SE_MAX_STNAME);
+    if (cpos[1].length() > SweConst.SE_MAX_STNAME)
+      cpos[1] = cpos[1].substring(0, SweConst.SE_MAX_STNAME);
+    star.setLength(0);
+#ifdef ORIGINAL
+    star.append(cpos[0]);
+    if (cpos[0].length() + cpos[1].length() + 1 < SweConst.SE_MAX_STNAME - 1)
+      star.append("," + cpos[1]);
+#else
+    star.append(cpos[0] + "," + cpos[1]);
+#endif /* ORIGINAL */
+    return mag;
+  }
+
+
+  private void compile(FilePtr fp) throws SwissephException {
+    java.util.Vector v = new java.util.Vector(2000);
+    java.util.Vector vl = new java.util.Vector(2000);
+    String s;
+    int fline = 0;
+    try {
+      fp.seek(0);
+      while ((s = fp.readLine()) != null) {
+        fline++;
+        if (s.startsWith("#")) { continue; }
+        v.addElement(s);
+        vl.addElement(new Integer(fline));
+      }
+    } catch (java.io.EOFException ee) {
+    } catch (IOException ie) {
+      throw new SwissephException(0./0.,
+          SwissephException.UNSPECIFIED_FILE_ERROR, SweConst.ERR,
+          "error reading star file " + fp.fnamp + ": " + ie.getMessage());
+#ifdef NIO
+    } catch (java.nio.BufferUnderflowException bue) {
+#endif /* NIO */
+    } finally {
+      try {
+        fp.close();
+      } catch (IOException ie) {
+      }
+    }
+    int n = count = v.size();
+    lines = new String[n];
+    v.copyInto(lines);
+    flines = new int[n];
+    flags = new int[n];
+    epoch = new double[n];
+    ra = new double[n];
+    de = new double[n];
+    raPm = new double[n];
+    dePm = new double[n];
+    radv = new double[n];
+    parall = new double[n];
+    mag = new double[n];
+    names = new String[n];
+    magNames = new String[n];
+    SwissLib sl = new SwissLib();
+    double[] par = new double[7];
+    StringBuffer sb = new StringBuffer();
+    // Names and the strings, to which they are compared by the
+    // sequential search:
+    String[] trad = new String[n];
+    String[] tradCmp = new String[n];
+    String[] nom = new String[n];
+    String[] nomCmp = new String[n];
+    for (int i = 0; i < n; i++) {
+      s = lines[i];
+      flines[i] = ((Integer)vl.elementAt(i)).intValue();
+      epoch[i] = ra[i] = de[i] = raPm[i] = dePm[i] = radv[i] = parall[i] =
+          mag[i] = 0./0.;
+      int comma = s.indexOf(',');
+      if (comma < 0) {
+        if (firstDamaged < 0) { firstDamaged = i; }
+        continue;
+      }
+      try {
+        names[i] = parsePosition(s, flines[i], oldFile, par, null);
+      } catch (NumberFormatException nfe) {
+        // swe_fixstar() will throw the same exception from the line
+      }
+      if (names[i] != null) {
+        flags[i] |= POS_OK;
+        epoch[i] = par[0];
+        ra[i] = par[1];
+        de[i] = par[2];
+        raPm[i] = par[3];
+        dePm[i] = par[4];
+        radv[i] = par[5];
+        parall[i] = par[6];
+      }
+      try {
+        mag[i] = parseMagnitude(sl, s, flines[i], sb, null);
+        magNames[i] = sb.toString();
+        flags[i] |= MAG_OK;
+      } catch (SwissephException se) {
+        // swe_fixstar_mag() will throw the same exceptions from the line
+      } catch (RuntimeException re) {
+      }
+      trad[i] = s.substring(0, comma).trim().toLowerCase();
+      tradCmp[i] = s.toLowerCase();
+      nomCmp[i] = s.substring(comma);
+      int comma2 = s.indexOf(',', comma + 1);
+      nom[i] = (comma2 < 0 ? nomCmp[i] : s.substring(comma, comma2)).trim();
+    }
+    tradIndex = new NameIndex(trad, resolve(trad, tradCmp));
+    nomIndex = new NameIndex(nom, resolve(nom, nomCmp));
+  }
+
+  // Returns the index of the first star, whose string cmp[] starts with
+  // the name names[i], for all i. This is the star found by the
+  // sequential search for this name.
+  private static int[] resolve(String[] names, final String[] cmp) {
+    int n = names.length;
+    int[] res = new int[n];
+    int cnt = 0;
+    for (int i = 0; i < n; i++) {
+      if (cmp[i] != null) { cnt++; }
+    }
+    Integer[] sorted = new Integer[cnt];
+    for (int i = 0, k = 0; i < n; i++) {
+      if (cmp[i] != null) { sorted[k++] = new Integer(i); }
+    }
+    java.util.Arrays.sort(sorted, new java.util.Comparator() {
+      public int compare(Object o1, Object o2) {
+        return cmp[((Integer)o1).intValue()].compareTo(
+                   cmp[((Integer)o2).intValue()]);
+      }
+    });
+    for (int i = 0; i < n; i++) {
+      res[i] = -1;
+      if (names[i] == null || names[i].length() == 0) {
+        continue;
+      }
+      // All strings starting with the name follow each other in the
+      // sorted order:
+      int lo = 0, hi = cnt;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (cmp[sorted[mid].intValue()].compareTo(names[i]) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      res[i] = i;
+      for (int k = lo; k < cnt; k++) {
+        int j = sorted[k].intValue();
+        if (!cmp[j].startsWith(names[i])) {
+          break;
+        }
+        res[i] = SMath.min(res[i], j);
+      }
+    }
+    return res;
+  }
+
+  private static void writeInts(java.io.DataOutputStream os, int[] a, int n)
+      throws IOException {
+    for (int i = 0; i < n; i++) {
+      os.writeInt(a[i]);
+    }
+  }
+
+  private static void writeStrings(java.io.DataOutputStream os, String[] a,
+                                   int n) throws IOException {
+    for (int i = 0; i < n; i++) {
+      if (a[i] == null) {
+        os.writeInt(-1);
+      } else {
+        os.writeInt(a[i].length());
+        os.writeChars(a[i]);
+      }
+    }
+  }
+
+  private static int[] readInts(FilePtr fp, int n) throws IOException {
+    int[] a = new int[n];
+    for (int i = 0; i < n; i++) {
+      a[i] = fp.readInt();
+    }
+    return a;
+  }
+
+  private static double[] readDoubles(FilePtr fp, int n) throws IOException {
+    double[] a = new double[n];
+    fp.readDoubles(fp.getFilePointer(), a, n);
+    return a;
+  }
+
+  private static String[] readStrings(FilePtr fp, int n) throws IOException {
+    String[] a = new String[n];
+    char[] c = new char[256];
+    for (int i = 0; i < n; i++) {
+      int len = fp.readInt();
+      if (len < 0) {
+        continue;
+      }
+      if (len > c.length) {
+        c = new char[len];
+      }
+      for (int k = 0; k < len; k++) {
+        c[k] = (char)fp.readShort();
+      }
+      a[i] = new String(c, 0, len);
+    }
+    return a;
+  }
+
+
+  /**
+  * Writes the binary catalog of a star file.<p>
+  * Usage: <code>java swisseph.FixstarCatalog sefstars.txt [sefstars.sfc]</code>
+  */
+  public static void main(String argv[]) {
+    if (argv.length < 1 || argv.length > 2) {
+      System.err.println("Usage: java swisseph.FixstarCatalog starfile [catalogfile]");
+      System.exit(1);
+    }
+    try {
+      new FixstarCatalog(argv[0]).write(argv.length > 1 ? argv[1] :
+                                                          SE_STARCATFILE);
+    } catch (Exception e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+  }
+
+
+  /**
+  * A perfect hash table of names (hash and displace): the names are
+  * distributed into buckets by one hash function. For each bucket, a
+  * displacement is chosen, so that a second hash function seeded with the
+  * displacement maps all names of all buckets to different slots. A
+  * lookup needs one probe and one comparison of strings.
+  */
+  static class NameIndex
+		implements java.io.Serializable {
+    // Displacement per bucket, 0 for empty buckets:
+    private int[] disp;
+    private String[] keys;
+    private int[] vals;
+
+    private NameIndex() { }
+
+    /**
+    * Creates the table of the names, which are not null or empty. Equal
+    * names are entered once with the value of the first of them.
+    */
+    NameIndex(String[] names, int[] values) {
+      java.util.Hashtable h = new java.util.Hashtable();
+      java.util.Vector kv = new java.util.Vector();
+      for (int i = 0; i < names.length; i++) {
+        if (names[i] != null && names[i].length() > 0 &&
+            !h.containsKey(names[i])) {
+          h.put(names[i], new Integer(values[i]));
+          kv.addElement(names[i]);
+        }
+      }
+      int n = kv.size();
+      for (int m = SMath.max(2 * n, 1); ; m *= 2) {
+        if (build(kv, h, n, m)) {
+          break;
+        }
+      }
+    }
+
+    // Returns the value of the name, or -1:
+    int get(String name) {
+      int d = disp[hash(name, 0) % disp.length];
+      if (d == 0) {
+        return -1;
+      }
+      int slot = hash(name, d) % keys.length;
+      return (name.equals(keys[slot]) ? vals[slot] : -1);
+    }
+
+    private boolean build(java.util.Vector kv, java.util.Hashtable h,
+                          int n, int m) {
+      int r = SMath.max(n / 4, 1);
+      disp = new int[r];
+      keys = new String[m];
+      vals = new int[m];
+      int[] size = new int[r];
+      for (int i = 0; i < n; i++) {
+        size[hash((String)kv.elementAt(i), 0) % r]++;
+      }
+      String[][] buckets = new String[r][];
+      for (int b = 0; b < r; b++) {
+        buckets[b] = new String[size[b]];
+        size[b] = 0;
+      }
+      for (int i = 0; i < n; i++) {
+        String key = (String)kv.elementAt(i);
+        int b = hash(key, 0) % r;
+        buckets[b][size[b]++] = key;
+      }
+      // Largest buckets first, while most slots are free:
+      Integer[] order = new Integer[r];
+      for (int b = 0; b < r; b++) {
+        order[b] = new Integer(b);
+      }
+      final int[] sz = size;
+      java.util.Arrays.sort(order, new java.util.Comparator() {
+        public int compare(Object o1, Object o2) {
+          return sz[((Integer)o2).intValue()] - sz[((Integer)o1).intValue()];
+        }
+      });
+      int[] slots = new int[m == 0 ? 1 : m];
+      for (int o = 0; o < r; o++) {
+        int b = order[o].intValue();
+        String[] bk = buckets[b];
+        if (bk.length == 0) {
+          break;
+        }
+        int d;
+        for (d = 1; d < 10000; d++) {
+          int k;
+          for (k = 0; k < bk.length; k++) {
+            int slot = hash(bk[k], d) % m;
+            if (keys[slot] != null) {
+              break;
+            }
+            int j;
+            for (j = 0; j < k && slots[j] != slot; j++) { }
+            if (j < k) {
+              break;
+            }
+            slots[k] = slot;
+          }
+          if (k == bk.length) {
+            break;
+          }
+        }
+        if (d == 10000) {
+          return false;
+        }
+        disp[b] = d;
+        for (int k = 0; k < bk.length; k++) {
+          keys[slots[k]] = bk[k];
+          vals[slots[k]] = ((Integer)h.get(bk[k])).intValue();
+        }
+      }
+      return true;
+    }
+
+    private static int hash(String s, int seed) {
+      int h = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+      for (int i = 0; i < s.length(); i++) {
+        h = (h ^ s.charAt(i)) * 0x01000193;
+      }
+      h ^= h >>> 16;
+      h *= 0x85ebca6b;
+      h ^= h >>> 13;
+      return h & 0x7fffffff;
+    }
+
+    void write(java.io.DataOutputStream os) throws IOException {
+      os.writeInt(disp.length);
+      os.writeInt(keys.length);
+      writeInts(os, disp, disp.length);
+      writeInts(os, vals, vals.length);
+      writeStrings(os, keys, keys.length);
+    }
+
+    static NameIndex read(FilePtr fp, int count) throws IOException {
+      NameIndex ni = new NameIndex();
+      int r = fp.readInt();
+      int m = fp.readInt();
+      if (r < 1 || m < 1) {
+        throw new IOException("fixed star catalog damaged");
+      }
+      ni.disp = readInts(fp, r);
+      ni.vals = readInts(fp, m);
+      ni.keys = readStrings(fp, m);
+      for (int i = 0; i < m; i++) {
+        if (ni.keys[i] != null && (ni.vals[i] < 0 || ni.vals[i] >= count)) {
+          throw new IOException("fixed star catalog damaged");
+        }
+      }
+      return ni;
+    }
+  }
+}
+#endif /* JAVAME */
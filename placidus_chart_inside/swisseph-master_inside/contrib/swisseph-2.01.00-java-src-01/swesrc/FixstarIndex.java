@@ -0,0 +1,318 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef JAVAME
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* A spatial index of the stars of a FixstarCatalog in cells of one degree
+* of ecliptic longitude and latitude. It finds the few stars, which a
+* moving body may come close to within a period of time, so the exact
+* searches like swe_lun_occult_when_glob() have to be done for these stars
+* only:<p>
+* <pre>
+* SwissEph sw = new SwissEph(...);
+* FixstarCatalog cat = new FixstarCatalog(sw);
+* sw.setFixstarCatalog(cat);
+* FixstarIndex idx = new FixstarIndex(sw, cat);
+* int[] stars = idx.getCandidates(sw, SweConst.SE_MOON, tjd1, tjd2,
+*     SweConst.SEFLG_SWIEPH, FixstarIndex.MOON_OCCULT_RADIUS);
+* for (int i = 0; i < stars.length; i++) {
+*   StringBuffer star = new StringBuffer("" + (stars[i] + 1));
+*   sw.swe_lun_occult_when_glob(tjd1, 0, star, SweConst.SEFLG_SWIEPH, 0,
+*       tret, 0, serr);
+*   ...
+* }
+* </pre>
+* The index uses the ecliptic and equinox J2000, where the stars move by
+* their proper motion only. The position and the proper motion of every
+* star are calculated once, when the index is created, so the index is
+* valid for any point of time. The bounds of the cells to be searched
+* grow with the largest proper motion of the catalog and the distance
+* in time from J2000. The track of the body is calculated in steps of
+* one day, and every step is checked against the cells it passes
+* through.<p>
+* The candidates are a superset of the stars within the given distance
+* from the body: they are within a box around the track, so some of them
+* may be farther away, but no star within the distance is missed.<p>
+* The index does not change after it has been created, so it may be
+* shared by any number of threads.
+* @see FixstarCatalog
+* @see SwissEph#swe_lun_occult_when_glob(double, int, java.lang.StringBuffer, int, int, double[], int, java.lang.StringBuffer)
+* @see SwissEph#swe_lun_occult_when_loc(double, int, java.lang.StringBuffer, int, double[], double[], double[], int, java.lang.StringBuffer)
+*/
+public class FixstarIndex
+		implements java.io.Serializable {
+
+  /**
+  * The largest geocentric distance in degrees of the center of the moon
+  * from a star occulted by the moon somewhere on the earth, i.e. the
+  * largest horizontal parallax plus the largest semidiameter of the moon.
+  */
+  public static final double MOON_OCCULT_RADIUS = 1.31;
+
+  // Size of a cell in degrees:
+  private static final double CELL = 1.;
+  private static final int NLAT = 180;
+  private static final int NLON = 360;
+  // Difference of the apparent position from the position without
+  // aberration, light deflection and annual parallax, in degrees:
+  private static final double MARGIN = 1. / 60.;
+  // Reference time of the positions and time for the proper motion:
+  private static final double TREF = SwephData.J2000;
+  private static final double DTPM = 36525.;
+  // Step of the track of the body in days. The track between two steps
+  // has to be nearly straight, which is true for the moon, too:
+  private static final double STEP = 1.;
+
+  private FixstarCatalog cat;
+  private int count;
+  private double[] lon, lat, lonRate, latRate;
+  // Largest proper motion in degrees per day:
+  private double maxRate;
+  // Stars of cell c are cellStars[cellStart[c]] to
+  // cellStars[cellStart[c + 1] - 1], where c = NLON * latCell + lonCell:
+  private int[] cellStart;
+  private int[] cellStars;
+
+  /**
+  * Creates the index of all stars with valid data in the catalog.
+  * @param sw The SwissEph object used for calculating the stars
+  * @param cat The catalog
+  * @throws SwissephException if the stars cannot be calculated
+  */
+  public FixstarIndex(SwissEph sw, FixstarCatalog cat) {
+    int i, c;
+    int iflag = SweConst.SEFLG_MOSEPH | SweConst.SEFLG_J2000 |
+                SweConst.SEFLG_NONUT | SweConst.SEFLG_TRUEPOS;
+    StringBuffer serr = new StringBuffer();
+    this.cat = cat;
+    count = cat.getCount();
+    double[] x1 = new double[6 * count];
+    double[] x2 = new double[6 * count];
+    int[] rf1 = new int[count];
+    int[] rf2 = new int[count];
+    sw.calcFixstarsET(cat, TREF, iflag, x1, rf1, serr);
+    sw.calcFixstarsET(cat, TREF + DTPM, iflag, x2, rf2, serr);
+    lon = new double[count];
+    lat = new double[count];
+    lonRate = new double[count];
+    latRate = new double[count];
+    int[] cells = new int[count];
+    cellStart = new int[NLAT * NLON + 1];
+    int n = 0;
+    for (i = 0; i < count; i++) {
+      if (rf1[i] == SweConst.ERR || rf2[i] == SweConst.ERR) {
+        cells[i] = -1;
+        continue;
+      }
+      lon[i] = x1[6 * i];
+      lat[i] = x1[6 * i + 1];
+      lonRate[i] = difdeg(x2[6 * i], lon[i]) / DTPM;
+      latRate[i] = (x2[6 * i + 1] - lat[i]) / DTPM;
+      double rate = SMath.sqrt(
+          SMath.pow(lonRate[i] * SMath.cos(lat[i] * SwissData.DEGTORAD), 2) +
+          latRate[i] * latRate[i]);
+      if (rate > maxRate) {
+        maxRate = rate;
+      }
+      cells[i] = NLON * latCell(lat[i]) + lonCell(lon[i]);
+      cellStart[cells[i] + 1]++;
+      n++;
+    }
+    for (c = 0; c < NLAT * NLON; c++) {
+      cellStart[c + 1] += cellStart[c];
+    }
+    cellStars = new int[n];
+    int[] pos = new int[NLAT * NLON];
+    for (i = 0; i < count; i++) {
+      if (cells[i] >= 0) {
+        cellStars[cellStart[cells[i]] + pos[cells[i]]++] = i;
+      }
+    }
+    if (n == 0) {
+      throw new SwissephException(TREF, SwissephException.UNDEFINED_ERROR,
+          SweConst.ERR, serr.toString());
+    }
+  }
+
+  /**
+  * Returns the catalog of this index.
+  * @return The catalog
+  */
+  public FixstarCatalog getCatalog() {
+    return cat;
+  }
+
+  /**
+  * Returns all stars, which may come within the given distance from the
+  * geocentric position of a body between two points of time.
+  * @param sw The SwissEph object used for calculating the body
+  * @param ipl The body, see swe_calc()
+  * @param tjd_start The Julian Day number in UT of the start of the search
+  * @param tjd_end The Julian Day number in UT of the end of the search
+  * @param iflag The ephemeris flag like SweConst.SEFLG_SWIEPH. All other
+  * flags are ignored.
+  * @param radius The distance in degrees, e.g. MOON_OCCULT_RADIUS
+  * @return The indices of the stars in the catalog in ascending order.
+  * The index i corresponds to the star number i + 1 of swe_fixstar().
+  * @throws SwissephException if the calculation of the body fails
+  * @see #MOON_OCCULT_RADIUS
+  */
+  public int[] getCandidates(SwissEph sw, int ipl, double tjd_start,
+                             double tjd_end, int iflag, double radius) {
+    int i, j, nsteps;
+    double t1, t2, tm;
+    double[] xa = new double[6], xm = new double[6], xb = new double[6];
+    StringBuffer serr = new StringBuffer();
+    boolean[] found = new boolean[count];
+    iflag = (iflag & SweConst.SEFLG_EPHMASK) | SweConst.SEFLG_J2000 |
+            SweConst.SEFLG_NONUT;
+    if (tjd_end < tjd_start) {
+      t1 = tjd_start;
+      tjd_start = tjd_end;
+      tjd_end = t1;
+    }
+    nsteps = (int)SMath.ceil((tjd_end - tjd_start) / STEP);
+    if (nsteps < 1) {
+      nsteps = 1;
+    }
+    calc(sw, tjd_start, ipl, iflag, xa, serr);
+    for (i = 0; i < nsteps; i++) {
+      t1 = tjd_start + (tjd_end - tjd_start) * i / nsteps;
+      t2 = tjd_start + (tjd_end - tjd_start) * (i + 1) / nsteps;
+      tm = (t1 + t2) / 2;
+      calc(sw, tm, ipl, iflag, xm, serr);
+      calc(sw, t2, ipl, iflag, xb, serr);
+      search(t1, t2, xa, xm, xb, radius, found);
+      for (j = 0; j < 6; j++) {
+        xa[j] = xb[j];
+      }
+    }
+    int n = 0;
+    for (i = 0; i < count; i++) {
+      if (found[i]) {
+        n++;
+      }
+    }
+    int[] stars = new int[n];
+    for (i = 0, n = 0; i < count; i++) {
+      if (found[i]) {
+        stars[n++] = i;
+      }
+    }
+    return stars;
+  }
+
+
+  private void calc(SwissEph sw, double tjd_ut, int ipl, int iflag,
+                    double[] xx, StringBuffer serr) {
+    if (sw.swe_calc_ut(tjd_ut, ipl, iflag, xx, serr) < 0) {
+      throw new SwissephException(tjd_ut, SwissephException.UNDEFINED_ERROR,
+          SweConst.ERR, serr.toString());
+    }
+  }
+
+  // Marks the stars near the track of the body from t1 to t2, where the
+  // body is at xa, xm and xb at t1, (t1 + t2) / 2 and t2. The track is
+  // within the box of the three positions widened by the deviation of xm
+  // from the middle of xa and xb.
+  private void search(double t1, double t2, double[] xa, double[] xm,
+                      double[] xb, double radius, boolean[] found) {
+    int i, k, c, ilat, ilon;
+    double l0 = xa[0];
+    double dm = difdeg(xm[0], l0);
+    double db = difdeg(xb[0], l0);
+    double lonLo = SMath.min(0., SMath.min(dm, db));
+    double lonHi = SMath.max(0., SMath.max(dm, db));
+    double latLo = SMath.min(xa[1], SMath.min(xm[1], xb[1]));
+    double latHi = SMath.max(xa[1], SMath.max(xm[1], xb[1]));
+    double dev = SMath.max(SMath.abs(dm - db / 2),
+                           SMath.abs(xm[1] - (xa[1] + xb[1]) / 2));
+    double r = radius + MARGIN + dev;
+    double dt = SMath.max(SMath.abs(t1 - TREF), SMath.abs(t2 - TREF));
+    double rcell = r + maxRate * dt;
+    // Cells to search:
+    int lat1 = latCell(latLo - rcell);
+    int lat2 = latCell(latHi + rcell);
+    double w = lonWidth(latLo - rcell, latHi + rcell, rcell);
+    int lon1 = 0, lon2 = NLON - 1;
+    if (lonLo - w > -180. && lonHi + w < 180.) {
+      lon1 = (int)SMath.floor((l0 + lonLo - w) / CELL);
+      lon2 = (int)SMath.floor((l0 + lonHi + w) / CELL);
+    }
+    double wr = lonWidth(latLo - r, latHi + r, r);
+    boolean allLon = (lonLo - wr <= -180. || lonHi + wr >= 180.);
+    for (ilat = lat1; ilat <= lat2; ilat++) {
+      for (ilon = lon1; ilon <= lon2; ilon++) {
+        c = NLON * ilat + ((ilon % NLON) + NLON) % NLON;
+        for (k = cellStart[c]; k < cellStart[c + 1]; k++) {
+          i = cellStars[k];
+          if (found[i]) {
+            continue;
+          }
+          // Position of the star at t1 and t2:
+          double sb1 = lat[i] + latRate[i] * (t1 - TREF);
+          double sb2 = lat[i] + latRate[i] * (t2 - TREF);
+          if (SMath.max(sb1, sb2) < latLo - r ||
+              SMath.min(sb1, sb2) > latHi + r) {
+            continue;
+          }
+          if (allLon) {
+            found[i] = true;
+            continue;
+          }
+          double sl1 = difdeg(lon[i] + lonRate[i] * (t1 - TREF), l0);
+          double sl2 = difdeg(lon[i] + lonRate[i] * (t2 - TREF), l0);
+          if (SMath.max(sl1, sl2) < lonLo - wr ||
+              SMath.min(sl1, sl2) > lonHi + wr) {
+            continue;
+          }
+          found[i] = true;
+        }
+      }
+    }
+  }
+
+  // Half width in longitude of a distance r at the latitudes lat1 to lat2,
+  // or 180, if a pole is within the latitudes:
+  private static double lonWidth(double lat1, double lat2, double r) {
+    double b = SMath.max(SMath.abs(lat1), SMath.abs(lat2));
+    if (lat1 <= -90. || lat2 >= 90. || b >= 89.) {
+      return 180.;
+    }
+    return SMath.min(180., r / SMath.cos(b * SwissData.DEGTORAD));
+  }
+
+  private static int latCell(double lat) {
+    int c = (int)SMath.floor((lat + 90.) / CELL);
+    return (c < 0 ? 0 : (c >= NLAT ? NLAT - 1 : c));
+  }
+
+  private static int lonCell(double lon) {
+    int c = (int)SMath.floor(lon / CELL) % NLON;
+    return (c < 0 ? c + NLON : c);
+  }
+
+  // Difference p1 - p2 in degrees normalized to -180 ... 180:
+  private static double difdeg(double p1, double p2) {
+    double d = (p1 - p2) % 360.;
+    if (d < -180.) {
+      d += 360.;
+    } else if (d >= 180.) {
+      d -= 360.;
+    }
+    return d;
+  }
+}
+#endif /* ASTROLOGY */
+#endif /* JAVAME */
@@ -0,0 +1,327 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifndef JAVAME
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+* Converter and reader for pre-decoded ("flat") ephemeris files.<p>
+* The Swiss Ephemeris data files (*.se1) contain the chebyshew
+* coefficients packed into integers of variable width. They have to be
+* unpacked and rescaled every time a new segment is read. A flat file
+* contains the same coefficients as already decoded doubles with a fixed
+* size per segment, so a segment is found by its offset into the file
+* and read with a single bulk read. If precompiled with -DNIO, the file
+* is memory mapped, see the MappedFileRegistry class, and the
+* coefficients are copied directly from the mapping.<p>
+* The flat file is created from the .se1 file by
+* <pre>
+* java swisseph.FlatEphemeris ephe/sepl_18.se1 [ephe/sepl_18.sef]
+* </pre>
+* and has to be placed into the same directory as the .se1 file, which
+* is still needed for the constants of the file. Flat files are used for
+* the files selected by SwissEph.setFlatEphemerisFile() only. If the flat
+* file is missing or does not fit to the .se1 file, the .se1 file is used
+* as before. The coefficients in the flat file are bit by bit identical
+* to the unpacked coefficients of the .se1 file, so are the results.<p>
+* File format, all numbers little endian:
+* <pre>
+* header:        8 bytes  "SWEFLAT1"
+*                int      format version (1)
+*                int      length of the .se1 file
+*                int      number of bodies
+*                int      reserved (0)
+*                double   start and end date of the file
+* per body:      int      internal body number (SEI_*)
+*                int      number of coefficients per coordinate (ncoe)
+*                int      number of segments
+*                int      file position of the first segment
+*                double   start date of the body and segment size in days
+* per segment:   3 * ncoe doubles for x, y and z
+* </pre>
+* @see SwissEph#setFlatEphemerisFile(java.lang.String, boolean)
+*/
+public class FlatEphemeris
+		implements java.io.Serializable {
+  /**
+  * The file name suffix of flat ephemeris files.
+  */
+  public static final String FLAT_SUFFIX = "sef";
+
+  private static final String MAGIC = "SWEFLAT1";
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 8 + 4 * 4 + 2 * 8;
+  private static final int BODY_SIZE = 4 * 4 + 2 * 8;
+  private static final int BUFSIZE = 4096;
+
+  private FilePtr fptr;
+  private int nbody;
+  private int ipl[];
+  private int ncoe[];
+  private int nseg[];
+  private int offs[];
+  private double tfstart[];
+  private double dseg[];
+
+  private FlatEphemeris() { }
+
+  /**
+  * Returns the name of the flat file for a Swiss Ephemeris data file.
+  * @param se1name The name of the .se1 file, with or without path
+  * @return The name of the flat file in the same directory
+  */
+  public static String getFlatFileName(String se1name) {
+    int idx = se1name.lastIndexOf('.');
+    if (idx < 0 || idx < se1name.lastIndexOf(SwissData.DIR_GLUE)) {
+      return se1name + "." + FLAT_SUFFIX;
+    }
+    return se1name.substring(0, idx + 1) + FLAT_SUFFIX;
+  }
+
+  // Name of the file without path
+  static String baseName(String fnam) {
+    int idx = SMath.max(fnam.lastIndexOf(SwissData.DIR_GLUE),
+                        fnam.lastIndexOf('/'));
+    return fnam.substring(idx + 1);
+  }
+
+  /* Opens the flat file belonging to the opened .se1 file fdp, if it has
+   * been selected by SwissEph.setFlatEphemerisFile() and if it fits to
+   * the .se1 file. Returns null otherwise.
+   */
+  static FlatEphemeris open(FileData fdp, SwissData swed) {
+    if (swed.flatFiles == null || fdp.fnam == null ||
+        fdp.fnam.startsWith("http://") ||
+        !swed.flatFiles.containsKey(baseName(fdp.fnam))) {
+      return null;
+    }
+    FlatEphemeris fe = new FlatEphemeris();
+    String fname = getFlatFileName(fdp.fnam);
+    try {
+      fe.fptr = new FilePtr(new RandomAccessFile(fname, SwissData.BFILE_R_ACCESS),
+                            null, null, null, fname, -1, BUFSIZE);
+    } catch (IOException e) {
+      /* no error message if file is missing */
+      return null;
+    } catch (SecurityException e) {
+      return null;
+    }
+    try {
+      if (!fe.read_header(fdp, swed)) {
+        fe.close();
+        return null;
+      }
+    } catch (IOException e) {
+      fe.close();
+      return null;
+#ifdef NIO
+    } catch (java.nio.BufferUnderflowException e) {
+      fe.close();
+      return null;
+#endif /* NIO */
+    }
+    return fe;
+  }
+
+  private boolean read_header(FileData fdp, SwissData swed) throws IOException {
+    int i;
+    fptr.setBigendian(false);
+    for (i = 0; i < MAGIC.length(); i++) {
+      if (fptr.readByte() != MAGIC.charAt(i)) {
+        return false;
+      }
+    }
+    if (fptr.readInt() != VERSION ||
+        fptr.readInt() != (int)fdp.fptr.length()) {
+      return false;
+    }
+    nbody = fptr.readInt();
+    fptr.readInt();
+    if (nbody < 1 || nbody > fdp.SEI_FILE_NMAXPLAN ||
+        fptr.readDouble() != fdp.tfstart || fptr.readDouble() != fdp.tfend) {
+      return false;
+    }
+    ipl = new int[nbody];
+    ncoe = new int[nbody];
+    nseg = new int[nbody];
+    offs = new int[nbody];
+    tfstart = new double[nbody];
+    dseg = new double[nbody];
+    for (i = 0; i < nbody; i++) {
+      ipl[i] = fptr.readInt();
+      ncoe[i] = fptr.readInt();
+      nseg[i] = fptr.readInt();
+      offs[i] = fptr.readInt();
+      tfstart[i] = fptr.readDouble();
+      dseg[i] = fptr.readDouble();
+      if (ipl[i] < 0 || ipl[i] >= SwephData.SEI_NPLANETS) {
+        return false;
+      }
+      PlanData pdp = swed.pldat[ipl[i]];
+      if (pdp.ncoe != ncoe[i] || pdp.tfstart != tfstart[i] ||
+          pdp.dseg != dseg[i]) {
+        return false;
+      }
+      if ((long)offs[i] + (long)nseg[i] * 3 * ncoe[i] * 8 > fptr.length()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /* Reads the unpacked coefficients of segment iseg of body ipli into
+   * segp. Returns false, if the segment is not in the file.
+   */
+  boolean read_segment(int ipli, int iseg, double segp[]) throws IOException {
+    for (int b = 0; b < nbody; b++) {
+      if (ipl[b] != ipli) {
+        continue;
+      }
+      if (iseg < 0 || iseg >= nseg[b] || segp.length < 3 * ncoe[b]) {
+        return false;
+      }
+      int n = 3 * ncoe[b];
+      fptr.readDoubles(offs[b] + (long)iseg * n * 8, segp, n);
+      return true;
+    }
+    return false;
+  }
+
+  void close() {
+    try {
+      if (fptr != null) { fptr.close(); }
+    } catch (IOException e) {
+    }
+    fptr = null;
+  }
+
+  /**
+  * Converts a Swiss Ephemeris data file (*.se1) into a flat file.
+  * @param se1file The name of the .se1 file, including its path
+  * @param flatfile The name of the flat file to be written, or null for
+  * the default name in the same directory
+  * @throws SwissephException if the .se1 file cannot be read
+  * @throws IOException if the flat file cannot be written
+  * @see #getFlatFileName(java.lang.String)
+  */
+  public static void convert(String se1file, String flatfile)
+      throws IOException {
+    StringBuffer serr = new StringBuffer();
+    int i, k, iseg, ifno;
+    String dir = "";
+    String fname = se1file;
+    int idx = SMath.max(se1file.lastIndexOf(SwissData.DIR_GLUE),
+                        se1file.lastIndexOf('/'));
+    if (idx >= 0) {
+      dir = se1file.substring(0, idx);
+      fname = se1file.substring(idx + 1);
+    }
+    if (flatfile == null) {
+      flatfile = getFlatFileName(se1file);
+    }
+    if (fname.startsWith("sepl")) {
+      ifno = SwephData.SEI_FILE_PLANET;
+    } else if (fname.startsWith("semo")) {
+      ifno = SwephData.SEI_FILE_MOON;
+    } else if (fname.startsWith("seas")) {
+      ifno = SwephData.SEI_FILE_MAIN_AST;
+    } else {
+      ifno = SwephData.SEI_FILE_ANY_AST;
+    }
+    SwissEph sw = new SwissEph(dir.length() == 0 ? "." : dir);
+    SwissData swed = sw.swed;
+    FileData fdp = swed.fidat[ifno];
+    fdp.fptr = sw.swi_fopen(ifno, fname, (dir.length() == 0 ? "." : dir), serr);
+    fdp.read_const(ifno, serr, swed);
+    int nbody = fdp.npl;
+    int ipli[] = new int[nbody];
+    int pos = HEADER_SIZE + nbody * BODY_SIZE;
+    int offs[] = new int[nbody];
+    for (k = 0; k < nbody; k++) {
+      ipli[k] = fdp.ipl[k];
+      if (ipli[k] >= SweConst.SE_AST_OFFSET) {
+        ipli[k] = SwephData.SEI_ANYBODY;
+      }
+      PlanData pdp = swed.pldat[ipli[k]];
+      offs[k] = pos;
+      pos += pdp.nndx * 3 * pdp.ncoe * 8;
+    }
+    OutputStream os = new BufferedOutputStream(new FileOutputStream(flatfile));
+    try {
+      for (i = 0; i < MAGIC.length(); i++) {
+        os.write((byte)MAGIC.charAt(i));
+      }
+      writeInt(os, VERSION);
+      writeInt(os, (int)fdp.fptr.length());
+      writeInt(os, nbody);
+      writeInt(os, 0);
+      writeDouble(os, fdp.tfstart);
+      writeDouble(os, fdp.tfend);
+      for (k = 0; k < nbody; k++) {
+        PlanData pdp = swed.pldat[ipli[k]];
+        writeInt(os, ipli[k]);
+        writeInt(os, pdp.ncoe);
+        writeInt(os, pdp.nndx);
+        writeInt(os, offs[k]);
+        writeDouble(os, pdp.tfstart);
+        writeDouble(os, pdp.dseg);
+      }
+      for (k = 0; k < nbody; k++) {
+        PlanData pdp = swed.pldat[ipli[k]];
+        for (iseg = 0; iseg < pdp.nndx; iseg++) {
+          fdp.get_new_segment(swed, pdp.tfstart + (iseg + 0.5) * pdp.dseg,
+                              ipli[k], ifno, serr);
+          for (i = 0; i < 3 * pdp.ncoe; i++) {
+            writeDouble(os, pdp.segp[i]);
+          }
+        }
+      }
+    } finally {
+      os.close();
+      sw.swe_close();
+    }
+  }
+
+  private static void writeInt(OutputStream os, int val) throws IOException {
+    for (int i = 0; i < 4; i++) {
+      os.write((int)(val >>> (8 * i)) & 0xff);
+    }
+  }
+
+  private static void writeDouble(OutputStream os, double val)
+      throws IOException {
+    long l = Double.doubleToRawLongBits(val);
+    for (int i = 0; i < 8; i++) {
+      os.write((int)(l >>> (8 * i)) & 0xff);
+    }
+  }
+
+  /**
+  * Converts a Swiss Ephemeris data file into a flat file.<p>
+  * Usage: <code>java swisseph.FlatEphemeris file.se1 [flatfile]</code>
+  */
+  public static void main(String argv[]) {
+    if (argv.length < 1 || argv.length > 2) {
+      System.err.println("Usage: java swisseph.FlatEphemeris file.se1 [flatfile]");
+      System.exit(1);
+    }
+    try {
+      convert(argv[0], (argv.length > 1 ? argv[1] : null));
+    } catch (Exception e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+  }
+}
+#endif /* JAVAME */
@@ -0,0 +1,109 @@
+#ifdef NIO
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+* Process wide registry of read-only memory mappings of the ephemeris
+* files (*.se1, JPL files etc.).<p>
+* Every file is mapped once only, no matter how many SwissEph objects
+* open it. Each FilePtr gets its own duplicate of the mapping with an
+* independent position and byte order, so no locking is required when
+* reading. A mapping is released by the garbage collector, when no
+* FilePtr object uses it anymore.<p>
+* A file will be mapped again, if its length or modification time has
+* changed since it has been mapped.
+*/
+final class MappedFileRegistry {
+  private static final java.util.Hashtable maps = new java.util.Hashtable();
+
+  private MappedFileRegistry() { }
+
+  /**
+  * Returns a new view of the read-only memory mapping of the given file.
+  * The file will be mapped, if it is not mapped yet.
+  * @param fp The opened file
+  * @param fnamp The name of the file, as it has been opened
+  * @return An independent view of the whole file, positioned at the
+  * start of the file with big endian byte order, or null, if the file
+  * is too large to be mapped
+  * @throws IOException if an I/O error occurs.
+  */
+  static synchronized ByteBuffer map(RandomAccessFile fp, String fnamp)
+      throws IOException {
+    File f = new File(fnamp);
+    String key;
+    try {
+      key = f.getCanonicalPath();
+    } catch (IOException e) {
+      key = f.getAbsolutePath();
+    } catch (SecurityException e) {
+      key = fnamp;
+    }
+    long length = fp.length();
+    long lastModified = 0;
+    try {
+      lastModified = f.lastModified();
+    } catch (SecurityException e) {
+    }
+    MappedByteBuffer mbb = null;
+    Entry e = (Entry)maps.get(key);
+    if (e != null && e.length == length && e.lastModified == lastModified) {
+      mbb = (MappedByteBuffer)e.ref.get();
+    }
+    if (mbb == null) {
+      if (length > Integer.MAX_VALUE) {
+        return null;
+      }
+      purge();
+      mbb = fp.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+      maps.put(key, new Entry(mbb, length, lastModified));
+    }
+    ByteBuffer view = mbb.duplicate();
+    view.order(java.nio.ByteOrder.BIG_ENDIAN);
+    return view;
+  }
+
+  /**
+  * Returns the number of files currently mapped.
+  * @return The number of mapped files
+  */
+  static synchronized int size() {
+    purge();
+    return maps.size();
+  }
+
+  // Removes the entries of mappings, that have been garbage collected
+  private static void purge() {
+    java.util.Iterator it = maps.values().iterator();
+    while (it.hasNext()) {
+      if (((Entry)it.next()).ref.get() == null) {
+        it.remove();
+      }
+    }
+  }
+
+  private static final class Entry {
+    final WeakReference ref;
+    final long length;
+    final long lastModified;
+
+    Entry(MappedByteBuffer mbb, long length, long lastModified) {
+      this.ref = new WeakReference(mbb);
+      this.length = length;
+      this.lastModified = lastModified;
+    }
+  }
+}
+#endif /* NIO */
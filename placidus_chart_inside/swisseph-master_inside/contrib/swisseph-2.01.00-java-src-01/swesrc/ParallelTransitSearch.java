@@ -0,0 +1,322 @@
+#ifdef TEST_ITERATIONS
+#define TRANSITS
+#endif /* TEST_ITERATIONS */
+#ifdef EXTPRECISION
+#define TRANSITS
+#endif /* EXTPRECISION */
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef TRANSITS
+#ifndef JAVAME
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class searches all transits of a TransitCalculator in a long range
+* of time on multiple threads.<p>
+* The time range is split into windows, which are searched as tasks of a
+* ForkJoinPool. Each task uses the calculation context of its thread from
+* a SwephResources object and its own copy of the TransitCalculator. The
+* transits of all windows are merged in the order of the search:<p>
+* <pre>
+* SwephResources res = new SwephResources("./ephe");
+* SwissEph sw = res.getContext();
+* TransitCalculator tc = new TCPlanetPlanet(sw, SweConst.SE_SATURN,
+*     SweConst.SE_PLUTO, SweConst.SEFLG_TRANSIT_LONGITUDE, 0);
+* ParallelTransitSearch ps = new ParallelTransitSearch(res);
+* double[] jdsUT = ps.getTransitsUT(tc, jdStart, jdEnd);
+* </pre>
+* The windows depend on the TransitCalculator and the time range only,
+* and every window ends with a calculation at the exact starting date of
+* the next window. All windows are searched with the time precision of
+* the starting date. So the result is identical for any number of
+* threads, even if all windows are searched one after the other in the
+* calling thread. A TransitIterator calculates the same window
+* boundaries, so with the automatic window size the result is identical
+* to the result of SwissEph.getTransitsET() resp. getTransitsUT() for the
+* whole time range, too.<p>
+* The calculation context of each thread gets the topocentric position,
+* the sidereal mode, the interpolation of precession and nutation and the
+* selection of flat ephemeris files of the SwissEph object of the
+* TransitCalculator. That SwissEph object has to use the ephemeris path
+* and the JPL file of the SwephResources.
+* TransitCalculators, which cannot be copied (see
+* TransitCalculator.copy()), are searched with a TransitIterator in the
+* calling thread.
+* @see SwephResources
+* @see TransitIterator
+*/
+public class ParallelTransitSearch {
+
+  /**
+  * The maximum number of windows created automatically.
+  * @see #setWindowSize(double)
+  */
+  public static final int MAX_WINDOWS = TransitIterator.MAX_WINDOWS;
+
+  private SwephResources res;
+  private java.util.concurrent.ForkJoinPool pool;
+  private double windowSize = 0.;
+
+  /**
+  * Creates a new ParallelTransitSearch, which uses the common pool of
+  * the JVM.
+  * @param res The resources giving the calculation contexts for each
+  * thread
+  */
+  public ParallelTransitSearch(SwephResources res) {
+    this(res, java.util.concurrent.ForkJoinPool.commonPool());
+  }
+
+  /**
+  * Creates a new ParallelTransitSearch on the given pool.
+  * @param res The resources giving the calculation contexts for each
+  * thread
+  * @param pool The ForkJoinPool to use, or null to search all windows
+  * one after the other in the calling thread
+  */
+  public ParallelTransitSearch(SwephResources res,
+                               java.util.concurrent.ForkJoinPool pool) {
+    this.res = res;
+    this.pool = pool;
+  }
+
+  /**
+  * Sets the length of the windows searched as one task. The default
+  * (0) is four times the time, in which the value of the
+  * TransitCalculator can pass through 360 degrees with its maximum speed,
+  * but at least the time range divided by MAX_WINDOWS.
+  * @param days The window size in days or 0 for automatic sizing
+  * @see #MAX_WINDOWS
+  */
+  public void setWindowSize(double days) {
+    if (!(days >= 0.)) {
+      throw new IllegalArgumentException("Invalid window size " + days + ".");
+    }
+    this.windowSize = days;
+  }
+
+  /**
+  * Returns the length of the windows as set by setWindowSize().
+  * @return The window size in days or 0 for automatic sizing
+  * @see #setWindowSize(double)
+  */
+  public double getWindowSize() {
+    return windowSize;
+  }
+
+  /**
+  * Searches all transits between two dates. Dates are interpreted as ET
+  * (=UT&nbsp;+&nbsp;deltaT).
+  * @param tc The TransitCalculator that should be used here.
+  * @param jdStartET The date (and time) in ET, from where to start
+  * searching.
+  * @param jdEndET The date (and time) in ET, where to stop searching. If
+  * it is before jdStartET, the search is performed backwards.
+  * @return The dates of the transits as ET in the order of the search.
+  * @throws SwissephException if the calculation fails
+  * @throws IllegalArgumentException if the SwissEph object of the
+  * TransitCalculator uses another ephemeris path or JPL file than the
+  * SwephResources
+  * @see SwissEph#getTransitsET(TransitCalculator, double, double)
+  */
+  public double[] getTransitsET(TransitCalculator tc,
+                                double jdStartET, double jdEndET) {
+    return getTransits(tc, jdStartET, jdEndET, false);
+  }
+
+  /**
+  * Searches all transits between two dates. Dates are interpreted as UT
+  * (=ET&nbsp;-&nbsp;deltaT).
+  * @param tc The TransitCalculator that should be used here.
+  * @param jdStartUT The date (and time) in UT, from where to start
+  * searching.
+  * @param jdEndUT The date (and time) in UT, where to stop searching. If
+  * it is before jdStartUT, the search is performed backwards.
+  * @return The dates of the transits as UT in the order of the search.
+  * @throws SwissephException if the calculation fails
+  * @throws IllegalArgumentException if the SwissEph object of the
+  * TransitCalculator uses another ephemeris path or JPL file than the
+  * SwephResources
+  * @see SwissEph#getTransitsUT(TransitCalculator, double, double)
+  */
+  public double[] getTransitsUT(TransitCalculator tc,
+                                double jdStartUT, double jdEndUT) {
+    return getTransits(tc, jdStartUT, jdEndUT, true);
+  }
+
+
+  private double[] getTransits(TransitCalculator tc, double jdStart,
+                               double jdEnd, boolean ut) {
+    // The iterator for the whole time range gives the windows in the
+    // time scale of the calculation and the precision of the sweep:
+    TransitIterator ti = (ut ? tc.sw.getTransitsUT(tc, jdStart, jdEnd) :
+                               tc.sw.getTransitsET(tc, jdStart, jdEnd));
+    if (tc.copy(tc.sw) == null) {
+      return ti.getRemainingTransits();
+    }
+    checkFiles(tc.sw, res.getContext());
+    ti.windowSize = windowSize;
+    ti.prepare();
+    Window w = new Window(this, ti, new Settings(tc.sw), 0,
+                          ti.bounds.length - 1);
+    if (pool == null) {
+      return (double[])w.compute();
+    }
+    return (double[])pool.invoke(w);
+  }
+
+  // Searches window k in the calculation context of the current thread
+  // with the given settings. The context may be in use elsewhere, e.g. as
+  // the SwissEph object of the TransitCalculator, if there is no pool, so
+  // its own settings are restored afterwards:
+  private double[] searchWindow(TransitIterator ti, Settings settings,
+                                int k) {
+    SwissEph sw = res.getContext();
+    if (sw == ti.tc.sw) {
+      return ti.window(ti.tc.copy(sw), k).getRemainingTransits();
+    }
+    Settings own = new Settings(sw);
+    settings.applyTo(sw);
+    try {
+      return ti.window(ti.tc.copy(sw), k).getRemainingTransits();
+    } finally {
+      own.applyTo(sw);
+    }
+  }
+
+  // The contexts of the threads read the files of the SwephResources.
+  // They cannot switch to other files without closing the files of all
+  // other users of these contexts:
+  private static void checkFiles(SwissEph sw, SwissEph context) {
+    if (!sw.swed.ephepath.equals(context.swed.ephepath) ||
+        !sw.swed.jplfnam.equals(context.swed.jplfnam)) {
+      throw new IllegalArgumentException("The ephemeris path or JPL " +
+          "file of the TransitCalculator differs from the SwephResources.");
+    }
+  }
+
+  // The settings of a SwissEph object, which change the calculated
+  // positions:
+  private static class Settings {
+    private boolean topo;
+    private double geolon, geolat, geoalt;
+    private boolean sid;
+    private int sidMode;
+    private double t0, ayanT0;
+    private double precStep, nutStep;
+    private java.util.Hashtable flatFiles;
+
+    Settings(SwissEph sw) {
+      topo = sw.swed.geopos_is_set;
+      geolon = sw.swed.topd.geolon;
+      geolat = sw.swed.topd.geolat;
+      geoalt = sw.swed.topd.geoalt;
+      sid = sw.swed.ayana_is_set;
+      sidMode = sw.swed.sidd.sid_mode;
+      t0 = sw.swed.sidd.t0;
+      ayanT0 = sw.swed.sidd.ayan_t0;
+      precStep = sw.getPrecessionInterpolation();
+      nutStep = sw.getNutationInterpolation();
+      flatFiles = (sw.swed.flatFiles == null ? new java.util.Hashtable() :
+                   (java.util.Hashtable)sw.swed.flatFiles.clone());
+    }
+
+    // Sets these settings in sw, as far as they are different:
+    void applyTo(SwissEph sw) {
+      sw.setPrecessionInterpolation(precStep);
+      sw.setNutationInterpolation(nutStep);
+      java.util.Hashtable tf = sw.swed.flatFiles;
+      if (tf != null) {
+        java.util.Enumeration e = ((java.util.Hashtable)tf.clone()).keys();
+        while (e.hasMoreElements()) {
+          String fname = (String)e.nextElement();
+          if (!flatFiles.containsKey(fname)) {
+            sw.setFlatEphemerisFile(fname, false);
+          }
+        }
+      }
+      java.util.Enumeration e = flatFiles.keys();
+      while (e.hasMoreElements()) {
+        String fname = (String)e.nextElement();
+        if (tf == null || !tf.containsKey(fname)) {
+          sw.setFlatEphemerisFile(fname, true);
+        }
+      }
+      if (topo) {
+        TopoData topd = sw.swed.topd;
+        if (!sw.swed.geopos_is_set || topd.geolon != geolon ||
+            topd.geolat != geolat || topd.geoalt != geoalt) {
+          sw.swe_set_topo(geolon, geolat, geoalt);
+        }
+      } else {
+        sw.swed.geopos_is_set = false;
+      }
+      if (sid) {
+        SidData sidd = sw.swed.sidd;
+        if (!sw.swed.ayana_is_set || sidd.sid_mode != sidMode ||
+            sidd.t0 != t0 || sidd.ayan_t0 != ayanT0) {
+          sw.swe_set_sid_mode(sidMode, t0, ayanT0);
+        }
+      } else if (sw.swed.ayana_is_set) {
+        sw.swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0., 0.);
+        sw.swed.ayana_is_set = false;
+      }
+    }
+  }
+
+
+  // Searches the windows from ti.bounds[lo] to ti.bounds[hi] and returns
+  // their transits in the order of the search:
+  private static class Window extends java.util.concurrent.RecursiveTask {
+    private ParallelTransitSearch ps;
+    private TransitIterator ti;
+    private Settings settings;
+    private int lo, hi;
+
+    Window(ParallelTransitSearch ps, TransitIterator ti, Settings settings,
+           int lo, int hi) {
+      this.ps = ps;
+      this.ti = ti;
+      this.settings = settings;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    protected Object compute() {
+      if (hi - lo == 1) {
+        return ps.searchWindow(ti, settings, lo);
+      }
+      int mid = (lo + hi) / 2;
+      Window first = new Window(ps, ti, settings, lo, mid);
+      Window second = new Window(ps, ti, settings, mid, hi);
+      double[] t2;
+      double[] t1;
+      if (ps.pool == null) {
+        t1 = (double[])first.compute();
+        t2 = (double[])second.compute();
+      } else {
+        second.fork();
+        t1 = (double[])first.compute();
+        t2 = (double[])second.join();
+      }
+      // A transit exactly at the boundary is found by both windows, as
+      // both calculate the position at this date. Transits near the
+      // boundary are found by one window only, as the sweep of the first
+      // window ends exactly at the boundary:
+      int skip = (t1.length > 0 && t2.length > 0 &&
+                  t1[t1.length - 1] == t2[0] ? 1 : 0);
+      double[] jds = new double[t1.length + t2.length - skip];
+      System.arraycopy(t1, 0, jds, 0, t1.length);
+      System.arraycopy(t2, skip, jds, t1.length, t2.length - skip);
+      return jds;
+    }
+  }
+}
+#endif /* JAVAME */
+#endif /* TRANSITS */
@@ -0,0 +1,176 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifndef JAVAME
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class holds the most recently used segments of unpacked chebyshew
+* coefficients read from the Swiss Ephemeris data files (*.se1).<p>
+* Each PlanData object keeps exactly one unpacked segment per body. When
+* the calculations jump between distant dates, the segment has to be read
+* and unpacked from the file again on nearly every call. This cache keeps
+* a bounded number of unpacked segments, keyed by file name, body and
+* segment number, and it is shared by all SwissEph objects in the JVM.
+* If the cache is full, the least recently used segment is dropped.<p>
+* The records of the JPL ephemeris files are kept in this cache as well.
+* Such a record holds the coefficients of all bodies for one time
+* interval, so it needs some 8 KB of memory, which is roughly ten times
+* the size of a segment of a Swiss Ephemeris file.<p>
+* The cached coefficients are never changed. Segments are copied into the
+* PlanData object on a cache hit, JPL records are read only, so the
+* results are identical to the results without the cache.<p>
+* Segments of flat ephemeris files (see FlatEphemeris) are read without
+* unpacking, so they are neither looked up in this cache nor counted.<p>
+* The hit and miss counters may be used to find an appropriate size for
+* the cache:<p>
+* <pre>
+* SegmentCache.setCapacity(4096);
+* ... do the calculations ...
+* System.out.println(SegmentCache.getHits() + " hits, " +
+*                    SegmentCache.getMisses() + " misses");
+* </pre>
+* All methods are thread safe.
+*/
+public final class SegmentCache {
+  /**
+  * The default number of segments to be kept in the cache.
+  */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  /* Body number used for the records of JPL files */
+  static final int JPL_RECORD = -1;
+
+  private static int capacity = DEFAULT_CAPACITY;
+  private static long hits = 0;
+  private static long misses = 0;
+  private static final java.util.LinkedHashMap cache =
+      new java.util.LinkedHashMap(64, 0.75f, true) {
+        protected boolean removeEldestEntry(java.util.Map.Entry eldest) {
+          return size() > capacity;
+        }
+      };
+
+  private SegmentCache() { }
+
+  /**
+  * Sets the maximum number of segments to be kept in the cache. A value
+  * of 0 switches off the cache. If the cache holds more segments than
+  * the new capacity, the least recently used segments are dropped.
+  * @param segments The maximum number of cached segments
+  * @see #DEFAULT_CAPACITY
+  */
+  public static synchronized void setCapacity(int segments) {
+    capacity = SMath.max(0, segments);
+    java.util.Iterator it = cache.keySet().iterator();
+    while (cache.size() > capacity && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+
+  /**
+  * Returns the maximum number of segments to be kept in the cache.
+  * @return The capacity of the cache
+  */
+  public static synchronized int getCapacity() {
+    return capacity;
+  }
+
+  /**
+  * Returns the number of segments currently kept in the cache.
+  * @return The number of cached segments
+  */
+  public static synchronized int size() {
+    return cache.size();
+  }
+
+  /**
+  * Returns the number of segments, that have been found in the cache
+  * since the last call to resetStatistics().
+  * @return The number of cache hits
+  */
+  public static synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+  * Returns the number of segments, that had to be read from the file
+  * since the last call to resetStatistics().
+  * @return The number of cache misses
+  */
+  public static synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+  * Sets the hit and miss counters back to zero.
+  */
+  public static synchronized void resetStatistics() {
+    hits = 0;
+    misses = 0;
+  }
+
+  /**
+  * Removes all segments from the cache. This should be called, when
+  * ephemeris files have been replaced while the program is running.
+  */
+  public static synchronized void clear() {
+    cache.clear();
+  }
+
+  /* Returns the cached coefficients or null. The returned array must
+   * not be changed. */
+  static synchronized double[] get(String fnam, int ipli, int iseg) {
+    if (capacity == 0) {
+      return null;
+    }
+    double[] segp = (double[])cache.get(new Key(fnam, ipli, iseg));
+    if (segp == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return segp;
+  }
+
+  /* The array must not be changed after it has been put into the cache. */
+  static synchronized void put(String fnam, int ipli, int iseg, double[] segp) {
+    if (capacity == 0) {
+      return;
+    }
+    cache.put(new Key(fnam, ipli, iseg), segp);
+  }
+
+  private static final class Key {
+    final String fnam;
+    final int ipli;
+    final int iseg;
+    final int hash;
+
+    Key(String fnam, int ipli, int iseg) {
+      this.fnam = fnam;
+      this.ipli = ipli;
+      this.iseg = iseg;
+      this.hash = (fnam.hashCode() * 31 + ipli) * 31 + iseg;
+    }
+
+    public int hashCode() {
+      return hash;
+    }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key k = (Key)o;
+      return iseg == k.iseg && ipli == k.ipli && fnam.equals(k.fnam);
+    }
+  }
+}
+#endif /* JAVAME */
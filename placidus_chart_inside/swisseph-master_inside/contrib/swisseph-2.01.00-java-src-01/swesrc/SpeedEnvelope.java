@@ -0,0 +1,396 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef TRANSITS
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class holds the minimum and maximum speeds of a planet for short
+* periods of time ("buckets" of e.g. 30 days each).<p>
+* The transit calculations have to proceed in steps, which are small
+* enough, that the transit point cannot be passed with the extreme speeds
+* of the planet. These extreme speeds are valid for all times, so they
+* are much larger than the speeds of the planet at any specific time.
+* E.g., Saturn can move up to 0.13 degrees per day, but in most months
+* its speed does not even reach the half of this value. With the speeds
+* from these tables, TCPlanet can do considerably larger steps.<p>
+* The tables are read from the file sespeeds.dat in the ephemeris path,
+* if it exists. The file is created by the main() method of this class
+* or by writeSpeedfile(), e.g.:<p>
+* <pre>
+* java swisseph.SpeedEnvelope sespeeds.dat ./ephe
+* </pre>
+* Tables are available only for the planets and the transit flags used
+* on creation of the file. Topocentric and sidereal calculations are not
+* supported, as the speeds depend on the geographic position resp. the
+* sidereal mode, which are not part of the file.
+* Everything else falls back to the extreme speeds for all times.<p>
+* The tables are read once per ephemeris path and shared by all SwissEph
+* objects in the JVM.
+* @see TCPlanet
+*/
+public class SpeedEnvelope
+#ifndef JAVAME
+		implements java.io.Serializable
+#endif /* JAVAME */
+		{
+  /**
+  * The name of the file containing the speed tables.
+  */
+  public static final String SE_SPEEDFILE = "sespeeds.dat";
+
+  /**
+  * The default size of a bucket in days.
+  */
+  public static final double DEFAULT_BUCKET = 30.;
+
+  static final int MAGIC = 0x53455350;   // "SESP"
+  static final int VERSION = 1;
+
+  // Flags, which are part of the key of a table. The ephemeris flags are
+  // not, as the speeds of the ephemerides differ less than the safety
+  // margins of the tables:
+  static final int KEY_FLAGS = SweConst.SEFLG_TRANSIT_LONGITUDE |
+                               SweConst.SEFLG_TRANSIT_LATITUDE |
+                               SweConst.SEFLG_TRANSIT_DISTANCE |
+                               SweConst.SEFLG_TRANSIT_SPEED |
+                               SweConst.SEFLG_EQUATORIAL |
+                               SweConst.SEFLG_HELCTR |
+                               SweConst.SEFLG_NOABERR |
+                               SweConst.SEFLG_NOGDEFL |
+                               SweConst.SEFLG_TRUEPOS;
+
+  // Number of speed samples per bucket on creation of the tables:
+  private static final int SAMPLES = 8;
+
+  // The tables read per ephemeris path. Each entry is a Hashtable of the
+  // tables of the file with key planet + ":" + flags, or an empty
+  // Hashtable, if there is no such file:
+  private static java.util.Hashtable files = new java.util.Hashtable();
+
+  private int planet;
+  private int flags;
+  private double jdStart;
+  private double bucket;
+  // The speeds are stored as bytes from 0 to 255 for the range of speeds
+  // from gmin to gmax. lo[i] > hi[i] marks buckets without speeds:
+  private double gmin, gmax;
+  private byte[] lo, hi;
+
+
+  private SpeedEnvelope() { }
+
+  /**
+  * Returns the speed table for a planet and the transit flags as used
+  * with TCPlanet from the file in the ephemeris path of sw.
+  * @return the speed table or null, if there is none
+  */
+  static synchronized SpeedEnvelope getEnvelope(SwissEph sw, int planet,
+                                                int tflags) {
+    if ((tflags & (SweConst.SEFLG_TOPOCTR | SweConst.SEFLG_SIDEREAL)) != 0) {
+      return null;
+    }
+    String path = (sw.swed.ephepath == null ? "" : sw.swed.ephepath);
+    java.util.Hashtable tables = (java.util.Hashtable)files.get(path);
+    if (tables == null) {
+      tables = readSpeedfile(sw);
+      files.put(path, tables);
+    }
+    return (SpeedEnvelope)tables.get(planet + ":" + (tflags & KEY_FLAGS));
+  }
+
+  /**
+  * Forgets all speed tables read so far. The speed file will be read
+  * again, when the next TCPlanet object gets created. Use this method,
+  * if the speed file has been created or changed while running.
+  */
+  public static synchronized void clearCache() {
+    files.clear();
+  }
+
+  private static java.util.Hashtable readSpeedfile(SwissEph sw) {
+    java.util.Hashtable tables = new java.util.Hashtable();
+#ifndef JAVAME
+    FilePtr fp = null;
+    try {
+      fp = sw.swi_fopen(-1, SE_SPEEDFILE, sw.swed.ephepath, null);
+      if (fp.readInt() != MAGIC || fp.readInt() != VERSION) {
+        return tables;
+      }
+      int cnt = fp.readInt();
+      for (int t = 0; t < cnt; t++) {
+        SpeedEnvelope se = new SpeedEnvelope();
+        se.planet = fp.readInt();
+        se.flags = fp.readInt();
+        se.jdStart = fp.readDouble();
+        se.bucket = fp.readDouble();
+        se.gmin = fp.readDouble();
+        se.gmax = fp.readDouble();
+        int n = fp.readInt();
+        se.lo = new byte[n];
+        se.hi = new byte[n];
+        for (int i = 0; i < n; i++) { se.lo[i] = fp.readByte(); }
+        for (int i = 0; i < n; i++) { se.hi[i] = fp.readByte(); }
+        tables.put(se.planet + ":" + se.flags, se);
+      }
+    } catch (SwissephException se) {
+      // No speed file available
+    } catch (java.io.IOException ie) {
+      // Incomplete file, use the tables read up to here
+    } finally {
+      try {
+        if (fp != null) { fp.close(); }
+      } catch (java.io.IOException ie) {
+      }
+    }
+#endif /* JAVAME */
+    return tables;
+  }
+
+
+  /**
+  * Returns the date, up to which the value cannot reach the offset with
+  * the speeds of the bucket containing jd. The date will not be beyond
+  * the end of that bucket.
+  * @param jd The date to start from
+  * @param val The value at jd
+  * @param offset The value to be reached
+  * @param rolloverVal The rollover value for circular values, 0 otherwise
+  * @param back true for the search backwards in time
+  * @return The date up to which no transit is possible, or jd, if jd is
+  * not covered by the table
+  */
+  double getNextJD(double jd, double val, double offset, double rolloverVal,
+                   boolean back) {
+    double x = (jd - jdStart) / bucket;
+    int i = (int)(back ? SMath.ceil(x) - 1 : SMath.floor(x));
+    if (i < 0 || i >= lo.length || (lo[i] & 0xff) > (hi[i] & 0xff)) {
+      return jd;
+    }
+    double min = gmin + (lo[i] & 0xff) * (gmax - gmin) / 255.;
+    double max = gmin + (hi[i] & 0xff) * (gmax - gmin) / 255.;
+
+    // The distances to the offset for increasing and decreasing values:
+    double up = offset - val, down = val - offset;
+    if (rolloverVal > 0.) {
+      up %= rolloverVal;
+      if (up < 0.) { up += rolloverVal; }
+      down = rolloverVal - up;
+    }
+    // The fastest changes of the value in the direction of the search:
+    double vUp = (back ? -min : max);
+    double vDown = (back ? max : -min);
+
+    double dt = SMath.abs(jdStart + (back ? i : i + 1) * bucket - jd);
+    if (up >= 0. && vUp > 0.) { dt = SMath.min(dt, up / vUp); }
+    if (down >= 0. && vDown > 0.) { dt = SMath.min(dt, down / vDown); }
+    return (back ? jd - dt : jd + dt);
+  }
+
+
+#ifndef JAVAME
+  /**
+  * Creates the speed file. For each planet and each combination of
+  * transit flags, the speeds are calculated eight times per bucket. The
+  * extreme speeds of a bucket are taken from these speeds and the speeds
+  * next to the bucket, and they are widened by the largest difference
+  * between two consecutive speeds to cover the extreme speeds between
+  * the calculated points.<p>
+  * The flags are the same as for TCPlanet, without an ephemeris flag
+  * and without SEFLG_TOPOCTR and SEFLG_SIDEREAL.
+  * @param sw The SwissEph object to be used for the calculations
+  * @param fname The name of the file to be written
+  * @param planets The planet numbers
+  * @param tflags The combinations of transit flags
+  * @param ephe The ephemeris flag to be used for the calculations
+  * @param jdStart The start date (ET) of the tables
+  * @param jdEnd The end date (ET) of the tables
+  * @param bucket The size of the buckets in days
+  * @throws java.io.IOException if the file cannot be written
+  * @see #DEFAULT_BUCKET
+  */
+  public static void writeSpeedfile(SwissEph sw, String fname,
+                                    int[] planets, int[] tflags, int ephe,
+                                    double jdStart, double jdEnd,
+                                    double bucket)
+         throws java.io.IOException {
+    for (int f = 0; f < tflags.length; f++) {
+      if ((tflags[f] & ~KEY_FLAGS) != 0) {
+        throw new IllegalArgumentException("Invalid flag(s): " +
+                                           (tflags[f] & ~KEY_FLAGS));
+      }
+    }
+    int n = (int)SMath.ceil((jdEnd - jdStart) / bucket);
+    java.io.DataOutputStream os = new java.io.DataOutputStream(
+        new java.io.BufferedOutputStream(
+            new java.io.FileOutputStream(fname)));
+    try {
+      os.writeInt(MAGIC);
+      os.writeInt(VERSION);
+      os.writeInt(planets.length * tflags.length);
+      for (int p = 0; p < planets.length; p++) {
+        for (int f = 0; f < tflags.length; f++) {
+          SpeedEnvelope se = create(sw, planets[p], tflags[f], ephe,
+                                    jdStart, n, bucket);
+          os.writeInt(se.planet);
+          os.writeInt(se.flags);
+          os.writeDouble(se.jdStart);
+          os.writeDouble(se.bucket);
+          os.writeDouble(se.gmin);
+          os.writeDouble(se.gmax);
+          os.writeInt(n);
+          os.write(se.lo);
+          os.write(se.hi);
+        }
+      }
+    } finally {
+      os.close();
+    }
+  }
+
+  private static SpeedEnvelope create(SwissEph sw, int planet, int tflags,
+                                      int ephe, double jdStart, int n,
+                                      double bucket) {
+    int idx = 0;
+    if ((tflags & SweConst.SEFLG_TRANSIT_LATITUDE) != 0) {
+      idx = 1;
+    } else if ((tflags & SweConst.SEFLG_TRANSIT_DISTANCE) != 0) {
+      idx = 2;
+    }
+    if ((tflags & SweConst.SEFLG_TRANSIT_SPEED) != 0) {
+      idx += 3;
+    }
+    int flags = (tflags & ~(SweConst.SEFLG_TRANSIT_LONGITUDE |
+                            SweConst.SEFLG_TRANSIT_LATITUDE |
+                            SweConst.SEFLG_TRANSIT_DISTANCE |
+                            SweConst.SEFLG_TRANSIT_SPEED)) |
+                ephe | SweConst.SEFLG_SPEED;
+
+    // The speeds (or accelerations) at SAMPLES points per bucket plus one
+    // point before and after the buckets:
+    double h = bucket / SAMPLES;
+    double[] v = new double[n * SAMPLES + 3];
+    double[] xx = new double[6];
+    double[] xx2 = new double[6];
+    StringBuffer serr = new StringBuffer();
+    for (int k = 0; k < v.length; k++) {
+      double jd = jdStart + (k - 1) * h;
+      v[k] = Double.NaN;
+      if (idx < 3) {
+        if (sw.swe_calc(jd, planet, flags, xx, serr) >= 0) {
+          v[k] = xx[idx + 3];
+        }
+      } else if (sw.swe_calc(jd - 0.5, planet, flags, xx, serr) >= 0 &&
+                 sw.swe_calc(jd + 0.5, planet, flags, xx2, serr) >= 0) {
+        // Accelerations from the speeds half a day before and after:
+        v[k] = xx2[idx] - xx[idx];
+      }
+    }
+
+    SpeedEnvelope se = new SpeedEnvelope();
+    se.planet = planet;
+    se.flags = tflags;
+    se.jdStart = jdStart;
+    se.bucket = bucket;
+    double[] min = new double[n];
+    double[] max = new double[n];
+    se.gmin = Double.MAX_VALUE;
+    se.gmax = -Double.MAX_VALUE;
+    for (int i = 0; i < n; i++) {
+      min[i] = Double.MAX_VALUE;
+      max[i] = -Double.MAX_VALUE;
+      double diff = 0.;
+      for (int k = i * SAMPLES; k <= (i + 1) * SAMPLES + 2; k++) {
+        if (Double.isNaN(v[k])) {
+          min[i] = Double.NaN;
+          break;
+        }
+        min[i] = SMath.min(min[i], v[k]);
+        max[i] = SMath.max(max[i], v[k]);
+        if (k > i * SAMPLES) {
+          diff = SMath.max(diff, SMath.abs(v[k] - v[k - 1]));
+        }
+      }
+      if (Double.isNaN(min[i])) {
+        continue;
+      }
+      min[i] -= diff;
+      max[i] += diff;
+      se.gmin = SMath.min(se.gmin, min[i]);
+      se.gmax = SMath.max(se.gmax, max[i]);
+    }
+    if (se.gmax <= se.gmin) {
+      se.gmax = se.gmin + 1e-9;
+    }
+
+    // Quantize the speeds to bytes, rounding outwards:
+    se.lo = new byte[n];
+    se.hi = new byte[n];
+    double scale = 255. / (se.gmax - se.gmin);
+    for (int i = 0; i < n; i++) {
+      if (Double.isNaN(min[i])) {
+        se.lo[i] = (byte)255;
+        se.hi[i] = 0;
+      } else {
+        se.lo[i] = (byte)SMath.max(0,
+            (int)SMath.floor((min[i] - se.gmin) * scale));
+        se.hi[i] = (byte)SMath.min(255,
+            (int)SMath.ceil((max[i] - se.gmin) * scale));
+      }
+    }
+    return se;
+  }
+
+  /**
+  * Creates the speed file with the default tables: geocentric longitude,
+  * latitude and distance of the sun, the planets from Mercury to Pluto
+  * and the mean node in buckets of 30 days. The moon is not included,
+  * as its speed goes through the whole range within each bucket.<p>
+  * Usage: <code>java swisseph.SpeedEnvelope &lt;file&gt; [&lt;ephepath&gt;
+  * [&lt;jdStart&gt; &lt;jdEnd&gt;]]</code><p>
+  * The tables cover the years 1800 to 2400 by default. They are
+  * calculated with the Swiss Ephemeris, if available in the ephemeris
+  * path, or with the Moshier ephemeris otherwise.
+  * @param args The command line arguments as described above
+  * @throws java.io.IOException if the file cannot be written
+  */
+  public static void main(String[] args) throws java.io.IOException {
+    if (args.length != 1 && args.length != 2 && args.length != 4) {
+      System.err.println("Usage: java swisseph.SpeedEnvelope <file> " +
+                         "[<ephepath> [<jdStart> <jdEnd>]]");
+      System.exit(1);
+    }
+    SwissEph sw = new SwissEph(args.length > 1 ? args[1] : null);
+    double jdStart = 2378496.5;   // 1.1.1800
+    double jdEnd = 2597641.5;     // 1.1.2400
+    if (args.length == 4) {
+      jdStart = Double.valueOf(args[2]).doubleValue();
+      jdEnd = Double.valueOf(args[3]).doubleValue();
+    }
+    int ephe = SweConst.SEFLG_SWIEPH;
+    double[] xx = new double[6];
+    StringBuffer serr = new StringBuffer();
+    if ((sw.swe_calc(jdStart, SweConst.SE_SATURN, ephe, xx, serr) &
+         SweConst.SEFLG_EPHMASK) != ephe ||
+        (sw.swe_calc(jdEnd, SweConst.SE_SATURN, ephe, xx, serr) &
+         SweConst.SEFLG_EPHMASK) != ephe) {
+      ephe = SweConst.SEFLG_MOSEPH;
+    }
+    writeSpeedfile(sw, args[0],
+        new int[] { SweConst.SE_SUN, SweConst.SE_MERCURY, SweConst.SE_VENUS,
+                    SweConst.SE_MARS, SweConst.SE_JUPITER, SweConst.SE_SATURN,
+                    SweConst.SE_URANUS, SweConst.SE_NEPTUNE, SweConst.SE_PLUTO,
+                    SweConst.SE_MEAN_NODE },
+        new int[] { SweConst.SEFLG_TRANSIT_LONGITUDE,
+                    SweConst.SEFLG_TRANSIT_LATITUDE,
+                    SweConst.SEFLG_TRANSIT_DISTANCE },
+        ephe, jdStart, jdEnd, DEFAULT_BUCKET);
+  }
+#endif /* JAVAME */
+}
+#endif /* TRANSITS */
@@ -99,8 +99,6 @@ public class SweDate
 #endif /* JAVAME */
 		{
 
-  private static SwissEph sw = new SwissEph();	// Just a default
-
   /**
   * Constant for weekdays. SUNDAY is equal to 0.
   */
@@ -135,8 +133,6 @@ public class SweDate
   public static final boolean SE_KEEP_DATE=true;
   public static final boolean SE_KEEP_JD=false;
 
-  private boolean init_leapseconds_done=false;
-
 
 
   /**
@@ -146,13 +142,24 @@ public class SweDate
   */
   public static final double JD0=2440587.5;          /* 1970 January 1.0 */
 
-  private static double tid_acc = SweConst.SE_TIDAL_DEFAULT;
+  /* The tidal acceleration set by setGlobalTidalAcc(). The value and the
+   * flag, if it has been set manually, are published together in one
+   * immutable object, so a reader never sees the flag of one call with
+   * the value of another. */
+  private static final class TidalAcc {
+    final double value;
+    final boolean manual;
+    TidalAcc(double value, boolean manual) {
+      this.value = value;
+      this.manual = manual;
+    }
+  }
+  private static volatile TidalAcc tid_acc =
+      new TidalAcc(SweConst.SE_TIDAL_DEFAULT, false);
 // private static ThreadLocal<Integer> double = new ThreadLocal<Integer>() {
 // @Override protected Integer initialValue() { return SweConst.SE_TIDAL_DEFAULT; }
 // };
 
-  private static boolean is_tid_acc_manual = false;
-  private static boolean init_dt_done = false;
   private double jd;
   // JD for the start of the Gregorian calendar system (October 15, 1582):
   private double jdCO = 2299160.5;
@@ -381,7 +388,7 @@ public class SweDate
   * @see #FRIDAY
   * @see #SATURDAY
   */
-  public static synchronized int getDayOfWeekNr(double jd) {
+  public static int getDayOfWeekNr(double jd) {
 #ifdef TRACE0
     Trace.level++;
     Trace.log("SweDate.getDayOfWeekNr(double)");
@@ -535,7 +542,7 @@ public class SweDate
     Trace.log("SweDate.getDeltaT()");
 #endif /* TRACE0 */
     if (deltatIsValid) { return this.deltaT; }
-    this.deltaT=calc_deltaT(this.getJulDay());
+    this.deltaT=calc_deltaT(this.getJulDay(), 0, tid_acc.value);
     deltatIsValid=true;
 #ifdef TRACE0
     Trace.level--;
@@ -557,13 +564,30 @@ public class SweDate
     Trace.log("SweDate.getDeltaT(double)");
 #endif /* TRACE0 */
     //double sdt = calc_deltaT(tjd, SE_TIDAL_DEFAULT);
-    double sdt = calc_deltaT(tjd);
+    double sdt = calc_deltaT(tjd, 0, tid_acc.value);
 #ifdef TRACE0
     Trace.level--;
 #endif /* TRACE0 */
     return sdt;
   }
 
+  /**
+  * Queries the delta T value for the given Julian Day number as seen
+  * by the calculation context owning <code>swed</code>. The delta T model
+  * and the automatically determined tidal acceleration are taken from that
+  * context, a tidal acceleration set by setGlobalTidalAcc(double) takes
+  * precedence.
+  * @param tjd Julian Day number
+  * @param swed The SwissData object of the calculation context
+  * @return delta T
+  * @see #setGlobalTidalAcc(double)
+  */
+  static double getDeltaT(double tjd, SwissData swed) {
+    TidalAcc tacc = tid_acc;
+    return calc_deltaT(tjd, swed.astro_models[SweConst.SE_MODEL_DELTAT],
+                       (tacc.manual ? tacc.value : swed.tid_acc));
+  }
+
   /**
   * This will return a java.util.Date object with the date of this
   * SweDate object. This is needed often in internationalisation of date
@@ -1111,7 +1135,10 @@ public class SweDate
   //////////////////////////////////////////////////////////////////////////////
 
   /**
-  * Returns the tidal acceleration used in calculations of delta T.<br>
+  * Returns the tidal acceleration used in calculations of delta T
+  * via the static methods of this class. Calculations done via a
+  * SwissEph object use the tidal acceleration matching its ephemeris,
+  * unless it had been set explicitly by setGlobalTidalAcc(double).<br>
   * Was <code>double swe_get_tid_acc()</code> in the original
   * C sources.
   * @return Tidal acceleration
@@ -1122,7 +1149,7 @@ public class SweDate
     Trace.log("SweDate.getGlobalTidalAcc()");
     Trace.level--;
 #endif /* TRACE0 */
-    return tid_acc;
+    return tid_acc.value;
 // return tid_acc.get();
   }
 
@@ -1149,7 +1176,9 @@ public class SweDate
   * C version.<br>
   * <b>ATTENTION: this method changes the tidal acceleration of the moon
   * globally, so <i>any</i> calculation of delta T following this call
-  * will be affected.</b>
+  * will be affected, including the calculations of all SwissEph objects.
+  * With SE_TIDAL_AUTOMATIC, every SwissEph object uses the tidal
+  * acceleration of its own ephemeris again.</b>
   * @param t_acc tidal acceleration
   * @see swisseph.SweConst#SE_TIDAL_DE403
   * @see swisseph.SweConst#SE_TIDAL_DE404
@@ -1169,53 +1198,36 @@ public class SweDate
     Trace.log("SweDate.setGlobalTidalAcc(double)");
 #endif /* TRACE0 */
     if (t_acc == SweConst.SE_TIDAL_AUTOMATIC) {
-      tid_acc = SweConst.SE_TIDAL_DEFAULT;
+      tid_acc = new TidalAcc(SweConst.SE_TIDAL_DEFAULT, false);
 // tid_acc.set(SweConst.SE_TIDAL_DEFAULT);
-      is_tid_acc_manual = false;
       return;
     }
-    tid_acc = t_acc;
+    tid_acc = new TidalAcc(t_acc, true);
 // tid_acc.set(t_acc);
-    is_tid_acc_manual = true;
   }
 
   /**
-  * @see #setGlobalTidalAcc(double, int, int)
-  */
-  static void swi_set_tid_acc(double tjd_ut, int iflag, int denum) {
-    setGlobalTidalAcc(tjd_ut, iflag, denum);
-  }
-  /**
-  * Sets the tidal acceleration used in calculations of delta T.
-  * Corresponds to <code>void swi_set_tid_acc(double, int, int)</code> method in the original
-  * C version.
-  * @param t_acc tidal acceleration
+  * Sets the tidal acceleration of the calculation context <code>sw</code>
+  * to the value matching the ephemeris in use, unless a tidal acceleration
+  * has been set globally by setGlobalTidalAcc(double).
+  * Corresponds to <code>void swi_set_tid_acc(double, int, int)</code> method
+  * in the original C version.
+  * @param tjd_ut
   * @param iflag
   * @param denum
+  * @param sw The SwissEph object, whose tidal acceleration will be set
   * @see #setGlobalTidalAcc(double)
-  * @see swisseph.SweConst#SE_TIDAL_DE403
-  * @see swisseph.SweConst#SE_TIDAL_DE404
-  * @see swisseph.SweConst#SE_TIDAL_DE405
-  * @see swisseph.SweConst#SE_TIDAL_DE406
-  * @see swisseph.SweConst#SE_TIDAL_DE421
-  * @see swisseph.SweConst#SE_TIDAL_DE430
-  * @see swisseph.SweConst#SE_TIDAL_DE431
-  * @see swisseph.SweConst#SE_TIDAL_DE200
-  * @see swisseph.SweConst#SE_TIDAL_26
-  * @see swisseph.SweConst#SE_TIDAL_AUTOMATIC
-  * @see swisseph.SweConst#SE_TIDAL_DEFAULT
   */
-  static void setGlobalTidalAcc(double tjd_ut, int iflag, int denum) {
-    double xx[] = new double[6];
+  static void swi_set_tid_acc(double tjd_ut, int iflag, int denum, SwissEph sw) {
+    double xx[] = null;
     double tjd_et;
     int retval = 0;
     /* manual tid_acc overrides automatic tid_acc */
-    if (is_tid_acc_manual)
+    if (tid_acc.manual)
       return;
     if (denum == 0) {
       if ((iflag & SweConst.SEFLG_MOSEPH) != 0) {
-        tid_acc = SweConst.SE_TIDAL_DE404;
-// tid_acc.set(SweConst.SE_TIDAL_DE404);
+        sw.swed.tid_acc = SweConst.SE_TIDAL_DE404;
         return;
       }
 #ifndef JAVAME
@@ -1223,8 +1235,9 @@ public class SweDate
         if (sw.swed.jpl_file_is_open) {
 	  denum = sw.swed.jpldenum;
         } else {
-	  tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+	  tjd_et = tjd_ut + getDeltaT(tjd_ut, sw.swed);
 	  iflag = SweConst.SEFLG_JPLEPH|SweConst.SEFLG_J2000|SweConst.SEFLG_TRUEPOS|SweConst.SEFLG_ICRS|SweConst.SEFLG_BARYCTR;
+	  xx = new double[6];
 	  retval = sw.swe_calc(tjd_et, SweConst.SE_JUPITER, iflag, xx, null);
 	  if (sw.swed.jpl_file_is_open && (retval & SweConst.SEFLG_JPLEPH) != 0) {
 	    denum = sw.swed.jpldenum;
@@ -1235,11 +1248,12 @@ public class SweDate
 #endif /* JAVAME */
       if (denum == 0) {
 #ifndef JAVAME
-        tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+        tjd_et = tjd_ut + getDeltaT(tjd_ut, sw.swed);
         if (sw.swed.fidat[SwephData.SEI_FILE_MOON].fptr == null ||
           tjd_et < sw.swed.fidat[SwephData.SEI_FILE_MOON].tfstart + 1 ||
 	  tjd_et > sw.swed.fidat[SwephData.SEI_FILE_MOON].tfend - 1) {
 	  iflag = SweConst.SEFLG_SWIEPH|SweConst.SEFLG_J2000|SweConst.SEFLG_TRUEPOS|SweConst.SEFLG_ICRS;
+	  xx = new double[6];
 	  sw.swe_calc(tjd_et, SweConst.SE_MOON, iflag, xx, null);
         }
         if (sw.swed.fidat[SwephData.SEI_FILE_MOON].fptr != null) {
@@ -1253,38 +1267,56 @@ public class SweDate
 #endif /* JAVAME */
       }
     }
-    switch(denum) {
-      case 200: tid_acc = SweConst.SE_TIDAL_DE200; break;
-      case 403: tid_acc = SweConst.SE_TIDAL_DE403; break;
-      case 404: tid_acc = SweConst.SE_TIDAL_DE404; break;
-      case 405: tid_acc = SweConst.SE_TIDAL_DE405; break;
-      case 406: tid_acc = SweConst.SE_TIDAL_DE406; break;
-      case 421: tid_acc = SweConst.SE_TIDAL_DE421; break; 
-      case 430: tid_acc = SweConst.SE_TIDAL_DE430; break;
-      case 431: tid_acc = SweConst.SE_TIDAL_DE431; break;
-      default: tid_acc = SweConst.SE_TIDAL_DEFAULT; break;
-//      case 200: tid_acc.set(SweConst.SE_TIDAL_DE200); break;
-//      case 403: tid_acc.set(SweConst.SE_TIDAL_DE403); break;
-//      case 404: tid_acc.set(SweConst.SE_TIDAL_DE404); break;
-//      case 405: tid_acc.set(SweConst.SE_TIDAL_DE405); break;
-//      case 406: tid_acc.set(SweConst.SE_TIDAL_DE406); break;
-//      case 421: tid_acc.set(SweConst.SE_TIDAL_DE421); break; 
-//      case 430: tid_acc.set(SweConst.SE_TIDAL_DE430); break;
-//      case 431: tid_acc.set(SweConst.SE_TIDAL_DE431); break;
-//      default: tid_acc.set(SweConst.SE_TIDAL_DEFAULT); break;
-    }
+    sw.swed.tid_acc = tid_acc_of(denum);
 #ifdef TRACE0
     Trace.level--;
 #endif /* TRACE0 */
   }
 
+  /* tidal acceleration of the JPL ephemeris DE<denum> */
+  private static double tid_acc_of(int denum) {
+    switch(denum) {
+      case 200: return SweConst.SE_TIDAL_DE200;
+      case 403: return SweConst.SE_TIDAL_DE403;
+      case 404: return SweConst.SE_TIDAL_DE404;
+      case 405: return SweConst.SE_TIDAL_DE405;
+      case 406: return SweConst.SE_TIDAL_DE406;
+      case 421: return SweConst.SE_TIDAL_DE421;
+      case 430: return SweConst.SE_TIDAL_DE430;
+      case 431: return SweConst.SE_TIDAL_DE431;
+      default: return SweConst.SE_TIDAL_DEFAULT;
+    }
+  }
+
   /**
-  * This method is needed to have a consistent global SwissData object "swed",
-  * whose contents may determine the tidal acceleration. Called from the
-  * SwissEph constructor only.
-  */
-  protected static void setSwissEphObject(SwissEph swiss) {
-    sw = swiss;
+  * Checks, if swi_set_tid_acc(tjd_ut, iflag, 0, sw) would leave the
+  * tidal acceleration of sw unchanged without calculating anything. This
+  * is the case, if it is set manually, or if the ephemeris, which
+  * determines it, is Moshier or an open JPL file, or if the moon file
+  * in use covers the time already.
+  * @param tjd_et tjd_ut plus delta T with the current tidal acceleration
+  * @param iflag
+  * @param sw The SwissEph object, whose tidal acceleration is checked
+  * @return true, if swi_set_tid_acc() is not needed
+  */
+  static boolean tid_acc_is_current(double tjd_et, int iflag, SwissEph sw) {
+    if (tid_acc.manual)
+      return true;
+    if ((iflag & SweConst.SEFLG_MOSEPH) != 0) {
+      return sw.swed.tid_acc == SweConst.SE_TIDAL_DE404;
+    }
+#ifndef JAVAME
+    if ((iflag & SweConst.SEFLG_JPLEPH) != 0) {
+      return sw.swed.jpl_file_is_open &&
+             sw.swed.tid_acc == tid_acc_of(sw.swed.jpldenum);
+    }
+    FileData fdp = sw.swed.fidat[SwephData.SEI_FILE_MOON];
+    return fdp.fptr != null &&
+           tjd_et >= fdp.tfstart + 1 && tjd_et <= fdp.tfend - 1 &&
+           sw.swed.tid_acc == tid_acc_of(fdp.sweph_denum);
+#else
+    return sw.swed.tid_acc == SweConst.SE_TIDAL_DE404;
+#endif /* JAVAME */
   }
 
   /**
@@ -1365,8 +1397,8 @@ public class SweDate
                     date_conversion() includes test for legal date values
                     and notifies errors like 32 January.
  ****************************************************************/
-  private static synchronized double swe_julday(int year, int month, int day,
-                                                double hour, boolean calType) {
+  private static double swe_julday(int year, int month, int day,
+                                      double hour, boolean calType) {
 #ifdef TRACE0
     Trace.level++;
     Trace.log("SweDate.julday(int, int, int, double, boolean)");
@@ -1403,7 +1435,7 @@ public class SweDate
   // Erzeugt aus einem jd/calType Jahr, Monat, Tag und Stunde.        //
   // It does NOT change any global variables.                         //
   //////////////////////////////////////////////////////////////////////
-  private synchronized IDate swe_revjul (double jd, boolean calType) {
+  private IDate swe_revjul (double jd, boolean calType) {
 #ifdef TRACE0
     Trace.level++;
     Trace.log("SweDate.swe_revjul(double, boolean)");
@@ -1548,7 +1580,9 @@ public class SweDate
   /* we make the table greater for additional values read from external file */
   private static final int TABSIZ_SPACE=TABSIZ+100;
 
-  private static double dt[]=new double[] {
+  /* built-in table, never changed. Values from an external file go into
+   * a copy of it, see dt_tab and init_dt(). */
+  private static final double dt[]=new double[] {
   /* 1620.0 thru 1659.0 */
   124.00, 119.00, 115.00, 110.00, 106.00, 102.00, 98.00, 95.00, 91.00, 88.00,
   85.00, 82.00, 79.00, 77.00, 74.00, 72.00, 70.00, 67.00, 65.00, 63.00,
@@ -1611,6 +1645,13 @@ public class SweDate
   0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
   0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
   };
+  /* The table of delta t values in use, including additional values from
+   * an external file. Its length is the table size. The array is never
+   * changed after it has been published, so it can be read without
+   * locking; init_dt() replaces it by a new array. As long as it is the
+   * built-in table dt_init, the file has not been read yet. */
+  private static final double dt_init[] = trim(dt, TABSIZ);
+  private static volatile double dt_tab[] = dt_init;
 /*#define DELTAT_ESPENAK_MEEUS_2006 TRUE*/
   private static final int TAB2_SIZ    = 27;
   private static final int TAB2_START  = -1000;
@@ -1619,7 +1660,7 @@ public class SweDate
   private static final int LTERM_EQUATION_YSTART = 1820;
   private static final int LTERM_EQUATION_COEFF = 32;
   /* Table for -1000 through 1600, from Morrison & Stephenson (2004).  */
-  private static short dt2[]=new short[] {
+  private static final short dt2[]=new short[] {
   /*-1000  -900  -800  -700  -600  -500  -400  -300  -200  -100*/
     25400,23700,22000,21000,19040,17190,15530,14080,12790,11640,
   /*    0   100   200   300   400   500   600   700   800   900*/
@@ -1631,7 +1672,7 @@ public class SweDate
    * double tjd 	= 	julian day in UT
    */
 #undefine DEMO
-  private static synchronized double calc_deltaT(double tjd) {
+  private static double calc_deltaT(double tjd, int deltat_model, double tacc) {
 #ifdef TRACE0
     Trace.level++;
     Trace.log("SweDate.deltaT(double)");
@@ -1639,7 +1680,6 @@ public class SweDate
     double ans = 0;
     double B, Y, Ygreg, dd;
     int iy;
-    int deltat_model = sw.swed.astro_models[SweConst.SE_MODEL_DELTAT];
     if (deltat_model == 0) deltat_model = SweConst.SEMOD_DELTAT_DEFAULT;
     /* read additional values from swedelta.txt */
     /*AS_BOOL use_espenak_meeus = DELTAT_ESPENAK_MEEUS_2006;*/
@@ -1654,7 +1694,7 @@ public class SweDate
      */
     /*if (use_espenak_meeus && tjd < 2317746.13090277789) {*/
     if (deltat_model == SweConst.SEMOD_DELTAT_ESPENAK_MEEUS_2006 && tjd < 2317746.13090277789) {
-      return deltat_espenak_meeus_1620(tjd);
+      return deltat_espenak_meeus_1620(tjd, tacc);
     }
     /* If the macro DELTAT_ESPENAK_MEEUS_2006 is FALSE:
      * Before 1620, we follow Stephenson & Morrsion 2004. For the tabulated 
@@ -1662,7 +1702,7 @@ public class SweDate
      */
     if (Y < TABSTART) {
       if (Y < TAB2_END) {
-        return deltat_stephenson_morrison_1600(tjd);
+        return deltat_stephenson_morrison_1600(tjd, tacc);
       } else {
         /* between 1600 and 1620:
          * linear interpolation between 
@@ -1673,7 +1713,7 @@ public class SweDate
 	  dd = (Y - TAB2_END) / B;
 	  /*ans = dt2[iy] + dd * (dt[0] / 100.0 - dt2[iy]);*/
 	  ans = dt2[iy] + dd * (dt[0] - dt2[iy]);
-	  ans = adjust_for_tidacc(ans, Ygreg);
+	  ans = adjust_for_tidacc(ans, Ygreg, tacc);
 	  return ans / 86400.0;
         }
       }
@@ -1683,7 +1723,7 @@ public class SweDate
      * See AA page K11.
      */
     if (Y >= TABSTART) {
-      return deltat_aa(tjd);
+      return deltat_aa(tjd, tacc);
     }
 #ifdef TRACE
     swi_open_trace(NULL);
@@ -1705,17 +1745,14 @@ public class SweDate
     return ans / 86400.0;
   }
 
-  private static double deltat_aa(double tjd) {
+  private static double deltat_aa(double tjd, double tacc) {
     double ans = 0, ans2, ans3;
     double p, B, B2, Y, dd;
     double d[] = new double[6];
     int i, iy, k;
-#ifdef JAVAME
-    int tabsiz = TABSIZ;
-#else
-    /* read additional values from swedelta.txt */
-    int tabsiz = init_dt();
-#endif /* JAVAME */
+    /* additional values from swedelta.txt are read by init_dt() */
+    double dt[] = dt_tab;
+    int tabsiz = dt.length;
     int tabend = TABSTART + tabsiz - 1;
     /*Y = 2000.0 + (tjd - J2000)/365.25;*/
     Y = 2000.0 + (tjd - SwephData.J2000)/365.2425;
@@ -1728,13 +1765,13 @@ public class SweDate
       ans = dt[iy];
       k = iy + 1;
       if( k >= tabsiz )
-        return deltat_aa_label_done(ans, Y); /* No data, can't go on. */
+        return deltat_aa_label_done(ans, Y, tacc); /* No data, can't go on. */
       /* The fraction of tabulation interval */
       p = Y - p;
       /* First order interpolated value */
       ans += p*(dt[k] - dt[iy]);
       if( (iy-1 < 0) || (iy+2 >= tabsiz) )
-        return deltat_aa_label_done(ans, Y); /* can't do second differences */
+        return deltat_aa_label_done(ans, Y, tacc); /* can't do second differences */
       /* Make table of first differences */
       k = iy - 2;
       for( i=0; i<5; i++ ) {
@@ -1753,7 +1790,7 @@ public class SweDate
     printf( "B %.4lf, ans %.4lf\n", B, ans );
 #endif /* DEMO */
       if( iy+2 >= tabsiz )
-        return deltat_aa_label_done(ans, Y);
+        return deltat_aa_label_done(ans, Y, tacc);
       /* Compute third differences */
       for( i=0; i<3; i++ )
         d[i] = d[i+1] - d[i];
@@ -1763,7 +1800,7 @@ public class SweDate
 //    printf( "B %.4lf, ans %.4lf\n", B*(p-0.5), ans );
 #endif /* DEMO */
       if( (iy-2 < 0) || (iy+3 > tabsiz) )
-        return deltat_aa_label_done(ans, Y);
+        return deltat_aa_label_done(ans, Y, tacc);
       /* Compute fourth differences */
       for( i=0; i<2; i++ )
         d[i] = d[i+1] - d[i];
@@ -1772,7 +1809,7 @@ public class SweDate
 #if DEMO
 //    printf( "B %.4lf, ans %.4lf\n", B, ans );
 #endif /* DEMO */
-      return deltat_aa_label_done(ans, Y); /* No data, can't go on. */
+      return deltat_aa_label_done(ans, Y, tacc); /* No data, can't go on. */
     }
     /* today - :
      * Formula Stephenson (1997; p. 507),
@@ -1799,7 +1836,7 @@ public class SweDate
     return (-20 + 32 * u * u);
   }
 
-  private static double deltat_stephenson_morrison_1600(double tjd) {
+  private static double deltat_stephenson_morrison_1600(double tjd, double tacc) {
     double ans = 0, ans2, ans3;
     double p, B, dd;
     double tjd0;
@@ -1814,17 +1851,17 @@ public class SweDate
       /*B = (Y - LTERM_EQUATION_YSTART) * 0.01;
       ans = -20 + LTERM_EQUATION_COEFF * B * B;*/
       ans = deltat_longterm_morrison_stephenson(tjd);
-      ans = adjust_for_tidacc(ans, Y);
+      ans = adjust_for_tidacc(ans, Y, tacc);
       /* transition from formula to table over 100 years */
       if (Y >= TAB2_START - 100) {
         /* starting value of table dt2: */
-        ans2 = adjust_for_tidacc(dt2[0], TAB2_START);
+        ans2 = adjust_for_tidacc(dt2[0], TAB2_START, tacc);
         /* value of formula at epoch TAB2_START */
         /* B = (TAB2_START - LTERM_EQUATION_YSTART) * 0.01;
         ans3 = -20 + LTERM_EQUATION_COEFF * B * B;*/
         tjd0 = (TAB2_START - 2000) * 365.2425 + SwephData.J2000;
         ans3 = deltat_longterm_morrison_stephenson(tjd0);
-        ans3 = adjust_for_tidacc(ans3, Y);
+        ans3 = adjust_for_tidacc(ans3, Y, tacc);
         dd = ans3 - ans2;
         B = (Y - (TAB2_START - 100)) * 0.01;
         /* fit to starting point of table dt2. */
@@ -1840,13 +1877,13 @@ public class SweDate
       dd = (Yjul - (TAB2_START + TAB2_STEP * iy)) / TAB2_STEP;
       ans = dt2[iy] + (dt2[iy+1] - dt2[iy]) * dd;
       /* correction for tidal acceleration used by our ephemeris */
-      ans = adjust_for_tidacc(ans, Y);
+      ans = adjust_for_tidacc(ans, Y, tacc);
     }
     ans /= 86400.0;
     return ans;
   }
 
-  private static double deltat_espenak_meeus_1620(double tjd) {
+  private static double deltat_espenak_meeus_1620(double tjd, double tacc) {
     double ans = 0;
     double Ygreg;
     double u;
@@ -1888,25 +1925,41 @@ public class SweDate
       u = Ygreg - 2000;
       ans = ((((0.00002373599 * u + 0.000651814) * u + 0.0017275) * u - 0.060374) * u + 0.3345) * u + 63.86;
     }
-    ans = adjust_for_tidacc(ans, Ygreg);
+    ans = adjust_for_tidacc(ans, Ygreg, tacc);
     ans /= 86400.0;
     return ans;
   }
 
-  private static synchronized double deltat_aa_label_done(double ans, double Y) {
-    ans = adjust_for_tidacc(ans, Y);
+  private static double deltat_aa_label_done(double ans, double Y, double tacc) {
+    ans = adjust_for_tidacc(ans, Y, tacc);
     return ans / 86400.0;
   }
 
+  /* Returns a new array with the first n elements of the given table. */
+  private static double[] trim(double[] tab, int n) {
+    double[] t = new double[n];
+    System.arraycopy(tab, 0, t, 0, n);
+    return t;
+  }
+  private static int[] trim(int[] tab, int n) {
+    int[] t = new int[n];
+    System.arraycopy(tab, 0, t, 0, n);
+    return t;
+  }
+
 
 #ifndef JAVAME
   /* Read delta t values from external file.
    * record structure: year(whitespace)delta_t in 0.01 sec.
+   * The file is searched in the ephemeris path of the given SwissEph
+   * object. It is read once only, as the table is shared by all
+   * calculation contexts. Called from SwissEph, when the ephemeris
+   * path is known.
    */
-  private static int init_dt() {
+  static synchronized void init_dt(SwissEph sw) {
 #ifdef TRACE0
     Trace.level++;
-    Trace.log("SweDate.init_dt()");
+    Trace.log("SweDate.init_dt(SwissEph)");
 #endif /* TRACE0 */
     FilePtr fp = null;
     int year;
@@ -1914,8 +1967,8 @@ public class SweDate
     int tabsiz;
     int i;
     String s;
-    if (!init_dt_done) {
-      init_dt_done = true;
+    double tab[];
+    if (dt_tab == dt_init) {
       /* no error message if file is missing */
       try {
         if ((fp = sw.swi_fopen(-1, "swe_deltat.txt", sw.swed.ephepath, null)) == null &&
@@ -1923,7 +1976,7 @@ public class SweDate
 #ifdef TRACE0
           Trace.level--;
 #endif /* TRACE0 */
-          return TABSIZ;  // I think, I could skip this one...
+          return;
         }
       } catch (SwissephException se) {
         try {
@@ -1931,15 +1984,16 @@ public class SweDate
 #ifdef TRACE0
             Trace.level--;
 #endif /* TRACE0 */
-            return TABSIZ;  // I think, I could skip this one...
+            return;
           }
         } catch (SwissephException se2) {
 #ifdef TRACE0
           Trace.level--;
 #endif /* TRACE0 */
-          return TABSIZ;
+          return;
         }
       }
+      tab = (double[])dt.clone();
       try {
         while ((s=fp.readLine()) != null) {
           s.trim();
@@ -1955,7 +2009,7 @@ public class SweDate
             s = s.substring(4).trim();
           }
           /*dt[tab_index] = (short) (atof(sp) * 100 + 0.5);*/
-          dt[tab_index] = (short)SwissLib.atof(s);
+          tab[tab_index] = (short)SwissLib.atof(s);
         }
       } catch (java.io.IOException e) {
 #ifdef NIO
@@ -1963,20 +2017,20 @@ public class SweDate
 #endif /* NIO */
       }
       try { fp.close(); } catch (java.io.IOException e) {}
+      /* find table size */
+      tabsiz = 2001 - TABSTART + 1;
+      for (i = tabsiz - 1; i < TABSIZ_SPACE; i++) {
+        if (tab[i] == 0)
+          break;
+        else
+          tabsiz++;
+      }
+      tabsiz--;
+      dt_tab = trim(tab, tabsiz);
     }
-    /* find table size */
-    tabsiz = 2001 - TABSTART + 1;
-    for (i = tabsiz - 1; i < TABSIZ_SPACE; i++) {
-      if (dt[i] == 0)
-        break;
-      else
-        tabsiz++;
-    }
-    tabsiz--;
 #ifdef TRACE0
     Trace.level--;
 #endif /* TRACE0 */
-    return tabsiz;
   }
 #endif /* JAVAME */
 
@@ -1988,7 +2042,7 @@ public class SweDate
    * Entries after 1955 are referred to atomic time standards and
    * are not affected by errors in Lunar or planetary theory.
    */
-  private static double adjust_for_tidacc(double ans, double Y) {
+  private static double adjust_for_tidacc(double ans, double Y, double tacc) {
 #ifdef TRACE0
     Trace.level++;
     Trace.log("SweDate.adjust_for_tidacc(double, double, double");
@@ -1996,8 +2050,7 @@ public class SweDate
     double B;
     if( Y < 1955.0 ) {
       B = (Y - 1955.0);
-      ans += -0.000091 * (tid_acc + 26.0) * B * B;
-//      ans += -0.000091 * (tid_acc.get() + 26.0) * B * B;
+      ans += -0.000091 * (tacc + 26.0) * B * B;
     }
 #ifdef TRACE0
     Trace.level--;
@@ -2175,6 +2228,7 @@ public class SweDate
   /* Leap seconds were inserted at the end of the following days:*/
   private static final int NLEAP_SECONDS = 26;
   private static final int NLEAP_SECONDS_SPACE = 100;
+  /* built-in table, never changed. See leap_tab and init_leapsec(). */
   private static final int leap_seconds[] = new int[]{
   19720630,
   19721231,
@@ -2209,28 +2263,35 @@ public class SweDate
   0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
   0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
   };
+  /* The table of leap seconds in use, including dates from an external
+   * file. Its length is the table size. Like dt_tab, the array is never
+   * changed after it has been published. As long as it is the built-in
+   * table leap_init, the file has not been read yet. */
+  private static final int leap_init[] = trim(leap_seconds, NLEAP_SECONDS);
+  private static volatile int leap_tab[] = leap_init;
   private static final double J1972 = 2441317.5;
   private static final int NLEAP_INIT = 10;
 
   /* Read additional leap second dates from external file, if given.
+   * The file is searched in the ephemeris path of the given SwissEph
+   * object. Like the delta t table, the leap seconds table is shared
+   * by all calculation contexts and read once only.
    */
-  private int init_leapsec() {
-#ifdef JAVAME
-    return NLEAP_SECONDS;
-#else
+  static synchronized void init_leapsec(SwissEph sw) {
+#ifndef JAVAME
     FilePtr fp = null;
     int ndat, ndat_last;
     int tabsiz = 0;
-    int i;
     String s;
-    if (!init_leapseconds_done) {
-      init_leapseconds_done = true;
+    int tab[];
+    if (leap_tab == leap_init) {
       tabsiz = NLEAP_SECONDS;
+      tab = (int[])leap_seconds.clone();
       ndat_last = leap_seconds[NLEAP_SECONDS - 1];
       /* no error message if file is missing */
       try {
         if ((fp = sw.swi_fopen(-1, "seleapsec.txt", sw.swed.ephepath, null)) == null)
-          return NLEAP_SECONDS;
+          return;
         while ((s=fp.readLine()) != null) {
           s.trim();
           if (s.startsWith("#") || s.length() == 0)
@@ -2240,31 +2301,21 @@ public class SweDate
             continue;
           /* table space is limited. no error msg, if exceeded */
           if (tabsiz >= NLEAP_SECONDS_SPACE)
-            return tabsiz;
-          leap_seconds[tabsiz] = ndat;
+            break;
+          tab[tabsiz] = ndat;
           tabsiz++;
         }
-        if (tabsiz > NLEAP_SECONDS) leap_seconds[tabsiz] = 0; /* end mark */
-        fp.close();
+        if (tabsiz > NLEAP_SECONDS && tabsiz < NLEAP_SECONDS_SPACE) tab[tabsiz] = 0; /* end mark */
       } catch (java.io.IOException e) {
       } catch (SwissephException e) {
-        return tabsiz;
+        return;
 #ifdef NIO
       } catch (java.nio.BufferUnderflowException e) {
 #endif /* NIO */
       }
       try { fp.close(); } catch (java.io.IOException e) {}
-      return tabsiz;
-    }
-    /* find table size */
-    tabsiz = 0;
-    for (i = 0; i < NLEAP_SECONDS_SPACE; i++) {
-      if (leap_seconds[i] == 0)
-        break;
-      else
-        tabsiz++;
+      leap_tab = trim(tab, tabsiz);
     }
-    return tabsiz;
 #endif /* JAVAME */
   }
 
@@ -2319,7 +2370,8 @@ public class SweDate
     /*
      * number of leap seconds since 1972:
      */
-    tabsiz_nleap = init_leapsec();
+    int leap_seconds[] = leap_tab;
+    tabsiz_nleap = leap_seconds.length;
     ndat = iyear * 10000 + imonth * 100 + iday;
     /*
      * if input second is 60: is it a valid leap second ?
@@ -2430,7 +2482,8 @@ public class SweDate
     /*
      * number of leap seconds since 1972:
      */
-    tabsiz_nleap = init_leapsec();
+    int leap_seconds[] = leap_tab;
+    tabsiz_nleap = leap_seconds.length;
     nleap = NLEAP_INIT; /* initial difference between UTC and TAI in 1972 */
     ndat = iyear * 10000 + imonth * 100 + iday;
     for (i = 0; i < tabsiz_nleap; i++) {
@@ -2523,7 +2576,8 @@ public class SweDate
      * minimum number of leap seconds since 1972; we may be missing one leap
      * second
      */
-    tabsiz_nleap = init_leapsec();
+    int leap_seconds[] = leap_tab;
+    tabsiz_nleap = leap_seconds.length;
 //   swe_revjul(tjd_ut-1, SE_GREG_CAL, &iyear2, &imonth2, &iday2, &d);
     IDate dt=swe_revjul(tjd_ut-1, SE_GREG_CAL);
     iyear2 = dt.year;
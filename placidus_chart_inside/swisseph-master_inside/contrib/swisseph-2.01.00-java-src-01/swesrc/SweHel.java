@@ -630,7 +630,7 @@ private double sunRA_ralast;
 #endif /* JAVAME */
       int iflag = epheflag | SweConst.SEFLG_EQUATORIAL;
       iflag |= SweConst.SEFLG_NONUT | SweConst.SEFLG_TRUEPOS;
-      tjd_tt = JDNDaysUT + SweDate.getDeltaT(JDNDaysUT);
+      tjd_tt = JDNDaysUT + SweDate.getDeltaT(JDNDaysUT, swed);
       if (sw.swe_calc(tjd_tt, SweConst.SE_SUN, iflag, x, serr) != SweConst.ERR) {
         sunRA_ralast = x[0];
         sunRA_tjdlast = JDNDaysUT;
@@ -749,7 +749,7 @@ private double sunRA_ralast;
       OffSetYear = (SweDate.getJulDay(StartYear, 1, 1, 0, gregflag) - JDNDays) / 365.25;
       return (OffSetYear * OffSetYear / 100.0 / 2.0 * COD * Y2D) / 1000.0;
     }
-    return SweDate.getDeltaT(JDNDays) * D2S;
+    return SweDate.getDeltaT(JDNDays, swed) * D2S;
   }
 
   /*###################################################################
@@ -1510,8 +1510,8 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
   }
 
   /** Limiting magnitude in dark skies<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjdut UT julian day number
   * @param dgeo[] geographic position<br>
   * <pre> dgeo[0]: geographic longitude
@@ -1570,7 +1570,7 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
     int scotopic_flag[] = new int[]{0};
     double AltO[] = new double[1], AziO[] = new double[1], AltM[] = new double[1], AziM[] = new double[1], AltS[] = new double[1], AziS[] = new double[1];
     double sunra;
-    SweDate.swi_set_tid_acc(tjdut, helflag, 0);
+    SweDate.swi_set_tid_acc(tjdut, helflag, 0, sw);
     sunra = SunRA(tjdut, helflag, serr);
     default_heliacal_parameters(datm, dgeo, dobs, helflag);
     sw.swe_set_topo(dgeo[0], dgeo[1], dgeo[2]);
@@ -1695,13 +1695,13 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
   }
 
   /**
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see SweDate#setGlobalTidalAcc(double)
   */
   public int swe_topo_arcus_visionis(double tjdut, double[] dgeo, double[] datm, double[] dobs, int helflag, double mag, double azi_obj, double alt_obj, double azi_sun, double azi_moon, double alt_moon, double[] dret, StringBuffer serr) {
     double sunra;
-    SweDate.swi_set_tid_acc(tjdut, helflag, 0);
+    SweDate.swi_set_tid_acc(tjdut, helflag, 0, sw);
     sunra = SunRA(tjdut, helflag, serr);
     if (serr != null && serr.length() > 0)
       return SweConst.ERR;
@@ -1791,8 +1791,8 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
   }
 
   /**
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see SweDate#setGlobalTidalAcc(double)
   */
   public int swe_heliacal_angle(double tjdut, double[] dgeo, double[] datm, double[] dobs, int helflag, double mag, double azi_obj, double azi_sun, double azi_moon, double alt_moon, double[] dret, StringBuffer serr) {
@@ -1803,7 +1803,7 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
       }
       return SweConst.ERR;
     }
-    SweDate.swi_set_tid_acc(tjdut, helflag, 0);
+    SweDate.swi_set_tid_acc(tjdut, helflag, 0, sw);
     return HeliacalAngle(mag, dobs, azi_obj, alt_moon, azi_moon, tjdut, azi_sun, dgeo, datm, helflag, dret, serr);
   }
 
@@ -1956,8 +1956,8 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
   '29=MSk [-]
   */
   /**
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see SweDate#setGlobalTidalAcc(double)
   */
   public int swe_heliacal_pheno_ut(double JDNDaysUT, double[] dgeo, double[] datm, double[] dobs, StringBuffer ObjectNameIn, int TypeEvent, int helflag, double[] darr, StringBuffer serr) {
@@ -1985,7 +1985,7 @@ private int fast_magnitude(double tjd, double[] dgeo, StringBuffer ObjectName, i
       }
       return SweConst.ERR;
     }
-    SweDate.swi_set_tid_acc(JDNDaysUT, helflag, 0);
+    SweDate.swi_set_tid_acc(JDNDaysUT, helflag, 0, sw);
     sunra = SunRA(JDNDaysUT, helflag, serr);
     /* note, the fixed stars functions rewrite the star name. The input string 
        may be too short, so we have to make sure we have enough space */
@@ -3152,9 +3152,9 @@ private int get_acronychal_day_new(double tjd, double[] dgeo, double[] datm, dou
         return retval;
       /* determine object's position */
       if (ipl == -1)
-        retval = call_swe_fixstar(ObjectName, tret[0]+SweDate.getDeltaT(tret[0]), iflag, x, serr);
+        retval = call_swe_fixstar(ObjectName, tret[0]+SweDate.getDeltaT(tret[0], swed), iflag, x, serr);
       else 
-        retval = sw.swe_calc(tret[0]+SweDate.getDeltaT(tret[0]), ipl, iflag, x, serr);
+        retval = sw.swe_calc(tret[0]+SweDate.getDeltaT(tret[0], swed), ipl, iflag, x, serr);
       if (retval == SweConst.ERR) return SweConst.ERR;
       sc.swe_azalt(tret[0], SweConst.SE_EQU2HOR, dgeo, datm[0], datm[1], x, xaz);
       AltO = xaz[2];
@@ -3621,8 +3621,8 @@ private int get_acronychal_day_new(double tjd, double[] dgeo, double[] datm, dou
   ' see http://www.iol.ie/~geniet/eng/atmoastroextinction.htm
   */
   /**
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see SweDate#setGlobalTidalAcc(double)
   */
   public int swe_heliacal_ut(double JDNDaysUTStart, double[] dgeo, double[] datm, double[] dobs, StringBuffer ObjectNameIn, int TypeEvent, int helflag, double[] dret, StringBuffer serr_ret) {
@@ -3639,7 +3639,7 @@ private int get_acronychal_day_new(double tjd, double[] dgeo, double[] datm, dou
       }
       return SweConst.ERR;
     }
-    SweDate.swi_set_tid_acc(JDNDaysUTStart, helflag, 0);
+    SweDate.swi_set_tid_acc(JDNDaysUTStart, helflag, 0, sw);
     if ((helflag & SweConst.SE_HELFLAG_LONG_SEARCH) != 0)
       MaxCountSynodicPeriod = MAX_COUNT_SYNPER_MAX;
   /*  if (helflag & SE_HELFLAG_SEARCH_1_PERIOD)
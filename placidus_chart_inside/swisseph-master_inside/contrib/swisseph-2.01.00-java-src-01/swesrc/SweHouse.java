@@ -101,6 +101,8 @@ class SweHouse
   SwissEph sw=null;
   SwissData swed=null;
 
+  private double[] nutlo = new double[2];
+
   /**
   * Constructs a new SweHouse object.
   */
@@ -252,7 +254,7 @@ class SweHouse
 // Code duplicated in swe_houses_ex()...
     int i, retc = 0;
     double armc, eps, nutlo[]=new double[2];
-    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     eps = sl.swi_epsiln(tjde, 0) * SwissData.RADTODEG;
     sl.swi_nutation(tjde, 0, nutlo);
     for (i = 0; i < 2; i++)
@@ -364,7 +366,7 @@ class SweHouse
                  int aOffs) {
     int i, retc = 0;
     double armc, eps_mean, nutlo[]=new double[2];
-    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     SidData sip = swed.sidd;
     int ito;
     if (Character.toUpperCase((char)hsys) == 'G') {
@@ -405,6 +407,223 @@ class SweHouse
     return retc;
   }
 
+  /* Maximum interval in days between two dates of a house series, for
+   * which obliquity, nutation and sidereal time are calculated. The
+   * error of the linear interpolation of the ARMC in between is about
+   * 0.0005", which is the rounding error of a Julian Day number. */
+  private static final double SERIES_SPAN = 0.0625;
+
+  /**
+  * Calculates the houses for count dates tjd_ut + i * step as
+  * swe_houses() would do. Obliquity, nutation and ARMC are calculated
+  * at every n-th date only, where n steps take SERIES_SPAN days at most,
+  * and the ARMC is advanced by a constant increment per step in between.
+  * At these dates the results are identical to swe_houses(). Sidereal
+  * houses are calculated by swe_houses() for every date.
+  * @return SweConst.OK, or SweConst.ERR, if any date fell back to
+  * Porphyry houses
+  */
+  int swe_houses_series(double tjd_ut,
+                        double step,
+                        int count,
+                        int iflag,
+                        double geolat,
+                        double geolon,
+                        int hsys,
+                        double[][] cusp,
+                        double[][] ascmc,
+                        int[] retflags) {
+    int i, k, k0, n, ito, retc = SweConst.OK, rc;
+    double armc0 = 0, eps0 = 0, armc1 = 0, eps1 = 0, darmc, f;
+    double[] xx = new double[2];
+    Houses h = new Houses();
+    if (Character.toUpperCase((char)hsys) == 'G') {
+      ito = 36;
+    } else {
+      ito = 12;
+    }
+    if (count < 0 || cusp.length < count || ascmc.length < count ||
+        (retflags != null && retflags.length < count)) {
+      throw new IllegalArgumentException("Output arrays too small for " +
+                                         count + " dates.");
+    }
+    if ((iflag & SweConst.SEFLG_SIDEREAL)!=0) {
+      for (k = 0; k < count; k++) {
+        rc = swe_houses(tjd_ut + k * step, iflag, geolat, geolon, hsys,
+                        cusp[k], ascmc[k], 0);
+        if (retflags != null) { retflags[k] = rc; }
+        if (rc != SweConst.OK) { retc = rc; }
+      }
+      return retc;
+    }
+    n = (int)SMath.min(SERIES_SPAN / SMath.abs(step), count);
+    if (n < 1) { n = 1; }
+    for (k0 = 0; k0 < count; k0 += n) {
+      if (k0 == 0) {
+        series_node(tjd_ut, geolon, xx);
+        armc1 = xx[0];
+        eps1 = xx[1];
+      }
+      armc0 = armc1;
+      eps0 = eps1;
+      series_node(tjd_ut + (k0 + n) * step, geolon, xx);
+      armc1 = xx[0];
+      eps1 = xx[1];
+      darmc = sl.swe_difdeg2n(armc1, armc0) / n;
+      for (k = k0; k < k0 + n && k < count; k++) {
+        f = (double)(k - k0) / n;
+        rc = houses_armc(armc0 + (k - k0) * darmc, geolat,
+                         eps0 + f * (eps1 - eps0), hsys, cusp[k], ascmc[k],
+                         0, h);
+        if ((iflag & SweConst.SEFLG_RADIANS)!=0) {
+          for (i = 1; i <= ito; i++)
+            cusp[k][i] *= SwissData.DEGTORAD;
+          for (i = 0; i < SweConst.SE_NASCMC; i++)
+            ascmc[k][i] *= SwissData.DEGTORAD;
+        }
+        if (retflags != null) { retflags[k] = rc; }
+        if (rc != SweConst.OK) { retc = rc; }
+      }
+    }
+    return retc;
+  }
+
+  /**
+  * Calculates the houses for one date at every point of a grid of
+  * latitudes and longitudes as swe_houses() would do. Sidereal time,
+  * obliquity and nutation are calculated once, so only the house system
+  * is calculated per point, the rows of the grid in parallel. Sidereal
+  * houses are calculated by swe_houses() for every point in the calling
+  * thread.
+  * @return SweConst.OK, or SweConst.ERR, if any point fell back to
+  * Porphyry houses
+  */
+  int swe_houses_grid(double tjd_ut,
+                      int iflag,
+                      double[] lats,
+                      double[] lons,
+                      int hsys,
+                      double[] cusp,
+                      double[] ascmc,
+                      int[] retflags) {
+    int i, j, c, rc, retc = SweConst.OK;
+    int ncusp = (Character.toUpperCase((char)hsys) == 'G' ? 37 : 13);
+    int cells = lats.length * lons.length;
+    double[] cu = new double[37];
+    if (cusp.length < cells * ncusp || ascmc.length < cells * 10 ||
+        (retflags != null && retflags.length < cells)) {
+      throw new IllegalArgumentException("Output arrays too small for " +
+                                         cells + " points.");
+    }
+    if ((iflag & SweConst.SEFLG_SIDEREAL)!=0) {
+      for (i = 0; i < lats.length; i++) {
+        for (j = 0; j < lons.length; j++) {
+          c = i * lons.length + j;
+          rc = swe_houses(tjd_ut, iflag, lats[i], lons[j], hsys, cu,
+                          ascmc, c * 10);
+          System.arraycopy(cu, 0, cusp, c * ncusp, ncusp);
+          if (retflags != null) { retflags[c] = rc; }
+          if (rc != SweConst.OK) { retc = rc; }
+        }
+      }
+      return retc;
+    }
+    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
+    double eps = sl.swi_epsiln(tjde, 0) * SwissData.RADTODEG;
+    sl.swi_nutation(tjde, 0, nutlo);
+    eps += nutlo[1] * SwissData.RADTODEG;
+    double st = sl.swe_sidtime0(tjd_ut, eps, nutlo[0] * SwissData.RADTODEG) * 15;
+    GridRows rows = new GridRows(this, st, eps, iflag, lats, lons, hsys,
+                                 cusp, ascmc, retflags, 0, lats.length);
+#ifndef JAVAME
+    return ((Integer)java.util.concurrent.ForkJoinPool.commonPool().invoke(rows)).intValue();
+#else
+    return rows.calc();
+#endif /* JAVAME */
+  }
+
+  /* The rows lo to hi - 1 of swe_houses_grid() */
+  private static class GridRows
+#ifndef JAVAME
+      extends java.util.concurrent.RecursiveTask
+#endif /* JAVAME */
+      {
+    private SweHouse sh;
+    private double st, eps;
+    private int iflag, hsys, lo, hi;
+    private double[] lats, lons, cusp, ascmc;
+    private int[] retflags;
+
+    GridRows(SweHouse sh, double st, double eps, int iflag,
+             double[] lats, double[] lons, int hsys, double[] cusp,
+             double[] ascmc, int[] retflags, int lo, int hi) {
+      this.sh = sh;
+      this.st = st;
+      this.eps = eps;
+      this.iflag = iflag;
+      this.lats = lats;
+      this.lons = lons;
+      this.hsys = hsys;
+      this.cusp = cusp;
+      this.ascmc = ascmc;
+      this.retflags = retflags;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+#ifndef JAVAME
+    protected Object compute() {
+      if (hi - lo <= 1) {
+        return new Integer(calc());
+      }
+      int mid = (lo + hi) / 2;
+      GridRows first = new GridRows(sh, st, eps, iflag, lats, lons, hsys,
+                                    cusp, ascmc, retflags, lo, mid);
+      GridRows second = new GridRows(sh, st, eps, iflag, lats, lons, hsys,
+                                     cusp, ascmc, retflags, mid, hi);
+      second.fork();
+      int rc1 = ((Integer)first.compute()).intValue();
+      int rc2 = ((Integer)second.join()).intValue();
+      return new Integer(rc1 != SweConst.OK ? rc1 : rc2);
+    }
+#endif /* JAVAME */
+
+    int calc() {
+      int i, j, k, c, rc, retc = SweConst.OK;
+      int ncusp = (Character.toUpperCase((char)hsys) == 'G' ? 37 : 13);
+      double[] cu = new double[37];
+      Houses h = new Houses();
+      for (i = lo; i < hi; i++) {
+        for (j = 0; j < lons.length; j++) {
+          c = i * lons.length + j;
+          rc = sh.houses_armc(st + lons[j], lats[i], eps, hsys, cu, ascmc,
+                              c * 10, h);
+          if ((iflag & SweConst.SEFLG_RADIANS)!=0) {
+            for (k = 1; k < ncusp; k++)
+              cu[k] *= SwissData.DEGTORAD;
+            for (k = 0; k < SweConst.SE_NASCMC; k++)
+              ascmc[c * 10 + k] *= SwissData.DEGTORAD;
+          }
+          System.arraycopy(cu, 0, cusp, c * ncusp, ncusp);
+          if (retflags != null) { retflags[c] = rc; }
+          if (rc != SweConst.OK) { retc = rc; }
+        }
+      }
+      return retc;
+    }
+  }
+
+  /* ARMC and true obliquity of the ecliptic at tjd_ut as in swe_houses() */
+  private void series_node(double tjd_ut, double geolon, double[] xx) {
+    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
+    double eps_mean = sl.swi_epsiln(tjde, 0) * SwissData.RADTODEG;
+    sl.swi_nutation(tjde, 0, nutlo);
+    nutlo[0] *= SwissData.RADTODEG;
+    nutlo[1] *= SwissData.RADTODEG;
+    xx[0] = sl.swe_degnorm(sl.swe_sidtime0(tjd_ut, eps_mean + nutlo[1], nutlo[0]) * 15 + geolon);
+    xx[1] = eps_mean + nutlo[1];
+  }
+
 //#ifndef ASTROLOGY
   /*
    * houses to sidereal
@@ -726,7 +945,18 @@ class SweHouse
 //#ifdef TRACE0
     Trace.log("SweHouse.swe_houses_armc(double, double, double, int, double[], double[], int)");
 //#endif /* TRACE0 */
-    Houses h=new Houses();
+    return houses_armc(armc, geolat, eps, hsys, cusp, ascmc, aOffs,
+                       new Houses());
+  }
+
+  private int houses_armc(double armc,
+                          double geolat,
+                          double eps,
+                          int hsys,
+                          double cusp[],
+                          double ascmc[],
+                          int aOffs,
+                          Houses h) {
     int i, retc = 0;
     int ito;
     if (Character.toUpperCase((char)hsys) == 'G') {
@@ -756,6 +986,92 @@ class SweHouse
     return retc;
   }
 
+#ifdef TRANSITS
+  /**
+  * Calculates one of the points returned in ascmc[] by swe_houses() for
+  * tropical positions without calculating the house cusps. The result is
+  * identical to the one of swe_houses() for all house systems but the
+  * horizon system ('H'), where it may differ in the last digits. It is
+  * used by the transit calculations, which need one point only, but at
+  * very many dates.
+  * @param tjd_ut The Julian Day number in UT
+  * @param geolat The latitude on earth
+  * @param geolon The longitude on earth
+  * @param which The index into ascmc[], SweConst.SE_ASC to
+  * SweConst.SE_POLASC
+  * @param armcEps Gets the ARMC and the true obliquity of the ecliptic in
+  * degrees, if it is not null
+  * @return The position in degrees, or NaN for the ascendant and the MC
+  * within the polar circles, as they depend on the house system there.
+  */
+  double swe_houses_point(double tjd_ut,
+                          double geolat,
+                          double geolon,
+                          int which,
+                          double[] armcEps) {
+    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
+    double eps, th, fi, f, vertex, sine, cose;
+    eps = sl.swi_epsiln(tjde, 0) * SwissData.RADTODEG;
+    sl.swi_nutation(tjde, 0, nutlo);
+    eps += nutlo[1] * SwissData.RADTODEG;
+    th = sl.swe_degnorm(sl.swe_sidtime0(tjd_ut, eps,
+                        nutlo[0] * SwissData.RADTODEG) * 15 + geolon);
+    if (armcEps != null) {
+      armcEps[0] = th;
+      armcEps[1] = eps;
+    }
+    cose = cosd(eps);
+    sine = sind(eps);
+    fi = geolat;
+    /* north and south poles */
+    if (SMath.abs(SMath.abs(fi) - 90) < VERY_SMALL) {
+      if (fi < 0) {
+        fi = -90 + VERY_SMALL;
+      } else {
+        fi = 90 - VERY_SMALL;
+      }
+    }
+    switch (which) {
+      case SweConst.SE_ASC:
+        if (SMath.abs(fi) >= 90 - eps) {
+          return Double.NaN;
+        }
+        return Asc1 (th + 90, fi, sine, cose);
+      case SweConst.SE_MC:
+        if (SMath.abs(fi) >= 90 - eps) {
+          return Double.NaN;
+        }
+        return MC(th, cose);
+      case SweConst.SE_ARMC:
+        return th;
+      case SweConst.SE_VERTEX:
+        if (fi >= 0) {
+          f = 90 - fi;
+        } else {
+          f = -90 - fi;
+        }
+        vertex = Asc1 (th - 90, f, sine, cose);
+        if (SMath.abs(fi) <= eps &&
+            sl.swe_difdeg2n(vertex, MC(th, cose)) > 0) {
+          vertex = sl.swe_degnorm(vertex + 180);
+        }
+        return vertex;
+      case SweConst.SE_EQUASC:
+        return MC(sl.swe_degnorm(th + 90), cose);
+      case SweConst.SE_COASC1:
+        return sl.swe_degnorm(Asc1 (th - 90, fi, sine, cose) + 180);
+      case SweConst.SE_COASC2:
+        if (fi >= 0) {
+          return Asc1 (th + 90, 90 - fi, sine, cose);
+        }
+        return Asc1 (th + 90, -90 - fi, sine, cose);
+      case SweConst.SE_POLASC:
+        return Asc1 (th - 90, fi, sine, cose);
+    }
+    return Double.NaN;
+  }
+#endif /* TRANSITS */
+
   /* for APC houses */
   /* n  number of house
    * ph geographic latitude 
@@ -856,7 +1172,7 @@ class SweHouse
 //#ifdef TRACE0
     Trace.log("SweHouse.CalcH(double, double, double, char, int, Houses)");
 //#endif /* TRACE0 */
-    double tane, tanfi, cosfi, tant, sina, cosa, th2;
+    double tane, tanfi, cosfi, tant, sina, cosa;
     double a, c, f, fh1, fh2, xh1, xh2, rectasc, ad3, acmc, vemc;
     int i, ih, ih2, retc = SweConst.OK;
     double sine, cose;
@@ -874,21 +1190,7 @@ class SweHouse
     }
     tanfi = tand(fi);
     /* mc */
-    if (SMath.abs(th - 90) > VERY_SMALL
-      && SMath.abs(th - 270) > VERY_SMALL) {
-      tant = tand(th);
-      hsp.mc = atand(tant / cose);
-      if (th > 90 && th <= 270) {
-        hsp.mc = sl.swe_degnorm(hsp.mc + 180);
-      }
-    } else {
-      if (SMath.abs(th - 90) <= VERY_SMALL) {
-        hsp.mc = 90;
-      } else {
-        hsp.mc = 270;
-      }
-    } /*  if */
-    hsp.mc = sl.swe_degnorm(hsp.mc);
+    hsp.mc = MC(th, cose);
     /* ascendant */
     hsp.ac = Asc1 (th + 90, fi, sine, cose);
     hsp.cusp[1] = hsp.ac;
@@ -1460,22 +1762,7 @@ class SweHouse
      * some strange points:
      */
     /* equasc (equatorial ascendant) */
-    th2 = sl.swe_degnorm(th + 90);
-    if (SMath.abs(th2 - 90) > VERY_SMALL
-      && SMath.abs(th2 - 270) > VERY_SMALL) {
-      tant = tand(th2);
-      hsp.equasc = atand(tant / cose);
-      if (th2 > 90 && th2 <= 270) {
-        hsp.equasc = sl.swe_degnorm(hsp.equasc + 180);
-      }
-    } else {
-      if (SMath.abs(th2 - 90) <= VERY_SMALL) {
-        hsp.equasc = 90;
-      } else {
-        hsp.equasc = 270;
-      }
-    } /*  if */
-    hsp.equasc = sl.swe_degnorm(hsp.equasc);
+    hsp.equasc = MC(sl.swe_degnorm(th + 90), cose);
     /* "co-ascendant" W. Koch */
     hsp.coasc1 = sl.swe_degnorm(Asc1 (th - 90, fi, sine, cose) + 180);
     /* "co-ascendant" M. Munkasey */
@@ -1512,6 +1799,25 @@ class SweHouse
     hsp.cusp [12] = sl.swe_degnorm(hsp.mc + acmc / 3 * 2);
   }
 
+  /* The ecliptic longitude on the meridian of the sidereal time th: */
+  private double MC (double th, double cose) {
+    double mc;
+    if (SMath.abs(th - 90) > VERY_SMALL
+      && SMath.abs(th - 270) > VERY_SMALL) {
+      mc = atand(tand(th) / cose);
+      if (th > 90 && th <= 270) {
+        mc = sl.swe_degnorm(mc + 180);
+      }
+    } else {
+      if (SMath.abs(th - 90) <= VERY_SMALL) {
+        mc = 90;
+      } else {
+        mc = 270;
+      }
+    } /*  if */
+    return sl.swe_degnorm(mc);
+  }  /* MC */
+
   /******************************/
   private double Asc1 (double x1, double f, double sine, double cose) {
 //#ifdef TRACE0
@@ -673,7 +673,7 @@ class Swecl
     int retflag, retflag2;
     double dcore[]=new double[10];
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0, sw);
     if ((retflag = eclipse_where(tjd_ut, SweConst.SE_SUN, null, ifl, geopos, dcore, serr)) < 0) {
       return retflag;
     }
@@ -697,7 +697,7 @@ class Swecl
     double dcore[]=new double[10];
     if (ipl < 0) ipl = 0;
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0, sw);
     /* function calls for Pluto with asteroid number 134340
      * are treated as calls for Pluto as main body SE_PLUTO */
     if (ipl == SweConst.SE_AST_OFFSET + 134340) {
@@ -757,7 +757,7 @@ class Swecl
     iflag = SweConst.SEFLG_SPEED | SweConst.SEFLG_EQUATORIAL | ifl;
     iflag2 = iflag | SweConst.SEFLG_RADIANS;
     iflag  = iflag | SweConst.SEFLG_XYZ;
-    deltat = SweDate.getDeltaT(tjd_ut);
+    deltat = SweDate.getDeltaT(tjd_ut, swed);
     tjd = tjd_ut + deltat;
     /* moon in cartesian coordinates */
     if ((retc = sw.swe_calc(tjd, SweConst.SE_MOON, iflag, rm, serr)) == SweConst.ERR) {
@@ -1108,7 +1108,7 @@ class Swecl
       return SweConst.ERR;
     }
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0, sw);
     if ((retflag = eclipse_how(tjd_ut, SweConst.SE_SUN, null, ifl, geopos[0],
                                geopos[1], geopos[2], attr, serr)) == SweConst.ERR) {
       return retflag;
@@ -1163,7 +1163,7 @@ class Swecl
     geopos[0] = geolon;
     geopos[1] = geolat;
     geopos[2] = geohgt;
-    te = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    te = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     sw.swe_set_topo(geolon, geolat, geohgt);
     if (calc_planet_star(te, ipl, starname, iflag, ls, serr) == SweConst.ERR) {
       return SweConst.ERR;
@@ -1435,7 +1435,7 @@ class Swecl
     boolean dont_times = false;
     int iflag, iflagcart;
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_start, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_start, ifl, 0, sw);
     iflag = SweConst.SEFLG_EQUATORIAL | ifl;
     iflagcart = iflag | SweConst.SEFLG_XYZ;
     if (ifltype == (SweConst.SE_ECL_PARTIAL | SweConst.SE_ECL_CENTRAL)) {
@@ -1532,9 +1532,9 @@ class Swecl
         find_maximum(dc[0], dc[1], dc[2], dt, dtint, dctr);
         tjd += dtint.val + dt;
       }
-      tjds = tjd - SweDate.getDeltaT(tjd);
-      tjds = tjd - SweDate.getDeltaT(tjds);
-      tjds = tjd = tjd - SweDate.getDeltaT(tjds);
+      tjds = tjd - SweDate.getDeltaT(tjd, swed);
+      tjds = tjd - SweDate.getDeltaT(tjds, swed);
+      tjds = tjd = tjd - SweDate.getDeltaT(tjds, swed);
       if ((retflag = eclipse_where(tjd, SweConst.SE_SUN, null, ifl, geopos, dcore, serr)) ==
                                                                  SweConst.ERR) {
         return retflag;
@@ -1719,7 +1719,7 @@ class Swecl
       k = 2;
       for (i = 0; i < 2; i++) {
         j = i + k;
-        tt = tret[j] + SweDate.getDeltaT(tret[j]);
+        tt = tret[j] + SweDate.getDeltaT(tret[j], swed);
         if (sw.swe_calc(tt, SweConst.SE_SUN, iflag, ls, serr) == SweConst.ERR) {
           return SweConst.ERR;
         }
@@ -1744,7 +1744,7 @@ class Swecl
             dt > 0.01;
             j++, dt /= 3) {
           for (i = 0, t = tjd; i <= 1; i++, t -= dt) {
-            tt = t + SweDate.getDeltaT(t);
+            tt = t + SweDate.getDeltaT(t, swed);
             if (sw.swe_calc(tt, SweConst.SE_SUN, iflag, ls, serr) ==
                                                                  SweConst.ERR) {
               return SweConst.ERR;
@@ -1879,7 +1879,7 @@ class Swecl
       ipl = SweConst.SE_PLUTO;
     }
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_start, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_start, ifl, 0, sw);
     iflag = SweConst.SEFLG_EQUATORIAL | ifl;
     iflagcart = iflag | SweConst.SEFLG_XYZ;
     backward &= 1L;
@@ -1990,7 +1990,7 @@ class Swecl
         find_maximum(dc[0], dc[1], dc[2], dt, dtint, dctr);
         tjd += dtint.val + dt;
       }
-      tjd -= SweDate.getDeltaT(tjd);
+      tjd -= SweDate.getDeltaT(tjd, swed);
       tjds = tjd;
       if ((retflag = eclipse_where(tjd, ipl, starname, ifl, geopos, dcore, serr)) == SweConst.ERR)
         return retflag;
@@ -2212,7 +2212,7 @@ class Swecl
       k = 2;
       for (i = 0; i < 2; i++) {
         j = i + k;
-        tt = tret[j] + SweDate.getDeltaT(tret[j]);
+        tt = tret[j] + SweDate.getDeltaT(tret[j], swed);
         if (calc_planet_star(tt, ipl, starname, iflag, ls, serr) == SweConst.ERR)
             return SweConst.ERR;
         if (sw.swe_calc(tt, SweConst.SE_MOON, iflag, lm, serr) == SweConst.ERR)
@@ -2233,7 +2233,7 @@ class Swecl
              dt > 0.01;
              j++, dt /= 3) {
           for (i = 0, t = tjd; i <= 1; i++, t -= dt) {
-            tt = t + SweDate.getDeltaT(t);
+            tt = t + SweDate.getDeltaT(t, swed);
             if (calc_planet_star(tt, ipl, starname, iflag, ls, serr) == SweConst.ERR)
               return SweConst.ERR;
             if (sw.swe_calc(tt, SweConst.SE_MOON, iflag, lm, serr) == SweConst.ERR)
@@ -2388,7 +2388,7 @@ class Swecl
       return SweConst.ERR;
     }
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_start, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_start, ifl, 0, sw);
     if ((retflag = eclipse_when_loc(tjd_start, ifl, geopos, tret, attr,
                                                         backward, serr)) <= 0) {
       return retflag;
@@ -2457,7 +2457,7 @@ class Swecl
       ipl = SweConst.SE_PLUTO;
     }
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_start, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_start, ifl, 0, sw);
     if ((retflag = occult_when_loc(tjd_start, ipl, starname, ifl, geopos, tret, attr, backward, serr)) <= 0)
       return retflag;
     /*
@@ -2616,8 +2616,8 @@ class Swecl
         }
         continue;
       }
-      tret[0] = tjd - SweDate.getDeltaT(tjd);
-      tret[0] = tjd - SweDate.getDeltaT(tret[0]);
+      tret[0] = tjd - SweDate.getDeltaT(tjd, swed);
+      tret[0] = tjd - SweDate.getDeltaT(tret[0], swed);
       if ((backward!=0 && tret[0] >= tjd_start - 0.0001)
         || (backward==0 && tret[0] <= tjd_start + 0.0001)) {
         if (backward!=0) {
@@ -2702,8 +2702,8 @@ class Swecl
             tret[j] += dt1.val;
           }
         }
-        tret[2] -= SweDate.getDeltaT(tret[2]);
-        tret[3] -= SweDate.getDeltaT(tret[3]);
+        tret[2] -= SweDate.getDeltaT(tret[2], swed);
+        tret[3] -= SweDate.getDeltaT(tret[3], swed);
       }
       /* contacts 1 and 4 */
       dc[1] = rsplusrm - dctrmin;
@@ -2766,8 +2766,8 @@ class Swecl
           tret[j] += dt1.val;
         }
       }
-      tret[1] -= SweDate.getDeltaT(tret[1]);
-      tret[4] -= SweDate.getDeltaT(tret[4]);
+      tret[1] -= SweDate.getDeltaT(tret[1], swed);
+      tret[4] -= SweDate.getDeltaT(tret[4], swed);
       /*
        * visibility of eclipse phases
        */
@@ -3011,8 +3011,8 @@ class Swecl
 //    goto next_try;
         continue;
       }
-      tret[0] = tjd - SweDate.getDeltaT(tjd);
-      tret[0] = tjd - SweDate.getDeltaT(tret[0]);
+      tret[0] = tjd - SweDate.getDeltaT(tjd, swed);
+      tret[0] = tjd - SweDate.getDeltaT(tret[0], swed);
       if ((backward!=0 && tret[0] >= tjd_start - 0.0001) 
           || (backward==0 && tret[0] <= tjd_start + 0.0001)) {
         /* t = tjd + direction;*/
@@ -3088,8 +3088,8 @@ class Swecl
             tret[j] += dt1.val;
           }
         }
-        tret[2] -= SweDate.getDeltaT(tret[2]);
-        tret[3] -= SweDate.getDeltaT(tret[3]);
+        tret[2] -= SweDate.getDeltaT(tret[2], swed);
+        tret[3] -= SweDate.getDeltaT(tret[3], swed);
       }
       /* contacts 1 and 4 */
       dc[1] = rsplusrm - dctrmin;
@@ -3142,8 +3142,8 @@ class Swecl
           tret[j] += dt1.val;
         }
       }
-      tret[1] -= SweDate.getDeltaT(tret[1]);
-      tret[4] -= SweDate.getDeltaT(tret[4]);
+      tret[1] -= SweDate.getDeltaT(tret[1], swed);
+      tret[4] -= SweDate.getDeltaT(tret[4], swed);
       /*  
        * visibility of eclipse phases 
        */
@@ -3271,7 +3271,7 @@ class Swecl
       xra[i] = xin[i];
     xra[2] = 1;
     if (calc_flag == SweConst.SE_ECL2HOR) {
-          tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+          tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
       sw.swe_calc(tjd_et, SweConst.SE_ECL_NUT, 0, x, null);
       eps_true = x[0];
           sl.swe_cotrans(xra, 0, xra, 0, -eps_true);
@@ -3352,7 +3352,7 @@ class Swecl
     xout[1] = xaz[1];
     /* ecliptic positions */
     if (calc_flag == SweConst.SE_HOR2ECL) {
-      tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+      tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
       sw.swe_calc(tjd_et, SweConst.SE_ECL_NUT, 0, x, null);
       eps_true = x[0];
       sl.swe_cotrans(xaz, 0, x, 0, eps_true);
@@ -3752,7 +3752,7 @@ class Swecl
     }
     ifl = ifl & ~SweConst.SEFLG_TOPOCTR;
     ifl &= ~(SweConst.SEFLG_JPLHOR | SweConst.SEFLG_JPLHOR_APPROX);
-    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_ut, ifl, 0, sw);
     retc = lun_eclipse_how(tjd_ut, ifl, attr, dcore, serr);
     if (geopos == null) {
       return retc;
@@ -3808,7 +3808,7 @@ class Swecl
      * if mean sidereal time will be used */
     iflag = SweConst.SEFLG_SPEED | SweConst.SEFLG_EQUATORIAL | ifl;
     iflag  = iflag | SweConst.SEFLG_XYZ;
-    deltat = SweDate.getDeltaT(tjd_ut);
+    deltat = SweDate.getDeltaT(tjd_ut, swed);
     tjd = tjd_ut + deltat;
     /* moon in cartesian coordinates */
     if (sw.swe_calc(tjd, SweConst.SE_MOON, iflag, rm, serr) == SweConst.ERR) {
@@ -3994,7 +3994,7 @@ class Swecl
     int iflag;
     int iflagcart;
     ifl &= SweConst.SEFLG_EPHMASK;
-    SweDate.swi_set_tid_acc(tjd_start, ifl, 0);
+    SweDate.swi_set_tid_acc(tjd_start, ifl, 0, sw);
     iflag = SweConst.SEFLG_EQUATORIAL | ifl;
     iflagcart = iflag | SweConst.SEFLG_XYZ;
     if (ifltype == 0) {
@@ -4108,9 +4108,9 @@ class Swecl
         find_maximum(dc[0], dc[1], dc[2], dt, dtint, dctr);
         tjd += dtint.val + dt;
       }
-      tjd2 = tjd - SweDate.getDeltaT(tjd);
-      tjd2 = tjd - SweDate.getDeltaT(tjd2);
-      tjd = tjd - SweDate.getDeltaT(tjd2);
+      tjd2 = tjd - SweDate.getDeltaT(tjd, swed);
+      tjd2 = tjd - SweDate.getDeltaT(tjd2, swed);
+      tjd = tjd - SweDate.getDeltaT(tjd2, swed);
       if ((retflag = swe_lun_eclipse_how(tjd, ifl, null, attr, serr)) ==
                                                                  SweConst.ERR) {
         return retflag;
@@ -4691,8 +4691,8 @@ class Swecl
 #ifdef TRACE0
     Trace.log("Swecl.swe_pheno_ut(double, int, int, double[], StringBuffer)");
 #endif /* TRACE0 */
-    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0);
-    return swe_pheno(tjd_ut + SweDate.getDeltaT(tjd_ut), ipl, iflag, attr, serr);
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, sw);
+    return swe_pheno(tjd_ut + SweDate.getDeltaT(tjd_ut, swed), ipl, iflag, attr, serr);
   }
 #endif /* ASTROLOGY */
 
@@ -4848,7 +4848,7 @@ class Swecl
                  StringBuffer serr)
   {
     int i, j, k, ii, calc_culm, nculm = -1;
-    double tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    double tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     double xc[]=new double[6], xh[][]=new double[20][6], ah[]=new double[6],
            aha;
     double tculm[]=new double[4], tcu, tc[]=new double[20], h[]=new double[20],
@@ -4880,7 +4880,7 @@ class Swecl
       }
       return SweConst.ERR;
     }
-    SweDate.swi_set_tid_acc(tjd_ut, epheflag, 0);  
+    SweDate.swi_set_tid_acc(tjd_ut, epheflag, 0, sw);  
     /* function calls for Pluto with asteroid number 134340
      * are treated as calls for Pluto as main body SE_PLUTO */
     if (ipl == SweConst.SE_AST_OFFSET + 134340) {
@@ -4936,7 +4936,7 @@ class Swecl
 #ifndef ASTROLOGY
       if (!do_fixstar) {
 #endif /* ASTROLOGY */
-        te = t + SweDate.getDeltaT(t);
+        te = t + SweDate.getDeltaT(t, swed);
         if (sw.swe_calc(te, ipl, iflag, xc, serr) == SweConst.ERR) {
           return SweConst.ERR;
         }
@@ -5012,7 +5012,7 @@ class Swecl
         dt /= 3;
         for (; dt > 0.0001; dt /= 3) {
           for (i = 0, tt = tcu - dt; i < 3; tt += dt, i++) {
-            te = tt + SweDate.getDeltaT(tt);
+            te = tt + SweDate.getDeltaT(tt, swed);
 #ifndef ASTROLOGY
             if (!do_fixstar) {
 #endif /* ASTROLOGY */
@@ -5048,7 +5048,7 @@ class Swecl
 #ifndef ASTROLOGY
           if (!do_fixstar) {
 #endif /* ASTROLOGY */
-            te = tc[j] + SweDate.getDeltaT(tc[j]);
+            te = tc[j] + SweDate.getDeltaT(tc[j], swed);
             if (sw.swe_calc(te, ipl, iflag, xc, serr) == SweConst.ERR) {
               return SweConst.ERR;
 #ifndef ASTROLOGY
@@ -5112,7 +5112,7 @@ class Swecl
 #ifndef ASTROLOGY
         if (!do_fixstar) {
 #endif /* ASTROLOGY */
-          te = t + SweDate.getDeltaT(t);
+          te = t + SweDate.getDeltaT(t, swed);
           if (sw.swe_calc(te, ipl, iflag, xc, serr) == SweConst.ERR) {
             return SweConst.ERR;
           }
@@ -5182,7 +5182,7 @@ class Swecl
     Trace.log("Swecl.calc_mer_trans(double, int, int, int, double[], StringBuffer, double, DblObj, StringBuffer)");
 #endif /* TRACE0 */
     int i;
-    double tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    double tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     double armc, armc0, arxc, x0[]=new double[6], x[]=new double[6], t, te;
     double mdd;
     int iflag = epheflag;
@@ -5254,7 +5254,7 @@ class Swecl
 #endif /* MT_TESTS */
         if (!do_fixstar) {
   //        te = t + swe_deltat(t);
-          te = t + SweDate.getDeltaT(t);
+          te = t + SweDate.getDeltaT(t, swed);
           if (sw.swe_calc(te, ipl, iflag, x, serr) == SweConst.ERR) {
             return SweConst.ERR;
           }
@@ -6310,8 +6310,8 @@ class Swecl
 #ifdef TRACE0
     Trace.log("Swecl.swe_nod_aps_ut(double, int, int, int, double[], double[], double[], double[], StringBuffer)");
 #endif /* TRACE0 */
-    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0);
-    return swe_nod_aps(tjd_ut + SweDate.getDeltaT(tjd_ut),
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, sw);
+    return swe_nod_aps(tjd_ut + SweDate.getDeltaT(tjd_ut, swed),
                         ipl, iflag, method, xnasc, xndsc, xperi, xaphe,
                         serr);
   }
@@ -6373,7 +6373,7 @@ class Swecl
      * geometrically from ecl. longitude and latitude 
      */
     if (imeth == 0 || imeth == 1) {
-      t_et = t_ut + SweDate.getDeltaT(t_ut);
+      t_et = t_ut + SweDate.getDeltaT(t_ut, swed);
       eps = sl.swi_epsiln(t_et, iflag) * SwissData.RADTODEG;
       sl.swi_nutation(t_et, iflag, nutlo);
       nutlo[0] *= SwissData.RADTODEG;
@@ -871,21 +871,21 @@ class Swemmoon
   double T;
   double T2;
 
-  static double T3;
-  static double T4;
-  static double f;
-  static double g;
-  static double Ve;
-  static double Ea;
-  static double Ma;
-  static double Ju;
-  static double Sa;
-  static double cg;
-  static double sg;
-  static double l1;
-  static double l2;
-  static double l3;
-  static double l4;
+  double T3;
+  double T4;
+  double f;
+  double g;
+  double Ve;
+  double Ea;
+  double Ma;
+  double Ju;
+  double Sa;
+  double cg;
+  double sg;
+  double l1;
+  double l2;
+  double l3;
+  double l4;
 
   /* Calculate geometric coordinates of Moon
    * without light time or nutation correction.
@@ -908,6 +908,10 @@ class Swemmoon
     return(0);
   }
 
+  /* work arrays of swi_moshmoon() */
+  private double moshmoon_x1[]=new double[6], moshmoon_x2[]=new double[6],
+                 moshmoon_xx[]=new double[6];
+
   /* Moshier's moom
    * tjd          julian day
    * xpm          array of 6 doubles for moon's position and speed vectors
@@ -919,8 +923,8 @@ class Swemmoon
     Trace.log("Swemmoon.swi_moshmoon(double, boolean, double[], StringBuffer)");
 #endif /* TRACE0 */
     int i;
-    double a, b, x1[]=new double[6], x2[]=new double[6], t;
-    double xx[]=new double[6], xpm[];
+    double a, b, x1[]=moshmoon_x1, x2[]=moshmoon_x2, t;
+    double xx[]=moshmoon_xx, xpm[];
     PlanData pdp = swed.pldat[SwephData.SEI_MOON];
     String s;
     if (do_save) {
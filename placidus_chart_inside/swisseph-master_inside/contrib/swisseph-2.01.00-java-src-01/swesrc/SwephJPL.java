@@ -693,8 +693,7 @@ class SwephJPL
     String ch_ttl="";
     boolean ferr=false;
     try {
-      if (js.jplfptr == null ||
-          (js.jplfptr.fp == null && js.jplfptr.sk == null)) {
+      if (js.jplfptr == null || !js.jplfptr.isOpen()) {
         // fsizer() throws SwissephException
         ksize = fsizer(serr); /* the number of single precision words in a record */
         nrecl = 4;
@@ -871,6 +870,7 @@ class SwephJPL
       t = (et_mn - ((nr - 2) * js.eh_ss[2] + js.eh_ss[0]) + et_fr) / js.eh_ss[2];
       /* read correct record if not in core */
       if (nr != nrl_state) {
+#ifdef JAVAME
         nrl_state = nr;
 //      if (FSEEK(js->jplfptr, (off_t) (nr * ((off_t) irecsz)), 0) != 0) {
 //        if (serr != NULL) 
@@ -886,6 +886,19 @@ class SwephJPL
 //        if (js.do_reorder)
 //          reorder((char *) &buf[k-1], sizeof(double), 1);
         }
+#else
+        /* The decoded records are kept in the cache of recently used
+         * segments, which is shared by all SwissEph objects. A record
+         * from the cache must not be changed, it is only read by interp(). */
+        buf = SegmentCache.get(js.jplfptr.fnamp, SegmentCache.JPL_RECORD, nr);
+        if (buf == null) {
+          buf = new double[ncoeffs_state];
+          js.jplfptr.readDoubles((long)nr * (long)irecsz_state, buf, ncoeffs_state);
+          SegmentCache.put(js.jplfptr.fnamp, SegmentCache.JPL_RECORD, nr, buf);
+        }
+        js.buf = buf;
+        nrl_state = nr;
+#endif /* JAVAME */
       }
       if (js.do_km) {
         intv = js.eh_ss[2] * 86400.;
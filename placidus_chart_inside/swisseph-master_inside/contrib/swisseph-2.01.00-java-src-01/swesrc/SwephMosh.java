@@ -281,6 +281,11 @@ class SwephMosh
     return SweConst.OK;
   }
 
+  /* work arrays of swi_moshplan() and embofs_mosh() */
+  private double mosh_dx[]=new double[3], mosh_x2[]=new double[3],
+                 mosh_xxe[]=new double[6], mosh_xxp[]=new double[6];
+  private double embofs_xyz[]=new double[6];
+
   /* Moshier ephemeris.
    * computes heliocentric cartesian equatorial coordinates of
    * equinox 2000
@@ -298,8 +303,8 @@ class SwephMosh
 #endif /* TRACE0 */
     int i;
     boolean do_earth = false;
-    double dx[]=new double[3], x2[]=new double[3],
-           xxe[]=new double[6], xxp[]=new double[6];
+    double dx[]=mosh_dx, x2[]=mosh_x2,
+           xxe[]=mosh_xxe, xxp[]=mosh_xxp;
     double xp[], xe[];
     double dt;
     String s;
@@ -457,7 +462,7 @@ class SwephMosh
 #endif /* TRACE0 */
     double T, M, a, L, B, p;
     double smp, cmp, s2mp, c2mp, s2d, c2d, sf, cf;
-    double s2f, sx, cx, xyz[]=new double[6];
+    double s2f, sx, cx, xyz[]=embofs_xyz;
     double seps = swed.oec.seps;
     double ceps = swed.oec.ceps;
     int i;
@@ -769,20 +774,25 @@ class SwephMosh
 #ifdef TRACE0
     Trace.log("SwephMosh.read_elements_file(int, double, DblObj, DblObj, DblObj, DblObj, DblObj, DblObj, DblObj, DblObj, StringBuffer, StringBuffer)");
 #endif /* TRACE0 */
-    int i, iline, iplan, retc, ncpos;
-#ifndef JAVAME
-    FilePtr fp = null;
-#endif /* JAVAME */
-    String s, sp;
-    int spIdx=0;
-    String cpos[]=new String[20], serri="";
-    boolean elem_found = false;
+    int retc;
     double tt = 0;
 #ifndef JAVAME
-    /* -1, because file information is not saved, file is always closed */
-    try {
-      fp = sw.swi_fopen(-1, SweConst.SE_FICTFILE, swed.ephepath, serr);
-    } catch (SwissephException se) {
+    /* the file is read once and compiled, it is read again only, if
+     * it or the ephemeris path has changed */
+    FictElements fe = fictElements;
+    if (fe == null || !fe.isCurrent(swed.ephepath)) {
+      fictElements = null;
+      try {
+        /* -1, because file information is not saved, file is always closed */
+        fe = new FictElements(sw.swi_fopen(-1, SweConst.SE_FICTFILE,
+                                           swed.ephepath, serr),
+                              sl, swed.ephepath);
+        fictElements = fe;
+      } catch (SwissephException se) {
+        fe = null;
+      }
+    }
+    if (fe == null) {
 #endif /* JAVAME */
       /* file does not exist, use built-in bodies */
       if (ipl >= SweConst.SE_NFICT_ELEM) {
@@ -830,238 +840,176 @@ class SwephMosh
     /*
      * find elements in file
      */
-    iline = 0;
-    iplan = -1;
-    try {
-//    while (fgets(s, AS_MAXCH, fp) != null)
-      while ((s=fp.readLine()) != null) {
-        s=s.trim();
-//        iline++;
-//        spIdx = 0;
-//        while(s.charAt(spIdx) == ' ' || s.charAt(spIdx) == '\t')
-//          spIdx++;
-//        s=s.substring(spIdx);
-        sp = s;
-        spIdx=0;
-        char ch=s.charAt(spIdx);
-        if (ch == '#' || ch=='\r' || ch=='\n' || ch=='\0') {
-          continue;
-        }
-//    if ((sp = strchr(s, '#')) != NULL)
-//      *sp = '\0';
-        sp = null;
-        if ((spIdx = s.indexOf('#')) >= 0) {
-          s = s.substring(0,s.indexOf('#'));
-          sp = "";
-        }
-        ncpos = sl.swi_cutstr(s, ",", cpos, 20);
-        serri="error in file "+SweConst.SE_FICTFILE+", line "+
-#ifdef ORIGINAL
-              cv.fmt("%7.0f",(double) iline)+":";
-#else
-              iline+":";
-#endif /* ORIGINAL */
-        if (ncpos < 9) {
-          if (serr != null) {
-            serr.setLength(0);
-            serr.append(serri).append(" nine elements required");
-          }
-          return SweConst.ERR;
-        }
-        iplan++;
-        if (iplan != ipl) {
-          continue;
-        }
-        elem_found = true;
-        /* epoch of elements */
-        if (tjd0 != null) {
-          sp = cpos[0];
-//          for (i = 0; i < 5; i++)
-//       sp[i] = tolower(sp[i]);
-          sp=sp.length()<=5?sp.toLowerCase():
-                               sp.substring(0,5).toLowerCase()+sp.substring(5);
-          if (sp.startsWith("j2000")) {
-            tjd0.val = SwephData.J2000;
-          } else if (sp.startsWith("b1950")) {
-            tjd0.val = SwephData.B1950;
-          } else if (sp.startsWith("j1900")) {
-            tjd0.val = SwephData.J1900;
-          } else if (sp.charAt(0) == 'j' || sp.charAt(0) == 'b') {
-            if (serr != null) {
-              serr.setLength(0);
-              serr.append(serri).append(" invalid epoch");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          } else
-            tjd0.val = SwissLib.atof(sp);
-          tt = tjd - tjd0.val;
-        }
-        /* equinox */
-        if (tequ != null) {
-          sp = cpos[1];
-          spIdx=0;
-          while(sp.charAt(spIdx) == ' ' || sp.charAt(spIdx) == '\t')
-            spIdx++;
-//          for (i = 0; i < 5; i++)
-//       sp[i] = tolower(sp[i]);
-          sp=sp.substring(spIdx);
-          sp=sp.length()<5?sp.toLowerCase():
-                               sp.substring(0,5).toLowerCase()+sp.substring(5);
-          if (sp.startsWith("j2000")) {
-            tequ.val = SwephData.J2000;
-          } else if (sp.startsWith("b1950")) {
-            tequ.val = SwephData.B1950;
-          } else if (sp.startsWith("j1900")) {
-            tequ.val = SwephData.J1900;
-          } else if (sp.startsWith("jdate")) {
-            tequ.val = tjd;
-          } else if (sp.charAt(0) == 'j' || sp.charAt(0) == 'b') {
-            if (serr != null) {
-              serr.setLength(0);
-              serr.append(serri).append(" invalid equinox");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          } else {
-//        *tequ = atof(sp);
-            tequ.val = SwissLib.atof(sp);
-          }
-        }
-        /* mean anomaly t0 */
-        if (mano != null) {
-          retc = check_t_terms(tt, cpos[2], mano);
-          mano.val = sl.swe_degnorm(mano.val);
-          if (retc == SweConst.ERR) {
-            if (serr != null) {
-              serr.append(serri).append(" mean anomaly value invalid");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          }
-          /* if mean anomaly has t terms (which happens with fictitious
-           * planet Vulcan), we set
-           * epoch = tjd, so that no motion will be added anymore
-           * equinox = tjd */
-          if (retc == 1) {
-            tjd0.val = tjd;
-          }
-          mano.val *= SwissData.DEGTORAD;
+    if (ipl < 0 || ipl >= fe.bodies.length) {
+      /* the body is not in the file; what ended the file? */
+      if (fe.end == FictElements.END_FEW_ELEMS) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append(fe.endSerri).append(" nine elements required");
         }
-        /* semi-axis */
-        if (sema != null) {
-          retc = check_t_terms(tt, cpos[3], sema);
-          if (sema.val <= 0 || retc == SweConst.ERR) {
-            if (serr != null) {
-              serr.append(serri).append(" semi-axis value invalid");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          }
+      } else if (fe.end == FictElements.END_EXCEPTION) {
+        throw fe.endException;
+      }
+      return SweConst.ERR;
+    }
+    FictElements.Body b = fe.bodies[ipl];
+    /* epoch of elements */
+    if (tjd0 != null) {
+      if (b.tjd0Exception != null) {
+        throw b.tjd0Exception;
+      }
+      if (b.tjd0Invalid) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append(b.serri).append(" invalid epoch");
         }
-        /* eccentricity */
-        if (ecce != null) {
-          retc = check_t_terms(tt, cpos[4], ecce);
-          if (ecce.val >= 1 || ecce.val < 0 || retc == SweConst.ERR) {
-            if (serr != null) {
-              serr.setLength(0);
-              serr.append(serri).append(" eccentricity invalid (no parabolic or hyperbolic or bits allowed)");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          }
+        return SweConst.ERR;
+      }
+      tjd0.val = b.tjd0;
+      tt = tjd - tjd0.val;
+    }
+    /* equinox */
+    if (tequ != null) {
+      if (b.tequException != null) {
+        throw b.tequException;
+      }
+      if (b.tequJdate) {
+        tequ.val = tjd;
+      } else if (b.tequInvalid) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append(b.serri).append(" invalid equinox");
         }
-        /* perihelion argument */
-        if (parg != null) {
-          retc = check_t_terms(tt, cpos[5], parg);
-          parg.val = sl.swe_degnorm(parg.val);
-          if (retc == SweConst.ERR) {
-            if (serr != null) {
-              serr.setLength(0);
-              serr.append(serri).append(" perihelion argument value invalid");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          }
-          parg.val *= SwissData.DEGTORAD;
+        return SweConst.ERR;
+      } else {
+        tequ.val = b.tequ;
+      }
+    }
+    /* mean anomaly t0 */
+    if (mano != null) {
+      retc = t_terms(tt, b.mano, mano);
+      mano.val = sl.swe_degnorm(mano.val);
+      if (retc == SweConst.ERR) {
+        if (serr != null) {
+          serr.append(b.serri).append(" mean anomaly value invalid");
         }
-        /* node */
-        if (node != null) {
-          retc = check_t_terms(tt, cpos[6], node);
-          node.val = sl.swe_degnorm(node.val);
-          if (retc == SweConst.ERR) {
-            if (serr != null) {
-              serr.setLength(0);
-              serr.append(serri).append(" node value invalid");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          }
-          node.val *= SwissData.DEGTORAD;
+        return SweConst.ERR;
+      }
+      /* if mean anomaly has t terms (which happens with fictitious
+       * planet Vulcan), we set
+       * epoch = tjd, so that no motion will be added anymore
+       * equinox = tjd */
+      if (retc == 1) {
+        tjd0.val = tjd;
+      }
+      mano.val *= SwissData.DEGTORAD;
+    }
+    /* semi-axis */
+    if (sema != null) {
+      retc = t_terms(tt, b.sema, sema);
+      if (sema.val <= 0 || retc == SweConst.ERR) {
+        if (serr != null) {
+          serr.append(b.serri).append(" semi-axis value invalid");
         }
-        /* inclination */
-        if (incl != null) {
-          retc = check_t_terms(tt, cpos[7], incl);
-          incl.val = sl.swe_degnorm(incl.val);
-          if (retc == SweConst.ERR) {
-            if (serr != null) {
-              serr.setLength(0);
-              serr.append(serri).append(" inclination value invalid");
-            }
-//          goto return_err;
-            fp.close(); return SweConst.ERR;
-          }
-          incl.val *= SwissData.DEGTORAD;
+        return SweConst.ERR;
+      }
+    }
+    /* eccentricity */
+    if (ecce != null) {
+      retc = t_terms(tt, b.ecce, ecce);
+      if (ecce.val >= 1 || ecce.val < 0 || retc == SweConst.ERR) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append(b.serri).append(" eccentricity invalid (no parabolic or hyperbolic or bits allowed)");
         }
-        /* planet name */
-        if (pname != null) {
-          sp = cpos[8];
-          spIdx=0;
-          while(sp.charAt(spIdx) == ' ' || sp.charAt(spIdx) == '\t')
-            spIdx++;
-          sp=sp.substring(spIdx);
-//      swi_right_trim(sp);
-          sp=sp.trim();
-          pname.setLength(0); pname.append(sp);
+        return SweConst.ERR;
+      }
+    }
+    /* perihelion argument */
+    if (parg != null) {
+      retc = t_terms(tt, b.parg, parg);
+      parg.val = sl.swe_degnorm(parg.val);
+      if (retc == SweConst.ERR) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append(b.serri).append(" perihelion argument value invalid");
         }
-        /* geocentric */
-        if (fict_ifl != null && ncpos > 9) {
-//          for (sp = cpos[9]; *sp != '\0'; sp++)
-//            *sp = tolower(*sp);
-          sp = sp.substring(0,SMath.min(sp.length(),spIdx+9)) +
-               sp.substring(SMath.min(sp.length(),spIdx+9)).toLowerCase();
-//          if (strstr(cpos[9], "geo") != NULL)
-//            fict_ifl.val |= FICT_GEO;
-          if (cpos[9].indexOf("geo") >= 0) {
-            fict_ifl.val |= FICT_GEO;
-          }
+        return SweConst.ERR;
+      }
+      parg.val *= SwissData.DEGTORAD;
+    }
+    /* node */
+    if (node != null) {
+      retc = t_terms(tt, b.node, node);
+      node.val = sl.swe_degnorm(node.val);
+      if (retc == SweConst.ERR) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append(b.serri).append(" node value invalid");
         }
-        break;
+        return SweConst.ERR;
       }
-      if (!elem_found) {
+      node.val *= SwissData.DEGTORAD;
+    }
+    /* inclination */
+    if (incl != null) {
+      retc = t_terms(tt, b.incl, incl);
+      incl.val = sl.swe_degnorm(incl.val);
+      if (retc == SweConst.ERR) {
         if (serr != null) {
-#ifdef ORIGINAL
-          serr.append(serri).append(" elements for planet ").append(
-                                    cv.fmt("%7.0f",(double)ipl)).append(" not found");
-#else
-          serr.append(serri).append(" elements for planet ").append(ipl).append(" not found");
-#endif /* ORIGINAL */
+          serr.setLength(0);
+          serr.append(b.serri).append(" inclination value invalid");
         }
-//      goto return_err;
-        fp.close(); return SweConst.ERR;
+        return SweConst.ERR;
       }
-      fp.close();
-      return SweConst.OK;
-    } catch (java.io.IOException e) {
-      if (fp!=null) { try { fp.close(); } catch (java.io.IOException ie) { } }
-#ifdef NIO
-    } catch (java.nio.BufferUnderflowException e) {
-      if (fp!=null) { try { fp.close(); } catch (java.io.IOException ie) { } }
-#endif /* NIO */
+      incl.val *= SwissData.DEGTORAD;
     }
-    return SweConst.ERR;
+    /* planet name */
+    if (pname != null) {
+      if (b.nameException != null) {
+        throw b.nameException;
+      }
+      pname.setLength(0); pname.append(b.name);
+    }
+    /* geocentric */
+    if (fict_ifl != null && b.geo) {
+      fict_ifl.val |= FICT_GEO;
+    }
+    return SweConst.OK;
 #endif /* JAVAME */
   }
+
+#ifndef JAVAME
+  private transient FictElements fictElements = null;
+
+  /* value of an element compiled by FictElements, the same as
+   * check_t_terms() of the text of the element */
+  private int t_terms(double t, FictElements.Element el, DblObj doutp) {
+    int i, j;
+    double tt[]=new double[5], fac;
+    if (el.c == null) {
+      return check_t_terms(t, el.s, doutp);
+    }
+    if (el.constant) {
+      doutp.val = el.value;
+    } else {
+      tt[0] = t / 36525;
+      tt[1] = tt[0];
+      tt[2] = tt[1] * tt[1];
+      tt[3] = tt[2] * tt[1];
+      tt[4] = tt[3] * tt[1];
+      doutp.val = 0;
+      for (i = 0; i < el.c.length; i++) {
+        fac = el.c[i];
+        for (j = 0; j < el.pw[i].length; j++) {
+          fac *= (el.pw[i][j] < 0 ? el.f[i][j] : tt[el.pw[i][j]]);
+        }
+        doutp.val += fac;
+      }
+    }
+    return (el.tterms ? 1 : 0);
+  }
+#endif /* JAVAME */
 #endif /* 1 */
 
   private int check_t_terms(double t, String sinp, DblObj doutp) {
@@ -0,0 +1,168 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifndef JAVAME
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class holds the ephemeris resources, which can be shared by many
+* calculation contexts, and hands out one calculation context per thread.<p>
+* A calculation context is a normal SwissEph object. Its planetary data,
+* nutation, obliquity, topocentric and sidereal settings etc. are mutable,
+* so a SwissEph object must never be used by more than one thread at a
+* time. All objects created by the same SwephResources object use the same
+* ephemeris path and JPL file name, and they share the tables of delta T
+* and leap seconds and, if precompiled with -DPRELOAD_FIXSTARS and preloaded
+* via preloadFixstarsFile(), the fixstars data. The SwephResources object
+* itself is never changed after construction (besides preloading fixstars),
+* so it can be shared by any number of threads:<p>
+* <pre>
+* final SwephResources res = new SwephResources("./ephe");
+* ...
+* // in any thread:
+* SwissEph sw = res.getContext();
+* sw.swe_calc_ut(tjd_ut, SweConst.SE_MARS, SweConst.SEFLG_SPEED, xx, serr);
+* </pre>
+* Settings like swe_set_topo() or swe_set_sid_mode() are settings of the
+* calculation context, so they have to be set in each thread's context.
+* @see SwissEph
+*/
+public class SwephResources
+		implements java.io.Serializable {
+
+  private final String ephepath;
+  private final String jplfile;
+#ifdef PRELOAD_FIXSTARS
+  private volatile FixstarCatalog fixstarCatalog = null;
+#endif /* PRELOAD_FIXSTARS */
+  private transient volatile ThreadLocal contexts = null;
+
+  /**
+  * Creates a new set of ephemeris resources with the given search path
+  * for the Swiss Ephemeris data files and the default JPL file name.
+  * @param path The search path for the ephemeris data files. If null or
+  * empty, a default path will be used. See SwissEph.swe_set_ephe_path()
+  * for details.
+  * @see SwissEph#swe_set_ephe_path(java.lang.String)
+  */
+  public SwephResources(String path) {
+    this(path, null);
+  }
+
+  /**
+  * Creates a new set of ephemeris resources with the given search path
+  * for the ephemeris data files and the given JPL file name.
+  * @param path The search path for the ephemeris data files. If null or
+  * empty, a default path will be used. See SwissEph.swe_set_ephe_path()
+  * for details.
+  * @param jplfile The name of the JPL file to use, or null for the
+  * default name.
+  * @see SwissEph#swe_set_ephe_path(java.lang.String)
+  * @see SwissEph#swe_set_jpl_file(java.lang.String)
+  */
+  public SwephResources(String path, String jplfile) {
+#ifdef TRACE0
+    Trace.level++;
+    Trace.log("SwephResources(String, String)");
+#endif /* TRACE0 */
+    this.ephepath = (path == null || path.length() == 0 ?
+                                       SweConst.SE_EPHE_PATH : path);
+    this.jplfile = jplfile;
+    // Reads the tables of delta T and leap seconds from the ephemeris
+    // path, so they are available before the first calculation. The
+    // context itself is not needed, so its files are closed again:
+    newContext().swe_close();
+#ifdef TRACE0
+    Trace.level--;
+#endif /* TRACE0 */
+  }
+
+  /**
+  * Returns the search path for the ephemeris data files of these
+  * resources.
+  * @return The ephemeris path
+  */
+  public String getEphePath() {
+    return ephepath;
+  }
+
+  /**
+  * Returns the name of the JPL file of these resources.
+  * @return The JPL file name or null, if the default name is used
+  */
+  public String getJplFile() {
+    return jplfile;
+  }
+
+#ifdef PRELOAD_FIXSTARS
+#ifndef ASTROLOGY
+  /**
+  * Reads the fixstars file once for all calculation contexts created
+  * by this object. Contexts created before this call will not use the
+  * preloaded data. See SwissEph.preloadFixstarsFile() for details.
+  * @param serr The StringBuffer object containing any error message, if
+  * a failure occured during the read of the fixstars file
+  * @return true for successful read, false otherwise
+  * @see SwissEph#preloadFixstarsFile(java.lang.StringBuffer)
+  */
+  public synchronized boolean preloadFixstarsFile(StringBuffer serr) {
+    SwissEph sw = new SwissEph(ephepath);
+    if (!sw.preloadFixstarsFile(serr)) {
+      return false;
+    }
+    fixstarCatalog = sw.getFixstarCatalog();
+    sw.swe_close();
+    return true;
+  }
+#endif /* ASTROLOGY */
+#endif /* PRELOAD_FIXSTARS */
+
+  /**
+  * Creates a new calculation context on these resources. The returned
+  * object must not be used by more than one thread at a time.
+  * @return A new SwissEph object
+  * @see #getContext()
+  */
+  public SwissEph newContext() {
+    SwissEph sw = new SwissEph(ephepath);
+    if (jplfile != null) {
+      sw.swe_set_jpl_file(jplfile);
+    }
+#ifdef PRELOAD_FIXSTARS
+#ifndef ASTROLOGY
+    sw.setFixstarCatalog(fixstarCatalog);
+#endif /* ASTROLOGY */
+#endif /* PRELOAD_FIXSTARS */
+    return sw;
+  }
+
+  /**
+  * Returns the calculation context of the current thread. It is created
+  * on the first call from each thread, any later call from the same
+  * thread will return the same object.
+  * @return The SwissEph object of the current thread
+  * @see #newContext()
+  */
+  public SwissEph getContext() {
+    ThreadLocal tl = contexts;
+    if (tl == null) {
+      synchronized(this) {
+        if (contexts == null) {
+          contexts = new ThreadLocal() {
+            protected Object initialValue() {
+              return newContext();
+            }
+          };
+        }
+        tl = contexts;
+      }
+    }
+    return (SwissEph)tl.get();
+  }
+}
+#endif /* JAVAME */
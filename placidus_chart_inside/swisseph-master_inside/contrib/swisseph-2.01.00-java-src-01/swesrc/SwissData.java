@@ -192,9 +192,7 @@ public class SwissData
   boolean jpl_file_is_open=false;	/* jpl_file_is_open = FALSE */
   FilePtr fixfp=null;			/* fixfp, fixed stars file pointer */
 //#endif /* JAVAME */
-//#ifdef PRELOAD_FIXSTARS
-  java.util.Hashtable fixstarsHash = null;
-//#endif /* PRELOAD_FIXSTARS */
+  java.util.Hashtable flatFiles = null;	/* names of ephemeris files to be read from flat files */
   String ephepath = SweConst.SE_EPHE_PATH;	/* ephepath, ephemeris path */
 //#ifndef JAVAME
   String jplfnam = SweConst.SE_FNAME_DFT;	/* jplfnam, JPL file name, default */
@@ -208,6 +206,7 @@ public class SwissData
   boolean geopos_is_set=false;		/* geopos_is_set, for topocentric */
   boolean ayana_is_set=false;		/* ayana_is_set, ayanamsa is set */
   boolean is_old_starfile=false;	/* is_old_starfile, fixstars.cat is used (default is sefstars.txt) */
+  double tid_acc = SweConst.SE_TIDAL_DEFAULT;	/* tidal acceleration of the ephemeris in use */
 
   FileData fidat[] = new FileData[SwephData.SEI_NEPHFILES];
   GenConst gcdat;
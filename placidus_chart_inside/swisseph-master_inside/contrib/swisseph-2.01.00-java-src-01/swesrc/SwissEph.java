@@ -161,8 +161,8 @@ public class SwissEph
   * applets, you would have to specify the path as a valid http URL on
   * the same www server from where your applet gets served, if the
   * normal security restrictions apply.<br>
-  * ATTENTION: This constructor sets a global parameter used in
-  * calculation of delta T when parameter path is not null.
+  * NOTE: This constructor reads the tables of delta T and leap seconds
+  * from the ephemeris path, if they have not been read before.
   * @param path The search path for the Swiss Ephemeris
 #ifndef JAVAME
   * and JPL
@@ -189,7 +189,6 @@ public class SwissEph
     if (swed == null) {
       swed = new SwissData();
     }
-    SweDate.setSwissEphObject(this);	// to set the swed object in SweDate
     sl       = new SwissLib(this.swed);
     sm       = new Swemmoon(this.swed, this.sl);
     smosh    = new SwephMosh(this.sl, this, this.swed);
@@ -211,6 +210,11 @@ public class SwissEph
 // JAVA only:
     if (path != null) {
       swe_set_ephe_path(path);
+#ifndef JAVAME
+    } else {
+      SweDate.init_dt(this);
+      SweDate.init_leapsec(this);
+#endif /* JAVAME */
     }
 #ifdef TRACE0
     Trace.level--;
@@ -289,6 +293,20 @@ public class SwissEph
     return SwephData.SE_JAVA_VERSION;
   }
 
+  /**
+  * Returns the delta T value for the given Julian Day number as used in
+  * the calculations of this object. Opposed to SweDate.getDeltaT(double),
+  * this uses the tidal acceleration matching the ephemeris of this object,
+  * unless a tidal acceleration has been set by SweDate.setGlobalTidalAcc().
+  * @param tjd_ut The Julian Day number in UT
+  * @return delta T in days
+  * @see SweDate#getDeltaT(double)
+  * @see SweDate#setGlobalTidalAcc(double)
+  */
+  public double getDeltaT(double tjd_ut) {
+    return SweDate.getDeltaT(tjd_ut, swed);
+  }
+
   /* The routine called by the user.
    * It checks whether a position for the same planet, the same t, and the
    * same flag bits has already been computed.
@@ -309,8 +327,8 @@ public class SwissEph
   * This is the main calculation routine for all planets, asteroids, lunar
   * nodes and apogees.
   * See swe_calc(...) for more information.<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The Julian Day number in UT (Universal Time).
   * @param ipl The body to be calculated. See
   * <A HREF="SweConst.html">SweConst</A> for a list of bodies
@@ -341,8 +359,8 @@ public class SwissEph
 #endif /* TRACE0 */
     double deltat;
     int retval = SweConst.OK;
-    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0);  
-    deltat = SweDate.getDeltaT(tjd_ut);
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, this);  
+    deltat = SweDate.getDeltaT(tjd_ut, swed);
     retval = swe_calc(tjd_ut + deltat, ipl, iflag, xx, serr);
     return retval;
   }
@@ -415,8 +433,8 @@ public class SwissEph
   // This is the new recommended interface for planetary calculations.
   // It should be rewritten to be used for fixstars as well.
   /**
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see SweDate#setGlobalTidalAcc(double)
   */
   public int calc(double jdET, int ipl, int iflag, double xx[])
@@ -424,6 +442,420 @@ public class SwissEph
     return _calc(jdET, ipl, iflag, xx, new StringBuffer());
   }
 
+  /**
+  * Calculates a body like swe_calc(), but returns the coordinates, the
+  * return flag and the error message in a reusable CalcResult object.
+  * No objects are created, unless the calculation fails or gives a
+  * warning, so a CalcResult object should be used for many calculations.
+  * @param tjd The Julian Day number in ET (UT + deltaT).
+  * @param ipl The body to be calculated, see swe_calc()
+  * @param iflag The calculation flags, see swe_calc()
+  * @param res The CalcResult receiving the result
+  * @return iflag or SweConst.ERR (-1) like swe_calc(). The coordinates of
+  * a failed calculation are 0.
+  * @see #swe_calc(double, int, int, double[], java.lang.StringBuffer)
+  * @see #calcUT(double, int, int, CalcResult)
+  */
+  public int calc(double tjd, int ipl, int iflag, CalcResult res) {
+    res.reset();
+    try {
+      res.retflag = _calc(tjd, ipl, iflag, res.xx, res.serr);
+    } catch (SwissephException se) {
+      res.setError(se);
+    }
+    if (res.retflag == SweConst.ERR) {
+      swe_calc_error(res.xx);
+    }
+    return res.retflag;
+  }
+
+#ifndef ASTROLOGY
+  /**
+  * Calculates a body like swe_calc_ut(), but returns the coordinates,
+  * the return flag and the error message in a reusable CalcResult
+  * object. See calc(double, int, int, CalcResult).<br>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * @param tjd_ut The Julian Day number in UT
+  * @param ipl The body to be calculated, see swe_calc()
+  * @param iflag The calculation flags, see swe_calc()
+  * @param res The CalcResult receiving the result
+  * @return iflag or SweConst.ERR (-1) like swe_calc_ut()
+  * @see #swe_calc_ut(double, int, int, double[], java.lang.StringBuffer)
+  * @see #calc(double, int, int, CalcResult)
+  */
+  public int calcUT(double tjd_ut, int ipl, int iflag, CalcResult res) {
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, this);
+    return calc(tjd_ut + SweDate.getDeltaT(tjd_ut, swed), ipl, iflag, res);
+  }
+#endif /* ASTROLOGY */
+
+  /**
+  * Calculates one body for many points of time in one call. The results
+  * are identical to calling swe_calc() for each of the times, but the
+  * results are written into primitive arrays, one array per coordinate,
+  * and no objects are created per point of time.<p>
+  * The planetary data of the last segment read from the ephemeris file
+  * is kept, so sorted times will be calculated fastest. The flags are
+  * checked and normalized once for the whole batch, obliquity and
+  * nutation are calculated once per point of time.<p>
+  * Any output array may be null, if the coordinate is not required. The
+  * meaning of the coordinates depends on iflag as described in swe_calc(),
+  * e.g., with SEFLG_EQUATORIAL, lon and lat will receive the right
+  * ascension and declination.
+  * @param tjd The Julian Day numbers in ET
+  * @param ipl The body to be calculated
+  * @param iflag The calculation flags, see swe_calc()
+  * @param lon Receives the longitudes, same size as tjd, or null
+  * @param lat Receives the latitudes, same size as tjd, or null
+  * @param dist Receives the distances, same size as tjd, or null
+  * @param lonSpeed Receives the speeds in longitude, or null
+  * @param latSpeed Receives the speeds in latitude, or null
+  * @param distSpeed Receives the speeds in distance, or null
+  * @param retflags Receives the return flag of each calculation (iflag
+  * or SweConst.ERR), or null
+  * @param serr A StringBuffer receiving the first error message, if any
+  * calculation failed
+  * @return SweConst.OK, or SweConst.ERR, if any calculation failed. The
+  * coordinates of the failed calculations are 0.
+  * @see #swe_calc(double, int, int, double[], java.lang.StringBuffer)
+  * @see #calcBatchUT(double[], int, int, double[], double[], double[], double[], double[], double[], int[], java.lang.StringBuffer)
+  */
+  public int calcBatchET(double tjd[], int ipl, int iflag,
+                            double lon[], double lat[], double dist[],
+                            double lonSpeed[], double latSpeed[],
+                            double distSpeed[], int retflags[],
+                            StringBuffer serr) {
+    return calc_batch(tjd, false, ipl, iflag, lon, lat, dist,
+                      lonSpeed, latSpeed, distSpeed, retflags, serr);
+  }
+
+#ifndef ASTROLOGY
+  /**
+  * Calculates one body for many points of time given in UT in one call.
+  * See calcBatchET() for details.<br>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * @param tjd_ut The Julian Day numbers in UT
+  * @param ipl The body to be calculated
+  * @param iflag The calculation flags, see swe_calc()
+  * @param lon Receives the longitudes, same size as tjd_ut, or null
+  * @param lat Receives the latitudes, same size as tjd_ut, or null
+  * @param dist Receives the distances, same size as tjd_ut, or null
+  * @param lonSpeed Receives the speeds in longitude, or null
+  * @param latSpeed Receives the speeds in latitude, or null
+  * @param distSpeed Receives the speeds in distance, or null
+  * @param retflags Receives the return flag of each calculation (iflag
+  * or SweConst.ERR), or null
+  * @param serr A StringBuffer receiving the first error message, if any
+  * calculation failed
+  * @return SweConst.OK, or SweConst.ERR, if any calculation failed
+  * @see #swe_calc_ut(double, int, int, double[], java.lang.StringBuffer)
+  * @see #calcBatchET(double[], int, int, double[], double[], double[], double[], double[], double[], int[], java.lang.StringBuffer)
+  */
+  public int calcBatchUT(double tjd_ut[], int ipl, int iflag,
+                               double lon[], double lat[], double dist[],
+                               double lonSpeed[], double latSpeed[],
+                               double distSpeed[], int retflags[],
+                               StringBuffer serr) {
+    return calc_batch(tjd_ut, true, ipl, iflag, lon, lat, dist,
+                      lonSpeed, latSpeed, distSpeed, retflags, serr);
+  }
+#endif /* ASTROLOGY */
+
+  /**
+  * Calculates many bodies for one point of time, e.g. all planets of a
+  * chart, in one call. The results are identical to calling swe_calc()
+  * for each of the bodies.<p>
+  * The data used by all bodies for the same point of time, i.e. the
+  * barycentric position of the earth and the sun, nutation and its matrix,
+  * the obliquity of the ecliptic, the precession matrix and the ayanamsa,
+  * are calculated once before the first body. Every body then calculates
+  * its own apparent position with these data only. The results are
+  * written into one flat array of 6 doubles per body in the sequence of
+  * the ipl array, and no objects are created per body.
+  * @param tjd The Julian Day number in ET
+  * @param ipl The bodies to be calculated
+  * @param iflag The calculation flags, see swe_calc()
+  * @param xx Receives the results, 6 doubles per body as described in
+  * swe_calc(): xx[6*i] to xx[6*i+5] for body ipl[i]
+  * @param retflags Receives the return flag of each body (iflag or
+  * SweConst.ERR), or null
+  * @param serr A StringBuffer receiving the first error message, if the
+  * calculation of any body failed
+  * @return SweConst.OK, or SweConst.ERR, if the calculation of any body
+  * failed. The coordinates of the failed bodies are 0.
+  * @see #swe_calc(double, int, int, double[], java.lang.StringBuffer)
+  * @see #calcChartUT(double, int[], int, double[], int[], java.lang.StringBuffer)
+  */
+  public int calcChartET(double tjd, int ipl[], int iflag, double xx[],
+                         int retflags[], StringBuffer serr) {
+    return calc_chart(tjd, ipl, iflag, xx, retflags, serr);
+  }
+
+#ifndef ASTROLOGY
+  /**
+  * Calculates many bodies for one point of time given in UT in one call.
+  * Delta T is calculated once for all bodies. See calcChartET() for
+  * details.<br>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * @param tjd_ut The Julian Day number in UT
+  * @param ipl The bodies to be calculated
+  * @param iflag The calculation flags, see swe_calc()
+  * @param xx Receives the results, 6 doubles per body
+  * @param retflags Receives the return flag of each body, or null
+  * @param serr A StringBuffer receiving the first error message, if the
+  * calculation of any body failed
+  * @return SweConst.OK, or SweConst.ERR, if the calculation of any body
+  * failed
+  * @see #swe_calc_ut(double, int, int, double[], java.lang.StringBuffer)
+  * @see #calcChartET(double, int[], int, double[], int[], java.lang.StringBuffer)
+  */
+  public int calcChartUT(double tjd_ut, int ipl[], int iflag, double xx[],
+                         int retflags[], StringBuffer serr) {
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, this);
+    return calc_chart(tjd_ut + SweDate.getDeltaT(tjd_ut, swed), ipl, iflag,
+                      xx, retflags, serr);
+  }
+#endif /* ASTROLOGY */
+
+  private int calc_chart(double tjd, int ipl[], int iflag, double xx[],
+                         int retflags[], StringBuffer serr) {
+#ifdef TRACE0
+    Trace.level++;
+    Trace.log("SwissEph.calc_chart(double, int[], int, double[], int[], StringBuffer)");
+#endif /* TRACE0 */
+    int n = ipl.length;
+    int i, j, retc = SweConst.OK, rf;
+    double x[] = batch_xx;
+    if (xx.length < 6 * n || (retflags != null && retflags.length < n)) {
+      if (serr != null) {
+        serr.setLength(0);
+        serr.append("output arrays too small for " + n + " bodies.");
+      }
+#ifdef TRACE0
+      Trace.level--;
+#endif /* TRACE0 */
+      return SweConst.ERR;
+    }
+    try {
+      chart_snapshot(tjd, iflag);
+      for (i = 0; i < n; i++) {
+        batch_serr.setLength(0);
+        try {
+          rf = _calc(tjd, ipl[i], iflag, x, batch_serr);
+        } catch (SwissephException se) {
+          rf = SweConst.ERR;
+          if (batch_serr.length() == 0) {
+            batch_serr.append(se.getMessage());
+          }
+        }
+        if (rf == SweConst.ERR) {
+          swe_calc_error(x);
+          if (retc != SweConst.ERR && serr != null) {
+            serr.setLength(0);
+            serr.append(batch_serr.toString());
+          }
+          retc = SweConst.ERR;
+        }
+        for (j = 0; j < 6; j++) {
+          xx[6 * i + j] = x[j];
+        }
+        if (retflags != null) { retflags[i] = rf; }
+      }
+    } finally {
+      chart_ayan_valid = false;
+    }
+#ifdef TRACE0
+    Trace.level--;
+#endif /* TRACE0 */
+    return retc;
+  }
+
+  /* Calculates the data, that is the same for all bodies of a chart at
+   * the time tjd: the ayanamsa, the obliquity of the ecliptic, nutation
+   * and its matrix, the barycentric earth and sun, the observer and the
+   * precession matrix of the date. All of them are kept in this object
+   * for the time tjd, so every body of the chart finds them there and
+   * only calculates its own apparent position. Errors are ignored here,
+   * they are reported by the calculation of the bodies. */
+  private void chart_snapshot(double tjd, int iflag) {
+    int epheflag;
+    double x[] = chart_x;
+    chart_serr.setLength(0);
+    iflag = plaus_iflag(iflag, SweConst.SE_SUN, tjd, chart_serr);
+    epheflag = iflag & SweConst.SEFLG_EPHMASK;
+#ifdef JAVAME
+    if (epheflag != SweConst.SEFLG_MOSEPH && !swed.ephe_path_is_set) {
+      swe_set_ephe_path(null);
+    }
+#else
+    if (epheflag != SweConst.SEFLG_MOSEPH && !swed.ephe_path_is_set && !swed.jpl_file_is_open) {
+      swe_set_ephe_path(null);
+    }
+#endif /* JAVAME */
+    /* ayanamsa */
+    if ((iflag & SweConst.SEFLG_SIDEREAL)!=0) {
+      if (!swed.ayana_is_set) {
+        swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0, 0);
+      }
+#ifndef ASTROLOGY
+      if ((swed.sidd.sid_mode & (SweConst.SE_SIDBIT_ECL_T0 |
+                                 SweConst.SE_SIDBIT_SSY_PLANE)) == 0) {
+#endif /* ASTROLOGY */
+        chart_ayanamsa = swe_get_ayanamsa(tjd);
+        chart_tjd = tjd;
+        chart_ayan_valid = true;
+#ifndef ASTROLOGY
+      }
+#endif /* ASTROLOGY */
+    }
+    /* obliquity of ecliptic, nutation and nutation matrix */
+    swi_check_ecliptic(tjd, iflag);
+    swi_check_nutation(tjd, iflag);
+    /* barycentric earth and sun, saved in swed.pldat[] */
+    try {
+      switch (epheflag) {
+#ifndef JAVAME
+        case SweConst.SEFLG_JPLEPH:
+          jplplan(tjd, SwephData.SEI_EARTH, iflag, SwephData.DO_SAVE,
+                  null, null, null, chart_serr);
+          break;
+        case SweConst.SEFLG_SWIEPH:
+          sweplan(tjd, SwephData.SEI_EARTH, SwephData.SEI_FILE_PLANET, iflag,
+                  SwephData.DO_SAVE, null, null, null, null, chart_serr);
+          break;
+#endif /* JAVAME */
+#ifndef NO_MOSHIER
+        case SweConst.SEFLG_MOSEPH:
+          smosh.swi_moshplan(tjd, SwephData.SEI_EARTH, SwephData.DO_SAVE,
+                             null, null, chart_serr);
+          break;
+#endif /* NO_MOSHIER */
+      }
+    } catch (SwissephException se) {
+    }
+#ifndef ASTROLOGY
+    /* observer, saved in swed.topd */
+    if ((iflag & SweConst.SEFLG_TOPOCTR)!=0 && swed.geopos_is_set &&
+        swed.pldat[SwephData.SEI_EARTH].teval == tjd) {
+      swi_get_observer(tjd, iflag | SweConst.SEFLG_NONUT, SwephData.DO_SAVE,
+                       x, chart_serr);
+    }
+#endif /* ASTROLOGY */
+    /* precession matrix of the date, kept in the cache of SwissLib */
+    if ((iflag & SweConst.SEFLG_J2000)==0) {
+      x[0] = 1;
+      x[1] = x[2] = 0;
+      sl.swi_precess(x, tjd, iflag, SwephData.J2000_TO_J);
+    }
+  }
+
+  /* Returns the ayanamsa of the chart snapshot, if tjd is the time of
+   * the chart, see chart_snapshot() */
+  private double get_ayanamsa(double tjd) {
+    if (chart_ayan_valid && tjd == chart_tjd) {
+      return chart_ayanamsa;
+    }
+    return swe_get_ayanamsa(tjd);
+  }
+
+  /* The snapshot of the current chart, see chart_snapshot(): */
+  private double chart_x[] = new double[6];
+  private StringBuffer chart_serr = new StringBuffer(SwissData.AS_MAXCH);
+  private boolean chart_ayan_valid = false;
+  private double chart_tjd, chart_ayanamsa;
+
+  private double batch_xx[] = new double[6];
+  private StringBuffer batch_serr = new StringBuffer(SwissData.AS_MAXCH);
+  /* While a batch is calculated, swecalc() keeps the result of the flag
+   * checks for the last body and flags, so they are done once per batch
+   * only: */
+  private boolean batch_active = false;
+  private boolean batch_flags_valid = false;
+  private int batch_ipl, batch_iflag_in, batch_iflag, batch_epheflag;
+
+  private int calc_batch(double tjd[], boolean ut, int ipl, int iflag,
+                         double lon[], double lat[], double dist[],
+                         double lonSpeed[], double latSpeed[],
+                         double distSpeed[], int retflags[],
+                         StringBuffer serr) {
+#ifdef TRACE0
+    Trace.level++;
+    Trace.log("SwissEph.calc_batch(double[], boolean, int, int, ...)");
+#endif /* TRACE0 */
+    int n = tjd.length;
+    int i, retc = SweConst.OK, rf;
+    double t, dt;
+    double xx[] = batch_xx;
+    if ((lon != null && lon.length < n) || (lat != null && lat.length < n) ||
+        (dist != null && dist.length < n) ||
+        (lonSpeed != null && lonSpeed.length < n) ||
+        (latSpeed != null && latSpeed.length < n) ||
+        (distSpeed != null && distSpeed.length < n) ||
+        (retflags != null && retflags.length < n)) {
+      if (serr != null) {
+        serr.setLength(0);
+        serr.append("output arrays must have at least " + n + " elements.");
+      }
+#ifdef TRACE0
+      Trace.level--;
+#endif /* TRACE0 */
+      return SweConst.ERR;
+    }
+    batch_active = true;
+    batch_flags_valid = false;
+    try {
+      for (i = 0; i < n; i++) {
+        t = tjd[i];
+        batch_serr.setLength(0);
+        try {
+#ifndef ASTROLOGY
+          if (ut) {
+            /* search for the tidal acceleration only, if the ephemeris
+             * deciding on it may have changed */
+            dt = SweDate.getDeltaT(t, swed);
+            if (!SweDate.tid_acc_is_current(t + dt, iflag, this)) {
+              SweDate.swi_set_tid_acc(t, iflag, 0, this);
+              dt = SweDate.getDeltaT(t, swed);
+            }
+            t += dt;
+          }
+#endif /* ASTROLOGY */
+          rf = _calc(t, ipl, iflag, xx, batch_serr);
+        } catch (SwissephException se) {
+          rf = SweConst.ERR;
+          if (batch_serr.length() == 0) {
+            batch_serr.append(se.getMessage());
+          }
+        }
+        if (rf == SweConst.ERR) {
+          swe_calc_error(xx);
+          if (retc != SweConst.ERR && serr != null) {
+            serr.setLength(0);
+            serr.append(batch_serr.toString());
+          }
+          retc = SweConst.ERR;
+        }
+        if (lon != null) { lon[i] = xx[0]; }
+        if (lat != null) { lat[i] = xx[1]; }
+        if (dist != null) { dist[i] = xx[2]; }
+        if (lonSpeed != null) { lonSpeed[i] = xx[3]; }
+        if (latSpeed != null) { latSpeed[i] = xx[4]; }
+        if (distSpeed != null) { distSpeed[i] = xx[5]; }
+        if (retflags != null) { retflags[i] = rf; }
+      }
+    } finally {
+      batch_active = false;
+      batch_flags_valid = false;
+    }
+#ifdef TRACE0
+    Trace.level--;
+#endif /* TRACE0 */
+    return retc;
+  }
+
   private int _calc(double tjd, int ipl, int iflag, double xx[], StringBuffer serr)
                     throws SwissephException {
     int i, j;
@@ -431,9 +863,8 @@ public class SwissEph
     int iflgsave = iflag;
     int epheflag;
     SavePositions sd;
-    double x[]=new double[6], xs[];
-    double x0[]=new double[24],
-           x2[]=new double[24];
+    double xs[];
+    double x0[], x2[];
     double dt;
 
 #ifdef ASTROLOGY
@@ -565,6 +996,8 @@ ipl: 15 Chiron
               dt = SwephData.PLAN_SPEED_INTV;
               break;
           }
+          x0 = new double[24];
+          x2 = new double[24];
           sd.iflgsave = swecalc(tjd-dt, ipl, iflag, x0, serr);
           if (sd.iflgsave == SweConst.ERR) {
             return swe_calc_error(xx);
@@ -603,29 +1036,27 @@ ipl: 15 Chiron
     } else {
       i = 3;
     }
-    for (j = 0; j < i; j++) { x[j] = xs[j+xsOffset]; }
-    for (j = i; j < 6; j++) { x[j] = 0; }
+    /* the result is written to xx directly, no temporary array */
+    for (j = 0; j < i; j++) { xx[j] = xs[j+xsOffset]; }
+    for (j = i; j < 6; j++) { xx[j] = 0; }
     if ((iflag & (SweConst.SEFLG_SPEED3 | SweConst.SEFLG_SPEED))!=0) {
-      for (j = 3; j < 6; j++) { x[j] = xs[j+xsOffset]; }
+      for (j = 3; j < 6; j++) { xx[j] = xs[j+xsOffset]; }
     }
 #if 1
     if ((iflag & SweConst.SEFLG_RADIANS)!=0) {
       if (ipl == SweConst.SE_ECL_NUT) {
         for (j = 0; j < 4; j++)
-          x[j] *= SwissData.DEGTORAD;
+          xx[j] *= SwissData.DEGTORAD;
       } else {
         for (j = 0; j < 2; j++)
-          x[j] *= SwissData.DEGTORAD;
+          xx[j] *= SwissData.DEGTORAD;
         if ((iflag & (SweConst.SEFLG_SPEED3 | SweConst.SEFLG_SPEED))!=0) {
           for (j = 3; j < 5; j++)
-            x[j] *= SwissData.DEGTORAD;
+            xx[j] *= SwissData.DEGTORAD;
         }
       }  
     } 
 #endif /* 1 */
-    for (i = 0; i <= 5; i++) {
-      xx[i] = x[i];
-    }
     iflag = sd.iflgsave;
     /* if no ephemeris has been specified, do not return chosen ephemeris */
     if ((iflgsave & SweConst.SEFLG_EPHMASK) == 0) {
@@ -724,7 +1155,7 @@ ipl: 15 Chiron
       swed.fixfp = null;
     }
 #endif /* JAVAME */
-    SweDate.swe_set_tid_acc(SweConst.SE_TIDAL_AUTOMATIC);
+    swed.tid_acc = SweConst.SE_TIDAL_DEFAULT;
     swed.geopos_is_set = false;
     swed.ayana_is_set = false;
     swed.is_old_starfile = false;
@@ -778,8 +1209,8 @@ ipl: 15 Chiron
   * http://th-mack.de/datafiles.<P><B>Note: Opposed to the behaviour of
   * the C version, the Java version does not evaluate environment variables.
   * This is also true for the environment variable SE_EPHE_PATH!</B><BR>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param path The search path for the Swiss Ephemeris
 #ifndef JAVAME
   * and JPL
@@ -828,12 +1259,14 @@ ipl: 15 Chiron
 #endif /* ORIGINAL */
     swed.ephepath=s;
 #ifndef JAVAME
+    SweDate.init_dt(this);
+    SweDate.init_leapsec(this);
     /* try to open lunar ephemeris, in order to get DE number and set
      * tidal acceleration of the Moon */
     iflag = SweConst.SEFLG_SWIEPH|SweConst.SEFLG_J2000|SweConst.SEFLG_TRUEPOS|SweConst.SEFLG_ICRS;
     swe_calc(SwephData.J2000, SweConst.SE_MOON, iflag, xx, null);
     if (swed.fidat[SwephData.SEI_FILE_MOON].fptr != null) {
-      SweDate.swi_set_tid_acc(0, 0, swed.fidat[SwephData.SEI_FILE_MOON].sweph_denum);
+      SweDate.swi_set_tid_acc(0, 0, swed.fidat[SwephData.SEI_FILE_MOON].sweph_denum, this);
     }
 #endif /* JAVAME */
 #ifdef TRACE0
@@ -989,6 +1422,155 @@ ipl: 15 Chiron
   }
 #endif /* JAVAME */
 
+#ifndef JAVAME
+  /**
+  * Selects, if the coefficients of the given Swiss Ephemeris data file
+  * are to be read from a pre-decoded flat file instead of unpacking them
+  * from the data file itself. The flat file has to be created with the
+  * FlatEphemeris class and to be placed into the same directory. If it
+  * is missing or does not fit to the data file, the data file is used
+  * as before. The results are identical in both cases.
+  * @param fname Name of the Swiss Ephemeris data file without path, e.g.
+  * "sepl_18.se1"
+  * @param use true to use the flat file, false to unpack the data file
+  * @see FlatEphemeris
+  */
+  public void setFlatEphemerisFile(String fname, boolean use) {
+#ifdef TRACE0
+    Trace.log("SwissEph.setFlatEphemerisFile(String, boolean)");
+    Trace.log("   fname: " + fname + ", use: " + use);
+#endif /* TRACE0 */
+    fname = FlatEphemeris.baseName(fname);
+    if (use) {
+      if (swed.flatFiles == null) {
+        swed.flatFiles = new java.util.Hashtable();
+      }
+      swed.flatFiles.put(fname, fname);
+    } else if (swed.flatFiles != null) {
+      swed.flatFiles.remove(fname);
+    }
+    /* switch files already open */
+    for (int i = 0; i < SwephData.SEI_NEPHFILES; i++) {
+      FileData fdp = swed.fidat[i];
+      if (fdp.fptr == null || fdp.fnam == null ||
+          !fname.equals(FlatEphemeris.baseName(fdp.fnam))) {
+        continue;
+      }
+      if (fdp.flat != null) {
+        fdp.flat.close();
+      }
+      fdp.flat = FlatEphemeris.open(fdp, swed);
+    }
+  }
+#endif /* JAVAME */
+
+  /**
+  * Switches to interpolated precession for dense time series.<p>
+  * Normally, the precession matrix is computed for every new point of
+  * time. It is reused for all bodies of the same time, but calculating
+  * many points of time close to each other, e.g. in an ephemeris with
+  * a step of some hours, still needs one new matrix per step. With
+  * interpolated precession, the matrices are computed at the multiples
+  * of the given interval only, and the matrix for any time in between
+  * is linearly interpolated from the two surrounding matrices.<p>
+  * The error of the interpolation is below 1.2e-8 * step * step
+  * arcseconds (step in days), i.e. about 1e-8" with a step of one day and
+  * 1e-5" with a step of 30 days, which is far below the accuracy of any
+  * of the ephemerides. The true node and the osculating elements are
+  * derived from positions at very close points of time, which magnifies
+  * the error to some 1e-4" for any step. The results are not bit by bit
+  * identical to the results without interpolation.
+  * @param step The interval of the matrices in days, or 0 to switch off
+  * the interpolation, which is the default
+  * @see #getPrecessionInterpolation()
+  */
+  public void setPrecessionInterpolation(double step) {
+    if (step < 0 || Double.isNaN(step)) {
+      step = 0;
+    }
+    if (step != sl.prec_interp_step) {
+      sl.prec_interp_step = step;
+      swi_force_app_pos_etc();
+    }
+  }
+
+  /**
+  * Returns the interval of the interpolated precession.
+  * @return The interval in days, or 0, if the interpolation is switched off
+  * @see #setPrecessionInterpolation(double)
+  */
+  public double getPrecessionInterpolation() {
+    return sl.prec_interp_step;
+  }
+
+  /**
+  * Switches to interpolated nutation for dense time series.<p>
+  * The nutation models IAU 2000A and IAU 2000B, the first of which is
+  * the default, sum up some 1300 or 77 periodic terms for every new
+  * point of time, and once more for the speed of the nutation, if
+  * SEFLG_SPEED is given. With interpolated nutation, the series is
+  * evaluated at the multiples of the given interval only, and the
+  * nutation in between is interpolated by a polynomial of 3rd degree
+  * through the four surrounding values. The last values of the series
+  * are kept in this object, so a time series or a transit search with
+  * small steps needs about one evaluation per interval.<p>
+  * The error of the interpolation is about 6e-4" with an interval of
+  * 1 day, 4e-5" with 0.5 days and 2.5e-6" with 0.25 days. The speeds
+  * are derived from the nutation at two very close points of time, so
+  * their error is larger, about 3e-4" per day with an interval of 0.5
+  * days. Use getNutationInterpolationError() to check the error for a
+  * time range. The
+  * nutation models IAU 1980 and the nutation of SEFLG_JPLHOR are not
+  * interpolated.
+  * @param step The interval of the series in days, or 0 to switch off
+  * the interpolation, which is the default
+  * @see #getNutationInterpolation()
+  * @see #getNutationInterpolationError(double, double)
+  */
+  public void setNutationInterpolation(double step) {
+    if (step < 0 || Double.isNaN(step)) {
+      step = 0;
+    }
+    if (step != sl.nut_interp_step) {
+      sl.nut_interp_step = step;
+      swed.nut.tnut = 0;
+      swed.nutv.tnut = 0;
+      swi_force_app_pos_etc();
+    }
+  }
+
+  /**
+  * Returns the interval of the interpolated nutation.
+  * @return The interval in days, or 0, if the interpolation is switched off
+  * @see #setNutationInterpolation(double)
+  */
+  public double getNutationInterpolation() {
+    return sl.nut_interp_step;
+  }
+
+  /**
+  * Returns the largest error of the interpolated nutation in the given
+  * time range, compared to the full series of the current nutation
+  * model. The error is checked in the middle of up to 1000 intervals
+  * spread over the time range, where the interpolation is least
+  * accurate.
+  * @param tjd1 Start of the time range, Julian Day number in ET
+  * @param tjd2 End of the time range, Julian Day number in ET
+  * @return The largest error in nutation in longitude or obliquity in
+  * arcseconds, or 0, if the interpolation is switched off or the
+  * current nutation model is not interpolated
+  * @see #setNutationInterpolation(double)
+  */
+  public double getNutationInterpolationError(double tjd1, double tjd2) {
+    int nut_model = swed.astro_models[SweConst.SE_MODEL_NUT];
+    if (nut_model == 0) nut_model = SweConst.SEMOD_NUT_DEFAULT;
+    if (nut_model != SweConst.SEMOD_NUT_IAU_2000A &&
+        nut_model != SweConst.SEMOD_NUT_IAU_2000B) {
+      return 0;
+    }
+    return sl.nut_interp_error(tjd1, tjd2);
+  }
+
   /**
   * This sets the ayanamsha mode for sidereal planet calculations. If you
   * don't set the ayanamsha mode, it will default to Fagan/Bradley
@@ -1213,75 +1795,277 @@ ipl: 15 Chiron
     Trace.log("SwissEph.swe_get_ayanamsa_ut(double)");
     Trace.log("   tjd_ut: " + Trace.fmtDbl(tjd_ut));
 #endif /* TRACE0 */
-    return swe_get_ayanamsa(tjd_ut + SweDate.getDeltaT(tjd_ut));
+    return swe_get_ayanamsa(tjd_ut + SweDate.getDeltaT(tjd_ut, swed));
   }
 #endif /* ASTROLOGY */
 
 #ifndef ASTROLOGY
 #ifdef PRELOAD_FIXSTARS
   /**
-  * This method reads the file fixstars.cat into memory for faster access
-  * during the program run. The use of it will only make sense, if you
-  * calculate multiple fixstars, and reading through the fixstars.cat
-  * file for getting the parameters of the fixstars will read much more
-  * data than the fixstars.cat file is in size. Any fixstar calculation will
-  * consult this file, and try to find the fixstar entry by sequentially
-  * reading through this file, until the entry is found. So if you're
-  * just interested in the first 50 fixstars in that file, you will
-  * hardly reach the point, where this method will speed up calculation.
+  * This method reads the file sefstars.txt (or fixstars.cat) into memory
+  * for faster access during the program run. The file is compiled into a
+  * FixstarCatalog, which is used by all fixstar calculations of this
+  * object afterwards, see setFixstarCatalog(). The use of it will only
+  * make sense, if you calculate multiple fixstars: any fixstar
+  * calculation without it will consult the file, and try to find the
+  * fixstar entry by sequentially reading through this file, until the
+  * entry is found.
   * @param serr The StringBuffer object containing any error message, if
   * a failure occured during the read of the fixstars.cat file
   * @see #swe_fixstar(java.lang.StringBuffer, double, int, double[], java.lang.StringBuffer)
   * @see #swe_fixstar_ut(java.lang.StringBuffer, double, int, double[], java.lang.StringBuffer)
+  * @see #setFixstarCatalog(FixstarCatalog)
   * @return true for successful read, false otherwise
   */
   public boolean preloadFixstarsFile(StringBuffer serr) {
-    if (swed.fixfp == null) {
-      try {
-        swed.fixfp = swi_fopen(SwephData.SEI_FILE_FIXSTAR, SweConst.SE_STARFILE,
-                                  swed.ephepath, serr);
-      } catch (SwissephException se) {
-        swed.fixstarsHash = null;
-        return false;
+    try {
+      fixstarCatalog = new FixstarCatalog(this);
+    } catch (SwissephException se) {
+      if (serr != null) {
+        serr.setLength(0);
+        serr.append(se.getMessage());
       }
+      fixstarCatalog = null;
+      return false;
     }
+    return true;
+  }
 
-    String s, name1, name2;
-    int line = 0, fline = 0;
-    try {
-      swed.fixstarsHash = new java.util.Hashtable(5000);
-      swed.fixfp.seek(0);
-      while ((s = swed.fixfp.readLine())!= null) {
-        fline++;
-        if (s.startsWith("#")) { continue; }
-        line++;
-        name1 = s.substring(0, s.indexOf(',')).trim();
-        name2 = s.substring(s.indexOf(','));
-        if (name2.indexOf(',',1) > 0) {
-          name2 = name2.substring(0,name2.indexOf(',',1)).trim();
+#endif /* PRELOAD_FIXSTARS */
+#ifndef JAVAME
+  /**
+  * Sets a compiled fixed star catalog to be used by swe_fixstar(),
+  * swe_fixstar_ut() and swe_fixstar_mag() instead of reading the star
+  * file. The catalog does not change, so it may be shared with other
+  * SwissEph objects.
+  * @param catalog The catalog, or null to read the star file again
+  * @see FixstarCatalog
+  */
+  public void setFixstarCatalog(FixstarCatalog catalog) {
+    fixstarCatalog = catalog;
+  }
+
+  /**
+  * Returns the fixed star catalog used by this object.
+  * @return The catalog, or null, if the star file is read
+  * @see #setFixstarCatalog(FixstarCatalog)
+  */
+  public FixstarCatalog getFixstarCatalog() {
+    return fixstarCatalog;
+  }
+
+  /**
+  * Calculates all stars of a fixed star catalog for one point of time in
+  * one call. The results are identical to calling swe_fixstar() with the
+  * number of each star in the catalog (i + 1 for the i-th star).<p>
+  * The position and the proper motion of the stars in the reference frame
+  * of the ephemeris are calculated once per catalog. The earth, the
+  * observer, nutation and all other data depending on the time only are
+  * calculated once per call. Large catalogs are split into chunks, which
+  * are calculated in parallel on the common ForkJoinPool. The results are
+  * written into one flat array of 6 doubles per star in the sequence of
+  * the catalog. With the sidereal modes SE_SIDBIT_ECL_T0 and
+  * SE_SIDBIT_SSY_PLANE, the stars are calculated one by one.<p>
+  * The SwissEph object must not be used for other calculations while
+  * this method is in progress.
+  * @param cat The catalog, e.g. getFixstarCatalog()
+  * @param tjd The Julian Day number in ET
+  * @param iflag The calculation flags, see swe_fixstar()
+  * @param xx Receives the results, 6 doubles per star as described in
+  * swe_fixstar(): xx[6*i] to xx[6*i+5] for the i-th star of the catalog
+  * @param retflags Receives the return flag of each star (iflag or
+  * SweConst.ERR), or null
+  * @param serr A StringBuffer receiving a warning or the first error
+  * message, if the calculation of any star failed
+  * @return SweConst.OK, or SweConst.ERR, if the calculation of any star
+  * failed. The coordinates of the failed stars are 0.
+  * @see #swe_fixstar(java.lang.StringBuffer, double, int, double[], java.lang.StringBuffer)
+  * @see #calcFixstarsUT(FixstarCatalog, double, int, double[], int[], java.lang.StringBuffer)
+  */
+  public int calcFixstarsET(FixstarCatalog cat, double tjd, int iflag,
+                            double xx[], int retflags[], StringBuffer serr) {
+    return calc_fixstars(cat, tjd, iflag, xx, retflags, serr);
+  }
+
+  /**
+  * Calculates all stars of a fixed star catalog for one point of time
+  * given in UT in one call. See calcFixstarsET() for details.<br>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * @param cat The catalog, e.g. getFixstarCatalog()
+  * @param tjd_ut The Julian Day number in UT
+  * @param iflag The calculation flags, see swe_fixstar()
+  * @param xx Receives the results, 6 doubles per star
+  * @param retflags Receives the return flag of each star, or null
+  * @param serr A StringBuffer receiving a warning or the first error
+  * message, if the calculation of any star failed
+  * @return SweConst.OK, or SweConst.ERR, if the calculation of any star
+  * failed
+  * @see #swe_fixstar_ut(java.lang.StringBuffer, double, int, double[], java.lang.StringBuffer)
+  * @see #calcFixstarsET(FixstarCatalog, double, int, double[], int[], java.lang.StringBuffer)
+  */
+  public int calcFixstarsUT(FixstarCatalog cat, double tjd_ut, int iflag,
+                            double xx[], int retflags[], StringBuffer serr) {
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, this);
+    return calc_fixstars(cat, tjd_ut + SweDate.getDeltaT(tjd_ut, swed),
+                         iflag, xx, retflags, serr);
+  }
+
+  private int calc_fixstars(FixstarCatalog cat, double tjd, int iflag,
+                            double xx[], int retflags[], StringBuffer serr) {
+#ifdef TRACE0
+    Trace.level++;
+    Trace.log("SwissEph.calc_fixstars(FixstarCatalog, double, int, double[], int[], StringBuffer)");
+#endif /* TRACE0 */
+    int n = cat.count;
+    int i, j, rf, retc = SweConst.OK;
+    int epheflag, iflgsave;
+    double x[] = new double[6];
+    double xobs[] = new double[6];
+    PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
+    if (xx.length < 6 * n || (retflags != null && retflags.length < n)) {
+      if (serr != null) {
+        serr.setLength(0);
+        serr.append("output arrays too small for " + n + " stars.");
+      }
+#ifdef TRACE0
+      Trace.level--;
+#endif /* TRACE0 */
+      return SweConst.ERR;
+    }
+    /* as in swe_fixstar() */
+    iflag |= SweConst.SEFLG_SPEED;
+    iflgsave = iflag;
+    if (serr != null) {
+      serr.setLength(0);
+    }
+    iflag = plaus_iflag(iflag, -1, tjd, serr);
+    if (((iflag & SweConst.SEFLG_SIDEREAL)!=0) && !swed.ayana_is_set) {
+      swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0, 0);
+    }
+    epheflag = iflag & SweConst.SEFLG_EPHMASK;
+    swi_check_ecliptic(tjd, iflag);
+    swi_check_nutation(tjd, iflag);
+    if ((iflag & SweConst.SEFLG_SIDEREAL)!=0 &&
+        (swed.sidd.sid_mode & (SweConst.SE_SIDBIT_ECL_T0 |
+                               SweConst.SE_SIDBIT_SSY_PLANE))!=0) {
+      /* rigorous algorithms, star by star */
+      for (i = 0; i < n; i++) {
+        if ((cat.flags[i] & FixstarCatalog.POS_OK) == 0) {
+          continue;
+        }
+        batch_serr.setLength(0);
+        rf = swe_fixstar_calc(cat.epoch[i], cat.ra[i], cat.de[i],
+                              cat.raPm[i], cat.dePm[i], cat.radv[i],
+                              cat.parall[i], batch_serr, tjd, iflag,
+                              iflgsave, epheflag, x);
+        if (rf == SweConst.ERR) {
+          swe_fixstar_error(x, SweConst.ERR);
+          if (retc != SweConst.ERR && serr != null) {
+            serr.setLength(0);
+            serr.append(batch_serr.toString());
+          }
+          retc = SweConst.ERR;
+        }
+        for (j = 0; j < 6; j++) {
+          xx[6 * i + j] = x[j];
+        }
+        if (retflags != null) { retflags[i] = rf; }
+      }
+    } else {
+      /* earth and observer, as in swe_fixstar_calc() */
+      if ((iflag & SweConst.SEFLG_BARYCTR)==0 &&
+          ((iflag & SweConst.SEFLG_HELCTR)==0 || (iflag & SweConst.SEFLG_MOSEPH)==0)) {
+        if (main_planet(tjd, SwephData.SEI_EARTH, epheflag, iflag, serr) != SweConst.OK) {
+          iflag &= ~(SweConst.SEFLG_TOPOCTR|SweConst.SEFLG_HELCTR);
+          /* on error, we provide barycentric position: */
+          iflag |= SweConst.SEFLG_BARYCTR | SweConst.SEFLG_TRUEPOS | SweConst.SEFLG_NOGDEFL;
         } else {
-          name2 = "";
+          /* iflag (ephemeris bit) may have changed in main_planet() */
+          iflag = swed.pldat[SwephData.SEI_EARTH].xflgs;
+        }
+      }
+      if ((iflag & SweConst.SEFLG_TOPOCTR)!=0) {
+        if (swed.topd.teval != pedp.teval
+          || swed.topd.teval == 0) {
+          if (swi_get_observer(pedp.teval, iflag | SweConst.SEFLG_NONUT, SwephData.DO_SAVE, xobs, serr)!=
+                                                                    SweConst.OK) {
+            retc = SweConst.ERR;
+          }
+        } else {
+          for (i = 0; i <= 5; i++) {
+            xobs[i] = swed.topd.xobs[i];
+          }
+        }
+        /* barycentric position of observer */
+        for (i = 0; i <= 5; i++) {
+          xobs[i] = xobs[i] + pedp.x[i];
+        }
+      } else if ((iflag & SweConst.SEFLG_BARYCTR)==0 &&
+          ((iflag & SweConst.SEFLG_HELCTR)==0 || (iflag & SweConst.SEFLG_MOSEPH)==0)) {
+        /* barycentric position of geocenter */
+        for (i = 0; i <= 5; i++) {
+          xobs[i] = pedp.x[i];
         }
-        s = line + "@" + s;
-        if (name1.length() > 0) {
-          swed.fixstarsHash.put(name1.toLowerCase(), s);
+      }
+      if (retc == SweConst.ERR) {
+        for (i = 0; i < 6 * n; i++) {
+          xx[i] = 0;
         }
-        if (name2.length() > 0) {
-          swed.fixstarsHash.put(name2, s);
+        for (i = 0; retflags != null && i < n; i++) {
+          retflags[i] = SweConst.ERR;
         }
-        swed.fixstarsHash.put("" + line, s);
+#ifdef TRACE0
+        Trace.level--;
+#endif /* TRACE0 */
+        return SweConst.ERR;
+      }
+      if (fixstarBatch == null) {
+        fixstarBatch = new FixstarBatch(this);
+      }
+      fixstarBatch.calc(cat, tjd, iflag, xobs, xx);
+      rf = iflag;
+      /* if no ephemeris has been specified, do not return chosen ephemeris */
+      if ((iflgsave & SweConst.SEFLG_EPHMASK) == 0) {
+        rf = rf & ~SweConst.SEFLG_DEFAULTEPH;
+      }
+      rf = rf & ~SweConst.SEFLG_SPEED;
+      for (i = 0; retflags != null && i < n; i++) {
+        retflags[i] = rf;
       }
-    } catch (java.io.EOFException ee) {
-    } catch (java.io.IOException ie) {
-#ifdef NIO
-    } catch (java.nio.BufferUnderflowException bue) {
-#endif /* NIO */
     }
-    return true;
+    /* stars with invalid data in the star file */
+    for (i = 0; i < n; i++) {
+      if ((cat.flags[i] & FixstarCatalog.POS_OK) != 0) {
+        continue;
+      }
+      batch_serr.setLength(0);
+      try {
+        FixstarCatalog.parsePosition(cat.lines[i], cat.flines[i],
+                                     cat.oldFile, new double[7],
+                                     batch_serr);
+      } catch (RuntimeException re) {
+        batch_serr.setLength(0);
+        batch_serr.append(re.toString());
+      }
+      for (j = 0; j < 6; j++) {
+        xx[6 * i + j] = 0;
+      }
+      if (retflags != null) { retflags[i] = SweConst.ERR; }
+      if (retc != SweConst.ERR && serr != null) {
+        serr.setLength(0);
+        serr.append(batch_serr.toString());
+      }
+      retc = SweConst.ERR;
+    }
+#ifdef TRACE0
+    Trace.level--;
+#endif /* TRACE0 */
+    return retc;
   }
 
-#endif /* PRELOAD_FIXSTARS */
-#ifndef JAVAME
+  private transient FixstarBatch fixstarBatch = null;
+
   /**********************************************************
    * get fixstar positions
    * parameters:
@@ -1339,6 +2123,10 @@ ipl: 15 Chiron
      * nutation                               *
      ******************************************/
     swi_check_nutation(tjd, iflag);
+    if (fixstarCatalog != null) {
+      return swe_fixstar_catalog(fixstarCatalog, star, tjd, iflag, iflgsave,
+                                 epheflag, xx, serr);
+    }
     String[] par = readFixstarParameters(star, serr);
     if (par != null) {
       return swe_fixstar_found(serr,par[1],star,Integer.parseInt(par[0]),tjd,iflag,iflgsave,epheflag,xx);
@@ -1346,6 +2134,40 @@ ipl: 15 Chiron
     return swe_fixstar_error(xx,SweConst.ERR);
   }
 
+  // Calculates a star of the compiled catalog:
+  private int swe_fixstar_catalog(FixstarCatalog cat, StringBuffer star,
+                                  double tjd, int iflag, int iflgsave,
+                                  int epheflag, double[] xx,
+                                  StringBuffer serr) {
+    int idx = cat.find(star.toString());
+    if (idx < 0) {
+      if (serr != null) {
+        serr.setLength(0);
+        if (idx == FixstarCatalog.EMPTY) {
+          serr.append("swe_fixstar(): star name empty");
+        } else if (idx == FixstarCatalog.DAMAGED) {
+          serr.append("star file " + SweConst.SE_STARFILE + " damaged at line " +
+                      cat.flines[cat.firstDamaged]);
+        } else if (star.length() < SwissData.AS_MAXCH - 20) {
+          serr.append("star "+star+" not found");
+        }
+      }
+      return swe_fixstar_error(xx,SweConst.ERR);
+    }
+    if ((cat.flags[idx] & FixstarCatalog.POS_OK) == 0) {
+      // Gives the error message of the damaged line:
+      return swe_fixstar_found(serr, cat.lines[idx], star, cat.flines[idx],
+                               tjd, iflag, iflgsave, epheflag, xx);
+    }
+    star.setLength(0);
+    star.append(cat.names[idx]);
+    return swe_fixstar_calc(cat.epoch[idx], cat.ra[idx], cat.de[idx],
+                            cat.raPm[idx], cat.dePm[idx], cat.radv[idx],
+                            cat.parall[idx], serr, tjd, iflag, iflgsave,
+                            epheflag, xx);
+  }
+
+  FixstarCatalog fixstarCatalog = null;
 String slast_stardata;
 String slast_starname;
   // Reads the line with the fixstar parameters and returns the
@@ -1359,29 +2181,6 @@ String slast_starname;
     int line = 0;
     boolean isnomclat = false;
 
-#ifdef PRELOAD_FIXSTARS
-    if (swed.fixstarsHash != null) {
-      sstar = star.toString();
-      int nameSepIdx = sstar.indexOf(',');
-      if (nameSepIdx > 0) {
-        sstar = sstar.substring(0, nameSepIdx).toLowerCase();
-      } else if (nameSepIdx < 0) {
-        sstar = sstar.toLowerCase();
-      }
-      s = (String)swed.fixstarsHash.get(sstar.trim());
-      if (s == null) {
-        if (serr != null && star.length() < SwissData.AS_MAXCH - 20) {
-          serr.setLength(0);
-          serr.append("star '" + star + "' not found in HashTable");
-        }
-        return null;
-      }
-      return new String[] {
-          s.substring(0,s.indexOf('@')).trim(), // line number
-          s.substring(s.indexOf('@') + 1) } // line text
-    }
-#endif /* PRELOAD_FIXSTARS */
-
 #ifndef JAVAME
     sstar=star.toString().substring(0,
                                 SMath.min(star.length(),SweConst.SE_MAX_STNAME));
@@ -1536,8 +2335,8 @@ String slast_starname;
   * fixstars.cat.<BR>
   * On Output it returns the complete name (traditional plus nomenclature
   * name), e.g. "<CODE>Alpheratz,alAnd</CODE>".<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The Julian Day in UT
   * @param iflag Any of the SweConst.SEFLG_* flags
   * @param xx A double[6] used as output parameter only. This returns
@@ -1563,8 +2362,8 @@ String slast_starname;
     Trace.logDblArr("xx", xx);
     Trace.log("   serr: " + serr);
 #endif /* TRACE0 */
-    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0);  
-    return swe_fixstar(star, tjd_ut + SweDate.getDeltaT(tjd_ut),
+    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0, this);  
+    return swe_fixstar(star, tjd_ut + SweDate.getDeltaT(tjd_ut, swed),
                        iflag, xx, serr);
   }
 
@@ -1973,8 +2772,8 @@ String slast_starname;
   * <I>Not yet implemented.</I><BR>
   * attr[7]:&nbsp;&nbsp;&nbsp;distance of moon from opposition in degrees
   * </CODE></BLOCKQUOTE><P><B>Attention: attr must be a double[20]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The Julian Day number in UT
 #ifdef JAVAME
 #ifdef JAVAME
@@ -2037,8 +2836,8 @@ String slast_starname;
   * tret[6]:&nbsp;&nbsp;&nbsp;time of the begin of center line.<BR>
   * tret[7]:&nbsp;&nbsp;&nbsp;time of the end of center line<BR>
   * </CODE><P><B>Attention: tret must be a double[10]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_start The Julian Day number in UT, from when to start searching
 #ifdef JAVAME
 #ifdef JAVAME
@@ -2140,8 +2939,8 @@ String slast_starname;
   * points of the orbital ellipses). This method is identical to
   * swe_nod_aps() with the one exception that the time has to be given
   * in UT (Universal Time) and not in ET (Ephemeris Time or Dynamical Time).<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The time in UT
   * @param ipl Planet number
   * @param iflag Any of the SEFLG_* flags
@@ -2226,8 +3025,8 @@ String slast_starname;
   * attr[3]:&nbsp;&nbsp;&nbsp;apparent diameter of disc.<BR>
   * attr[4]:&nbsp;&nbsp;&nbsp;apparent magnitude.<BR>
   * </CODE></BLOCKQUOTE><P><B>Attention: attr must be a double[20]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The Julian Day number in UT (Universal Time).
   * @param ipl The body number to be calculated. See class
   * <A HREF="SweConst.html">SweConst</A> for a list of bodies (SE_*)
@@ -2484,7 +3283,7 @@ String slast_starname;
   * Same as swe_rise_trans(), but allows to define the height of the horizon
   * at the point of the rising or setting (horhgt) in deg. See there for more
   * information.<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see #swe_rise_trans(double, int, StringBuffer, int, int, double[], double, double, DblObj, StringBuffer)
   * @see SweDate#setGlobalTidalAcc(double)
   */
@@ -2519,8 +3318,8 @@ String slast_starname;
   * attr[6]:&nbsp;&nbsp;&nbsp;apparent altitude of sun above horizon at tjd<BR>
   * attr[7]:&nbsp;&nbsp;&nbsp;angular distance of moon from sun in degrees
   * </CODE></BLOCKQUOTE><P><B>Attention: attr must be a double[20]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The Julian Day number in UT
 #ifdef JAVAME
   * @param ifl To indicate, which ephemeris should be used (SEFLG_MOSEPH
@@ -2589,8 +3388,8 @@ String slast_starname;
   * tret[9]:&nbsp;&nbsp;&nbsp;time, when annular-total eclipse becomes annular
   * again -- <I>Not yet implemented.</I>
   * </CODE></BLOCKQUOTE><P><B>Attention: tret must be a double[10]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_start The Julian Day number in UT, from when to start searching
 #ifdef JAVAME
   * @param ifl To indicate, which ephemeris should be used (SEFLG_MOSEPH
@@ -2675,8 +3474,8 @@ String slast_starname;
   * attr[6]:&nbsp;&nbsp;&nbsp;apparent altitude of sun above horizon at tjd.<BR>
   * attr[7]:&nbsp;&nbsp;&nbsp;elongation of moon in degrees.<BR>
   * </CODE><P><B>Attention: attr must be a double[20]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_start The Julian Day number in UT, from when to start searching
 #ifdef JAVAME
   * @param ifl To indicate, which ephemeris should be used (SEFLG_MOSEPH
@@ -2766,8 +3565,8 @@ String slast_starname;
   * attr[7]:&nbsp;&nbsp;&nbsp;angular distance of moon from sun in degrees
   * </CODE></BLOCKQUOTE><P><B>ATTENTION: geopos must be a double[10], attr
   * a double[20]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut The Julian Day number in UT
 #ifdef JAVAME
   * @param ifl To indicate, which ephemeris should be used (SEFLG_MOSEPH
@@ -2865,8 +3664,8 @@ String slast_starname;
   * attr[6]:&nbsp;&nbsp;&nbsp;apparent altitude of sun above horizon at tjd.<BR>
   * attr[7]:&nbsp;&nbsp;&nbsp;elongation of moon in degrees.<BR>
   * </CODE><P><B>Attention: attr must be a double[20]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_start The Julian Day number in UT, from when to start searching
   * @param ipl Planet number of the occulted planet. See SE_SUN etc. for the
   * planet numbers.
@@ -2997,8 +3796,8 @@ String slast_starname;
   * @param starname The fixstar, whose occultation by the moon should be
   * searched. See swe_fixstar() for details. It has to be null or the empty
   * string, if a planet (see parameter ipl) is to be searched.<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
 #ifdef JAVAME
   * @param ifl To indicate, which ephemeris should be used (SEFLG_MOSEPH
   * only for JavaME)
@@ -3121,8 +3920,8 @@ String slast_starname;
   * tret[9]:&nbsp;&nbsp;&nbsp;time, when annular-total eclipse becomes annular
   * again -- <I>Not yet implemented.</I>
   * </CODE></BLOCKQUOTE><P><B>Attention: tret must be a double[10]!</B><br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_start The Julian Day number in UT, from when to start searching
   * @param ipl planet number of occulted body
   * @param starname name of occulted star. Must be null or &quot;&quot;, if
@@ -3475,6 +4274,101 @@ String slast_starname;
     return sh.swe_houses(tjd_ut, iflag, geolat, geolon, hsys, cusp, ascmc, aOffs);
   }
 
+  /**
+  * Calculates the houses for a series of dates with a constant step,
+  * e.g. for every minute of a day, in one call. The results are written
+  * into preallocated arrays, one row per date, and no objects are created
+  * per date.<p>
+  * Obliquity, nutation and sidereal time are calculated at dates at most
+  * 1.5 hours apart only, and the ARMC is advanced by a constant increment
+  * per step in between. The error of the ARMC is about 0.0005 arc seconds
+  * then, which is the rounding error of the Julian Day number itself, but
+  * it may be magnified in the house cusps near the polar circles. At the
+  * dates of the full calculation, i.e. at every date, if the step is 1.5
+  * hours or more, the results are identical to swe_houses(). Sidereal
+  * houses are calculated by swe_houses() for every date.
+  * @param tjd_ut The Julian Day number in UT of the first date
+  * @param step The interval between two dates in days; may be negative
+  * @param count The number of dates
+  * @param iflag An additional flag for calculation, see swe_houses()
+  * @param geolat The latitude on earth
+  * @param geolon The longitude on earth
+  * @param hsys The house system as a character given as an integer
+  * @param cusp (double[count][13], or double[count][37] for Gauquelin
+  * sectors) Receives the house cusps of date i in cusp[i][1...12]
+  * @param ascmc (double[count][10]) Receives the ascendant etc. of date i
+  * in ascmc[i] as described in swe_houses()
+  * @param retflags Receives the return value of swe_houses() for each
+  * date, or null
+  * @return SweConst.OK, or SweConst.ERR, if the calculation of any date
+  * was not possible in the requested house system. See swe_houses().
+  * @throws IllegalArgumentException if count is negative or any array
+  * has less than count rows
+  * @see #swe_houses(double, int, double, double, int, double[], double[])
+  */
+  public int calcHousesSeries(double tjd_ut, double step, int count,
+                              int iflag, double geolat, double geolon,
+                              int hsys, double[][] cusp, double[][] ascmc,
+                              int[] retflags) {
+    if (sh==null) {
+      sh=new SweHouse(sl, this, swed);
+    }
+    return sh.swe_houses_series(tjd_ut, step, count, iflag, geolat, geolon,
+                                hsys, cusp, ascmc, retflags);
+  }
+
+  /**
+  * Calculates the houses for one date at every point of a grid of
+  * latitudes and longitudes, e.g. for relocation maps, in one call.
+  * The results are identical to calling swe_houses() for each point.<p>
+  * Sidereal time, obliquity and nutation are calculated once for the
+  * date, so only the house system itself is calculated per point. The
+  * rows of the grid (one latitude each) are calculated in parallel on
+  * the common ForkJoinPool. Sidereal houses are calculated by
+  * swe_houses() for every point in the calling thread.<p>
+  * The results are written into flat arrays, row by row: the point of
+  * lats[i] and lons[j] has the index c = i * lons.length + j, its house
+  * cusps are in cusp[c * 13 + 1] to cusp[c * 13 + 12] (cusp[c * 37 + 1]
+  * to cusp[c * 37 + 36] for Gauquelin sectors), and its ascendant etc.
+  * are in ascmc[c * 10] to ascmc[c * 10 + 9] as described in swe_houses().
+  * @param tjd_ut The Julian Day number in UT
+  * @param iflag An additional flag for calculation, see swe_houses()
+  * @param lats The latitudes of the rows of the grid
+  * @param lons The longitudes of the columns of the grid
+  * @param hsys The house system as a character given as an integer
+  * @param cusp Receives the house cusps, 13 (or 37) doubles per point
+  * @param ascmc Receives the ascendant etc., 10 doubles per point
+  * @param retflags Receives the return value of swe_houses() for each
+  * point, or null
+  * @return SweConst.OK, or SweConst.ERR, if the calculation of any point
+  * was not possible in the requested house system. See swe_houses().
+  * @throws IllegalArgumentException if any array is too small for the
+  * grid
+  * @see #swe_houses(double, int, double, double, int, double[], double[])
+  */
+  public int calcHousesGrid(double tjd_ut, int iflag, double[] lats,
+                            double[] lons, int hsys, double[] cusp,
+                            double[] ascmc, int[] retflags) {
+    if (sh==null) {
+      sh=new SweHouse(sl, this, swed);
+    }
+    return sh.swe_houses_grid(tjd_ut, iflag, lats, lons, hsys, cusp, ascmc,
+                              retflags);
+  }
+
+#ifdef TRANSITS
+  // Returns ascmc[which] of swe_houses() for tropical positions without
+  // calculating the house cusps, or NaN, if it depends on the house system.
+  // armcEps gets ARMC and obliquity, if it is not null.
+  double swe_houses_point(double tjd_ut, double geolat, double geolon,
+                          int which, double[] armcEps) {
+    if (sh==null) {
+      sh=new SweHouse(sl, this, swed);
+    }
+    return sh.swe_houses_point(tjd_ut, geolat, geolon, which, armcEps);
+  }
+#endif /* TRANSITS */
+
 #ifdef TRANSITS
 #ifdef TEST_ITERATIONS
   /**
@@ -3503,28 +4397,32 @@ String slast_starname;
 #endif /* TEST_ITERATIONS */
 
   /**
-  * -- NOT YET IMPLEMENTED -- File to read from and write to the maximum and minimum speeds of planets
+  * File to read from and write to the maximum and minimum speeds of planets
   * and other objects.<br>
-  * If the maximum and minimum speeds of a transit object is not know, the
-  * routines calculate some number of random speeds to get an idea of the
-  * extreme speeds. This is necessary, as one cannot find out about transits,
-  * if one doesn't have some idea about their movements.<br>
-  * If the transit speeds file is set, the transit routines will read the
-  * extreme speeds from this file and write findings due to the random
-  * calculations done on initialization of the TransitCalculator to this
-  * file, so the results may become more reliable and the calculations
-  * faster.<br>
-  * This method throws IOException if the file cannot be read (or found) or
-  * isn't writeable, if param <code>writeable</code> is true.
-  * @param fname The filename to be used. It should be writable, so the
-  * extreme speed values can be further improved.
-  * @param writeable Say true here, if the file should be improved by newly
+  * If the maximum and minimum speeds of a transit object is not known, the
+  * routines calculate the speeds at some number of dates to get an idea of
+  * the extreme speeds. This is necessary, as one cannot find out about
+  * transits, if one doesn't have some idea about their movements.<br>
+  * The results are kept for all TransitCalculators in this JVM. If the
+  * transit speeds file is set, the extreme speeds are read from this file,
+  * so the calculations on creation of the TransitCalculators are not
+  * necessary anymore. If the file is writeable, all newly calculated
+  * extreme speeds are written to this file. The file is replaced as a
+  * whole, so it is never read partially written.<br>
+  * This setting is valid for all SwissEph objects in this JVM.<br>
+  * This method throws SwissephException if the file cannot be read, or if
+  * it does not exist and <code>writeable</code> is false.<br>
+  * JavaME builds have no file access, so this method does nothing there.
+  * @param fname The filename to be used or null to stop using a file.
+  * @param writeable Say true here, if the file should be extended by newly
   * calculated values, false otherwise. It will be a good idea to keep it
   * writeable.
+  * @see TransitSpeeds
   */
-  public void setTransitSpeedsfile(String fname, boolean writeable)
-// throws IOException
-{
+  public void setTransitSpeedsfile(String fname, boolean writeable) {
+#ifndef JAVAME
+    TransitSpeeds.setFile(fname, writeable);
+#endif /* JAVAME */
   }
 
   /**
@@ -3572,8 +4470,8 @@ String slast_starname;
          throws IllegalArgumentException, SwissephException {
     if (ext==null) { ext=new Extensions(this); }
     boolean calcUT = (tc instanceof TCHouses);
-    return ext.getTransit(tc, jdET - (calcUT ? SweDate.getDeltaT(jdET) : 0), backwards, jdLimit) +
-            (calcUT ? SweDate.getDeltaT(jdET) : 0);
+    return ext.getTransit(tc, jdET - (calcUT ? SweDate.getDeltaT(jdET, swed) : 0), backwards, jdLimit) +
+            (calcUT ? SweDate.getDeltaT(jdET, swed) : 0);
   }
   /**
   * Searches for the next or previous transit of a planet over a specified
@@ -3600,10 +4498,10 @@ String slast_starname;
     boolean calcUT = (tc instanceof TCHouses);
     double jdET = ext.getTransit(
                           tc,
-                          jdUT + (calcUT ? 0 : SweDate.getDeltaT(jdUT)),
+                          jdUT + (calcUT ? 0 : SweDate.getDeltaT(jdUT, swed)),
                           backwards,
                           (backwards?-Double.MAX_VALUE:Double.MAX_VALUE));
-    return jdET - (calcUT ? 0 : SweDate.getDeltaT(jdET));
+    return jdET - (calcUT ? 0 : SweDate.getDeltaT(jdET, swed));
   }
   /**
   * Searches for the next or previous transit of a planet over a specified
@@ -3633,10 +4531,121 @@ String slast_starname;
     if (ext==null) { ext=new Extensions(this); }
     double jdET = ext.getTransit(
                           tc,
-                          jdUT + SweDate.getDeltaT(jdUT),
+                          jdUT + SweDate.getDeltaT(jdUT, swed),
                           backwards,
-                          jdLimit + SweDate.getDeltaT(jdLimit));
-    return jdET - SweDate.getDeltaT(jdET);
+                          jdLimit + SweDate.getDeltaT(jdLimit, swed));
+    return jdET - SweDate.getDeltaT(jdET, swed);
+  }
+
+  /**
+  * Enumerates all transits of a planet over a specified longitude,
+  * latitude, distance or speed value between two dates in one sweep.
+  * Dates are interpreted as ET (=UT&nbsp;+&nbsp;deltaT).<p>
+  * The transits are calculated one by one, when they are requested from
+  * the returned TransitIterator. Each search continues from the last
+  * calculated date, so this is much faster than calling getTransitET()
+  * in a loop.<p>
+  * @param tc The TransitCalculator that should be used here.
+  * @param jdStartET The date (and time) in ET, from where to start
+  * searching.
+  * @param jdEndET The date (and time) in ET, where to stop searching. If
+  * it is before jdStartET, the search is performed backwards.
+  * @return A TransitIterator returning the dates of the transits as ET.
+  * @see swisseph.TransitIterator
+  * @see #getTransitET(TransitCalculator, double, boolean, double)
+  */
+  public TransitIterator getTransitsET(TransitCalculator tc,
+                                       double jdStartET, double jdEndET) {
+    if (ext==null) { ext=new Extensions(this); }
+    if (tc instanceof TCHouses) {
+      return new TransitIterator(ext, swed, tc,
+          jdStartET - SweDate.getDeltaT(jdStartET, swed),
+          jdEndET - SweDate.getDeltaT(jdEndET, swed),
+          TransitIterator.DATES_UT_TO_ET);
+    }
+    return new TransitIterator(ext, swed, tc, jdStartET, jdEndET,
+        TransitIterator.DATES_AS_IS);
+  }
+
+  /**
+  * Enumerates all transits of a planet over a specified longitude,
+  * latitude, distance or speed value between two dates in one sweep.
+  * Dates are interpreted as UT (=ET&nbsp;-&nbsp;deltaT).<p>
+  * The transits are calculated one by one, when they are requested from
+  * the returned TransitIterator. Each search continues from the last
+  * calculated date, so this is much faster than calling getTransitUT()
+  * in a loop.<p>
+  * @param tc The TransitCalculator that should be used here.
+  * @param jdStartUT The date (and time) in UT, from where to start
+  * searching.
+  * @param jdEndUT The date (and time) in UT, where to stop searching. If
+  * it is before jdStartUT, the search is performed backwards.
+  * @return A TransitIterator returning the dates of the transits as UT.
+  * @see swisseph.TransitIterator
+  * @see #getTransitUT(TransitCalculator, double, boolean, double)
+  */
+  public TransitIterator getTransitsUT(TransitCalculator tc,
+                                       double jdStartUT, double jdEndUT) {
+    if (ext==null) { ext=new Extensions(this); }
+    if (tc instanceof TCHouses) {
+      return new TransitIterator(ext, swed, tc, jdStartUT, jdEndUT,
+          TransitIterator.DATES_AS_IS);
+    }
+    return new TransitIterator(ext, swed, tc,
+        jdStartUT + SweDate.getDeltaT(jdStartUT, swed),
+        jdEndUT + SweDate.getDeltaT(jdEndUT, swed),
+        TransitIterator.DATES_ET_TO_UT);
+  }
+
+  /**
+  * Enumerates all exact aspects between all pairs of the given planets
+  * between two dates in one sweep. Dates are interpreted as ET
+  * (=UT&nbsp;+&nbsp;deltaT).<p>
+  * An aspect is found, when the difference of the longitudes of two
+  * planets equals an aspect angle or 360 degrees minus the aspect angle.
+  * The positions of all planets are calculated only once per time step
+  * for all pairs and aspects, so this is much faster than searching
+  * the aspects of each pair with a TCPlanetPlanet.<p>
+  * @param planets The planet numbers as in swe_calc().
+  * @param aspects The aspect angles in degrees, e.g. 0, 60, 90, 120, 180.
+  * @param flags The calculation flags as in swe_calc(). SEFLG_SPEED is
+  * added automatically.
+  * @param jdStartET The date (and time) in ET, from where to start
+  * searching.
+  * @param jdEndET The date (and time) in ET, where to stop searching.
+  * @return An AspectScanner returning the aspects with dates as ET.
+  * @see swisseph.AspectScanner
+  * @see swisseph.TCPlanetPlanet
+  */
+  public AspectScanner getAspectsET(int[] planets, double[] aspects,
+                                    int flags, double jdStartET,
+                                    double jdEndET) {
+    return new AspectScanner(this, swed, planets, aspects, flags,
+        jdStartET, jdEndET, TransitIterator.DATES_AS_IS);
+  }
+
+  /**
+  * Enumerates all exact aspects between all pairs of the given planets
+  * between two dates in one sweep. Dates are interpreted as UT
+  * (=ET&nbsp;-&nbsp;deltaT).<p>
+  * @param planets The planet numbers as in swe_calc().
+  * @param aspects The aspect angles in degrees, e.g. 0, 60, 90, 120, 180.
+  * @param flags The calculation flags as in swe_calc(). SEFLG_SPEED is
+  * added automatically.
+  * @param jdStartUT The date (and time) in UT, from where to start
+  * searching.
+  * @param jdEndUT The date (and time) in UT, where to stop searching.
+  * @return An AspectScanner returning the aspects with dates as UT.
+  * @see swisseph.AspectScanner
+  * @see #getAspectsET(int[], double[], int, double, double)
+  */
+  public AspectScanner getAspectsUT(int[] planets, double[] aspects,
+                                    int flags, double jdStartUT,
+                                    double jdEndUT) {
+    return new AspectScanner(this, swed, planets, aspects, flags,
+        jdStartUT + SweDate.getDeltaT(jdStartUT, swed),
+        jdEndUT + SweDate.getDeltaT(jdEndUT, swed),
+        TransitIterator.DATES_ET_TO_UT);
   }
 #endif /* TRANSITS */
 //////////////////////////////////////////////////////////////////////////////
@@ -3679,72 +4688,89 @@ String slast_starname;
     String serr2="";
 
     if (serr!=null) { serr.setLength(0); }
-    /******************************************
-     * iflag plausible?                       *
-     ******************************************/
-     iflag = plaus_iflag(iflag, ipl, tjd, serr);
-    /******************************************
-     * which ephemeris is wanted, which is used?
+    if (batch_active && batch_flags_valid && ipl == batch_ipl &&
+        iflag == batch_iflag_in) {
+      /* same body and flags as before in this batch, the flags have
+       * been checked already, see calc_batch() */
+      iflag = batch_iflag;
+      epheflag = batch_epheflag;
+    } else {
+      int iflag_in = iflag;
+      /******************************************
+       * iflag plausible?                       *
+       ******************************************/
+      iflag = plaus_iflag(iflag, ipl, tjd, serr);
+      /******************************************
+       * which ephemeris is wanted, which is used?
 #ifdef JAVAME
-     * Only one ephemeride is possible: MOSEPH.
+       * Only one ephemeride is possible: MOSEPH.
 #else
-     * Three ephemerides are possible: MOSEPH, SWIEPH, JPLEPH.
-     * JPLEPH is best, SWIEPH is nearly as good, MOSEPH is least precise.
-#endif /* JAVAME */
-     * The availability of the various ephemerides depends on the installed
-     * ephemeris files in the users ephemeris directory. This can change at
-     * any time.
-     * Swisseph should try to fulfil the wish of the user for a specific
-     * ephemeris, but use a less precise one if the desired ephemeris is not
-     * available for the given date and body.
-     * If internal ephemeris errors are detected (data error, file length error)
-     * an error is returned.
-     * If the time range is bad but another ephemeris can deliver this range,
-     * the other ephemeris is used.
-     * If no ephemeris is specified, DEFAULTEPH is assumed as desired.
+       * Three ephemerides are possible: MOSEPH, SWIEPH, JPLEPH.
+       * JPLEPH is best, SWIEPH is nearly as good, MOSEPH is least precise.
+#endif /* JAVAME */
+       * The availability of the various ephemerides depends on the installed
+       * ephemeris files in the users ephemeris directory. This can change at
+       * any time.
+       * Swisseph should try to fulfil the wish of the user for a specific
+       * ephemeris, but use a less precise one if the desired ephemeris is not
+       * available for the given date and body.
+       * If internal ephemeris errors are detected (data error, file length error)
+       * an error is returned.
+       * If the time range is bad but another ephemeris can deliver this range,
+       * the other ephemeris is used.
+       * If no ephemeris is specified, DEFAULTEPH is assumed as desired.
 #ifdef JAVAME
-     * DEFAULTEPH is defined at compile time, with JavaME it is MOSEPH always.
+       * DEFAULTEPH is defined at compile time, with JavaME it is MOSEPH always.
 #else
-     * DEFAULTEPH is defined at compile time, usually as SWIEPH.
+       * DEFAULTEPH is defined at compile time, usually as SWIEPH.
 #endif /* JAVAME */
-     * The caller learns from the return flag which ephemeris was used.
-     * ephe_flag is extracted from iflag, but can change later if the
-     * desired ephe is not available.
-     ******************************************/
-    if ((iflag & SweConst.SEFLG_MOSEPH)!=0) {
-      epheflag = SweConst.SEFLG_MOSEPH;
-    }
+       * The caller learns from the return flag which ephemeris was used.
+       * ephe_flag is extracted from iflag, but can change later if the
+       * desired ephe is not available.
+       ******************************************/
+      if ((iflag & SweConst.SEFLG_MOSEPH)!=0) {
+        epheflag = SweConst.SEFLG_MOSEPH;
+      }
 #ifndef JAVAME
-    if ((iflag & SweConst.SEFLG_SWIEPH)!=0) {
-      epheflag = SweConst.SEFLG_SWIEPH;
-    }
-    if ((iflag & SweConst.SEFLG_JPLEPH)!=0) {
-      epheflag = SweConst.SEFLG_JPLEPH;
-    }
-#endif /* JAVAME */
-    /* no barycentric calculations with Moshier ephemeris */
-    if (((iflag & SweConst.SEFLG_BARYCTR)!=0) &&
-        ((iflag & SweConst.SEFLG_MOSEPH)!=0)) {
-      if (serr != null) {
-        serr.append("barycentric Moshier positions are not supported.");
+      if ((iflag & SweConst.SEFLG_SWIEPH)!=0) {
+        epheflag = SweConst.SEFLG_SWIEPH;
+      }
+      if ((iflag & SweConst.SEFLG_JPLEPH)!=0) {
+        epheflag = SweConst.SEFLG_JPLEPH;
       }
+#endif /* JAVAME */
+      /* no barycentric calculations with Moshier ephemeris */
+      if (((iflag & SweConst.SEFLG_BARYCTR)!=0) &&
+          ((iflag & SweConst.SEFLG_MOSEPH)!=0)) {
+        if (serr != null) {
+          serr.append("barycentric Moshier positions are not supported.");
+        }
 #ifdef TRACE0
-      Trace.level--;
+        Trace.level--;
 #endif /* TRACE0 */
-      throw new SwissephException(tjd, SwissephException.INVALID_PARAMETER_COMBINATION,
-          SweConst.ERR, serr);
-    }
+        throw new SwissephException(tjd, SwissephException.INVALID_PARAMETER_COMBINATION,
+            SweConst.ERR, serr);
+      }
 #ifdef JAVAME
-    if (epheflag != SweConst.SEFLG_MOSEPH && !swed.ephe_path_is_set) {
-      swe_set_ephe_path(null);
-    }
+      if (epheflag != SweConst.SEFLG_MOSEPH && !swed.ephe_path_is_set) {
+        swe_set_ephe_path(null);
+      }
 #else
-    if (epheflag != SweConst.SEFLG_MOSEPH && !swed.ephe_path_is_set && !swed.jpl_file_is_open) {
-      swe_set_ephe_path(null);
-    }
+      if (epheflag != SweConst.SEFLG_MOSEPH && !swed.ephe_path_is_set && !swed.jpl_file_is_open) {
+        swe_set_ephe_path(null);
+      }
 #endif /* JAVAME */
-    if ((iflag & SweConst.SEFLG_SIDEREAL)!=0 && !swed.ayana_is_set) {
-      swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0, 0);
+      if ((iflag & SweConst.SEFLG_SIDEREAL)!=0 && !swed.ayana_is_set) {
+        swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0, 0);
+      }
+      /* with SEFLG_JPLHOR, the flags depend on tjd as well */
+      if (batch_active && (iflag_in & SweConst.SEFLG_JPLHOR) == 0) {
+        batch_ipl = ipl;
+        batch_iflag_in = iflag_in;
+        batch_iflag = iflag;
+        batch_epheflag = epheflag;
+        batch_flags_valid = true;
+      }
     }
     /******************************************
      * obliquity of ecliptic 2000 and of date *
@@ -5609,6 +6635,10 @@ String slast_starname;
 // NBT
         }
         fdp.fptr = null;
+        if (fdp.flat != null) {
+          fdp.flat.close();
+          fdp.flat = null;
+        }
 //        if (pdp.refep != null) {
           pdp.refep = null;
 //        }
@@ -5685,6 +6715,7 @@ System.err.println(e);
 #endif /* TRACE0 */
         return(retc);
       }
+      fdp.flat = FlatEphemeris.open(fdp, swed);
     }
     /* if first ephemeris file (J-3000), it might start a mars period
      * after -3000. if last ephemeris file (J3000), it might end a
@@ -6006,6 +7037,20 @@ System.err.println(e);
    * iflag        flags
    * serr         error string
    */
+  /* work arrays of app_pos_etc_plan(), app_pos_etc_sun(),
+   * app_pos_etc_moon(), swi_aberr_light() and swi_deflect_light(),
+   * which are used for every planet */
+  private double appos_xx[]=new double[6], appos_dx[]=new double[3];
+  private double appos_xobs[]=new double[6], appos_xobs2[]=new double[6];
+  private double appos_xearth[]=new double[6], appos_xsun[]=new double[6];
+  private double appos_xxsp[]=new double[6], appos_xxsv[]=new double[6];
+  private double aberr_xxs[]=new double[6], aberr_v[]=new double[6];
+  private double aberr_u[]=new double[6], aberr_xx2[]=new double[6];
+  private double defl_xx2[]=new double[6], defl_xx3[]=new double[6];
+  private double defl_u[]=new double[6], defl_e[]=new double[6];
+  private double defl_q[]=new double[6], defl_xsun[]=new double[6];
+  private double defl_xearth[]=new double[6];
+
   int app_pos_etc_plan(int ipli, int iflag, StringBuffer serr) {
 #ifdef TRACE0
     Trace.level++;
@@ -6020,15 +7065,20 @@ System.err.println(e);
 #endif /* JAVAME */
     int ifno, ibody;
     int flg1, flg2;
-    double xx[]=new double[6], dx[]=new double[3], dt, t, dtsave_for_defl;
-    double xobs[]=new double[6], xobs2[]=new double[6];
-    double xearth[]=new double[6], xsun[]=new double[6];
-    double xxsp[]=new double[6], xxsv[]=new double[6];
+    double xx[]=appos_xx, dx[]=appos_dx, dt, t, dtsave_for_defl;
+    double xobs[]=appos_xobs, xobs2[]=appos_xobs2;
+    double xearth[]=appos_xearth, xsun[]=appos_xsun;
+    double xxsp[]=appos_xxsp, xxsv[]=appos_xxsv;
     PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
     PlanData pdp;
     Epsilon oe = swed.oec2000;
     int epheflag = iflag & SweConst.SEFLG_EPHMASK;
     t = dtsave_for_defl = 0;      /* dummy assignment to silence gcc */
+    /* the work arrays have to start with 0 like new arrays */
+    for (i = 0; i <= 5; i++) {
+      xx[i] = xobs[i] = xobs2[i] = xearth[i] = xsun[i] = xxsp[i] = xxsv[i] = 0;
+    }
+    dx[0] = dx[1] = dx[2] = 0;
     /* ephemeris file */
     if (ipli > SweConst.SE_AST_OFFSET) {
       ifno = SwephData.SEI_FILE_ANY_AST;
@@ -6525,7 +7575,7 @@ swi_polcart(xx, xx);
 #endif /* ASTROLOGY */
       /* traditional algorithm */
         sl.swi_cartpol_sp(pdp.xreturn, 6, pdp.xreturn, 0);
-        pdp.xreturn[0] -= swe_get_ayanamsa(pdp.teval) * SwissData.DEGTORAD;
+        pdp.xreturn[0] -= get_ayanamsa(pdp.teval) * SwissData.DEGTORAD;
         sl.swi_polcart_sp(pdp.xreturn, 0, pdp.xreturn, 6);
 #ifndef ASTROLOGY
       }
@@ -7047,8 +8097,8 @@ swi_polcart(xx, xx);
 #endif /* TRACE1 */
 #endif /* TRACE0 */
     int i;
-    double xxs[]=new double[6], v[]=new double[6], u[]=new double[6], ru;
-    double xx2[]=new double[6], dx1, dx2;
+    double xxs[]=aberr_xxs, v[]=aberr_v, u[]=aberr_u, ru;
+    double xx2[]=aberr_xx2, dx1, dx2;
     double b_1, f1, f2;
     double v2;
     double intv = SwephData.PLAN_SPEED_INTV;
@@ -7107,13 +8157,13 @@ swi_polcart(xx, xx);
 #endif /* TRACE1 */
 #endif /* TRACE0 */
     int i;
-    double xx2[]=new double[6];
-    double u[]=new double[6], e[]=new double[6], q[]=new double[6];
+    double xx2[]=defl_xx2;
+    double u[]=defl_u, e[]=defl_e, q[]=defl_q;
     double ru, re, rq, uq, ue, qe, g1, g2;
 #if 1
-    double xx3[]=new double[6], dx1, dx2, dtsp;
+    double xx3[]=defl_xx3, dx1, dx2, dtsp;
 #endif /* 1 */
-    double xsun[]=new double[6], xearth[]=new double[6];
+    double xsun[]=defl_xsun, xearth[]=defl_xearth;
     double sina, sin_sunr, meff_fact;
     PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
     PlanData psdp = swed.pldat[SwephData.SEI_SUNBARY];
@@ -7318,11 +8368,16 @@ swi_polcart(xx, xx);
 #endif /* TRACE0 */
     int i, j, niter, retc = SweConst.OK;
     int flg1, flg2;
-    double xx[]=new double[6], xxsv[]=new double[6], dx[]=new double[3], dt, t = 0;
-    double xearth[]=new double[6], xsun[]=new double[6], xobs[]=new double[6];
+    double xx[]=appos_xx, xxsv[]=appos_xxsv, dx[]=appos_dx, dt, t = 0;
+    double xearth[]=appos_xearth, xsun[]=appos_xsun, xobs[]=appos_xobs;
     PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
     PlanData psdp = swed.pldat[SwephData.SEI_SUNBARY];
     Epsilon oe = swed.oec2000;
+    /* the work arrays have to start with 0 like new arrays */
+    for (i = 0; i <= 5; i++) {
+      xx[i] = xxsv[i] = xearth[i] = xsun[i] = xobs[i] = 0;
+    }
+    dx[0] = dx[1] = dx[2] = 0;
     /* if the same conversions have already been done for the same
      * date, then return */
     flg1 = iflag & ~SweConst.SEFLG_EQUATORIAL & ~SweConst.SEFLG_XYZ;
@@ -7574,15 +8629,19 @@ swi_polcart(xx, xx);
 #endif /* TRACE0 */
     int i;
     int flg1, flg2;
-    double xx[]=new double[6], xxsv[]=new double[6], xobs[]=new double[6],
-           xxm[]=new double[6], xs[]=new double[6], xe[]=new double[6],
-           xobs2[]=new double[6], dt;
+    double xx[]=appos_xx, xxsv[]=appos_xxsv, xobs[]=appos_xobs,
+           xxm[]=appos_xxsp, xs[]=appos_xsun, xe[]=appos_xearth,
+           xobs2[]=appos_xobs2, dt;
     PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
     PlanData psdp = swed.pldat[SwephData.SEI_SUNBARY];
     PlanData pdp = swed.pldat[SwephData.SEI_MOON];
     Epsilon oe = swed.oec;
     double t = 0;
     int retc;
+    /* the work arrays have to start with 0 like new arrays */
+    for (i = 0; i <= 5; i++) {
+      xx[i] = xxsv[i] = xobs[i] = xxm[i] = xs[i] = xe[i] = xobs2[i] = 0;
+    }
     /* if the same conversions have already been done for the same
      * date, then return */
     flg1 = iflag & ~SweConst.SEFLG_EQUATORIAL & ~SweConst.SEFLG_XYZ;
@@ -8642,7 +9701,7 @@ int refepyOffs;
         } else {
 #endif /* ASTROLOGY */
           sl.swi_cartpol_sp(ndp.xreturn, 6, ndp.xreturn, 0);
-          ndp.xreturn[0] -= swe_get_ayanamsa(ndp.teval) * SwissData.DEGTORAD;
+          ndp.xreturn[0] -= get_ayanamsa(ndp.teval) * SwissData.DEGTORAD;
           sl.swi_polcart_sp(ndp.xreturn, 0, ndp.xreturn, 6);
 #ifndef ASTROLOGY
         }
@@ -8801,7 +9860,7 @@ int refepyOffs;
 #endif /* ASTROLOGY */
       /* traditional algorithm */
         sl.swi_cartpol_sp(ndp.xreturn, 6, ndp.xreturn, 0); 
-        ndp.xreturn[0] -= swe_get_ayanamsa(ndp.teval) * SwissData.DEGTORAD;
+        ndp.xreturn[0] -= get_ayanamsa(ndp.teval) * SwissData.DEGTORAD;
         sl.swi_polcart_sp(ndp.xreturn, 0, ndp.xreturn, 6); 
         sl.swi_cartpol_sp(ndp.xreturn, 18, ndp.xreturn, 12);
 #ifndef ASTROLOGY
@@ -9354,113 +10413,36 @@ int refepyOffs;
 #ifdef TRACE0
     Trace.log("SwissEph.swe_fixstar_found(StringBuffer, String, StringBuffer, int, double, int, int, double[])");
 #endif /* TRACE0 */
+    double par[] = new double[7];
+    String name = FixstarCatalog.parsePosition(s, fline, swed.is_old_starfile,
+                                               par, serr);
+    if (name == null) {
+      return swe_fixstar_error(xx,SweConst.ERR);
+    }
+    // name of star:
+    star.setLength(0);
+    star.append(name);
+    return swe_fixstar_calc(par[0], par[1], par[2], par[3], par[4], par[5],
+                            par[6], serr, tjd, iflag, iflgsave, epheflag, xx);
+  }
+
+  // Calculates a star from the parsed data of the star file, see
+  // FixstarCatalog.parsePosition():
+  int swe_fixstar_calc(double epoch, double ra, double de, double ra_pm,
+                       double de_pm, double radv, double parall,
+                       StringBuffer serr, double tjd, int iflag, int iflgsave,
+                       int epheflag, double[] xx) {
     double xpo[] = null;
-    double ra_s, ra_pm, de_pm, ra, de, t, cosra, cosde, sinra, sinde;
-    double ra_h, ra_m, de_d, de_m, de_s;
-    String sde_d;
-    double epoch, radv, parall, u;
+    double t, cosra, cosde, sinra, sinde;
+    double u;
     double x[]=new double[6];
     double xxsv[]=new double[6];
     double xobs[]=new double[6];
-    int retc;
+    int i, retc;
     PlanData pedp = swed.pldat[SwephData.SEI_EARTH];
     PlanData psdp = swed.pldat[SwephData.SEI_SUNBARY];
     Epsilon oe = swed.oec2000;
 
-    String[] cpos=new String[20];
-    StringTokenizer tk=new StringTokenizer(s,",");
-    int i=tk.countTokens();
-    if(i<2) {
-      if (serr != null) {
-        serr.setLength(0);
-        serr.append("star file "+SweConst.SE_STARFILE+" damaged at line "+
-                                                                   fline);
-      }
-      return swe_fixstar_error(xx,SweConst.ERR);
-    }
-    int n=0;
-    while(tk.hasMoreTokens() && n<20) {
-      cpos[n++]=tk.nextToken();
-    }
-    cpos[0]=cpos[0].trim();
-    cpos[1]=cpos[1].trim();
-    if (i < 13) {
-      if (serr!=null) {
-        serr.setLength(0);
-        serr.append("data of star '"+cpos[0]+","+cpos[1]+"' incomplete");
-      }
-      return swe_fixstar_error(xx,SweConst.ERR);
-    }
-    // JAVA: Grrr: zumindest cpos[2] muss keine Zahl sein, aber es FAENGT
-    // moeglicherweise mit einer Zahl AN!!!
-    int idx=cpos[2].length();
-    while(true) {
-      try {
-        epoch = Double.valueOf(cpos[2].substring(0,idx)).doubleValue();
-        break;
-      } catch (NumberFormatException nf) {
-        idx--;
-        if (idx==0) { epoch=0.; break; }
-      }
-    }
-    ra_h = new Double(cpos[3]).doubleValue();
-    ra_m = new Double(cpos[4]).doubleValue();
-    ra_s = new Double(cpos[5]).doubleValue();
-    de_d = new Double(cpos[6]).doubleValue();
-    sde_d = cpos[6];
-    de_m = new Double(cpos[7]).doubleValue();
-    de_s = new Double(cpos[8]).doubleValue();
-    ra_pm = new Double(cpos[9]).doubleValue();
-    de_pm = new Double(cpos[10]).doubleValue();
-    radv = new Double(cpos[11]).doubleValue();
-    parall = new Double(cpos[12]).doubleValue();
-    /* return trad. name, nomeclature name */
-    if (cpos[0].length() > SweConst.SE_MAX_STNAME) {
-      cpos[0]=cpos[0].substring(0,SweConst.SE_MAX_STNAME);
-    }
-    if (cpos[1].length() > SweConst.SE_MAX_STNAME-1) {
-      cpos[1]=cpos[1].substring(0,SweConst.SE_MAX_STNAME-1);
-    }
-    // name of star:
-    star.setLength(0);
-    star.append(cpos[0]);
-    if (cpos[0].length() + cpos[1].length() + 1 < SweConst.SE_MAX_STNAME - 1)
-      star.append(","+cpos[1]);
-    /****************************************
-     * position and speed (equinox)
-     ****************************************/
-    /* ra and de in degrees */
-    ra = (ra_s / 3600.0 + ra_m / 60.0 + ra_h) * 15.0;
-    if (sde_d.indexOf('-') < 0) {
-      de = de_s / 3600.0 + de_m / 60.0 + de_d;
-    } else {
-      de = -de_s / 3600.0 - de_m / 60.0 + de_d;
-    }
-    /* speed in ra and de, degrees per century */
-    if (swed.is_old_starfile) {
-      ra_pm = ra_pm * 15 / 3600.0;
-      de_pm = de_pm / 3600.0;
-    } else {
-      ra_pm = ra_pm / 10.0 / 3600.0;
-      de_pm = de_pm / 10.0 / 3600.0;
-      parall /= 1000.0;
-    }
-    /* parallax, degrees */
-    if (parall > 1) {
-      parall = (1 / parall / 3600.0);
-    } else {
-      parall /= 3600;
-    }
-    /* radial velocity in AU per century */
-    radv *= SwephData.KM_S_TO_AU_CTY;
-    /*printf("ra=%.17f,de=%.17f,ma=%.17f,md=%.17f,pa=%.17f,rv=%.17f\n",ra,de,ra_pm,de_pm,parall,radv);*/
-    /* radians */
-    ra *= SwissData.DEGTORAD;
-    de *= SwissData.DEGTORAD;
-    ra_pm *= SwissData.DEGTORAD;
-    de_pm *= SwissData.DEGTORAD;
-    ra_pm /= SMath.cos(de); /* catalogues give proper motion in RA as great circle */
-    parall *= SwissData.DEGTORAD;
     x[0] = ra;
     x[1] = de;
     x[2] = 1;     /* -> unit vector */
@@ -9807,7 +10789,6 @@ if (false) {
     int star_nr = 0;
     boolean  isnomclat = false;
     int cmplen;
-    String[] cpos = new String[20];
     String sstar;
     String fstar;
     String s="", sp;
@@ -9817,6 +10798,9 @@ if (false) {
     mag[0] = 0;
     if (serr != null)
       serr.setLength(0);
+    if (fixstarCatalog != null) {
+      return swe_fixstar_mag_catalog(fixstarCatalog, star, mag, serr);
+    }
     /******************************************************
      * Star file
      * close to the beginning, a few stars selected by Astrodienst.
@@ -9920,68 +10904,63 @@ if (false) {
 #endif /* NIO */
     }
     if (s == null) {
-#ifdef ORIGINAL
-      String errmsg = "";
-      if (serr != null) {	// Here, serr is just a flag, if some message is to be returned or not
-        serr.setLength(0);
-        serr.append("star  not found");
-        if (serr.length() + star.length() < SwissData.AS_MAXCH) {
-          serr.setLength(0);
-          serr.append("star "+star+" not found");
-        }
-        errmsg = serr.toString();
-      }
-#else
-      String errmsg = "star "+star+" not found";
-#endif
       mag[0] = 0;
-      throw new SwissephException(0./0.,
-          SwissephException.UNSUPPORTED_OBJECT,
-          retc,
-          errmsg);
+      throw swe_fixstar_mag_not_found(star, serr);
     }
-    i = sl.swi_cutstr(s, ",", cpos, 20);
-    cpos[0] = cpos[0].trim();
-    cpos[1] = cpos[1].trim();
-    if (i < 13) {
-      String errmsg = "data of star '" + cpos[0] + "," + cpos[1] + "' incomplete";
+    mag[0] = FixstarCatalog.parseMagnitude(sl, s, fline, star, serr);
+    return SweConst.OK;
+  }
+
+  private SwissephException swe_fixstar_mag_not_found(StringBuffer star,
+                                                    StringBuffer serr) {
 #ifdef ORIGINAL
-      if (serr != null) {
+    String errmsg = "";
+    if (serr != null) {	// Here, serr is just a flag, if some message is to be returned or not
+      serr.setLength(0);
+      serr.append("star  not found");
+      if (serr.length() + star.length() < SwissData.AS_MAXCH) {
         serr.setLength(0);
-        serr.append("data of star incomplete");
-        if (serr.length() + cpos[0].length() + cpos[1].length() + 2 < SwissData.AS_MAXCH) {
-          serr.setLength(0);
-          serr.append("data of star '" + cpos[0] + "," + cpos[1] + "' incomplete");
-        }
+        serr.append("star "+star+" not found");
       }
       errmsg = serr.toString();
-#endif /* ORIGINAL */
-      throw new SwissephException(0./0.,
-          SwissephException.DAMAGED_FILE_ERROR,
-          retc,
-          errmsg);
     }
-    try {
-      mag[0] = Double.parseDouble(cpos[13].trim());
-    } catch (NumberFormatException nfe) {
+#else
+    String errmsg = "star "+star+" not found";
+#endif
+    return new SwissephException(0./0.,
+        SwissephException.UNSUPPORTED_OBJECT,
+        SweConst.ERR,
+        errmsg);
+  }
+
+  // Returns the magnitude of a star of the compiled catalog:
+  private int swe_fixstar_mag_catalog(FixstarCatalog cat, StringBuffer star,
+                                      double[] mag, StringBuffer serr)
+      throws SwissephException {
+    int idx = cat.find(star.toString());
+    if (idx == FixstarCatalog.EMPTY) {
+      throw new SwissephException(0./0.,
+          SwissephException.UNSUPPORTED_OBJECT,
+          SweConst.ERR,
+          "swe_fixstar_mag(): star name empty");
+    } else if (idx == FixstarCatalog.DAMAGED) {
       throw new SwissephException(0./0.,
           SwissephException.DAMAGED_FILE_ERROR,
-          retc,
-          "star file " + SweConst.SE_STARFILE + " damaged at line " + fline + ": field 13 is not a double");
+          SweConst.ERR,
+          "star file " + SweConst.SE_STARFILE + " damaged at line " +
+          cat.flines[cat.firstDamaged]);
+    } else if (idx < 0) {
+      throw swe_fixstar_mag_not_found(star, serr);
+    }
+    if ((cat.flags[idx] & FixstarCatalog.MAG_OK) == 0) {
+      // Throws the exception of the damaged line:
+      mag[0] = FixstarCatalog.parseMagnitude(sl, cat.lines[idx],
+                                             cat.flines[idx], star, serr);
+      return SweConst.OK;
     }
-    /* return trad. name, nomeclature name */
-    if (cpos[0].length() > SweConst.SE_MAX_STNAME)
-      cpos[0] = cpos[0].substring(0, SweConst.SE_MAX_STNAME);
-    if (cpos[1].length() > SweConst.SE_MAX_STNAME)
-      cpos[1] = cpos[1].substring(0, SweConst.SE_MAX_STNAME);
+    mag[0] = cat.mag[idx];
     star.setLength(0);
-#ifdef ORIGINAL
-    star.append(cpos[0]);
-    if (cpos[0].length() + cpos[1].length() + 1 < SweConst.SE_MAX_STNAME - 1)
-      star.append("," + cpos[1]);
-#else
-    star.append(cpos[0] + "," + cpos[1]);
-#endif /* ORIGINAL */
+    star.append(cat.magNames[idx]);
     return SweConst.OK;
   }
 
@@ -10082,7 +11061,7 @@ if (false) {
      * compute UT from ET. this UT will be slightly different
      * from the user's UT, but this difference is extremely small.
      */
-    delt = SweDate.getDeltaT(tjd);
+    delt = SweDate.getDeltaT(tjd, swed);
     tjd_ut = tjd - delt;
     if (swed.oec.teps == tjd && swed.nut.tnut == tjd) {
       eps = swed.oec.eps;
@@ -10176,8 +11155,8 @@ if (false) {
   /**
   * Returns the difference between local apparent and local mean time in
   * days. E = LAT - LMT<br>
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @param tjd_ut input date in julian days (UT)
   * @param E double[1], output value: the difference between the times
   * @param serr buffer for error message on output
@@ -10231,8 +11210,8 @@ if (false) {
 
 #ifndef JAVAME
   /**
-  * <b>ATTENTION: This method possibly (re-)sets a global parameter used
-  * in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
+  * <b>NOTE: This method possibly (re-)sets the tidal acceleration
+  * of this object used in calculation of delta T. See SweDate.setGlobalTidalAcc(double).</b>
   * @see SweDate#setGlobalTidalAcc(double)
   */
   private int open_jpl_file(double[] ss, String fname, String fpath, StringBuffer serr) {
@@ -10265,7 +11244,7 @@ if (false) {
     if (retc == SweConst.OK) {
       swed.jpldenum = sj.swi_get_jpl_denum();
       swed.jpl_file_is_open = true;
-      SweDate.swi_set_tid_acc(0, 0, swed.jpldenum);
+      SweDate.swi_set_tid_acc(0, 0, swed.jpldenum, this);
     }
     return retc;
   }
@@ -509,15 +509,15 @@ public class SwissLib
     Trace.log("SwissLib.swi_coortrf(double[], int, double[], int, double)");
 #endif /* TRACE0 */
     double sineps, coseps;
-    double x[]=new double[3];
+    double x0, x1, x2;
     sineps = SMath.sin(eps);
     coseps = SMath.cos(eps);
-    x[0] = xpo[oOffs];
-    x[1] = xpo[1+oOffs] * coseps + xpo[2+oOffs] * sineps;
-    x[2] = -xpo[1+oOffs] * sineps + xpo[2+oOffs] * coseps;
-    xpn[0+nOffs] = x[0];
-    xpn[1+nOffs] = x[1];
-    xpn[2+nOffs] = x[2];
+    x0 = xpo[oOffs];
+    x1 = xpo[1+oOffs] * coseps + xpo[2+oOffs] * sineps;
+    x2 = -xpo[1+oOffs] * sineps + xpo[2+oOffs] * coseps;
+    xpn[0+nOffs] = x0;
+    xpn[1+nOffs] = x1;
+    xpn[2+nOffs] = x2;
   }
 
   /*
@@ -542,13 +542,13 @@ public class SwissLib
     Trace.log("   nOffs: " + nOffs + "\n    sineps: " + Trace.fmtDbl(sineps) + "\n    coseps: " + Trace.fmtDbl(coseps));
 #endif /* TRACE1 */
 #endif /* TRACE0 */
-    double x[]=new double[3];
-    x[0] = xpo[0+oOffs];
-    x[1] = xpo[1+oOffs] * coseps + xpo[2+oOffs] * sineps;
-    x[2] = -xpo[1+oOffs] * sineps + xpo[2+oOffs] * coseps;
-    xpn[0+nOffs] = x[0];
-    xpn[1+nOffs] = x[1];
-    xpn[2+nOffs] = x[2];
+    double x0, x1, x2;
+    x0 = xpo[0+oOffs];
+    x1 = xpo[1+oOffs] * coseps + xpo[2+oOffs] * sineps;
+    x2 = -xpo[1+oOffs] * sineps + xpo[2+oOffs] * coseps;
+    xpn[0+nOffs] = x0;
+    xpn[1+nOffs] = x1;
+    xpn[2+nOffs] = x2;
 #ifdef TRACE0
     Trace.level--;
 #endif /* TRACE0 */
@@ -570,37 +570,37 @@ public class SwissLib
     Trace.log("SwissLib.swi_cartpol(double[], int, double[], int)");
 #endif /* TRACE0 */
     double rxy;
-    double ll[]=new double[3];
+    double ll0, ll1, ll2;
     if (x[0+xOffs] == 0 && x[1+xOffs] == 0 && x[2+xOffs] == 0) {
       l[0+lOffs] = l[1+lOffs] = l[2+lOffs] = 0;
       return;
     }
     rxy = x[0+xOffs]*x[0+xOffs] + x[1+xOffs]*x[1+xOffs];
-    ll[2] = SMath.sqrt(rxy + x[2+xOffs]*x[2+xOffs]);
+    ll2 = SMath.sqrt(rxy + x[2+xOffs]*x[2+xOffs]);
     rxy = SMath.sqrt(rxy);
 #if 0
     Real x0 = new Real(x[0+xOffs]);
-    Real ll0 = new Real(x[1+xOffs]);
-    ll0.atan2(x0);
-    if (ll0.lessThan(Real.ZERO)) {
-      ll0.add(Real.PI2);
+    Real r_ll0 = new Real(x[1+xOffs]);
+    r_ll0.atan2(x0);
+    if (r_ll0.lessThan(Real.ZERO)) {
+      r_ll0.add(Real.PI2);
     }
-    Real ll1 = new Real(x[2+xOffs]);
+    Real r_ll1 = new Real(x[2+xOffs]);
     Real r_rxy = new Real(rxy);
-    ll1.div(r_rxy);
-    ll1.atan();
-    ll[0] = ll0.toDouble();
-    ll[1] = ll1.toDouble();
+    r_ll1.div(r_rxy);
+    r_ll1.atan();
+    ll0 = r_ll0.toDouble();
+    ll1 = r_ll1.toDouble();
 #else
-    ll[0] = SMath.atan2(x[1+xOffs], x[0+xOffs]);
-    if (ll[0] < 0.0) {
-      ll[0] += SwephData.TWOPI;
+    ll0 = SMath.atan2(x[1+xOffs], x[0+xOffs]);
+    if (ll0 < 0.0) {
+      ll0 += SwephData.TWOPI;
     }
-    ll[1] = SMath.atan(x[2+xOffs] / rxy);
+    ll1 = SMath.atan(x[2+xOffs] / rxy);
 #endif /* 0 */
-    l[0+lOffs] = ll[0];
-    l[1+lOffs] = ll[1];
-    l[2+lOffs] = ll[2];
+    l[0+lOffs] = ll0;
+    l[1+lOffs] = ll1;
+    l[2+lOffs] = ll2;
   }
 
   /* conversion from polar (l[3]) to cartesian coordinates (x[3]).
@@ -616,17 +616,20 @@ public class SwissLib
 #ifdef TRACE0
     Trace.log("SwissLib.swi_polcart(double[], int, double[], int)");
 #endif /* TRACE0 */
-    double xx[]=new double[3];
+    double xx0, xx1, xx2;
     double cosl1;
     cosl1 = SMath.cos(l[lOffs+1]);
-    xx[0] = l[lOffs+2] * cosl1 * SMath.cos(l[lOffs]);
-    xx[1] = l[lOffs+2] * cosl1 * SMath.sin(l[lOffs]);
-    xx[2] = l[lOffs+2] * SMath.sin(l[lOffs+1]);
-    x[xOffs] = xx[0];
-    x[xOffs+1] = xx[1];
-    x[xOffs+2] = xx[2];
+    xx0 = l[lOffs+2] * cosl1 * SMath.cos(l[lOffs]);
+    xx1 = l[lOffs+2] * cosl1 * SMath.sin(l[lOffs]);
+    xx2 = l[lOffs+2] * SMath.sin(l[lOffs+1]);
+    x[xOffs] = xx0;
+    x[xOffs+1] = xx1;
+    x[xOffs+2] = xx2;
   }
 
+  /* work arrays of swi_cartpol_sp(), which is called for every position */
+  private double cartpol_xx[] = new double[6], cartpol_ll[] = new double[6];
+
   /* conversion of position and speed.
    * from cartesian (x[6]) to polar coordinates (l[6]).
    * x = l is allowed.
@@ -649,7 +652,7 @@ public class SwissLib
     Trace.log("   lOffs: " + lOffs);
 #endif /* TRACE1 */
 #endif /* TRACE0 */
-    double xx[]=new double[6], ll[]=new double[6];
+    double xx[]=cartpol_xx, ll[]=cartpol_ll;
     double rxy, coslon, sinlon, coslat, sinlat;
     /* zero position */
     if (x[0+xOffs] == 0 && x[1+xOffs] == 0 && x[2+xOffs] == 0) {
@@ -984,7 +987,7 @@ public class SwissLib
 
   /* precession matrix */
   private void pre_pmat(double tjd, double[] rp) {
-    double peqr[] = new double[3], pecl[] = new double[3], v[] = new double[3], w, eqx[] = new double[3];
+    double peqr[] = prec_peqr, pecl[] = prec_pecl, v[] = prec_v, w, eqx[] = prec_eqx;
     /*equator pole */
     pre_pequ(tjd, peqr);
     /* ecliptic pole */
@@ -1172,28 +1175,17 @@ public class SwissLib
    *
    */
 
-  private int precess_1(double[] R, double J, int direction, int prec_method) {
-    return precess_1(R, 0, J, direction, prec_method);
-  }
-  private int precess_1(double[] R, int rOffs, double J, int direction, int prec_method) {
+  /* Fills m with the precession matrix, see prec_apply(). */
+  private void precess_1(double J, int direction, int prec_method, double m[]) {
 #ifdef TRACE0
     Trace.level++;
-    Trace.log("SwissLib.swi_precess_1(double[], int, double, int, int)");
+    Trace.log("SwissLib.swi_precess_1(double, int, int, double[])");
 #ifdef TRACE1
-    Trace.logDblArr("R", R);
-    Trace.log("   rOffs: " + rOffs + "\n    J: " + Trace.fmtDbl(J) + "\n    direction: " + direction + "\n    prec_method: " + prec_method);
+    Trace.log("   J: " + Trace.fmtDbl(J) + "\n    direction: " + direction + "\n    prec_method: " + prec_method);
 #endif /* TRACE1 */
 #endif /* TRACE0 */
     double T, Z = 0, z = 0, TH = 0;
-    int i;
-    double x[] = new double[3];
     double sinth, costh, sinZ, cosZ, sinz, cosz, A, B;
-    if( J == SwephData.J2000 ) {
-#ifdef TRACE0
-      Trace.level--;
-#endif /* TRACE0 */
-      return(0);
-    }
     T = (J - SwephData.J2000)/36525.0;
     if (prec_method == SweConst.SEMOD_PREC_IAU_1976) {
       Z =  (( 0.017998*T + 0.30188)*T + 2306.2181)*T*SwissData.DEGTORAD/3600;
@@ -1214,7 +1206,11 @@ public class SwissLib
       z =  ((((((-0.00000000005*T - 0.0000002486)*T - 0.000028276)*T + 0.01826676)*T + 1.0956768)*T + 2306.076070)*T - 2.72767)*SwissData.DEGTORAD/3600;
       TH = ((((((0.000000000009*T + 0.00000000036)*T -0.0000001127)*T - 0.000007291)*T - 0.04182364)*T - 0.4266980)*T + 2004.190936)*T*SwissData.DEGTORAD/3600;
     } else {
-      return 0;
+      System.arraycopy(PREC_IDENTITY, 0, m, 0, 9);
+#ifdef TRACE0
+      Trace.level--;
+#endif /* TRACE0 */
+      return;
     }
     sinth = SMath.sin(TH);
     costh = SMath.cos(TH);
@@ -1224,33 +1220,32 @@ public class SwissLib
     cosz = SMath.cos(z);
     A = cosZ*costh;
     B = sinZ*costh;
+    /* The subtractions of the formulas are written as additions of
+     * negated matrix elements, which gives identical results. */
     if( direction < 0 ) { /* From J2000.0 to J */
-      x[0] =    (A*cosz - sinZ*sinz)*R[0+rOffs]
-              - (B*cosz + cosZ*sinz)*R[1+rOffs]
-                        - sinth*cosz*R[2+rOffs];
-      x[1] =    (A*sinz + sinZ*cosz)*R[0+rOffs]
-              - (B*sinz - cosZ*cosz)*R[1+rOffs]
-                        - sinth*sinz*R[2+rOffs];
-      x[2] =              cosZ*sinth*R[0+rOffs]
-                        - sinZ*sinth*R[1+rOffs]
-                        + costh*R[2+rOffs];
+      m[0] =    A*cosz - sinZ*sinz;
+      m[1] =  -(B*cosz + cosZ*sinz);
+      m[2] =  -(sinth*cosz);
+      m[3] =    A*sinz + sinZ*cosz;
+      m[4] =  -(B*sinz - cosZ*cosz);
+      m[5] =  -(sinth*sinz);
+      m[6] =    cosZ*sinth;
+      m[7] =  -(sinZ*sinth);
+      m[8] =    costh;
     } else { /* From J to J2000.0 */
-      x[0] =    (A*cosz - sinZ*sinz)*R[0+rOffs]
-              + (A*sinz + sinZ*cosz)*R[1+rOffs]
-                        + cosZ*sinth*R[2+rOffs];
-      x[1] =  - (B*cosz + cosZ*sinz)*R[0+rOffs]
-              - (B*sinz - cosZ*cosz)*R[1+rOffs]
-                        - sinZ*sinth*R[2+rOffs];
-      x[2] =            - sinth*cosz*R[0+rOffs]
-                        - sinth*sinz*R[1+rOffs]
-                        + costh*R[2+rOffs];
-    }
-    for( i=0; i<3; i++ )
-      R[i+rOffs] = x[i];
+      m[0] =    A*cosz - sinZ*sinz;
+      m[1] =    A*sinz + sinZ*cosz;
+      m[2] =    cosZ*sinth;
+      m[3] =  -(B*cosz + cosZ*sinz);
+      m[4] =  -(B*sinz - cosZ*cosz);
+      m[5] =  -(sinZ*sinth);
+      m[6] =  -(sinth*cosz);
+      m[7] =  -(sinth*sinz);
+      m[8] =    costh;
+    }
 #ifdef TRACE0
     Trace.level--;
 #endif /* TRACE0 */
-    return(0);
   }
 
   /* In WILLIAMS and SIMON, Laskar's terms of order higher than t^4
@@ -1302,20 +1297,16 @@ public class SwissLib
     -5.4000441e-11, 1.32115526e-9, -5.998737027e-7, -1.6242797091e-5,
     0.002278495537, 0.0 };
 
-  private int precess_2(double[] R, double J, int iflag, int direction, int prec_method) {
-    return precess_2(R, 0, J, iflag, direction, prec_method);
-  }
-  private int precess_2(double[] R, int rOffs, double J, int iflag, int direction, int prec_method) {
+  /* Fills c with the sines and cosines of the elementary rotations,
+   * see precess_2_apply(). */
+  private void precess_2(double J, int iflag, int direction, int prec_method, double c[]) {
     int i;
     double T, z;
-    double eps, sineps, coseps;
-    double x[] = new double[3];
+    double eps;
     // double *p; Pointer to double[], using pn to point to index in array instead
 int pn = 0;
-    double A, B, pA, W;
+    double pA, W;
     double pAcof[] = null, inclcof[] = null, nodecof[] = null;
-    if( J == SwephData.J2000 ) 
-      return(0);
     if (prec_method == SweConst.SEMOD_PREC_LASKAR_1986) {
       pAcof = pAcof_laskar;
       nodecof = nodecof_laskar;
@@ -1343,12 +1334,8 @@ int pn = 0;
     } else {
       eps = swi_epsiln(SwephData.J2000, iflag); /* From J2000 */
     }
-    sineps = SMath.sin(eps);
-    coseps = SMath.cos(eps);
-    x[0] = R[0+rOffs];
-    z = coseps*R[1+rOffs] + sineps*R[2+rOffs];
-    x[2] = -sineps*R[1+rOffs] + coseps*R[2+rOffs];
-    x[1] = z;
+    c[0] = SMath.sin(eps);
+    c[1] = SMath.cos(eps);
     /* Precession in longitude */
     T /= 10.0; /* thousands of years */
     pn=0; //p = pAcof;
@@ -1371,11 +1358,8 @@ int pn = 0;
     } else {
       z = W;
     }
-    B = SMath.cos(z);
-    A = SMath.sin(z);
-    z = B * x[0] + A * x[1];
-    x[1] = -A * x[0] + B * x[1];
-    x[0] = z;
+    c[2] = SMath.cos(z);
+    c[3] = SMath.sin(z);
     /* Rotate about new x axis by the inclination of the moving
      * ecliptic on the J2000 ecliptic.
      */
@@ -1387,11 +1371,8 @@ int pn = 0;
     if( direction == 1 ) {
       z = -z;
     }
-    B = SMath.cos(z);
-    A = SMath.sin(z);
-    z = B * x[1] + A * x[2];
-    x[2] = -A * x[1] + B * x[2];
-    x[1] = z;
+    c[4] = SMath.cos(z);
+    c[5] = SMath.sin(z);
     /* Rotate about new z axis back from the node.
      */
     if( direction == 1 ) {
@@ -1399,11 +1380,8 @@ int pn = 0;
     } else {
       z = -W - pA;
     }
-    B = SMath.cos(z);
-    A = SMath.sin(z);
-    z = B * x[0] + A * x[1];
-    x[1] = -A * x[0] + B * x[1];
-    x[0] = z;
+    c[6] = SMath.cos(z);
+    c[7] = SMath.sin(z);
     /* Rotate about x axis to final equator.
      */
     if( direction == 1 ) {
@@ -1411,48 +1389,203 @@ int pn = 0;
     } else {
       eps = swi_epsiln(J, iflag);
     }
-    sineps = SMath.sin(eps);
-    coseps = SMath.cos(eps);
-    z = coseps * x[1] - sineps * x[2];
-    x[2] = sineps * x[1] + coseps * x[2];
-    x[1] = z;
-    for( i=0; i<3; i++ )
-      R[i+rOffs] = x[i];
-#ifdef TRACE0
-    Trace.level--;
-#endif /* TRACE0 */
-    return(0);
+    c[8] = SMath.sin(eps);
+    c[9] = SMath.cos(eps);
   }
 
-  private int precess_3(double R[], double J, int direction, int prec_meth) {
-    return precess_3(R, 0, J, direction, prec_meth);
+  /* Applies the rotations of precess_2() to R */
+  private void precess_2_apply(double[] R, int rOffs, double c[]) {
+    double x0, x1, x2, z;
+    /* First rotate about the x axis from the initial equator
+     * to the ecliptic. */
+    x0 = R[0+rOffs];
+    z = c[1]*R[1+rOffs] + c[0]*R[2+rOffs];
+    x2 = -c[0]*R[1+rOffs] + c[1]*R[2+rOffs];
+    x1 = z;
+    /* Rotate about z axis to the node. */
+    z = c[2] * x0 + c[3] * x1;
+    x1 = -c[3] * x0 + c[2] * x1;
+    x0 = z;
+    /* Rotate about new x axis by the inclination of the moving
+     * ecliptic on the J2000 ecliptic. */
+    z = c[4] * x1 + c[5] * x2;
+    x2 = -c[5] * x1 + c[4] * x2;
+    x1 = z;
+    /* Rotate about new z axis back from the node. */
+    z = c[6] * x0 + c[7] * x1;
+    x1 = -c[7] * x0 + c[6] * x1;
+    x0 = z;
+    /* Rotate about x axis to final equator. */
+    z = c[9] * x1 - c[8] * x2;
+    x2 = c[8] * x1 + c[9] * x2;
+    x1 = z;
+    R[0+rOffs] = x0;
+    R[1+rOffs] = x1;
+    R[2+rOffs] = x2;
   }
-  private int precess_3(double R[], int rOffs, double J, int direction, int prec_meth) {
-    double T;
-    double x[] = new double[3], pmat[] = new double[9];
+
+  /* Fills m with the precession matrix, see prec_apply(). */
+  private void precess_3(double J, int direction, int prec_meth, double m[]) {
+    double pmat[] = prec_pmat;
     int i, j;
-    if( J == SwephData.J2000 ) 
-      return(0);
-    /* Each precession angle is specified by a polynomial in
-     * T = Julian centuries from J2000.0.  See AA page B18.
-     */
-    T = (J - SwephData.J2000)/36525.0;
     pre_pmat(J, pmat);
     if (direction == -1) {
-      for (i = 0, j = 0; i <= 2; i++, j = i * 3) {
-        x[i] = R[0+rOffs] *  pmat[j + 0] +
-	        R[1+rOffs] * pmat[j + 1] +
-	      R[2+rOffs] * pmat[j + 2];
+      System.arraycopy(pmat, 0, m, 0, 9);
+    } else {
+      for (i = 0; i <= 2; i++) {
+        for (j = 0; j <= 2; j++) {
+          m[i * 3 + j] = pmat[j * 3 + i];
+        }
+      }
+    }
+  }
+
+  /* R = m * R */
+  private void prec_apply(double R[], int rOffs, double m[]) {
+    double x0, x1, x2;
+    x0 = m[0] * R[0+rOffs] + m[1] * R[1+rOffs] + m[2] * R[2+rOffs];
+    x1 = m[3] * R[0+rOffs] + m[4] * R[1+rOffs] + m[5] * R[2+rOffs];
+    x2 = m[6] * R[0+rOffs] + m[7] * R[1+rOffs] + m[8] * R[2+rOffs];
+    R[0+rOffs] = x0;
+    R[1+rOffs] = x1;
+    R[2+rOffs] = x2;
+  }
+
+  /* Precession matrices of the last epochs. The sun, the moon and all
+   * planets of a chart and their speeds are precessed with the same
+   * epoch, so the matrix has to be computed once only. The key contains
+   * everything the matrix depends on besides the epoch:
+   * bits 0-1: precess_1(), precess_2() or precess_3()
+   * bit 2:    direction J to J2000
+   * bit 3:    full matrix of precess_2() instead of its rotations
+   * bit 4:    SEFLG_JPLHOR_APPROX (precess_2() only)
+   * bits 8-15: SE_MODEL_JPLHORA_MODE (precess_2() only)
+   * bits 16-: precession model
+   * The matrices of precess_2() depend on the model of the obliquity as
+   * well, so the cache is emptied, whenever any of swed.astro_models has
+   * been changed, see prec_check_models().
+   * The array of the oldest epoch is overwritten with the matrix of a
+   * new epoch, so a matrix returned by prec_matrix() is valid until the
+   * next call only. */
+  private static final int PREC_CACHE_SIZE = 8;
+  private static final double PREC_IDENTITY[] = new double[] {
+    1, 0, 0, 0, 1, 0, 0, 0, 1 };
+  private double prec_cache_tjd[] = new double[PREC_CACHE_SIZE];
+  private int prec_cache_key[] = new int[PREC_CACHE_SIZE];
+  private double prec_cache_m[][] = new double[PREC_CACHE_SIZE][];
+  private int prec_cache_next = 0;
+  private int prec_cache_models[] = new int[SwephData.SEI_NMODELS];
+  /* work arrays of the precession matrices */
+  private double prec_pmat[] = new double[9], prec_m0[] = new double[9];
+  private double prec_c[] = new double[10], prec_x[] = new double[3];
+  private double prec_peqr[] = new double[3], prec_pecl[] = new double[3];
+  private double prec_v[] = new double[3], prec_eqx[] = new double[3];
+  /* Interval of the interpolated precession in days, 0 = off */
+  double prec_interp_step = 0;
+
+  /* Empties the cache of precession matrices, if the astro models have
+   * been changed since the matrices were computed */
+  private void prec_check_models() {
+    int i, models[] = swed.astro_models;
+    if (models.length == prec_cache_models.length) {
+      for (i = 0; i < models.length; i++) {
+        if (models[i] != prec_cache_models[i]) {
+          break;
+        }
+      }
+      if (i == models.length) {
+        return;
+      }
+    } else {
+      prec_cache_models = new int[models.length];
+    }
+    System.arraycopy(models, 0, prec_cache_models, 0, models.length);
+    for (i = 0; i < PREC_CACHE_SIZE; i++) {
+      prec_cache_key[i] = 0;
+    }
+  }
+
+  private double[] prec_matrix(double J, int iflag, int direction, int kind, int prec_method, boolean full) {
+    int i, key;
+    double m[];
+    prec_check_models();
+    key = kind | (direction == 1 ? 4 : 0) | (prec_method << 16);
+    if (kind == 2) {
+      key |= (full ? 8 : 0)
+           | ((iflag & SweConst.SEFLG_JPLHOR_APPROX) != 0 ? 16 : 0)
+           | ((swed.astro_models[SweConst.SE_MODEL_JPLHORA_MODE] & 0xff) << 8);
+    }
+    for (i = 0; i < PREC_CACHE_SIZE; i++) {
+      if (prec_cache_key[i] == key && prec_cache_tjd[i] == J) {
+        return prec_cache_m[i];
       }
+    }
+    m = prec_cache_m[prec_cache_next];
+    if (m == null || m.length != (kind == 2 && !full ? 10 : 9)) {
+      m = new double[kind == 2 && !full ? 10 : 9];
+    }
+    if (kind == 1) {
+      precess_1(J, direction, prec_method, m);
+    } else if (kind == 3) {
+      precess_3(J, direction, prec_method, m);
+    } else if (!full) {
+      precess_2(J, iflag, direction, prec_method, m);
     } else {
-      for (i = 0, j = 0; i <= 2; i++, j = i * 3) {
-        x[i] = R[0+rOffs] * pmat[i + 0] +
-	        R[1+rOffs] * pmat[i + 3] +
-	        R[2+rOffs] * pmat[i + 6];
+      double c[] = prec_c, x[] = prec_x;
+      precess_2(J, iflag, direction, prec_method, c);
+      for (i = 0; i < 3; i++) {
+        x[0] = x[1] = x[2] = 0;
+        x[i] = 1;
+        precess_2_apply(x, 0, c);
+        m[i] = x[0];
+        m[i + 3] = x[1];
+        m[i + 6] = x[2];
       }
     }
-    for (i = 0; i < 3; i++)
-      R[i+rOffs] = x[i];
+    prec_cache_tjd[prec_cache_next] = J;
+    prec_cache_key[prec_cache_next] = key;
+    prec_cache_m[prec_cache_next] = m;
+    prec_cache_next = (prec_cache_next + 1) % PREC_CACHE_SIZE;
+    return m;
+  }
+
+  /* Full precession matrix at the node t of the interpolation */
+  private double[] prec_node(double t, int iflag, int direction, int kind, int prec_method) {
+    if (t == SwephData.J2000) {
+      return PREC_IDENTITY;
+    }
+    return prec_matrix(t, iflag, direction, kind, prec_method, true);
+  }
+
+  private int prec_cached(double R[], int rOffs, double J, int iflag, int direction, int kind, int prec_method) {
+    if( J == SwephData.J2000 ) 
+      return(0);
+    if (prec_interp_step > 0) {
+      /* linear interpolation between the matrices at the nodes before
+       * and after J, see SwissEph.setPrecessionInterpolation() */
+      int i;
+      double t0 = SMath.floor(J / prec_interp_step) * prec_interp_step;
+      double f = (J - t0) / prec_interp_step;
+      double m0[] = prec_m0, m1[];
+      /* copied, as the next prec_node() may overwrite the cached array */
+      System.arraycopy(prec_node(t0, iflag, direction, kind, prec_method), 0, m0, 0, 9);
+      m1 = prec_node(t0 + prec_interp_step, iflag, direction, kind, prec_method);
+      double x[] = prec_x;
+      for (i = 0; i < 3; i++) {
+        x[i] = (m0[3*i] + (m1[3*i] - m0[3*i]) * f) * R[0+rOffs]
+             + (m0[3*i+1] + (m1[3*i+1] - m0[3*i+1]) * f) * R[1+rOffs]
+             + (m0[3*i+2] + (m1[3*i+2] - m0[3*i+2]) * f) * R[2+rOffs];
+      }
+      for (i = 0; i < 3; i++)
+        R[i+rOffs] = x[i];
+      return(0);
+    }
+    double m[] = prec_matrix(J, iflag, direction, kind, prec_method, false);
+    if (kind == 2) {
+      precess_2_apply(R, rOffs, m);
+    } else {
+      prec_apply(R, rOffs, m);
+    }
     return(0);
   }
 
@@ -1483,30 +1616,30 @@ int pn = 0;
      * some correction to nutation, arriving at extremely high precision */
     /*if ((iflag & SEFLG_JPLHOR) && (jplhor_model & SEMOD_JPLHOR_DAILY_DATA)) {*/
     if ((iflag & SweConst.SEFLG_JPLHOR) != 0 /*&& INCLUDE_CODE_FOR_DPSI_DEPS_IAU1980*/) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_1976);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_1976);
     /* Use IAU 1976 formula for a few centuries.  */
     } else if (prec_model_short == SweConst.SEMOD_PREC_IAU_1976 && SMath.abs(T) <= PREC_IAU_1976_CTIES) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_1976);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_1976);
     } else if (prec_model == SweConst.SEMOD_PREC_IAU_1976) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_1976);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_1976);
     /* Use IAU 2000 formula for a few centuries.  */
     } else if (prec_model_short == SweConst.SEMOD_PREC_IAU_2000 && SMath.abs(T) <= PREC_IAU_2000_CTIES) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_2000);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_2000);
     } else if (prec_model == SweConst.SEMOD_PREC_IAU_2000) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_2000);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_2000);
     /* Use IAU 2006 formula for a few centuries.  */
     } else if (prec_model_short == SweConst.SEMOD_PREC_IAU_2006 && SMath.abs(T) <= PREC_IAU_2006_CTIES) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_2006);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_2006);
     } else if (prec_model == SweConst.SEMOD_PREC_IAU_2006) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_IAU_2006);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_IAU_2006);
     } else if (prec_model == SweConst.SEMOD_PREC_BRETAGNON_2003) {
-      return precess_1(R, rOffs, J, direction, SweConst.SEMOD_PREC_BRETAGNON_2003);
+      return prec_cached(R, rOffs, J, iflag, direction, 1, SweConst.SEMOD_PREC_BRETAGNON_2003);
     } else if (prec_model == SweConst.SEMOD_PREC_LASKAR_1986) {
-      return precess_2(R, rOffs, J, iflag, direction, SweConst.SEMOD_PREC_LASKAR_1986);
+      return prec_cached(R, rOffs, J, iflag, direction, 2, SweConst.SEMOD_PREC_LASKAR_1986);
     } else if (prec_model == SweConst.SEMOD_PREC_SIMON_1994) {
-      return precess_2(R, rOffs, J, iflag, direction, SweConst.SEMOD_PREC_SIMON_1994);
+      return prec_cached(R, rOffs, J, iflag, direction, 2, SweConst.SEMOD_PREC_SIMON_1994);
     } else { /* SEMOD_PREC_VONDRAK_2011 */
-      return precess_3(R, rOffs, J, direction, SweConst.SEMOD_PREC_VONDRAK_2011);
+      return prec_cached(R, rOffs, J, iflag, direction, 3, SweConst.SEMOD_PREC_VONDRAK_2011);
     }
   }
 
@@ -2108,6 +2241,85 @@ int pn = 0;
     return ans;
   }
 
+  /* Nutation IAU 2000A/B at the nodes of a grid of nut_interp_step
+   * days, interpolated with a polynomial of 3rd degree through the
+   * four nodes around J. The last nodes are kept, so that a time series
+   * and the 'speed' of nutation at J - NUT_SPEED_INTV reuse them. */
+  private static final int NUT_CACHE_SIZE = 8;
+  private double nut_cache_tjd[] = new double[NUT_CACHE_SIZE];
+  private int nut_cache_model[] = new int[NUT_CACHE_SIZE];
+  private double nut_cache_val[][] = new double[NUT_CACHE_SIZE][2];
+  private int nut_cache_next = 0;
+  private int nut_cache_cnt = 0;
+  /* Interval of the interpolated nutation in days, 0 = off */
+  double nut_interp_step = 0;
+
+  private void nut_node(double t, double nutlo[]) {
+    int i;
+    int nut_model = swed.astro_models[SweConst.SE_MODEL_NUT];
+    for (i = 0; i < nut_cache_cnt; i++) {
+      if (nut_cache_tjd[i] == t && nut_cache_model[i] == nut_model) {
+        nutlo[0] = nut_cache_val[i][0];
+        nutlo[1] = nut_cache_val[i][1];
+        return;
+      }
+    }
+    swi_nutation_iau2000ab(t, nutlo);
+    nut_cache_tjd[nut_cache_next] = t;
+    nut_cache_model[nut_cache_next] = nut_model;
+    nut_cache_val[nut_cache_next][0] = nutlo[0];
+    nut_cache_val[nut_cache_next][1] = nutlo[1];
+    nut_cache_next = (nut_cache_next + 1) % NUT_CACHE_SIZE;
+    if (nut_cache_cnt < NUT_CACHE_SIZE) {
+      nut_cache_cnt++;
+    }
+  }
+
+  private void nutation_iau2000ab_interp(double J, double nutlo[]) {
+    double h = nut_interp_step;
+    double t0 = SMath.floor(J / h) * h;
+    double f = (J - t0) / h;
+    double w[] = new double[4], nl[] = new double[2];
+    int i;
+    /* Lagrange weights of the nodes t0 - h, t0, t0 + h, t0 + 2h */
+    w[0] = -f * (f - 1) * (f - 2) / 6;
+    w[1] = (f + 1) * (f - 1) * (f - 2) / 2;
+    w[2] = -(f + 1) * f * (f - 2) / 2;
+    w[3] = (f + 1) * f * (f - 1) / 6;
+    nutlo[0] = nutlo[1] = 0;
+    for (i = 0; i < 4; i++) {
+      nut_node(t0 + (i - 1) * h, nl);
+      nutlo[0] += w[i] * nl[0];
+      nutlo[1] += w[i] * nl[1];
+    }
+  }
+
+  /* Largest difference in arcseconds between the interpolated nutation
+   * and the full series, see SwissEph.getNutationInterpolationError() */
+  double nut_interp_error(double tjd1, double tjd2) {
+    double nl[] = new double[2], nf[] = new double[2];
+    double t, dt, err = 0;
+    int i, n;
+    if (nut_interp_step <= 0) {
+      return 0;
+    }
+    if (tjd2 < tjd1) {
+      t = tjd1; tjd1 = tjd2; tjd2 = t;
+    }
+    /* the error is largest in the middle between two nodes */
+    n = (int)SMath.min(1000, SMath.floor((tjd2 - tjd1) / nut_interp_step) + 1);
+    dt = (n > 1) ? (tjd2 - tjd1) / (n - 1) : 0;
+    for (i = 0; i < n; i++) {
+      t = SMath.floor((tjd1 + i * dt) / nut_interp_step) * nut_interp_step
+          + nut_interp_step / 2;
+      nutation_iau2000ab_interp(t, nl);
+      swi_nutation_iau2000ab(t, nf);
+      err = SMath.max(err, SMath.abs(nl[0] - nf[0]));
+      err = SMath.max(err, SMath.abs(nl[1] - nf[1]));
+    }
+    return err * SwissData.RADTODEG * 3600;
+  }
+
   int swi_nutation(double J, int iflag, double nutlo[]) {
     int n;
     double dpsi, deps, J2;
@@ -2123,7 +2335,11 @@ int pn = 0;
     } else if (nut_model == SweConst.SEMOD_NUT_IAU_1980 || nut_model == SweConst.SEMOD_NUT_IAU_CORR_1987) {
       swi_nutation_iau1980(J, nutlo);
     } else if (nut_model == SweConst.SEMOD_NUT_IAU_2000A || nut_model == SweConst.SEMOD_NUT_IAU_2000B) {
-      swi_nutation_iau2000ab(J, nutlo);
+      if (nut_interp_step > 0) {
+        nutation_iau2000ab_interp(J, nutlo);
+      } else {
+        swi_nutation_iau2000ab(J, nutlo);
+      }
       /*if ((iflag & SEFLG_JPLHOR_APPROX) && FRAME_BIAS_APPROX_HORIZONS) {*/
       /*if ((iflag & SEFLG_JPLHOR_APPROX) && !APPROXIMATE_HORIZONS_ASTRODIENST) {*/
       if ((iflag & SweConst.SEFLG_JPLHOR_APPROX) != 0 && jplhora_model != SweConst.SEMOD_JPLHORA_1) {
@@ -2341,7 +2557,7 @@ rb[2][2] = +0.9999999999999962;
     double t, t2, t3, t4, t5, t6;
     eps *= SwissData.RADTODEG;
     nut *= SwissData.RADTODEG;
-    tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    tjd_et = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     t = (tjd_et - SwephData.J2000) / 365250.0;
     t2 = t * t; t3 = t * t2; t4 = t * t3; t5 = t * t4; t6 = t * t5;
     /* mean longitude of earth J2000 */
@@ -2351,7 +2567,7 @@ rb[2][2] = +0.9999999999999962;
     xs[0] = dlon * SwissData.DEGTORAD; xs[1] = 0; xs[2] = 1;
     /* to mean equator J2000, cartesian */
     xobl[0] = 23.45; xobl[1] = 23.45;
-    xobl[1] = swi_epsiln(SwephData.J2000 + SweDate.getDeltaT(SwephData.J2000), 0) * SwissData.RADTODEG;
+    xobl[1] = swi_epsiln(SwephData.J2000 + SweDate.getDeltaT(SwephData.J2000, swed), 0) * SwissData.RADTODEG;
     swi_polcart(xs, xs);
     swi_coortrf(xs, xs, -xobl[1] * SwissData.DEGTORAD);
     /* precess to mean equinox of date */
@@ -2632,7 +2848,7 @@ rb[2][2] = +0.9999999999999962;
       /*  ERA-based expression for for Greenwich Sidereal Time (GST) based 
        *  on the IAU 2006 precession */
       jdrel = tjd - SwephData.J2000;
-      tt = (tjd + SweDate.getDeltaT(tjd) - SwephData.J2000) / 36525.0;
+      tt = (tjd + SweDate.getDeltaT(tjd, swed) - SwephData.J2000) / 36525.0;
       gmst = swe_degnorm((0.7790572732640 + 1.00273781191135448 * jdrel) * 360);
       gmst += (0.014506 + tt * (4612.156534 +  tt * (1.3915817 + tt * (-0.00000044 + tt * (-0.000029956 + tt * -0.0000000368))))) / 3600.0;
       dadd = sidtime_non_polynomial_part(tt);
@@ -2641,7 +2857,7 @@ rb[2][2] = +0.9999999999999962;
       gmst = gmst / 15.0 * 3600.0;
     /* sidt_model == SEMOD_SIDT_PREC_MODEL, older standards according to precession model */
     } else if (prec_model_short >= SweConst.SEMOD_PREC_IAU_2006) {
-      tt = (jd0 + SweDate.getDeltaT(jd0) - SwephData.J2000)/36525.0; /* TT in centuries after J2000 */
+      tt = (jd0 + SweDate.getDeltaT(jd0, swed) - SwephData.J2000)/36525.0; /* TT in centuries after J2000 */
       gmst = (((-0.000000002454*tt - 0.00000199708)*tt - 0.0000002926)*tt + 0.092772110)*tt*tt + 307.4771013*(tt-tu) + 8640184.79447825*tu + 24110.5493771;
       /* mean solar days per sidereal day at date tu;
        * for the derivative of gmst, we can assume UT1 =~ TT */
@@ -2681,7 +2897,7 @@ rb[2][2] = +0.9999999999999962;
 #endif /* TRACE0 */
     int i;
     double eps, nutlo[]=new double[2], tsid;
-    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut);
+    double tjde = tjd_ut + SweDate.getDeltaT(tjd_ut, swed);
     eps = swi_epsiln(tjde, 0) * SwissData.RADTODEG;
     swi_nutation(tjde, 0, nutlo);
     for (i = 0; i < 2; i++)
@@ -3016,7 +3232,7 @@ String swi_strncpy(String to, String from, int n) {
   * This method emulates the C version of atof() allowing <i>any</i> string
   * to be parsed into a number.
   */
-  public static synchronized double atof(String src) {
+  public static double atof(String src) {
     // atof() (in C) allows extra strings after the number, and even no number
     // at all, so we have to work around this...
     int idx=0;
@@ -3036,7 +3252,7 @@ String swi_strncpy(String to, String from, int n) {
   * This method emulates the C version of atoi() allowing <i>any</i> string
   * to be parsed into an integer.
   */
-  public static synchronized int atoi(String src) {
+  public static int atoi(String src) {
     // atoi() (in C) allows extra strings after the number, and even no number
     // at all, so we have to work around this...
     int idx=0;
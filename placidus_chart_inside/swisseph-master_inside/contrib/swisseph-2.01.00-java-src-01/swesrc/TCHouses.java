@@ -27,11 +27,16 @@ package swisseph;
 * double nextTransitUT = sw.getTransitUT(tc, jdUT, backwards);
 * </pre>
 * This would calculate the (UT-) date, when the ascendant is at 30 degree
-* longitude next time.
+* longitude next time.<p>
+* The ascendant, the MC and the other angles of tropical calculations are
+* calculated without the house cusps. Most of the remaining time is spent
+* for the nutation, so searching many transits of angles is much faster
+* with interpolated nutation (SwissEph.setNutationInterpolation()).
+* @see SwissEph#setNutationInterpolation(double)
 */
 public class TCHouses extends TransitCalculator
 #ifndef JAVAME
-    implements java.io.Serializable
+    implements java.io.Serializable, Cloneable
 #endif /* JAVAME */
     {
   static final double B0_ARMC_MAX = 360.985931;
@@ -6994,6 +6999,18 @@ public class TCHouses extends TransitCalculator
 //#ifdef EXTPRECISION
   private double extPrecision = 1.;
 //#endif /* EXTPRECISION */
+  // Reused for all calculations:
+  private double[] cusps;
+  private double[] ascmc = new double[10];
+  // ARMC and obliquity of the last call to swe_houses_point():
+  private double[] armcEps = new double[2];
+
+  // The speed of the ARMC in degrees per day:
+  private static final double ARMC_SPEED = 360.985647;
+  // The speed at the last calculated date and the maximum acceleration
+  // for SOLVER_NEWTON, or NaN, if they are not known:
+  private double lastDerivative = Double.NaN;
+  private double maxAccel = Double.NaN;
 
 
 
@@ -7170,6 +7187,7 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
     }
 
     this.hsys = hsys;
+    cusps = new double[(hsys == SweConst.SE_HSYS_GAUQUELIN_SECTORS ? 37 : 13)];
 
     this.sw = sw;
     if (this.sw == null) {
@@ -7198,6 +7216,7 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
           "Transit calculation of " + getObjectname(house_object) + " on latitude of " + geolat +
           " with house system '" + hsys + "' not possible.");
     }
+    setMaxAcceleration();
   }
 
   /**
@@ -7241,6 +7260,7 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   public void setGeopos(double geolon, double geolat) {
     this.geolon = geolon;
     this.geolat = geolat;
+    setMaxAcceleration();
   }
   /**
   * This returns the longitudinal position used by the house
@@ -7307,11 +7327,29 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   //////////////////////////////////////////////////////////////////////////////
 
   protected double calc(double jd) {
-    double[] cusps = new double[(this.hsys == SweConst.SE_HSYS_GAUQUELIN_SECTORS ? 37 : 13)];
-    double[] ascmc = new double[10];
-
+    // swe_set_topo() forces all positions of the SwissEph object to be
+    // recalculated, so it is called only, if the position changes:
+    TopoData topd = sw.swed.topd;
+    if (!sw.swed.geopos_is_set || topd.geolon != geolon ||
+        topd.geolat != geolat || topd.geoalt != 0) {
+      sw.swe_set_topo(geolon, geolat, 0);
+    }
 
-    sw.swe_set_topo(geolon, geolat, 0);
+    if (house_object >= 0 && (flags & SweConst.SEFLG_SIDEREAL) == 0 &&
+        hsys != SweConst.SE_HSYS_HORIZONTAL) {
+      // Ascendant, MC etc. are calculated directly from ARMC and obliquity
+      // without calculating all house cusps. The horizon system transforms
+      // latitude and ARMC back and forth, which changes the last digits,
+      // so it has to use swe_houses():
+      double val = sw.swe_houses_point(jd, geolat, geolon, house_object,
+                                       armcEps);
+      if (!Double.isNaN(val)) {
+        lastDerivative = (solver == SOLVER_NEWTON ?
+                          getPointSpeed(armcEps[0], armcEps[1]) : Double.NaN);
+        return val;
+      }
+    }
+    lastDerivative = Double.NaN;
     int ret = sw.swe_houses(jd, flags, geolat, geolon, this.hsys, cusps, ascmc);
 
     if (ret<0) {
@@ -7326,6 +7364,24 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   }
 
 
+#ifndef JAVAME
+  protected TransitCalculator copy(SwissEph sw) {
+    TCHouses tc = (TCHouses)super.copy(sw);
+    tc.cusps = new double[cusps.length];
+    tc.ascmc = new double[ascmc.length];
+    tc.armcEps = new double[armcEps.length];
+    return tc;
+  }
+#endif /* JAVAME */
+
+  protected double getLastDerivative() {
+    return lastDerivative;
+  }
+
+  protected double getMaxAcceleration() {
+    return maxAccel;
+  }
+
   protected double getMaxSpeed() {
     return max;
   }
@@ -7375,6 +7431,63 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   }
 
 
+  // The speed of the points calculated by swe_houses_point() in degrees
+  // per day from ARMC and obliquity, NaN for the points with a derivative
+  // that is not continuous. MC and equatorial ascendant are ascendants on
+  // the equator, so the derivative of Asc1() in SweHouse applies to all:
+  // tan(asc) = sin(x) / (cos(eps) * cos(x) - tan(lat) * sin(eps))
+  // with x = ARMC + 90.
+  private double getPointSpeed(double armc, double eps) {
+    switch (house_object) {
+      case SweConst.SE_ARMC:
+        return ARMC_SPEED;
+      case SweConst.SE_MC:
+        return getAscSpeed(armc, 0., eps);
+      case SweConst.SE_EQUASC:
+        return getAscSpeed(armc + 90., 0., eps);
+      case SweConst.SE_ASC:
+        return getAscSpeed(armc + 90., geolat, eps);
+    }
+    return Double.NaN;
+  }
+
+  private double getAscSpeed(double x, double lat, double eps) {
+    double sinx = SMath.sin(x * SwissData.DEGTORAD);
+    double cosx = SMath.cos(x * SwissData.DEGTORAD);
+    double sine = SMath.sin(eps * SwissData.DEGTORAD);
+    double cose = SMath.cos(eps * SwissData.DEGTORAD);
+    double tanf = SMath.tan(lat * SwissData.DEGTORAD);
+    double d = cose * cosx - tanf * sine;
+    return ARMC_SPEED * (cose - tanf * sine * cosx) / (d * d + sinx * sinx);
+  }
+
+  // The maximum acceleration of the points calculated by swe_houses_point()
+  // for obliquities from 22 to 24.5 degrees, i.e. for many thousand years,
+  // found from the differences of the speeds in steps of 0.05 degrees of
+  // the ARMC plus a safety margin. It is NaN within the polar circles, as
+  // swe_houses_point() does not calculate MC and ascendant there.
+  private void setMaxAcceleration() {
+    maxAccel = Double.NaN;
+    if ((flags & SweConst.SEFLG_SIDEREAL) != 0 ||
+        hsys == SweConst.SE_HSYS_HORIZONTAL ||
+        Double.isNaN(getPointSpeed(0., 23.)) ||
+        ((house_object == SweConst.SE_ASC || house_object == SweConst.SE_MC) &&
+         SMath.abs(geolat) >= 90. - 24.5)) {
+      return;
+    }
+    double step = 0.05;
+    double acc = 0.;
+    for (double eps = 22.; eps <= 24.5; eps += 0.5) {
+      double v0 = getPointSpeed(0., eps);
+      for (int i = 1; i * step <= 360.; i++) {
+        double v1 = getPointSpeed(i * step, eps);
+        acc = SMath.max(acc, SMath.abs(v1 - v0) / step * ARMC_SPEED);
+        v0 = v1;
+      }
+    }
+    maxAccel = acc * 1.2;
+  }
+
   // degrees per day
   private double getSpeed(boolean min) {
     int latrange = Math.abs((int)(geolat))+1;
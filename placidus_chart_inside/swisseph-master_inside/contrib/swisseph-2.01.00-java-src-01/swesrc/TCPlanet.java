@@ -27,11 +27,16 @@ package swisseph;
 * double nextTransitET = sw.getTransitET(tc, jdET, backwards);
 * </pre>
 * This would calculate the (ET-) date, when the Saturn will
-* change from retrograde to direct movement or vice versa.
+* change from retrograde to direct movement or vice versa.<p>
+* If the file sespeeds.dat is found in the ephemeris path, the transit
+* calculation uses the extreme speeds of the planet around the current
+* date as given in this file, which allows for much larger steps in the
+* search.
+* @see SpeedEnvelope
 */
 public class TCPlanet extends TransitCalculator
 #ifndef JAVAME
-		implements java.io.Serializable
+		implements java.io.Serializable, Cloneable
 #endif /* JAVAME */
 		{
 
@@ -51,6 +56,12 @@ public class TCPlanet extends TransitCalculator
 
 
 double minVal = 0., maxVal = 0.;  // Thinking about it...
+  private double lastDerivative = Double.NaN;
+  private double maxAccel = Double.NaN;
+  // Reused for all calculations:
+  private CalcResult res = new CalcResult();
+  // The speeds of the planet for short periods of time, if available:
+  private SpeedEnvelope envelope = null;
 
 
   /**
@@ -63,8 +74,10 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   * Planets from SweConst.SE_SUN up to SweConst.SE_INTP_PERG (with the
   * exception of SweConst.SE_EARTH) have their extreme speeds saved, so
   * these extreme speeds will be used on calculation.<br>Other objects 
-  * calculate extreme speeds by randomly calculating by default 200 speed
-  * values and multiply them by 1.4 as a safety factor.<br>
+  * calculate extreme speeds by calculating by default 200 speed values
+  * spread over the time range of the ephemeris and multiply them by 1.4
+  * as a safety factor. These values are calculated only once per JVM
+  * and may be kept in a file, see SwissEph.setTransitSpeedsfile().<br>
   * ATTENTION: be sure to understand that you might be able to miss some
   * transit or you might get a rather bad transit time in very rare
   * circumstances.<br>
@@ -119,8 +132,10 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   * Planets from SweConst.SE_SUN up to SweConst.SE_INTP_PERG (with the
   * exception of SweConst.SE_EARTH) have their extreme speeds saved, so
   * these extreme speeds will be used on calculation.<br>Other objects 
-  * calculate extreme speeds by randomly calculating by default 200 speed
-  * values and multiply them by 1.4 as a safety factor.<br>
+  * calculate extreme speeds by calculating by default 200 speed values
+  * spread over the time range of the ephemeris and multiply them by 1.4
+  * as a safety factor. These values are calculated only once per JVM
+  * and may be kept in a file, see SwissEph.setTransitSpeedsfile().<br>
   * Changing the 200 calculations will give higher or lower startup time
   * on <code>new TCPlanet(...)</code>, changing the 1.4 safety factor will
   * change each single calculation time.<br>
@@ -147,7 +162,7 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   * @param offset This is the desired transit degree or distance (in AU) or transit speed
   * (in deg/day or AU/day).
   * @param precalcCount When calculating planets without saved extreme speeds,
-  * you may change the default value of 200 random calculations to search for the
+  * you may change the default value of 200 calculations to search for the
   * extreme speeds here.
   * @param precalcSafetyfactor When calculating planets without saved extreme speeds,
   * you may change the default value of 1.4 as a safety factor to be multiplied with
@@ -252,19 +267,21 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
 
     this.offset = checkOffset(offset);
 
-    max = getSpeed(false);
-    min = getSpeed(true);
+    max = getSpeed(false, tflags);
+    min = getSpeed(true, tflags);
 
     if (Double.isInfinite(max) || Double.isInfinite(min)) {
-      // Trying to find some reasonable min- and maxSpeed by randomly testing some speed values.
+      // Trying to find some reasonable min- and maxSpeed by testing some speed values.
       // Limited to ecliptical(?) non-speed calculations so far:
       if (idx < 3) {
-        double[] minmax = getTestspeed(planet, idx, precalcCount, precalcSafetyfactor);
+        double[] minmax = TransitSpeeds.getSpeeds(this.sw, planet, idx, flags,
+                                                  precalcCount, precalcSafetyfactor);
         min = minmax[0];
         max = minmax[1];
       }
     }
 //System.err.println("speeds: " + min + " - " + max);
+    envelope = SpeedEnvelope.getEnvelope(this.sw, planet, tflags);
 
     if (Double.isInfinite(max) || Double.isInfinite(min)) {
       int planetno = (planet > SweConst.SE_AST_OFFSET ? planet - SweConst.SE_AST_OFFSET : planet);
@@ -277,6 +294,16 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
               ((flags & SweConst.SEFLG_EQUATORIAL) != 0 ? "in equatorial system " : "") +
               "not available.");
     }
+
+    // The maximum acceleration of the position for SOLVER_NEWTON:
+    if (idx < 3) {
+      int aflags = tflags | SweConst.SEFLG_TRANSIT_SPEED;
+      double acc = SMath.max(SMath.abs(getSpeed(false, aflags)),
+                             SMath.abs(getSpeed(true, aflags)));
+      if (!Double.isInfinite(acc) && !Double.isNaN(acc)) {
+        maxAccel = acc;
+      }
+    }
   }
 
   /**
@@ -352,26 +379,59 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   //////////////////////////////////////////////////////////////////////////////
 
   protected double calc(double jdET) {
-    StringBuffer serr = new StringBuffer();
-    double[] xx = new double[6];
-
-    int ret = sw.swe_calc(jdET, planet, flags, xx, serr);
+    int fl = flags;
+    if (solver == SOLVER_NEWTON && idx < 3) {
+      fl |= SweConst.SEFLG_SPEED;
+    }
+    int ret = sw.calc(jdET, planet, fl, res);
     if (ret<0) {
-      int type = SwissephException.UNDEFINED_ERROR;
-      if (serr.toString().matches("jd 2488117.1708818264 > Swiss Eph. upper limit 2487932.5;")) {
+      int type = res.getErrorType();
+      if (res.getMessage().matches("jd 2488117.1708818264 > Swiss Eph. upper limit 2487932.5;")) {
         type = SwissephException.BEYOND_USER_TIME_LIMIT;
       }
       throw new SwissephException(jdET, type,
-          "Calculation failed with return code "+ret+":\n"+serr.toString());
+          "Calculation failed with return code "+ret+":\n"+res.getMessage());
     }
 
+    double[] xx = res.getValues();
+    lastDerivative = ((fl & SweConst.SEFLG_SPEED) != 0 && idx < 3 ?
+                      xx[idx + 3] : Double.NaN);
     return xx[idx];
   }
 
+  protected double getLastDerivative() {
+    return lastDerivative;
+  }
+
+#ifndef JAVAME
+  protected TransitCalculator copy(SwissEph sw) {
+    TCPlanet tc = (TCPlanet)super.copy(sw);
+    tc.res = new CalcResult();
+    return tc;
+  }
+#endif /* JAVAME */
+
+  protected double getMaxAcceleration() {
+    return maxAccel;
+  }
+
 
   protected double getMaxSpeed() {
     return max;
   }
+  // Uses the larger one of the steps possible with the extreme speeds for
+  // all times and with the extreme speeds around jdET:
+  protected double getNextJD(double jdET, double val, double offset, double min, double max, boolean back) {
+    double jd = super.getNextJD(jdET, val, offset, min, max, back);
+    if (envelope != null) {
+      double jdLocal = envelope.getNextJD(jdET, val, offset,
+                                          (rollover ? rolloverVal : 0.), back);
+      if (back ? jdLocal < jd : jdLocal > jd) {
+        jd = jdLocal;
+      }
+    }
+    return jd;
+  }
   protected double getMinSpeed() {
     return min;
   }
@@ -510,7 +570,7 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   }
 
 
-  private double getSpeed(boolean min) {
+  private double getSpeed(boolean min, int tflags) {
     boolean lon = ((tflags&SweConst.SEFLG_TRANSIT_LONGITUDE) != 0);
     boolean lat = ((tflags&SweConst.SEFLG_TRANSIT_LATITUDE) != 0);
     boolean dist = ((tflags&SweConst.SEFLG_TRANSIT_DISTANCE) != 0);
@@ -630,87 +690,6 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
     }
   }
 
-  // This routine returns extreme speed values by randomly calculating the speed
-  // of the planet. Doesn't work for accelerations so far.
-  double[] getTestspeed(int planet, int idx, int precalcCount, double precalcSafetyfactor) {
-    StringBuffer serr = new StringBuffer();
-    double min = Double.MAX_VALUE;
-    double max = -Double.MAX_VALUE;
-
-    double[] timerange = new double[] { SwephData.MOSHPLEPH_START, SwephData.MOSHPLEPH_END };
-    if (planet > SweConst.SE_AST_OFFSET) {
-      // get filename:
-      String fn = SwissLib.swi_gen_filename(2457264.5 /* doesn't matter */, planet);
-      // Unfortunately, the name from swi_gen_filename may be slightly different,
-      // so we have to test opening the filename and change the filename if
-      // the file does not exist or is not readable:
-      FilePtr fptr = null;
-      SwissephException se = null;
-      try {
-        fptr = sw.swi_fopen(SwephData.SEI_FILE_ANY_AST, fn, sw.swed.ephepath, serr);
-      } catch (SwissephException se1) {
-        se = se1;
-      }
-      if (fptr == null) {
-        /*
-         * try also for short files (..s.se1)
-         */
-        if (fn.indexOf("s.") <= 0) {
-          fn = fn.substring(0, fn.indexOf(".")) + "s." + SwephData.SE_FILE_SUFFIX;
-        }
-        try {
-          fptr = sw.swi_fopen(SwephData.SEI_FILE_ANY_AST, fn, sw.swed.ephepath, serr);
-        } catch (SwissephException se2) {
-          se = se2;
-        }
-      }
-      if (fptr == null) {
-          throw se;
-      }
-      try {
-        fptr.close();
-      } catch (Exception e) { }
-
-      // Now finally we have a filename for which we can get the time range,
-      // if the file can be found and is readable:
-      try {
-        timerange = sw.getDatafileTimerange(fn);
-      } catch (SwissephException se3) {
-      }
-    }
-
-    java.util.Random rd = new java.util.Random();
-    double[] xx = new double[6];
-    for(int f = 0; f < precalcCount; f++) {
-      double jdET = rd.nextDouble();
-      jdET = jdET * (timerange[1] - timerange[0]) + timerange[0];
-      int ret = sw.swe_calc(jdET, planet, flags | SweConst.SEFLG_SPEED, xx, serr);
-      if (ret<0) {
-//              throw new SwissephException(jdET, SwissephException.UNDEFINED_ERROR,
-//                  "Calculation failed with return code "+ret+":\n"+serr.toString());
-            continue;
-      }
-      if (min > xx[idx+3]) { min = xx[idx+3]; }
-      if (max < xx[idx+3]) { max = xx[idx+3]; }
-    }
-    if (min == max || min == Double.MAX_VALUE || max == -Double.MAX_VALUE) {
-      min = 1./0.;  // Use as flag
-    } else {
-      // Apply safety factor for randomly calculated extreme speeds:
-      switch ((int)Math.signum(min)) {
-        case -1 : min *= precalcSafetyfactor; break;
-        case  0 : min = -0.1; break;
-        case  1 : min /= precalcSafetyfactor; break;
-      }
-      switch ((int)Math.signum(max)) {
-        case -1 : max /= precalcSafetyfactor; break;
-        case  0 : max = 0.1; break;
-        case  1 : max *= precalcSafetyfactor; break;
-      }
-    }
-    return new double[] {min, max};
-  }
-
   public String toString() {
     return "[Planet:" + planet + "];Offset:" + getOffset();
   }
@@ -32,7 +32,7 @@ package swisseph;
 */
 public class TCPlanetPlanet extends TransitCalculator
 #ifndef JAVAME
-        	implements java.io.Serializable
+        	implements java.io.Serializable, Cloneable
 #endif /* JAVAME */
         	{
 int precalcCount = 50;
@@ -57,6 +57,10 @@ int precalcCount = 50;
 //#endif /* EXTPRECISION */
 
   private double lon1=0, lon2=-1000;	// For partile aspects only
+  private double lastDerivative = Double.NaN;
+  private double maxAccel = Double.NaN;
+  // Reused for all calculations:
+  private CalcResult res1 = new CalcResult(), res2 = new CalcResult();
 
 
 double minVal = 0., maxVal = 0.;  // Thinking about it...
@@ -76,8 +80,10 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   * Planets from SweConst.SE_SUN up to SweConst.SE_INTP_PERG (with the
   * exception of SweConst.SE_EARTH) have their extreme speeds saved, so
   * these extreme speeds will be used on calculation.<br>Other objects 
-  * calculate extreme speeds by randomly calculating by default 200 speed
-  * values and multiply them by 1.4 as a safety factor.<br>
+  * calculate extreme speeds by calculating by default 200 speed values
+  * spread over the time range of the ephemeris and multiply them by 1.4
+  * as a safety factor. These values are calculated only once per JVM
+  * and may be kept in a file, see SwissEph.setTransitSpeedsfile().<br>
   * ATTENTION: be sure to understand that you might be able to miss some
   * transit or you might get a rather bad transit time in very rare
   * circumstances.<br>
@@ -145,8 +151,10 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   * Planets from SweConst.SE_SUN up to SweConst.SE_INTP_PERG (with the
   * exception of SweConst.SE_EARTH) have their extreme speeds saved, so
   * these extreme speeds will be used on calculation.<br>Other objects 
-  * calculate extreme speeds by randomly calculating by default 200 speed
-  * values and multiply them by 1.4 as a safety factor.<br>
+  * calculate extreme speeds by calculating by default 200 speed values
+  * spread over the time range of the ephemeris and multiply them by 1.4
+  * as a safety factor. These values are calculated only once per JVM
+  * and may be kept in a file, see SwissEph.setTransitSpeedsfile().<br>
   * ATTENTION: be sure to understand that you might be able to miss some
   * transit or you might get a rather bad transit time in very rare
   * circumstances.<br>
@@ -326,10 +334,11 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
     maxSpeed2=getSpeed(false,pl2);
     minSpeed2=getSpeed(true,pl2);
     if (Double.isInfinite(maxSpeed1) || Double.isInfinite(minSpeed1)) {
-      // Trying to find some reasonable min- and maxSpeed by randomly testing some speed values.
+      // Trying to find some reasonable min- and maxSpeed by testing some speed values.
       // Limited to ecliptical(?) non-speed calculations so far:
       if (idx < 3) {
-        double[] minmax = getTestspeed(pl1, idx, precalcCount, precalcSafetyfactor);
+        double[] minmax = TransitSpeeds.getSpeeds(this.sw, pl1, idx, flags,
+                                                  precalcCount, precalcSafetyfactor);
         minSpeed1 = minmax[0];
         maxSpeed1 = minmax[1];
       }
@@ -349,10 +358,11 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
 
 
     if (Double.isInfinite(maxSpeed2) || Double.isInfinite(minSpeed2)) {
-      // Trying to find some reasonable min- and maxSpeed by randomly testing some speed values.
+      // Trying to find some reasonable min- and maxSpeed by testing some speed values.
       // Limited to ecliptical(?) non-speed calculations so far:
       if (idx < 3) {
-        double[] minmax = getTestspeed(pl2, idx, precalcCount, precalcSafetyfactor);
+        double[] minmax = TransitSpeeds.getSpeeds(this.sw, pl2, idx, flags,
+                                                  precalcCount, precalcSafetyfactor);
         minSpeed2 = minmax[0];
         maxSpeed2 = minmax[1];
       }
@@ -382,6 +392,19 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
         maxSpeed = SMath.max(maxSpeed1-minSpeed2, maxSpeed2-minSpeed1);
       }
     }
+
+    // The maximum acceleration of the sum or difference of the positions
+    // for SOLVER_NEWTON:
+    if (idx < 3) {
+      int aflags = tflags | SweConst.SEFLG_TRANSIT_SPEED;
+      double acc = SMath.max(SMath.abs(getSpeed(false, pl1, aflags)),
+                             SMath.abs(getSpeed(true, pl1, aflags))) +
+                   SMath.max(SMath.abs(getSpeed(false, pl2, aflags)),
+                             SMath.abs(getSpeed(true, pl2, aflags)));
+      if (!Double.isInfinite(acc) && !Double.isNaN(acc)) {
+        maxAccel = acc;
+      }
+    }
   }
 
   // Looks for next time when the condition (partile / non-partile) is NOT met,
@@ -496,8 +519,6 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   * Checks if the two planets have a partile aspect.
   */
   public boolean hasPartileAspect(double jdET, int p1, int p2, int flgs, double offset) {
-    StringBuffer serr = new StringBuffer();
-    double[] xx1 = new double[6], xx2 = new double[6];
     offset = (int)offset;
 
     flgs &= ~(SweConst.SEFLG_TRANSIT_LONGITUDE |
@@ -509,19 +530,20 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
                SweConst.SEFLG_YOGA_TRANSIT |
                SweConst.SEFLG_TRANSIT_SPEED);
 
-    int ret = sw.swe_calc(jdET, p1, flgs, xx1, serr);
+    int ret = sw.calc(jdET, p1, flgs, res1);
     if (ret<0) {
-      throw new SwissephException(jdET, SwissephException.UNDEFINED_ERROR,
+      throw new SwissephException(jdET, res1.getErrorType(),
           "Calculation failed with return code " + ret + ":\n" +
-          serr.toString());
+          res1.getMessage());
     }
 
-    ret = sw.swe_calc(jdET, p2, flgs, xx2, serr);
+    ret = sw.calc(jdET, p2, flgs, res2);
     if (ret<0) {
-      throw new SwissephException(jdET, SwissephException.UNDEFINED_ERROR,
+      throw new SwissephException(jdET, res2.getErrorType(),
           "Calculation failed with return code " + ret + ":\n" +
-          serr.toString());
+          res2.getMessage());
     }
+    double[] xx1 = res1.getValues(), xx2 = res2.getValues();
 
       return (int)(xx1[0]%30) == (int)(xx2[0]%30) &&
           ((((int)(xx1[0]) + offset + rolloverVal) % rolloverVal == (int)xx2[0]) ||
@@ -540,32 +562,33 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   }
 
   protected double calc(double jdET) {
-    StringBuffer serr = new StringBuffer();
-    double[] xx1 = new double[6];
-    double[] xx2 = new double[6];
-
-    int ret = sw.swe_calc(jdET, pl1, flags, xx1, serr);
+    int fl = flags;
+    if (solver == SOLVER_NEWTON && idx < 3 && hasContinuousValues()) {
+      fl |= SweConst.SEFLG_SPEED;
+    }
+    lastDerivative = Double.NaN;
+    int ret = sw.calc(jdET, pl1, fl, res1);
     if (ret<0) {
-      int type = SwissephException.UNDEFINED_ERROR;
-      if (serr.toString().matches("jd 2488117.1708818264 > Swiss Eph. upper limit 2487932.5;")) {
+      int type = res1.getErrorType();
+      if (res1.getMessage().matches("jd 2488117.1708818264 > Swiss Eph. upper limit 2487932.5;")) {
         type = SwissephException.BEYOND_USER_TIME_LIMIT;
       }
-System.err.println("SERR: " + serr);
       throw new SwissephException(jdET, type,
           "Calculation failed with return code " + ret + ":\n" +
-          serr.toString());
+          res1.getMessage());
     }
 
-    ret = sw.swe_calc(jdET, pl2, flags, xx2, serr);
+    ret = sw.calc(jdET, pl2, fl, res2);
     if (ret<0) {
-      int type = SwissephException.UNDEFINED_ERROR;
-      if (serr.toString().matches("jd 2488117.1708818264 > Swiss Eph. upper limit 2487932.5;")) {
+      int type = res2.getErrorType();
+      if (res2.getMessage().matches("jd 2488117.1708818264 > Swiss Eph. upper limit 2487932.5;")) {
         type = SwissephException.BEYOND_USER_TIME_LIMIT;
       }
       throw new SwissephException(jdET, type,
           "Calculation failed with return code " + ret + ":\n" +
-          serr.toString());
+          res2.getMessage());
     }
+    double[] xx1 = res1.getValues(), xx2 = res2.getValues();
 
     if (calcPartile || calcNonPartile) {
       lon1 = xx1[0];
@@ -606,11 +629,43 @@ System.err.println("SERR: " + serr);
       }
       return ((xx1[idx] % rolloverVal) - (xx2[idx] % rolloverVal) + rolloverVal) % rolloverVal;
     } else if (calcYoga) {
+      if ((fl & SweConst.SEFLG_SPEED) != 0 && idx < 3) {
+        lastDerivative = xx1[idx + 3] + xx2[idx + 3];
+      }
     	return xx1[idx] + xx2[idx];
     }
+    if ((fl & SweConst.SEFLG_SPEED) != 0 && idx < 3) {
+      lastDerivative = xx1[idx + 3] - xx2[idx + 3];
+    }
     return xx1[idx] - xx2[idx];
   }
 
+  protected double getLastDerivative() {
+    return lastDerivative;
+  }
+
+  protected double getMaxAcceleration() {
+    return maxAccel;
+  }
+
+  boolean hasContinuousValues() {
+    return !calcPartile && !calcNonPartile;
+  }
+
+#ifndef JAVAME
+  // Partile transits depend on the partile status found in previous
+  // searches, so they have to be searched in one sweep:
+  protected TransitCalculator copy(SwissEph sw) {
+    if (calcPartile || calcNonPartile) {
+      return null;
+    }
+    TCPlanetPlanet tc = (TCPlanetPlanet)super.copy(sw);
+    tc.res1 = new CalcResult();
+    tc.res2 = new CalcResult();
+    return tc;
+  }
+#endif /* JAVAME */
+
 
 
   protected double getTimePrecision(double degPrec) {
@@ -768,6 +823,10 @@ System.err.println("SERR: " + serr);
 
 
   private double getSpeed(boolean min, int planet) {
+    return getSpeed(min, planet, tflags);
+  }
+
+  private double getSpeed(boolean min, int planet, int tflags) {
     boolean lon = ((tflags&SweConst.SEFLG_TRANSIT_LONGITUDE) != 0);
     boolean lat = ((tflags&SweConst.SEFLG_TRANSIT_LATITUDE) != 0);
     boolean dist = ((tflags&SweConst.SEFLG_TRANSIT_DISTANCE) != 0);
@@ -974,87 +1033,6 @@ System.err.println("SERR: " + serr);
     return super.getNextJD(jdET, val, offset, min, max, back);
   }
 
-  // This routine returns extreme speed values by randomly calculating the speed
-  // of the planet. Doesn't work for accelerations so far.
-  double[] getTestspeed(int planet, int idx, int precalcCount, double precalcSafetyfactor) {
-    StringBuffer serr = new StringBuffer();
-    double min = Double.MAX_VALUE;
-    double max = -Double.MAX_VALUE;
-
-    double[] timerange = new double[] { SwephData.MOSHPLEPH_START, SwephData.MOSHPLEPH_END };
-    if (planet > SweConst.SE_AST_OFFSET) {
-      // get filename:
-      String fn = SwissLib.swi_gen_filename(2457264.5 /* don't care */, planet);
-      // Unfortunately, the name from swi_gen_filename may be slightly different,
-      // so we have to test opening the filename and change the filename if
-      // the file does not exist or is not readable:
-      FilePtr fptr = null;
-      SwissephException se = null;
-      try {
-        fptr = sw.swi_fopen(SwephData.SEI_FILE_ANY_AST, fn, sw.swed.ephepath, serr);
-      } catch (SwissephException se1) {
-        se = se1;
-      }
-      if (fptr == null) {
-        /*
-         * try also for short files (..s.se1)
-         */
-        if (fn.indexOf("s.") <= 0) {
-          fn = fn.substring(0, fn.indexOf(".")) + "s." + SwephData.SE_FILE_SUFFIX;
-        }
-        try {
-          fptr = sw.swi_fopen(SwephData.SEI_FILE_ANY_AST, fn, sw.swed.ephepath, serr);
-        } catch (SwissephException se2) {
-          se = se2;
-        }
-      }
-      if (fptr == null) {
-          throw se;
-      }
-      try {
-        fptr.close();
-      } catch (Exception e) { }
-
-      // Now finally we have a filename for which we can get the time range,
-      // if the file can be found and is readable:
-      try {
-        timerange = sw.getDatafileTimerange(fn);
-      } catch (SwissephException se3) {
-      }
-    }
-
-    java.util.Random rd = new java.util.Random();
-    double[] xx = new double[6];
-    for(int f = 0; f < precalcCount; f++) {
-      double jdET = rd.nextDouble();
-      jdET = jdET * (timerange[1] - timerange[0]) + timerange[0];
-      int ret = sw.swe_calc(jdET, planet, flags | SweConst.SEFLG_SPEED, xx, serr);
-      if (ret<0) {
-//              throw new SwissephException(jdET, SwissephException.UNDEFINED_ERROR,
-//                  "Calculation failed with return code "+ret+":\n"+serr.toString());
-            continue;
-      }
-      if (min > xx[idx+3]) { min = xx[idx+3]; }
-      if (max < xx[idx+3]) { max = xx[idx+3]; }
-    }
-    if (min == max || min == Double.MAX_VALUE || max == -Double.MAX_VALUE) {
-      min = 1./0.;  // Use as flag
-    } else {
-      // Apply safety factor for randomly calculated extreme speeds:
-      switch ((int)Math.signum(min)) {
-        case -1 : min *= precalcSafetyfactor; break;
-        case  0 : min = -0.1; break;
-        case  1 : min /= precalcSafetyfactor; break;
-      }
-      switch ((int)Math.signum(max)) {
-        case -1 : max /= precalcSafetyfactor; break;
-        case  0 : max = 0.1; break;
-        case  1 : max *= precalcSafetyfactor; break;
-      }
-    }
-    return new double[] {min, max};
-  }
-
   public String toString() {
     return "[Planets:" + pl1 + "/" + pl2 + "];Offset:" + getOffset();
   }
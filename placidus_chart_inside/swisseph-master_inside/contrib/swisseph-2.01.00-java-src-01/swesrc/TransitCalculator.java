@@ -54,6 +54,56 @@ public abstract class TransitCalculator
     return null;
   }
 
+  /**
+  * The default solver of the transit calculations. It proceeds in steps,
+  * which are small enough, that the transit point cannot be passed with
+  * the maximum speed of the object, until the transit point has been
+  * reached with the required precision.
+  * @see #setSolver(int)
+  */
+  public static final int SOLVER_STEPPING = 0;
+  /**
+  * A faster solver, that uses the speed of the object to jump to the
+  * estimated transit point, whenever the maximum acceleration of the
+  * object guarantees, that no other transit can be passed over. Once the
+  * transit point has been bracketed, it converges with Newton steps,
+  * safeguarded by regula falsi.<p>
+  * This solver requires the speed and the maximum acceleration of the
+  * transiting value. TCPlanet and TCPlanetPlanet provide them for
+  * transits over positions of the planets with known extreme
+  * accelerations. TCHouses provides them for transits of the ARMC, the
+  * MC, the equatorial ascendant and the ascendant in the tropical zodiac
+  * with all house systems but the horizon system, as long as the MC and
+  * the ascendant are not calculated within the polar circles. Other
+  * transits are calculated with SOLVER_STEPPING.
+  * @see #setSolver(int)
+  */
+  public static final int SOLVER_NEWTON = 1;
+
+  /**
+  * Selects the method to search for the transit point. The results of
+  * the solvers differ within the precision of the transit calculation
+  * only. SOLVER_NEWTON usually needs considerably less calculations,
+  * especially for slow moving objects.
+  * @param solver SOLVER_STEPPING (the default) or SOLVER_NEWTON
+  * @see #SOLVER_STEPPING
+  * @see #SOLVER_NEWTON
+  */
+  public void setSolver(int solver) {
+    if (solver != SOLVER_STEPPING && solver != SOLVER_NEWTON) {
+      throw new IllegalArgumentException("Unknown solver " + solver + ".");
+    }
+    this.solver = solver;
+  }
+  /**
+  * Returns the method used to search for the transit point.
+  * @return SOLVER_STEPPING or SOLVER_NEWTON
+  * @see #setSolver(int)
+  */
+  public int getSolver() {
+    return solver;
+  }
+
 #ifdef EXTPRECISION
   /**
   * Set the factor, when to stop the calculation.
@@ -98,6 +148,8 @@ public abstract class TransitCalculator
                                        // as default. Other values than 0.0 for the
                                        // minimum values are not supported for now.
 
+  protected int solver = SOLVER_STEPPING;
+
   // These methods have to return the maxima of the first derivative of the
   // function, mathematically spoken...
   protected abstract double getMaxSpeed();
@@ -114,6 +166,44 @@ public abstract class TransitCalculator
   // This is the main routine, mathematically speaking: returning f(x):
   protected abstract double calc(double jdET);
 
+  // The first derivative of f(x) at the x of the last call to calc(), if
+  // it is known, NaN otherwise. Used by SOLVER_NEWTON only.
+  protected double getLastDerivative() {
+    return Double.NaN;
+  }
+
+  // The maximum absolute value of the second derivative of f(x), if it
+  // is known, NaN otherwise. Used by SOLVER_NEWTON only.
+  protected double getMaxAcceleration() {
+    return Double.NaN;
+  }
+
+  // SOLVER_NEWTON requires f(x) to be continuous (apart from the
+  // rollover):
+  boolean hasContinuousValues() {
+    return true;
+  }
+
+#ifndef JAVAME
+  // Returns a copy of this TransitCalculator calculating with another
+  // SwissEph object, so both can be used in different threads at the
+  // same time. Returns null, if it cannot be copied. Cloneable subclasses
+  // get a shallow copy, so they have to override this method, if they
+  // keep mutable objects or a state depending on previous searches.
+  protected TransitCalculator copy(SwissEph sw) {
+    if (!(this instanceof Cloneable)) {
+      return null;
+    }
+    try {
+      TransitCalculator tc = (TransitCalculator)clone();
+      tc.sw = sw;
+      return tc;
+    } catch (CloneNotSupportedException e) {
+      return null;
+    }
+  }
+#endif /* JAVAME */
+
 
   // This routine allows for changing jdET before starting calculations.
   double preprocessDate(double jdET, boolean back) {
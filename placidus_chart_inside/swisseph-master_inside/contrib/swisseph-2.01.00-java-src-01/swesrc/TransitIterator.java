@@ -0,0 +1,244 @@
+#ifdef TEST_ITERATIONS
+#define TRANSITS
+#endif /* TEST_ITERATIONS */
+#ifdef EXTPRECISION
+#define TRANSITS
+#endif /* EXTPRECISION */
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef TRANSITS
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class enumerates all transits of a TransitCalculator in a range of
+* time in one sweep.<p>
+* Calling SwissEph.getTransitET() in a loop, each time with the last
+* transit date plus some small amount of time, starts the search from
+* scratch on every call. This class continues the search from the last
+* calculated date and position instead, so no time is calculated twice.
+* You get an instance from the SwissEph.getTransitsET() or
+* SwissEph.getTransitsUT() methods, e.g.:<p>
+* <pre>
+* SwissEph sw = new SwissEph(...);
+* TransitCalculator tc = new TCPlanet(sw, SweConst.SE_SUN,
+*     SweConst.SEFLG_TRANSIT_LONGITUDE, 0);
+* TransitIterator ti = sw.getTransitsUT(tc, jdStart, jdEnd);
+* while (ti.hasNext()) {
+*   double jdUT = ti.nextTransit();
+*   ...
+* }
+* </pre>
+* If the end date is before the start date, the transits are searched
+* backwards in time and returned in descending order.<p>
+* The sweep never steps beyond the end date, and it calculates the
+* positions at the boundaries of the windows, into which
+* ParallelTransitSearch splits the time range, too. So the transits are
+* identical to the transits found by a ParallelTransitSearch with the
+* automatic window size. They may differ from the results of
+* SwissEph.getTransitET() within the precision of the transit
+* calculation.<p>
+* The TransitCalculator must not be changed or used for other
+* calculations while the enumeration is in progress. It is recommended
+* to use it with the SwissEph object, that has been given to the
+* TransitCalculator on creation.
+* @see SwissEph#getTransitsET(TransitCalculator, double, double)
+* @see SwissEph#getTransitsUT(TransitCalculator, double, double)
+*/
+public class TransitIterator
+		implements java.util.Enumeration
+#ifndef JAVAME
+		, java.io.Serializable
+#endif /* JAVAME */
+		{
+
+  // Conversion of the dates between the calculation and the caller:
+  static final int DATES_AS_IS = 0;
+  static final int DATES_ET_TO_UT = 1;
+  static final int DATES_UT_TO_ET = 2;
+
+  // The maximum number of windows created automatically:
+  static final int MAX_WINDOWS = 1024;
+
+  // The automatic window size is the time needed to pass WINDOW_CYCLES
+  // times through the range of values (0 to 360 degrees) with the
+  // maximum speed of the TransitCalculator:
+  static final double WINDOW_CYCLES = 4.;
+
+  private Extensions ext;
+  private SwissData swed;
+  private int dateConv;
+
+  // The state of the sweep, maintained by Extensions.nextTransit():
+  TransitCalculator tc;
+  boolean back;
+  double jdEnd;
+  boolean started = false;
+  double jd;
+  double val;
+  double der;
+  double min, max;
+  double timePrec;
+  // The window boundaries from the start to the end date, where the sweep
+  // always calculates the position, and the index of the current window:
+  double[] bounds;
+  int window = 0;
+  // The window size for the boundaries or 0 for automatic sizing:
+  double windowSize = 0.;
+  // True, if timePrec, min and max have been set by window():
+  boolean preset = false;
+
+  private boolean finished = false;
+  private boolean known = false;
+  private double nextJD;
+
+  TransitIterator(Extensions ext, SwissData swed, TransitCalculator tc,
+                  double jdStart, double jdEnd, int dateConv) {
+    this.ext = ext;
+    this.swed = swed;
+    this.tc = tc;
+    this.jd = jdStart;
+    this.jdEnd = jdEnd;
+    this.back = (jdEnd < jdStart);
+    this.dateConv = dateConv;
+  }
+
+  // Calculates the window boundaries and the time precision of the sweep
+  // as Extensions.nextTransit() does on the first call:
+  void prepare() {
+    if (bounds == null) {
+      bounds = getWindows(tc, jd, jdEnd, windowSize);
+    }
+    if (!preset) {
+      ext.presetSweep(this);
+    }
+  }
+
+  // Returns a new iterator for the window from bounds[k] to bounds[k+1],
+  // which calculates with the given copy of the TransitCalculator and its
+  // SwissEph object. It sweeps with the precision of this iterator, so
+  // it finds the same transits as this iterator in that window.
+  // prepare() has to be called before.
+  TransitIterator window(TransitCalculator tc, int k) {
+    SwissEph sw = tc.sw;
+    if (sw.ext == null) { sw.ext = new Extensions(sw); }
+    TransitIterator w = new TransitIterator(sw.ext, sw.swed, tc,
+        bounds[k], bounds[k + 1], dateConv);
+    w.bounds = new double[] { bounds[k], bounds[k + 1] };
+    w.timePrec = timePrec;
+    w.min = min;
+    w.max = max;
+    w.preset = true;
+    return w;
+  }
+
+  // Returns the dates of the window boundaries from jdStart to jdEnd:
+  static double[] getWindows(TransitCalculator tc, double jdStart,
+                             double jdEnd, double windowSize) {
+    double span = SMath.abs(jdEnd - jdStart);
+    double size = windowSize;
+    if (size == 0.) {
+      double vmax = SMath.max(SMath.abs(tc.getMaxSpeed()),
+                              SMath.abs(tc.getMinSpeed()));
+      size = WINDOW_CYCLES * tc.rolloverVal / vmax;
+      if (Double.isNaN(size) || size > span) {
+        size = span;
+      }
+      size = SMath.max(size, span / MAX_WINDOWS);
+    }
+    int n = (size > 0. ? (int)SMath.ceil(span / size) : 1);
+    if (n < 1) { n = 1; }
+    double[] bounds = new double[n + 1];
+    for (int k = 0; k < n; k++) {
+      bounds[k] = jdStart + (jdEnd - jdStart) * k / n;
+    }
+    bounds[n] = jdEnd;
+    return bounds;
+  }
+
+  /**
+  * Returns true, if there is another transit up to the end date.
+  * This will calculate the next transit, if it has not been calculated
+  * yet.
+  * @return true, if nextTransit() will return another transit
+  * @throws SwissephException if the calculation fails, e.g. because the
+  * ephemeris range has been left
+  */
+  public boolean hasNext() throws SwissephException {
+    if (!known && !finished) {
+      nextJD = ext.nextTransit(this);
+      if (Double.isNaN(nextJD)) {
+        finished = true;
+      } else {
+        known = true;
+      }
+    }
+    return known;
+  }
+
+  /**
+  * Returns the date of the next transit. Dates are ET or UT depending on
+  * the SwissEph method, which has created this iterator.
+  * @return The date of the next transit as a julian day number
+  * @throws java.util.NoSuchElementException if there are no more
+  * transits up to the end date
+  * @throws SwissephException if the calculation fails
+  * @see #hasNext()
+  */
+  public double nextTransit() throws SwissephException {
+    if (!hasNext()) {
+      throw new java.util.NoSuchElementException();
+    }
+    known = false;
+    switch (dateConv) {
+      case DATES_ET_TO_UT:
+        return nextJD - SweDate.getDeltaT(nextJD, swed);
+      case DATES_UT_TO_ET:
+        return nextJD + SweDate.getDeltaT(nextJD, swed);
+    }
+    return nextJD;
+  }
+
+  /**
+  * Same as hasNext().
+  * @return true, if there is another transit up to the end date
+  */
+  public boolean hasMoreElements() {
+    return hasNext();
+  }
+
+  /**
+  * Same as nextTransit(), but returns the date as a Double object.
+  * @return The date of the next transit
+  */
+  public Object nextElement() {
+    return new Double(nextTransit());
+  }
+
+  /**
+  * Returns the dates of all remaining transits up to the end date.
+  * @return The dates of the transits in the order of the search
+  * @throws SwissephException if the calculation fails
+  */
+  public double[] getRemainingTransits() throws SwissephException {
+    double[] jds = new double[16];
+    int n = 0;
+    while (hasNext()) {
+      if (n == jds.length) {
+        double[] tmp = new double[2 * n];
+        System.arraycopy(jds, 0, tmp, 0, n);
+        jds = tmp;
+      }
+      jds[n++] = nextTransit();
+    }
+    double[] res = new double[n];
+    System.arraycopy(jds, 0, res, 0, n);
+    return res;
+  }
+}
+#endif /* TRANSITS */
@@ -0,0 +1,293 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef TRANSITS
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+
+package swisseph;
+
+/**
+* This class keeps the extreme speeds of objects, which have been found
+* by sample calculations, because there are no known extreme speeds for
+* these objects (e.g., most asteroids).<p>
+* TCPlanet and TCPlanetPlanet calculate the speed of such an object at
+* a number of dates (200 by default) on creation. The dates are spread
+* evenly over the time range of the ephemeris in a fixed sequence, so
+* the results are identical for every run. The results are kept for the
+* lifetime of the JVM and shared by all threads and SwissEph objects, so
+* these calculations are done only once for each object, calculation
+* flags and number of samples.<p>
+* The results can be kept in a file to be read on startup of the next
+* program run. Use SwissEph.setTransitSpeedsfile() for this.<p>
+* All methods are thread safe.
+* @see SwissEph#setTransitSpeedsfile(String, boolean)
+*/
+public final class TransitSpeeds {
+
+  // Calculation flags, which do not change the speeds:
+  private static final int IGNORED_FLAGS = SweConst.SEFLG_SPEED |
+                                           SweConst.SEFLG_SPEED3;
+
+  // The extreme speeds by the keys from getKey() as double[] {min, max}
+  // without the safety factor. min is infinite, if no speed could be
+  // calculated:
+  private static java.util.Hashtable speeds = new java.util.Hashtable();
+  private static String speedsfile = null;
+  private static boolean writeable = false;
+
+  private TransitSpeeds() { }
+
+#ifndef JAVAME
+  /**
+  * Reads the extreme speeds from a file and keeps them for all
+  * transit calculations in this JVM. If writeable is true, all newly
+  * calculated extreme speeds will be written to this file.<p>
+  * Lines in this file contain a key describing the object and the
+  * calculation flags, the minimum and the maximum speed, separated by
+  * blanks. Empty lines and lines starting with '#' are ignored.
+  * @param fname The file name or null to stop reading from and writing
+  * to a file
+  * @param writeable true, if newly calculated speeds should be written
+  * to the file
+  * @throws SwissephException if the file cannot be read, or if it does
+  * not exist and writeable is false
+  * @see SwissEph#setTransitSpeedsfile(String, boolean)
+  */
+  public static synchronized void setFile(String fname, boolean writeable) {
+    speedsfile = null;
+    TransitSpeeds.writeable = false;
+    if (fname == null) {
+      return;
+    }
+    java.io.File f = new java.io.File(fname);
+    if (f.exists()) {
+      load(fname);
+    } else if (!writeable) {
+      throw new SwissephException(1./0., SwissephException.FILE_NOT_FOUND,
+          SweConst.ERR, "Transit speeds file '" + fname + "' not found.");
+    }
+    speedsfile = fname;
+    TransitSpeeds.writeable = writeable;
+  }
+
+  /**
+  * Reads the extreme speeds from a file in addition to the already known
+  * extreme speeds.
+  * @param fname The name of the file
+  * @throws SwissephException if the file cannot be read or has an
+  * invalid format
+  * @see #save(String)
+  */
+  public static synchronized void load(String fname) {
+    java.io.BufferedReader br = null;
+    String line = null;
+    try {
+      br = new java.io.BufferedReader(new java.io.FileReader(fname));
+      while ((line = br.readLine()) != null) {
+        line = line.trim();
+        if (line.length() == 0 || line.startsWith("#")) {
+          continue;
+        }
+        java.util.StringTokenizer tk = new java.util.StringTokenizer(line);
+        String key = tk.nextToken();
+        double min = Double.valueOf(tk.nextToken()).doubleValue();
+        double max = Double.valueOf(tk.nextToken()).doubleValue();
+        speeds.put(key, new double[] { min, max });
+      }
+    } catch (java.io.IOException ie) {
+      throw new SwissephException(1./0., SwissephException.FILE_READ_ERROR,
+          SweConst.ERR, "Cannot read transit speeds file '" + fname +
+          "': " + ie.getMessage());
+    } catch (RuntimeException re) {
+      throw new SwissephException(1./0., SwissephException.DAMAGED_FILE_ERROR,
+          SweConst.ERR, "Invalid line in transit speeds file '" + fname +
+          "': " + line);
+    } finally {
+      try {
+        if (br != null) { br.close(); }
+      } catch (java.io.IOException ie) {
+      }
+    }
+  }
+
+  /**
+  * Writes all known extreme speeds to a file. The file is written to a
+  * temporary file first, which then replaces the file, so other
+  * programs will never read a partially written file.
+  * @param fname The name of the file
+  * @throws SwissephException if the file cannot be written
+  * @see #load(String)
+  */
+  public static synchronized void save(String fname) {
+    java.io.File f = new java.io.File(fname);
+    java.io.File tmp = new java.io.File(fname + ".tmp");
+    java.io.PrintWriter pw = null;
+    try {
+      pw = new java.io.PrintWriter(new java.io.BufferedWriter(
+          new java.io.FileWriter(tmp)));
+      pw.println("# Extreme speeds for transit calculations: " +
+                 "planet:index:flags:samples[:topo|sidereal mode] min max");
+      java.util.Enumeration keys = speeds.keys();
+      while (keys.hasMoreElements()) {
+        String key = (String)keys.nextElement();
+        double[] minmax = (double[])speeds.get(key);
+        pw.println(key + " " + minmax[0] + " " + minmax[1]);
+      }
+      pw.close();
+      pw = null;
+      if (!tmp.renameTo(f)) {
+        // Some platforms do not replace existing files on rename:
+        f.delete();
+        if (!tmp.renameTo(f)) {
+          throw new java.io.IOException("cannot rename " + tmp + " to " + f);
+        }
+      }
+    } catch (java.io.IOException ie) {
+      throw new SwissephException(1./0., SwissephException.FILE_ERROR,
+          SweConst.ERR, "Cannot write transit speeds file '" + fname +
+          "': " + ie.getMessage());
+    } finally {
+      if (pw != null) { pw.close(); }
+    }
+  }
+#endif /* JAVAME */
+
+  /**
+  * Forgets all extreme speeds calculated or read so far.
+  */
+  public static synchronized void clear() {
+    speeds.clear();
+  }
+
+
+  /**
+  * Returns the extreme speeds of an object, calculated from the speeds
+  * at precalcCount dates over the time range of the ephemeris and
+  * multiplied by the safety factor.
+  * @return {min, max}; min is infinite, if the speeds are not available
+  */
+  static double[] getSpeeds(SwissEph sw, int planet, int idx, int flags,
+                            int precalcCount, double precalcSafetyfactor) {
+    flags &= ~IGNORED_FLAGS;
+    String key = getKey(sw, planet, idx, flags, precalcCount);
+    double[] minmax = (double[])speeds.get(key);
+    if (minmax == null) {
+      minmax = calcSpeeds(sw, planet, idx, flags, precalcCount);
+      synchronized(TransitSpeeds.class) {
+        speeds.put(key, minmax);
+#ifndef JAVAME
+        if (speedsfile != null && writeable) {
+          save(speedsfile);
+        }
+#endif /* JAVAME */
+      }
+    }
+    double min = minmax[0];
+    double max = minmax[1];
+    if (!Double.isInfinite(min)) {
+      // Apply safety factor for the sampled extreme speeds:
+      switch ((int)Math.signum(min)) {
+        case -1 : min *= precalcSafetyfactor; break;
+        case  0 : min = -0.1; break;
+        case  1 : min /= precalcSafetyfactor; break;
+      }
+      switch ((int)Math.signum(max)) {
+        case -1 : max /= precalcSafetyfactor; break;
+        case  0 : max = 0.1; break;
+        case  1 : max *= precalcSafetyfactor; break;
+      }
+    }
+    return new double[] {min, max};
+  }
+
+  private static String getKey(SwissEph sw, int planet, int idx, int flags,
+                               int precalcCount) {
+    String key = planet + ":" + idx + ":" + flags + ":" + precalcCount;
+    if ((flags & SweConst.SEFLG_TOPOCTR) != 0) {
+      key += ":" + sw.swed.topd.geolon + "," + sw.swed.topd.geolat + "," +
+             sw.swed.topd.geoalt;
+    }
+    if ((flags & SweConst.SEFLG_SIDEREAL) != 0) {
+      key += ":" + sw.swed.sidd.sid_mode;
+    }
+    return key;
+  }
+
+  private static double[] calcSpeeds(SwissEph sw, int planet, int idx,
+                                     int flags, int precalcCount) {
+    StringBuffer serr = new StringBuffer();
+    double min = Double.MAX_VALUE;
+    double max = -Double.MAX_VALUE;
+
+    double[] timerange = new double[] { SwephData.MOSHPLEPH_START, SwephData.MOSHPLEPH_END };
+#ifndef JAVAME
+    // JavaME cannot look up the time range of an asteroid file. The dates
+    // outside of the file are skipped below then.
+    if (planet > SweConst.SE_AST_OFFSET) {
+      // get filename:
+      String fn = SwissLib.swi_gen_filename(2457264.5 /* doesn't matter */, planet);
+      // Unfortunately, the name from swi_gen_filename may be slightly different,
+      // so we have to test opening the filename and change the filename if
+      // the file does not exist or is not readable:
+      FilePtr fptr = null;
+      SwissephException se = null;
+      try {
+        fptr = sw.swi_fopen(SwephData.SEI_FILE_ANY_AST, fn, sw.swed.ephepath, serr);
+      } catch (SwissephException se1) {
+        se = se1;
+      }
+      if (fptr == null) {
+        /*
+         * try also for short files (..s.se1)
+         */
+        if (fn.indexOf("s.") <= 0) {
+          fn = fn.substring(0, fn.indexOf(".")) + "s." + SwephData.SE_FILE_SUFFIX;
+        }
+        try {
+          fptr = sw.swi_fopen(SwephData.SEI_FILE_ANY_AST, fn, sw.swed.ephepath, serr);
+        } catch (SwissephException se2) {
+          se = se2;
+        }
+      }
+      if (fptr == null) {
+          throw se;
+      }
+      try {
+        fptr.close();
+      } catch (Exception e) { }
+
+      // Now finally we have a filename for which we can get the time range,
+      // if the file can be found and is readable:
+      try {
+        timerange = sw.getDatafileTimerange(fn);
+      } catch (SwissephException se3) {
+      }
+    }
+#endif /* JAVAME */
+
+    // The dates are taken from the sequence of fractional parts of
+    // multiples of the golden ratio, which is spread evenly over the
+    // time range for any number of dates:
+    double[] xx = new double[6];
+    double x = 0.5;
+    for(int f = 0; f < precalcCount; f++) {
+      double jdET = x * (timerange[1] - timerange[0]) + timerange[0];
+      x += 0.6180339887498949;
+      if (x >= 1.) { x -= 1.; }
+      int ret = sw.swe_calc(jdET, planet, flags | SweConst.SEFLG_SPEED, xx, serr);
+      if (ret<0) {
+            continue;
+      }
+      if (min > xx[idx+3]) { min = xx[idx+3]; }
+      if (max < xx[idx+3]) { max = xx[idx+3]; }
+    }
+    if (min == max || min == Double.MAX_VALUE || max == -Double.MAX_VALUE) {
+      min = 1./0.;  // Use as flag
+    }
+    return new double[] {min, max};
+  }
+}
+#endif /* TRANSITS */
@@ -0,0 +1,104 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef JAVAME
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+import swisseph.*;
+
+/**
+* Test program for SwissEph.calcChartET() and calcChartUT(). 2000 charts
+* are calculated with several flag combinations, and every body of a chart
+* is compared to the result of swe_calc() resp. swe_calc_ut() for this
+* body alone, calculated by another SwissEph object. The Moshier
+* ephemeris is used, if no ephemeris path is given as parameter.<p>
+* The exit code is 0, if all results are identical, and 1 otherwise.
+* @see swisseph.SwissEph#calcChartET(double, int[], int, double[], int[], java.lang.StringBuffer)
+*/
+public class ChartTest {
+
+  static final int NCHARTS = 2000;
+  static final int[] BODIES = new int[] {
+    SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MERCURY,
+    SweConst.SE_VENUS, SweConst.SE_MARS, SweConst.SE_JUPITER,
+    SweConst.SE_SATURN, SweConst.SE_URANUS, SweConst.SE_NEPTUNE,
+    SweConst.SE_PLUTO, SweConst.SE_MEAN_NODE, SweConst.SE_TRUE_NODE,
+    SweConst.SE_MEAN_APOG, SweConst.SE_OSCU_APOG };
+  static final int[] FLAGS = new int[] {
+    SweConst.SEFLG_SPEED,
+    SweConst.SEFLG_SPEED | SweConst.SEFLG_EQUATORIAL,
+    SweConst.SEFLG_SPEED | SweConst.SEFLG_SIDEREAL,
+    SweConst.SEFLG_SPEED | SweConst.SEFLG_TOPOCTR,
+    SweConst.SEFLG_SPEED | SweConst.SEFLG_J2000 | SweConst.SEFLG_NONUT,
+    SweConst.SEFLG_TRUEPOS | SweConst.SEFLG_XYZ,
+    SweConst.SEFLG_SPEED | SweConst.SEFLG_HELCTR };
+  static final int[] SIDMODES = new int[] {
+    SweConst.SE_SIDM_LAHIRI,
+    SweConst.SE_SIDM_J2000 | SweConst.SE_SIDBIT_ECL_T0 };
+
+  public static void main(String[] p) {
+    String path = (p.length > 0 ? p[0] : null);
+    int ephe = (path == null ? SweConst.SEFLG_MOSEPH : SweConst.SEFLG_SWIEPH);
+    SwissEph chart = new SwissEph(path);
+    SwissEph single = new SwissEph(path);
+    chart.swe_set_topo(8.54, 47.38, 400);
+    single.swe_set_topo(8.54, 47.38, 400);
+    int n = BODIES.length;
+    double[] xx = new double[6 * n];
+    int[] retflags = new int[n];
+    double[] x = new double[6];
+    StringBuffer serr = new StringBuffer();
+    int ndiff = 0, ncalc = 0;
+    for (int c = 0; c < NCHARTS; c++) {
+      double tjd = 2415020.5 + c * 18.2621 + (c % 24) / 24.0;
+      boolean ut = (c % 2 == 1);
+      int sidmode = SIDMODES[(c / FLAGS.length) % SIDMODES.length];
+      chart.swe_set_sid_mode(sidmode, 0, 0);
+      single.swe_set_sid_mode(sidmode, 0, 0);
+      int iflag = FLAGS[c % FLAGS.length] | ephe;
+      if (ut) {
+        chart.calcChartUT(tjd, BODIES, iflag, xx, retflags, serr);
+      } else {
+        chart.calcChartET(tjd, BODIES, iflag, xx, retflags, serr);
+      }
+      for (int i = 0; i < n; i++) {
+        int rf;
+        if (ut) {
+          rf = single.swe_calc_ut(tjd, BODIES[i], iflag, x, serr);
+        } else {
+          rf = single.swe_calc(tjd, BODIES[i], iflag, x, serr);
+        }
+        ncalc++;
+        boolean same = (rf == retflags[i]);
+        for (int j = 0; j < 6; j++) {
+          if (Double.doubleToLongBits(x[j]) !=
+              Double.doubleToLongBits(xx[6 * i + j])) {
+            same = false;
+          }
+        }
+        if (!same) {
+          if (ndiff < 10) {
+            System.out.println("chart " + c + " (" + tjd + (ut ? " UT" : " ET") +
+                               "), body " + BODIES[i] + ", flags " + iflag +
+                               ": " + xx[6 * i] + " / " + retflags[i] +
+                               " instead of " + x[0] + " / " + rf);
+          }
+          ndiff++;
+        }
+      }
+    }
+    if (ndiff > 0) {
+      System.out.println("FAILED: " + ndiff + " differences");
+      System.exit(1);
+    }
+    System.out.println("OK: " + NCHARTS + " charts, " + ncalc + " bodies");
+  }
+}
+#endif /* ASTROLOGY */
+#endif /* JAVAME */
@@ -0,0 +1,127 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifndef JAVAME
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+import swisseph.*;
+
+/**
+* Test program for the calculation contexts of SwephResources. Several
+* threads calculate planets and houses with the contexts returned by
+* SwephResources.getContext(), and the results are compared to the
+* results of the same calculations in a single thread. The Moshier
+* ephemeris is used, so no ephemeris files are required.<p>
+* Invoke with the number of threads and the ephemeris path as optional
+* parameters. The exit code is 0, if all results are identical, and 1
+* otherwise.
+* @see swisseph.SwephResources
+*/
+public class ContextTest {
+
+  static final int NDATES = 2000;
+  static final int IFLAG = SweConst.SEFLG_MOSEPH | SweConst.SEFLG_SPEED;
+  static final int NPLANETS = SweConst.SE_OSCU_APOG + 1;
+  static final int NVALUES = NPLANETS * 6 + 13 + 10;
+
+  static double[] dates = new double[NDATES];
+
+  public static void main(String[] p) {
+    int nthreads = (p.length > 0 ? Integer.parseInt(p[0]) : 8);
+    String path = (p.length > 1 ? p[1] : null);
+    for (int i = 0; i < NDATES; i++) {
+      dates[i] = 2451545.0 + (i - NDATES / 2) * 37.123;
+    }
+    SwephResources res = new SwephResources(path);
+    double[][] expected = calcAll(res.newContext(), 0);
+    Worker[] w = new Worker[nthreads];
+    for (int i = 0; i < nthreads; i++) {
+      w[i] = new Worker(res, i);
+      w[i].start();
+    }
+    int ndiff = 0;
+    for (int i = 0; i < nthreads; i++) {
+      try {
+        w[i].join();
+      } catch (InterruptedException ie) {
+      }
+      if (w[i].result == null) {
+        System.out.println("thread " + i + " failed: " + w[i].error);
+        ndiff++;
+        continue;
+      }
+      for (int d = 0; d < NDATES; d++) {
+        for (int j = 0; j < NVALUES; j++) {
+          if (Double.doubleToLongBits(w[i].result[d][j]) !=
+              Double.doubleToLongBits(expected[d][j])) {
+            if (ndiff < 10) {
+              System.out.println("thread " + i + ", date " + dates[d] +
+                                 ", value " + j + ": " + w[i].result[d][j] +
+                                 " instead of " + expected[d][j]);
+            }
+            ndiff++;
+          }
+        }
+      }
+    }
+    if (ndiff > 0) {
+      System.out.println("FAILED: " + ndiff + " differences");
+      System.exit(1);
+    }
+    System.out.println("OK: " + nthreads + " threads, " + NDATES +
+                       " dates");
+  }
+
+  // Calculates all planets and the houses for all dates. The dates are
+  // calculated in a different order for each thread, starting at date
+  // index 'start'.
+  static double[][] calcAll(SwissEph sw, int start) {
+    double[][] r = new double[NDATES][NVALUES];
+    double[] xx = new double[6];
+    double[] cusp = new double[13];
+    double[] ascmc = new double[10];
+    StringBuffer serr = new StringBuffer();
+    for (int d = 0; d < NDATES; d++) {
+      int dd = (d + start) % NDATES;
+      double tjd = dates[dd];
+      for (int ipl = 0; ipl < NPLANETS; ipl++) {
+        if (sw.swe_calc_ut(tjd, ipl, IFLAG, xx, serr) < 0) {
+          throw new RuntimeException(serr.toString());
+        }
+        System.arraycopy(xx, 0, r[dd], ipl * 6, 6);
+      }
+      sw.swe_houses(tjd, 0, 47.38, 8.54, 'P', cusp, ascmc);
+      System.arraycopy(cusp, 0, r[dd], NPLANETS * 6, 13);
+      System.arraycopy(ascmc, 0, r[dd], NPLANETS * 6 + 13, 10);
+    }
+    return r;
+  }
+
+  static class Worker extends Thread {
+    SwephResources res;
+    int n;
+    double[][] result;
+    Throwable error;
+
+    Worker(SwephResources res, int n) {
+      this.res = res;
+      this.n = n;
+    }
+
+    public void run() {
+      try {
+        result = calcAll(res.getContext(), n * 97);
+      } catch (Throwable t) {
+        error = t;
+      }
+    }
+  }
+}
+#endif /* ASTROLOGY */
+#endif /* JAVAME */
@@ -0,0 +1,275 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifndef JAVAME
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+import swisseph.*;
+import java.io.*;
+
+/**
+* Test program for flat ephemeris files. The planetary and moon files of
+* the Swiss Ephemeris are copied into a temporary directory and converted
+* into flat files, then the planets are calculated from the .se1 files and
+* from the flat files, and the results are compared bit by bit. The cache
+* of unpacked segments is switched off, so each calculation really reads
+* the file.<p>
+* Invoke with the ephemeris path and the file number (18 for the files
+* sepl_18.se1 and semo_18.se1, 1800 - 2400 AD, no files before 0 AD) as
+* optional parameters. If the files are not found there, e.g. as only
+* Git LFS pointers are checked out, files in the same format with
+* synthetic coefficients are generated and used instead. They do not give
+* true planetary positions, but they are read and evaluated the same way.
+* The exit code is 0, if all results are identical, and 1 otherwise.
+* @see swisseph.FlatEphemeris
+*/
+public class FlatEphemerisTest {
+
+  static final int NDATES = 3000;
+  static final int[] FLAGS = new int[] {
+    SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED,
+    SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED | SweConst.SEFLG_HELCTR,
+    SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED | SweConst.SEFLG_BARYCTR |
+        SweConst.SEFLG_J2000 | SweConst.SEFLG_XYZ,
+    SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED | SweConst.SEFLG_TRUEPOS |
+        SweConst.SEFLG_EQUATORIAL
+  };
+
+  public static void main(String[] p) throws IOException {
+    String path = (p.length > 0 ? p[0] : "./ephe");
+    String fno = (p.length > 1 ? p[1] : "18");
+    String[] files = new String[] { "sepl_" + fno + ".se1",
+                                    "semo_" + fno + ".se1" };
+    boolean generate = false;
+    for (int i = 0; i < files.length; i++) {
+      if (!isSe1File(new File(path, files[i]))) {
+        System.out.println(files[i] + " not found in " + path +
+                           ", using generated files");
+        generate = true;
+      }
+    }
+    // Each file covers 600 years, starting with the century of its
+    // number:
+    int year = Integer.parseInt(fno) * 100;
+    File tmp = File.createTempFile("swflat", "");
+    tmp.delete();
+    tmp.mkdir();
+    try {
+      for (int i = 0; i < files.length; i++) {
+        if (generate) {
+          generate(new File(tmp, files[i]), i == 1,
+                   SweDate.getJulDay(year, 1, 1, 0),
+                   SweDate.getJulDay(year + 600, 1, 2, 0));
+        } else {
+          copy(new File(path, files[i]), new File(tmp, files[i]));
+        }
+        FlatEphemeris.convert(new File(tmp, files[i]).getPath(), null);
+      }
+      SegmentCache.setCapacity(0);
+      SwissEph se1 = new SwissEph(tmp.getPath());
+      SwissEph flat = new SwissEph(tmp.getPath());
+      for (int i = 0; i < files.length; i++) {
+        flat.setFlatEphemerisFile(files[i], true);
+      }
+      double[] xx1 = new double[6];
+      double[] xx2 = new double[6];
+      StringBuffer serr1 = new StringBuffer();
+      StringBuffer serr2 = new StringBuffer();
+      double tjd0 = SweDate.getJulDay(year, 1, 2, 0);
+      double tjd1 = SweDate.getJulDay(year + 600, 1, 1, 0);
+      int ndiff = 0, ncalc = 0;
+      for (int d = 0; d < NDATES; d++) {
+        for (int ipl = SweConst.SE_SUN; ipl <= SweConst.SE_PLUTO; ipl++) {
+          for (int f = 0; f < FLAGS.length; f++) {
+            double tjd = tjd0 + (tjd1 - tjd0) * d / NDATES;
+            serr1.setLength(0);
+            serr2.setLength(0);
+            int rc1 = se1.swe_calc(tjd, ipl, FLAGS[f], xx1, serr1);
+            int rc2 = flat.swe_calc(tjd, ipl, FLAGS[f], xx2, serr2);
+            ncalc++;
+            boolean same = (rc1 == rc2 &&
+                            serr1.toString().equals(serr2.toString()));
+            for (int i = 0; i < 6; i++) {
+              same &= (Double.doubleToLongBits(xx1[i]) ==
+                       Double.doubleToLongBits(xx2[i]));
+            }
+            if (!same) {
+              if (ndiff < 10) {
+                System.out.println("date " + tjd + ", planet " + ipl +
+                                   ", flags " + FLAGS[f] + ": " + rc2 + " " +
+                                   xx2[0] + " " + serr2 + " instead of " +
+                                   rc1 + " " + xx1[0] + " " + serr1);
+              }
+              ndiff++;
+            }
+          }
+        }
+      }
+      se1.swe_close();
+      flat.swe_close();
+      if (ndiff > 0) {
+        System.out.println("FAILED: " + ndiff + " of " + ncalc +
+                           " calculations differ");
+        System.exit(1);
+      }
+      System.out.println("OK: " + ncalc + " calculations");
+    } finally {
+      File[] fl = tmp.listFiles();
+      for (int i = 0; fl != null && i < fl.length; i++) {
+        fl[i].delete();
+      }
+      tmp.delete();
+    }
+  }
+
+  // Git LFS pointers are small text files:
+  static boolean isSe1File(File f) throws IOException {
+    if (!f.isFile()) {
+      return false;
+    }
+    InputStream is = new FileInputStream(f);
+    try {
+      byte[] buf = new byte[8];
+      return is.read(buf) == buf.length &&
+             new String(buf, "ISO-8859-1").equals("SWISSEPH");
+    } finally {
+      is.close();
+    }
+  }
+
+  // Writes a planetary file (Earth-Moon barycenter, Mercury to Pluto and
+  // the barycentric Sun) or a moon file from tjd0 to tjd1 in the format of
+  // the Swiss Ephemeris files. The Chebyshev coefficients of the segments
+  // describe slow circular motions with some random noise.
+  static void generate(File f, boolean moon, double tjd0, double tjd1)
+      throws IOException {
+    int[] ipl = (moon ? new int[] { 1 } :
+                        new int[] { 0, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+    double dseg = (moon ? 8. : 32.);
+    int ncoe = (moon ? 12 : 10);
+    double rmax = (moon ? 0.004 : 50.);
+    java.util.Random rnd = new java.util.Random(f.getName().hashCode());
+    ByteArrayOutputStream bs = new ByteArrayOutputStream();
+    DataOutputStream os = new DataOutputStream(bs);
+    os.writeBytes("SWISSEPH VERSION 1\r\n" + f.getName() + "\r\n" +
+                  "generated test file\r\n");
+    os.writeInt(0x616263);          // endian test
+    int lenPos = os.size();
+    os.writeInt(0);                 // file length, set below
+    os.writeInt(431);               // DE number
+    os.writeDouble(tjd0);
+    os.writeDouble(tjd1);
+    os.writeShort(ipl.length);
+    for (int i = 0; i < ipl.length; i++) {
+      os.writeShort(ipl[i]);
+    }
+    int crcPos = os.size();
+    os.writeInt(0);                 // CRC of the header, set below
+    os.writeDouble(2.99792458e8);   // clight
+    os.writeDouble(1.49597870691e11); // aunit
+    os.writeDouble(1.32712440017987e20); // helgravconst
+    os.writeDouble(81.30056);       // ratme
+    os.writeDouble(6.96e8);         // sunradius
+    int nndx = (int)((tjd1 - tjd0) / dseg) + 1;
+    int segSize = 3 * (4 + ncoe * 4);
+    int[] lndx = new int[ipl.length];
+    int pos = os.size() + ipl.length * (4 + 1 + 1 + 4 + 10 * 8);
+    for (int k = 0; k < ipl.length; k++) {
+      lndx[k] = pos;
+      pos += nndx * 3 + nndx * segSize;
+    }
+    int flen = pos;
+    for (int k = 0; k < ipl.length; k++) {
+      os.writeInt(lndx[k]);
+      os.writeByte(0);              // flags
+      os.writeByte(ncoe);
+      os.writeInt((int)Math.round(rmax * 1000));
+      os.writeDouble(tjd0);
+      os.writeDouble(tjd1);
+      os.writeDouble(dseg);
+      for (int i = 0; i < 7; i++) { // no orbital elements
+        os.writeDouble(0.);
+      }
+    }
+    for (int k = 0; k < ipl.length; k++) {
+      // The index of the segments:
+      int segStart = lndx[k] + nndx * 3;
+      for (int s = 0; s < nndx; s++) {
+        int p = segStart + s * segSize;
+        os.writeByte(p >>> 16);
+        os.writeShort(p & 0xffff);
+      }
+      double r = rmax * (0.3 + 0.5 * rnd.nextDouble());
+      double w = 2 * Math.PI / (dseg * (5 + 100 * rnd.nextDouble()));
+      for (int s = 0; s < nndx; s++) {
+        for (int c = 0; c < 3; c++) {
+          // All coefficients are stored in 4 bytes:
+          os.writeByte(128);
+          os.writeByte(ncoe << 4);
+          os.writeByte(0);
+          os.writeByte(0);
+          double ph = w * (s + 0.5) * dseg + c * 2.1;
+          double z = (c == 2 ? 0.05 : 1.);
+          for (int j = 0; j < ncoe; j++) {
+            double v;
+            if (j == 0) {
+              v = z * r * Math.cos(ph);
+            } else if (j == 1) {
+              v = -z * r * Math.sin(ph) * w * dseg / 2;
+            } else {
+              v = r * 1e-4 * (rnd.nextDouble() - 0.5) / j;
+            }
+            long l = Math.round(Math.abs(v) * 2e9 / rmax);
+            os.writeInt((int)(v < 0 ? 2 * l - 1 : 2 * l));
+          }
+        }
+      }
+    }
+    byte[] b = bs.toByteArray();
+    setInt(b, lenPos, flen);
+    setInt(b, crcPos, crc32(b, crcPos));
+    OutputStream fo = new FileOutputStream(f);
+    try {
+      fo.write(b);
+    } finally {
+      fo.close();
+    }
+  }
+
+  static void setInt(byte[] b, int pos, int val) {
+    for (int i = 0; i < 4; i++) {
+      b[pos + i] = (byte)(val >>> (24 - 8 * i));
+    }
+  }
+
+  // The CRC of the file header as checked by the Swiss Ephemeris:
+  static int crc32(byte[] b, int len) {
+    int crc = 0xffffffff;
+    for (int i = 0; i < len; i++) {
+      int c = ((crc >>> 24) ^ (b[i] & 0xff)) << 24;
+      for (int j = 0; j < 8; j++) {
+        c = ((c & 0x80000000) != 0 ? (c << 1) ^ 0x04c11db7 : c << 1);
+      }
+      crc = (crc << 8) ^ c;
+    }
+    return ~crc;
+  }
+
+  static void copy(File from, File to) throws IOException {
+    InputStream is = new FileInputStream(from);
+    OutputStream os = new FileOutputStream(to);
+    try {
+      byte[] buf = new byte[65536];
+      int n;
+      while ((n = is.read(buf)) > 0) {
+        os.write(buf, 0, n);
+      }
+    } finally {
+      is.close();
+      os.close();
+    }
+  }
+}
+#endif /* JAVAME */
@@ -0,0 +1,141 @@
+#ifdef J2ME
+#define JAVAME
+#endif /* J2ME */
+#ifdef NO_RISE_TRANS
+#define ASTROLOGY
+#endif /* NO_RISE_TRANS */
+#ifdef TEST_ITERATIONS
+#define TRANSITS
+#endif /* TEST_ITERATIONS */
+#ifdef EXTPRECISION
+#define TRANSITS
+#endif /* EXTPRECISION */
+#ifdef TRANSITS
+#ifndef JAVAME
+#ifndef ASTROLOGY
+/*
+   This is an extension to the Java port of the Swiss Ephemeris package
+   of Astrodienst AG, Zuerich (Switzerland).
+*/
+import swisseph.*;
+
+/**
+* Test program for ParallelTransitSearch. The transits of several
+* TransitCalculators are searched with a ParallelTransitSearch on four
+* threads and in the calling thread, and they are compared bit by bit to
+* the transits of a TransitIterator over the whole time range. The
+* Moshier ephemeris is used, if no ephemeris path is given as
+* parameter. With a custom window size, the transits are found in other
+* steps, so they are compared within one second only. One search uses
+* interpolated precession and nutation, which the calculation contexts
+* of the threads have to take over.<p>
+* The exit code is 0, if all results are identical, and 1 otherwise.
+* Compile the package with the TRANSITS option to run it.
+* @see swisseph.ParallelTransitSearch
+* @see swisseph.TransitIterator
+*/
+public class TransitSearchTest {
+
+  static final double JD1900 = 2415020.5;
+  static final double JD2100 = 2488069.5;
+
+  public static void main(String[] p) {
+    String path = (p.length > 0 ? p[0] : null);
+    int ephe = (path == null ? SweConst.SEFLG_MOSEPH : SweConst.SEFLG_SWIEPH);
+    SwephResources res = new SwephResources(path);
+    SwissEph sw = res.getContext();
+    java.util.concurrent.ForkJoinPool pool =
+        new java.util.concurrent.ForkJoinPool(4);
+    ParallelTransitSearch[] searches = new ParallelTransitSearch[] {
+      new ParallelTransitSearch(res, pool),
+      new ParallelTransitSearch(res, null),
+      new ParallelTransitSearch(res, pool) };
+    searches[2].setWindowSize(30.);
+    int lon = SweConst.SEFLG_TRANSIT_LONGITUDE | ephe;
+    int ndiff = 0;
+    SwissEph isw = res.newContext();
+    isw.setPrecessionInterpolation(1.);
+    isw.setNutationInterpolation(0.5);
+    try {
+      for (int s = 0; s < searches.length; s++) {
+        // Stations of Mars:
+        ndiff += compare("Mars stations", searches[s], sw,
+            new TCPlanet(sw, SweConst.SE_MARS,
+                         lon | SweConst.SEFLG_TRANSIT_SPEED, 0.),
+            JD1900, JD2100, false);
+        ndiff += compare("Moon at 0 degrees", searches[s], sw,
+            new TCPlanet(sw, SweConst.SE_MOON, lon, 0.),
+            JD1900, JD1900 + 20 * 365.25, false);
+        ndiff += compare("Sun at 90 degrees backwards", searches[s], sw,
+            new TCPlanet(sw, SweConst.SE_SUN, lon, 90.),
+            JD2100, JD1900, false);
+        ndiff += compare("Venus at 10 degrees in UT", searches[s], sw,
+            new TCPlanet(sw, SweConst.SE_VENUS, lon, 10.),
+            JD1900, JD2100, true);
+        ndiff += compare("Mars square Jupiter", searches[s], sw,
+            new TCPlanetPlanet(sw, SweConst.SE_MARS, SweConst.SE_JUPITER,
+                               lon, 90.),
+            JD1900, JD2100, false);
+        ndiff += compare("Moon with interpolation", searches[s], isw,
+            new TCPlanet(isw, SweConst.SE_MOON, lon, 90.),
+            JD1900, JD1900 + 20 * 365.25, false);
+      }
+      // Other ephemeris files than the files of the resources:
+      SwissEph other = new SwissEph("./notthere");
+      try {
+        searches[0].getTransitsET(new TCPlanet(other, SweConst.SE_SUN, lon,
+                                               0.), JD1900, JD2100);
+        System.out.println("Other ephemeris path: no exception");
+        ndiff++;
+      } catch (IllegalArgumentException e) {
+      }
+    } finally {
+      pool.shutdown();
+    }
+    if (ndiff > 0) {
+      System.out.println("FAILED: " + ndiff + " differences");
+      System.exit(1);
+    }
+    System.out.println("OK: " + count + " transits");
+  }
+
+  static int count = 0;
+
+  // Returns the number of transits, which differ between the parallel
+  // search and the TransitIterator:
+  static int compare(String name, ParallelTransitSearch ps, SwissEph sw,
+                     TransitCalculator tc, double jdStart, double jdEnd,
+                     boolean ut) {
+    TransitIterator ti = (ut ? sw.getTransitsUT(tc, jdStart, jdEnd) :
+                               sw.getTransitsET(tc, jdStart, jdEnd));
+    double[] seq = ti.getRemainingTransits();
+    double[] par = (ut ? ps.getTransitsUT(tc, jdStart, jdEnd) :
+                         ps.getTransitsET(tc, jdStart, jdEnd));
+    double tolerance = (ps.getWindowSize() == 0. ? 0. : 1. / 86400.);
+    int ndiff = Math.abs(seq.length - par.length);
+    for (int i = 0; i < seq.length && i < par.length; i++) {
+      if (tolerance == 0. ?
+          Double.doubleToLongBits(seq[i]) != Double.doubleToLongBits(par[i]) :
+          !(Math.abs(seq[i] - par[i]) <= tolerance)) {
+        ndiff++;
+      }
+    }
+    if (ndiff > 0) {
+      System.out.println(name + ", window size " + ps.getWindowSize() +
+                         ": " + par.length + " transits instead of " +
+                         seq.length + ", " + ndiff + " differences");
+      for (int i = 0, n = 0; n < 5 && i < seq.length && i < par.length;
+           i++) {
+        if (!(Math.abs(seq[i] - par[i]) <= tolerance)) {
+          System.out.println("  " + par[i] + " instead of " + seq[i]);
+          n++;
+        }
+      }
+    }
+    count += seq.length;
+    return ndiff;
+  }
+}
+#endif /* ASTROLOGY */
+#endif /* JAVAME */
+#endif /* TRANSITS */